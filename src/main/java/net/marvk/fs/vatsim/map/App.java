@@ -20,8 +20,10 @@ import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.configuration.*;
+import net.marvk.fs.vatsim.map.data.ClientRepository;
 import net.marvk.fs.vatsim.map.data.Preferences;
 import net.marvk.fs.vatsim.map.data.Writable;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
 import net.marvk.fs.vatsim.map.view.Notifications;
 import net.marvk.fs.vatsim.map.view.main.MainView;
 import net.marvk.fs.vatsim.map.view.main.MainViewModel;
@@ -107,6 +109,8 @@ public class App extends MvvmfxGuiceApplication {
             if (preferences instanceof Writable) {
                 ((Writable) preferences).write();
             }
+            DependencyInjector.getInstance().getInstanceOf(ClientRepository.class).write();
+            DependencyInjector.getInstance().getInstanceOf(TaskExecutors.class).shutdown();
             Platform.exit();
             System.exit(0);
         });
@@ -10,20 +10,20 @@ public class Debouncer {
 
     private ScheduledFuture<?> future;
 
-    public Debouncer(final Runnable runnable, final Duration delay) {
+    public Debouncer(final Runnable runnable, final Duration delay, final ScheduledExecutorService executor) {
         this((Callable<Void>) () -> {
             runnable.run();
             return null;
-        }, delay);
+        }, delay, executor);
     }
 
-    public Debouncer(final Callable<?> callable, final Duration delay) {
+    public Debouncer(final Callable<?> callable, final Duration delay, final ScheduledExecutorService executor) {
         this.callable = callable;
         this.delay = delay;
-        this.executor = Executors.newSingleThreadScheduledExecutor();
+        this.executor = executor;
     }
 
-    public void callDebounced() {
+    public synchronized void callDebounced() {
         if (future != null && !future.isDone()) {
             future.cancel(false);
         }
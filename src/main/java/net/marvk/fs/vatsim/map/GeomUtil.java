@@ -61,6 +61,49 @@ public final class GeomUtil {
         return result;
     }
 
+    /**
+     * Writes the great circle between {@code origin} and {@code destination} to {@code xs} and {@code ys}, using the
+     * length of {@code xs} as the number of points. Same as {@link #greatCirclePolyline(Point2D, Point2D, Point2D[])},
+     * without allocating.
+     */
+    public static void greatCirclePolyline(final Point2D origin, final Point2D destination, final double[] xs, final double[] ys) {
+        final int n = xs.length;
+        final double d = distanceInRadiansOnMsl(origin, destination);
+
+        final double lon1 = toRadians(origin.getX()); // λ1
+        final double lat1 = toRadians(origin.getY()); // φ1
+
+        final double lon2 = toRadians(destination.getX()); // λ2
+        final double lat2 = toRadians(destination.getY()); // φ2
+
+        double lastX = Double.NaN;
+        double shiftX = 0;
+        for (int i = 0; i < n; i++) {
+            final double f = (double) i / (n - 1);
+
+            final double a = sin((1 - f) * d) / sin(d);
+            final double b = sin(f * d) / sin(d);
+            final double x = a * cos(lat1) * cos(lon1) + b * cos(lat2) * cos(lon2);
+            final double y = a * cos(lat1) * sin(lon1) + b * cos(lat2) * sin(lon2);
+            final double z = a * sin(lat1) + b * sin(lat2);
+
+            final double curX = toDegrees(atan2(y, x));
+
+            // Shift past 180th for easier drawing
+            if (!Double.isNaN(lastX)) {
+                final double abs = abs(lastX - curX);
+                if (lastX != 0 && abs > 180) {
+                    shiftX = Math.signum(lastX) * 360;
+                }
+            }
+
+            xs[i] = curX + shiftX;
+            ys[i] = toDegrees(atan2(z, sqrt(x * x + y * y)));
+
+            lastX = curX;
+        }
+    }
+
     public static Point2D[] greatCirclePolyline(final Point2D origin, final Point2D destination) {
         return greatCirclePolyline(origin, destination, new Point2D[51]);
     }
@@ -7,12 +7,16 @@ import com.google.inject.name.Named;
 import lombok.extern.slf4j.Slf4j;
 import net.marvk.fs.vatsim.api.*;
 import net.marvk.fs.vatsim.map.data.*;
+import net.marvk.fs.vatsim.map.executor.DefaultTaskExecutors;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
+import net.marvk.fs.vatsim.map.view.preferences.PainterParameters;
 import net.marvk.fs.vatsim.map.view.preferences.PreferencesView;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 
 import java.io.IOException;
 import java.net.URL;
+import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
@@ -22,8 +26,12 @@ import java.util.stream.Collectors;
 public class AppModule extends AbstractModule {
     @Override
     protected void configure() {
+        bind(TaskExecutors.class).to(DefaultTaskExecutors.class).in(Singleton.class);
         bind(VatsimApiUrlProvider.class).to(UrlProviderV3.class).in(Singleton.class);
-        bind(VatsimApiDataSource.class).to(ProxyDataSource.class).in(Singleton.class);
+        bind(ProxyDataSource.class).in(Singleton.class);
+        bind(VatsimApiDataSource.class).to(ProxyDataSource.class);
+        bind(ConditionalDataSource.class).to(ProxyDataSource.class);
+        bind(AsyncHttpDataSource.class).in(Singleton.class);
         bind(AirportRepository.class).in(Singleton.class);
         bind(ClientRepository.class).in(Singleton.class);
         bind(FlightInformationRegionRepository.class).in(Singleton.class);
@@ -37,6 +45,7 @@ public class AppModule extends AbstractModule {
         bind(CustomColorSchemeRepository.class).in(Singleton.class);
         bind(PackagedColorSchemeRepository.class).in(Singleton.class);
         bind(Preferences.class).to(ConfigFilePreferences.class).asEagerSingleton();
+        bind(PainterParameters.class).asEagerSingleton();
         bind(PreferencesView.class).asEagerSingleton();
         bind(TimeProvider.class).toInstance(new UpdatingTimeProvider(Duration.ofMinutes(1), true));
     }
@@ -61,11 +70,45 @@ public class AppModule extends AbstractModule {
 
     @Provides
     @Singleton
-    @Named("httpDataSource")
-    private VatsimApiDataSource vatsimApiDataSource(final CloseableHttpClient closeableHttpClient) {
+    private HttpClient httpClient() {
+        return HttpClient
+                .newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Provides
+    @Singleton
+    @Named("fallbackDataSource")
+    private VatsimApiDataSource fallbackDataSource(final CloseableHttpClient closeableHttpClient) {
         return new HttpDataSource(closeableHttpClient);
     }
 
+    @Provides
+    @Named("httpDataSource")
+    private VatsimApiDataSource vatsimApiDataSource(final AsyncHttpDataSource dataSource) {
+        return dataSource;
+    }
+
+    @Provides
+    @Named("vatsimDataUrl")
+    public String vatsimDataUrl() {
+        return "https://data.vatsim.net/v3/vatsim-data.json";
+    }
+
+    @Provides
+    @Named("vatsimMapDataUrl")
+    public String vatsimMapDataUrl() {
+        return "https://api.vatsim.net/api/map_data/";
+    }
+
+    @Provides
+    @Named("vatsimApiTimeout")
+    public Duration vatsimApiTimeout() {
+        return Duration.ofSeconds(30);
+    }
+
     @Provides
     @Named("licenseFileName")
     public String licenseFileName() {
@@ -78,6 +121,12 @@ public class AppModule extends AbstractModule {
         return "airlines.csv";
     }
 
+    @Provides
+    @Named("airlineTableFileName")
+    public String airlineTableFileName() {
+        return "airlines.bin";
+    }
+
     @Provides
     @Singleton
     public VatsimApi vatsimApi(final VatsimApiDataSource dataSource) {
@@ -104,15 +153,19 @@ public class AppModule extends AbstractModule {
     @Provides
     @Singleton
     @Named("world")
-    public PolygonRepository world(@Named("worldShapefileUrl") final List<String> shapefileUrls) throws IOException {
-        return new PolygonRepository(shapefileUrls, shpUrls(shapefileUrls));
-    }
-
-    @Provides
-    @Singleton
-    @Named("lakes")
-    public PolygonRepository lakes(@Named("lakesShapefileUrl") final List<String> shapefileUrls) throws IOException {
-        return new PolygonRepository(shapefileUrls, shpUrls(shapefileUrls));
+    public PolygonRepository world(
+            @Named("worldShapefileUrl") final List<String> shapefileUrls,
+            @Named("lakesShapefileUrl") final List<String> lakesShapefileUrls,
+            final GeometryCache cache
+    ) throws IOException {
+        return new PolygonRepository(
+                shapefileUrls,
+                shpUrls(shapefileUrls),
+                cache,
+                lakesShapefileUrls,
+                shpUrls(lakesShapefileUrls),
+                true
+        );
     }
 
     @Provides
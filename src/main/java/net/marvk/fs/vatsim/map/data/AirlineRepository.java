@@ -2,89 +2,93 @@ package net.marvk.fs.vatsim.map.data;
 
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
-import javafx.beans.property.ReadOnlyListProperty;
+import javafx.collections.ObservableList;
 import lombok.extern.log4j.Log4j2;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Airlines from the {@link AirlineTable} compiled during the build. Falls back to parsing the csv file if the
+ * compiled table is not on the classpath, for example when running from an IDE without the build step.
+ */
 @Log4j2
-public class AirlineRepository extends FileLineRepository<Airline> {
-    private static final Pattern AIRLINE_PATTERN = Pattern.compile("^(?<id>-?\\d+),\"?(?<name>.*?)\"?,\"?(?<alias>.*?)\"?,\"?(?<iata>.*?)\"?,\"?(?<icao>.*?)\"?,\"?(?<callsign>.*?)\"?,\"?(?<country>.*?)\"?,\"?(?<active>.*?)\"?$");
-    private Map<String, Airline> lookup = new HashMap<>();
+public class AirlineRepository implements ReadOnlyRepository<Airline> {
+    private final String airlineFileName;
+    private final String airlineTableFileName;
+
+    private volatile AirlineTable table;
+    private ObservableList<Airline> airlines;
 
     @Inject
-    public AirlineRepository(@Named("airlineFileName") final String airlineFileName) {
-        super(airlineFileName);
+    public AirlineRepository(
+            @Named("airlineFileName") final String airlineFileName,
+            @Named("airlineTableFileName") final String airlineTableFileName
+    ) {
+        this.airlineFileName = airlineFileName;
+        this.airlineTableFileName = airlineTableFileName;
     }
 
-    @Override
-    public String extractKey(final Airline airline) {
-        return airline.getIcao();
+    /**
+     * Loads the airline table if it is not loaded yet.
+     */
+    public synchronized void load() {
+        if (table != null) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        try (final InputStream compiled = getClass().getResourceAsStream(airlineTableFileName)) {
+            if (compiled != null) {
+                table = AirlineTable.read(compiled);
+            } else {
+                log.warn("Compiled airline table %s not found, parsing %s".formatted(airlineTableFileName, airlineFileName));
+                table = parseCsv();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Loaded %d airlines in %d ms".formatted(table.size(), (System.nanoTime() - start) / 1_000_000));
     }
 
-    @Override
-    protected ReadOnlyListProperty<Airline> load() {
-        final ReadOnlyListProperty<Airline> result = super.load();
-        for (final Airline airline : result) {
-            final String key = extractKey(airline);
-            lookup.compute(key, (unused, oldValue) -> {
-                if (oldValue == null) {
-                    return airline;
-                }
-                if (!oldValue.isActive()) {
-                    return airline;
-                }
-                if (!airline.isActive()) {
-                    return oldValue;
-                }
-                log.warn("Duplicate Airline \"%s\"".formatted(key));
-                return oldValue;
-            });
+    private AirlineTable parseCsv() throws IOException {
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(airlineFileName), StandardCharsets.UTF_8))) {
+            return AirlineTable.parse(reader);
         }
-        return result;
     }
 
-    @Override
-    protected Stream<Airline> preSave(final Stream<Airline> stream) {
-        return super.preSave(stream).filter(e -> e.getIcao() != null).filter(e -> e.getAirlineId() >= 0);
+    private AirlineTable table() {
+        if (table == null) {
+            load();
+        }
+
+        return table;
     }
 
     @Override
-    protected Optional<Airline> parseLine(final String line) {
-        final Matcher matcher = AIRLINE_PATTERN.matcher(line);
-        if (matcher.matches()) {
-            return Optional.of(new Airline(
-                    Integer.parseInt(parse(matcher, "id")),
-                    parse(matcher, "name"),
-                    parse(matcher, "alias"),
-                    parse(matcher, "iata"),
-                    parse(matcher, "icao"),
-                    parse(matcher, "callsign"),
-                    parse(matcher, "country"),
-                    parse(matcher, "active") != null && !"N".equalsIgnoreCase(parse(matcher, "active"))
-            ));
-        } else {
-            return Optional.empty();
+    public synchronized ObservableList<Airline> list() {
+        if (airlines == null) {
+            final AirlineTable table = table();
+            final List<Airline> result = new ArrayList<>(table.size());
+            for (int i = 0; i < table.size(); i++) {
+                result.add(table.get(i));
+            }
+            airlines = new ImmutableListProperty<>(result);
         }
+
+        return airlines;
     }
 
     @Override
     public Airline getByKey(final String key) {
-        return lookup.get(key);
-    }
-
-    private String parse(final Matcher matcher, final String groupName) {
-        final String result = matcher.group(groupName);
-
-        if (result == null || result.isBlank() || "\\N".equalsIgnoreCase(result)) {
-            return null;
-        }
-
-        return result;
+        return table().getByIcao(key);
     }
 }
@@ -0,0 +1,338 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Column oriented table of the bundled airlines with a sorted ICAO index.
+ * <p>
+ * The table is compiled from {@code airlines.csv} into a compact binary resource during the build by {@link #main},
+ * so startup only reads the columns. {@link Airline} instances are created on first access.
+ */
+@Log4j2
+public final class AirlineTable {
+    private static final Pattern AIRLINE_PATTERN = Pattern.compile("^(?<id>-?\\d+),\"?(?<name>.*?)\"?,\"?(?<alias>.*?)\"?,\"?(?<iata>.*?)\"?,\"?(?<icao>.*?)\"?,\"?(?<callsign>.*?)\"?,\"?(?<country>.*?)\"?,\"?(?<active>.*?)\"?$");
+
+    private static final int MAGIC = 0x5650414C;
+    private static final int FORMAT_VERSION = 1;
+
+    private final int[] ids;
+    private final String[] names;
+    private final String[] aliases;
+    private final String[] iatas;
+    private final String[] icaos;
+    private final String[] callsigns;
+    private final String[] countries;
+    private final boolean[] active;
+    private final SortedIndex icaoIndex;
+
+    private final AtomicReferenceArray<Airline> airlines;
+
+    private AirlineTable(
+            final int[] ids,
+            final String[] names,
+            final String[] aliases,
+            final String[] iatas,
+            final String[] icaos,
+            final String[] callsigns,
+            final String[] countries,
+            final boolean[] active,
+            final SortedIndex icaoIndex
+    ) {
+        this.ids = ids;
+        this.names = names;
+        this.aliases = aliases;
+        this.iatas = iatas;
+        this.icaos = icaos;
+        this.callsigns = callsigns;
+        this.countries = countries;
+        this.active = active;
+        this.icaoIndex = icaoIndex;
+        this.airlines = new AtomicReferenceArray<>(ids.length);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    Airline get(final int row) {
+        final Airline airline = airlines.get(row);
+
+        if (airline != null) {
+            return airline;
+        }
+
+        airlines.compareAndSet(row, null, new Airline(
+                ids[row],
+                names[row],
+                aliases[row],
+                iatas[row],
+                icaos[row],
+                callsigns[row],
+                countries[row],
+                active[row]
+        ));
+
+        return airlines.get(row);
+    }
+
+    /**
+     * @return the airline with the ICAO designator, preferring active airlines, or {@code null} if there is none
+     */
+    Airline getByIcao(final CharSequence icao) {
+        final int row = icaoIndex.get(icao);
+        return row < 0 ? null : get(row);
+    }
+
+    /**
+     * Parses the airlines in the OpenFlights {@code airlines.dat} format, skipping airlines without an ICAO designator.
+     */
+    static AirlineTable parse(final BufferedReader reader) throws IOException {
+        final List<String[]> rows = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+        final List<Boolean> active = new ArrayList<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final Matcher matcher = AIRLINE_PATTERN.matcher(line);
+
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            final int id = Integer.parseInt(parse(matcher, "id"));
+            final String icao = parse(matcher, "icao");
+
+            if (icao == null || id < 0) {
+                continue;
+            }
+
+            ids.add(id);
+            rows.add(new String[]{
+                    parse(matcher, "name"),
+                    parse(matcher, "alias"),
+                    parse(matcher, "iata"),
+                    icao,
+                    parse(matcher, "callsign"),
+                    parse(matcher, "country")
+            });
+            final String activeString = parse(matcher, "active");
+            active.add(activeString != null && !"N".equalsIgnoreCase(activeString));
+        }
+
+        final int size = rows.size();
+        final String[][] columns = new String[6][size];
+        final int[] idColumn = new int[size];
+        final boolean[] activeColumn = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            for (int column = 0; column < columns.length; column++) {
+                columns[column][i] = rows.get(i)[column];
+            }
+            idColumn[i] = ids.get(i);
+            activeColumn[i] = active.get(i);
+        }
+
+        return new AirlineTable(
+                idColumn,
+                columns[0],
+                columns[1],
+                columns[2],
+                columns[3],
+                columns[4],
+                columns[5],
+                activeColumn,
+                icaoIndex(columns[3], activeColumn)
+        );
+    }
+
+    /**
+     * Resolves duplicate ICAO designators to the first active airline, or the last inactive one if none is active.
+     */
+    private static SortedIndex icaoIndex(final String[] icaos, final boolean[] active) {
+        final SortedMap<String, Integer> rows = new TreeMap<>();
+
+        for (int i = 0; i < icaos.length; i++) {
+            final int row = i;
+            rows.compute(icaos[i], (key, oldValue) -> {
+                if (oldValue == null || !active[oldValue]) {
+                    return row;
+                }
+                if (active[row]) {
+                    log.warn("Duplicate Airline \"%s\"".formatted(key));
+                }
+                return oldValue;
+            });
+        }
+
+        final String[] keys = rows.keySet().toArray(String[]::new);
+        final int[] values = rows.values().stream().mapToInt(Integer::intValue).toArray();
+
+        return SortedIndex.of(keys, values);
+    }
+
+    private static String parse(final Matcher matcher, final String groupName) {
+        final String result = matcher.group(groupName);
+
+        if (result == null || result.isBlank() || "\\N".equalsIgnoreCase(result)) {
+            return null;
+        }
+
+        return result;
+    }
+
+    static AirlineTable read(final InputStream inputStream) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown airline table format");
+        }
+
+        final String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] bytes = new byte[readVarInt(in)];
+            in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        final int size = in.readInt();
+        final int[] ids = new int[size];
+        final String[] names = new String[size];
+        final String[] aliases = new String[size];
+        final String[] iatas = new String[size];
+        final String[] icaos = new String[size];
+        final String[] callsigns = new String[size];
+        final String[] countries = new String[size];
+        final boolean[] active = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            ids[i] = readVarInt(in);
+            names[i] = readString(in, strings);
+            aliases[i] = readString(in, strings);
+            iatas[i] = readString(in, strings);
+            icaos[i] = readString(in, strings);
+            callsigns[i] = readString(in, strings);
+            countries[i] = readString(in, strings);
+            active[i] = in.readBoolean();
+        }
+
+        final int indexSize = in.readInt();
+        final String[] keys = new String[indexSize];
+        final int[] values = new int[indexSize];
+
+        for (int i = 0; i < indexSize; i++) {
+            keys[i] = readString(in, strings);
+            values[i] = readVarInt(in);
+        }
+
+        return new AirlineTable(ids, names, aliases, iatas, icaos, callsigns, countries, active, SortedIndex.of(keys, values));
+    }
+
+    void write(final OutputStream outputStream) throws IOException {
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        for (final String[] column : List.of(names, aliases, iatas, icaos, callsigns, countries)) {
+            for (final String s : column) {
+                if (s != null) {
+                    strings.putIfAbsent(s, strings.size());
+                }
+            }
+        }
+
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+
+        out.writeInt(strings.size());
+        for (final String s : strings.keySet()) {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        out.writeInt(size());
+        for (int i = 0; i < size(); i++) {
+            writeVarInt(out, ids[i]);
+            writeString(out, strings, names[i]);
+            writeString(out, strings, aliases[i]);
+            writeString(out, strings, iatas[i]);
+            writeString(out, strings, icaos[i]);
+            writeString(out, strings, callsigns[i]);
+            writeString(out, strings, countries[i]);
+            out.writeBoolean(active[i]);
+        }
+
+        out.writeInt(icaoIndex.size());
+        for (int i = 0; i < icaoIndex.size(); i++) {
+            writeString(out, strings, icaoIndex.key(i));
+            writeVarInt(out, icaoIndex.value(i));
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Strings are referenced by their table index plus one as a variable length integer, {@code 0} is {@code null}.
+     */
+    private static String readString(final DataInputStream in, final String[] strings) throws IOException {
+        final int index = readVarInt(in);
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    private static void writeString(final DataOutputStream out, final Map<String, Integer> strings, final String s) throws IOException {
+        writeVarInt(out, s == null ? 0 : strings.get(s) + 1);
+    }
+
+    private static int readVarInt(final DataInputStream in) throws IOException {
+        int result = 0;
+        int shift = 0;
+        int b;
+
+        do {
+            b = in.readUnsignedByte();
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return result;
+    }
+
+    private static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+        int remaining = value;
+
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+
+        out.writeByte(remaining);
+    }
+
+    /**
+     * Compiles the airline csv file at {@code args[0]} into the binary table at {@code args[1]}, run during the build.
+     */
+    public static void main(final String[] args) throws IOException {
+        final Path source = Path.of(args[0]);
+        final Path target = Path.of(args[1]);
+
+        final AirlineTable table;
+        try (final BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            table = parse(reader);
+        }
+
+        Files.createDirectories(target.getParent());
+        try (final OutputStream out = Files.newOutputStream(target)) {
+            table.write(out);
+        }
+
+        log.info("Compiled %d airlines from %s to %s".formatted(table.size(), source, target));
+    }
+}
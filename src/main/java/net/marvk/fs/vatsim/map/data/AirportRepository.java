@@ -71,7 +71,7 @@ public class AirportRepository extends ProviderRepository<Airport, AirportReposi
                     .getIcao(), vatsimAirport.getNames().get(0), vatsimAirport.getFir()));
         }
 
-        final Country country = countryRepository.getByPrefix(toAdd.getIcao().substring(0, 2));
+        final Country country = countryRepository.getByIcao(toAdd.getIcao());
         if (country != null) {
             toAdd.countryPropertyWritable().set(country);
         } else {
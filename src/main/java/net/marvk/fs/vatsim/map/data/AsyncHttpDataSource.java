@@ -0,0 +1,186 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import net.marvk.fs.vatsim.api.VatsimApiDataSource;
+import net.marvk.fs.vatsim.api.VatsimApiException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Data source for the frequently polled data feed and map data, built on the JDK {@link HttpClient}.
+ * <p>
+ * Requests are compressed and conditional, validators of the last successful response are sent with every request
+ * and a {@code 304 Not Modified} response completes with the cached body without transferring it again. All other
+ * endpoints are delegated to {@code fallback}.
+ */
+@Log4j2
+public class AsyncHttpDataSource implements VatsimApiDataSource, ConditionalDataSource {
+    private final HttpClient client;
+    private final VatsimApiDataSource fallback;
+    private final String userAgent;
+    private final URI dataUri;
+    private final URI mapDataUri;
+    private final Duration timeout;
+
+    private final Map<URI, CachedResponse> cache = new ConcurrentHashMap<>();
+    private final LongAdder bytesTransferred = new LongAdder();
+
+    @Inject
+    public AsyncHttpDataSource(
+            final HttpClient client,
+            @Named("fallbackDataSource") final VatsimApiDataSource fallback,
+            @Named("userAgent") final String userAgent,
+            @Named("vatsimDataUrl") final String dataUrl,
+            @Named("vatsimMapDataUrl") final String mapDataUrl,
+            @Named("vatsimApiTimeout") final Duration timeout
+    ) {
+        this.client = client;
+        this.fallback = fallback;
+        this.userAgent = userAgent;
+        this.dataUri = URI.create(dataUrl);
+        this.mapDataUri = URI.create(mapDataUrl);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public CompletableFuture<FetchResult> dataAsync() {
+        return fetchAsync(dataUri);
+    }
+
+    public CompletableFuture<FetchResult> mapDataAsync() {
+        return fetchAsync(mapDataUri);
+    }
+
+    @Override
+    public String data() throws VatsimApiException {
+        return await(dataAsync()).getBody();
+    }
+
+    @Override
+    public String mapData() throws VatsimApiException {
+        return await(mapDataAsync()).getBody();
+    }
+
+    @Override
+    public String metar(final String airportIcao) throws VatsimApiException {
+        return fallback.metar(airportIcao);
+    }
+
+    @Override
+    public String firBoundaries() throws VatsimApiException {
+        return fallback.firBoundaries();
+    }
+
+    @Override
+    public String vatSpy() throws VatsimApiException {
+        return fallback.vatSpy();
+    }
+
+    @Override
+    public String events() throws VatsimApiException {
+        return fallback.events();
+    }
+
+    /**
+     * @return the number of response body bytes received over the wire, before decompression
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred.sum();
+    }
+
+    public CompletableFuture<FetchResult> fetchAsync(final URI uri) {
+        final CachedResponse cached = cache.get(uri);
+
+        final HttpRequest.Builder builder = HttpRequest
+                .newBuilder(uri)
+                .timeout(timeout)
+                .header("User-Agent", userAgent)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                builder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        return client
+                .sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> handleResponse(uri, cached, response));
+    }
+
+    private FetchResult handleResponse(final URI uri, final CachedResponse cached, final HttpResponse<byte[]> response) {
+        final byte[] raw = response.body();
+        bytesTransferred.add(raw == null ? 0 : raw.length);
+
+        final int status = response.statusCode();
+
+        if (status == 304 && cached != null) {
+            log.debug("%s not modified".formatted(uri));
+            return FetchResult.notModified(cached.getBody());
+        }
+
+        if (status < 200 || status >= 300) {
+            throw new CompletionException(new IOException("Unexpected status %d for %s".formatted(status, uri)));
+        }
+
+        final String body = decode(raw, response.headers().firstValue("Content-Encoding").orElse(null));
+        log.debug("Fetched %s (%d bytes transferred, %d bytes decoded)".formatted(uri, raw.length, body.length()));
+
+        cache.put(uri, new CachedResponse(
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null),
+                body
+        ));
+
+        return FetchResult.modified(body);
+    }
+
+    private static String decode(final byte[] raw, final String contentEncoding) {
+        if (contentEncoding == null || !contentEncoding.equalsIgnoreCase("gzip")) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+
+        try (final InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(raw))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FetchResult await(final CompletableFuture<FetchResult> future) throws VatsimApiException {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            throw new VatsimApiException("Failed to fetch data", e.getCause());
+        }
+    }
+
+    @Value
+    private static class CachedResponse {
+        String etag;
+        String lastModified;
+        String body;
+    }
+}
@@ -4,9 +4,6 @@ import com.google.inject.Inject;
 import javafx.geometry.Point2D;
 import lombok.Value;
 import lombok.extern.log4j.Log4j2;
-import net.marvk.fs.vatsim.api.data.VatsimClient;
-import net.marvk.fs.vatsim.api.data.VatsimClientType;
-import net.marvk.fs.vatsim.api.data.VatsimController;
 
 import java.util.Arrays;
 import java.util.List;
@@ -34,17 +31,17 @@ public class CallsignParser {
         this.upperInformationRegionRepository = upperInformationRegionRepository;
     }
 
-    public Result parse(final VatsimController controller) {
+    public Result parse(final ClientUpdate controller) {
         if (controller == null ||
                 controller.getCallsign() == null ||
                 controller.getClientType() == null ||
-                controller.getClientType() == VatsimClientType.PILOT
+                controller.getClientType() == ClientType.PILOT
         ) {
             return Result.EMPTY;
         }
 
         final String callsign = controller.getCallsign();
-        final String cid = controller.getCid();
+        final int cid = controller.getCid();
 
         final String[] sections = UNDERSCORES.split(callsign);
         final int n = sections.length;
@@ -123,7 +120,7 @@ public class CallsignParser {
         return result;
     }
 
-    private FirResult getFir(final VatsimController controller, final String identifier, final String infix, final ControllerType controllerType) {
+    private FirResult getFir(final ClientUpdate controller, final String identifier, final String infix, final ControllerType controllerType) {
         final List<FlightInformationRegion> firs = flightInformationRegionRepository.getByIdentifierAndInfix(identifier, infix);
 
         if (firs.isEmpty()) {
@@ -160,27 +157,27 @@ public class CallsignParser {
                 .orElse(FirResult.EMPTY);
     }
 
-    private UpperInformationRegion getUir(final VatsimClient vatsimClient, final String identifier) {
+    private UpperInformationRegion getUir(final ClientUpdate client, final String identifier) {
         return returnFirst(
                 () -> extractViewModel(
                         upperInformationRegionRepository.getByIcao(identifier),
                         e -> new Point2D(0., 0.),
-                        vatsimClient
+                        client
                 )
         );
     }
 
-    private Airport getAirport(final VatsimClient vatsimClient, final String identifier) {
+    private Airport getAirport(final ClientUpdate client, final String identifier) {
         return returnFirst(
                 () -> extractViewModel(
                         airportRepository.getByIcao(identifier),
                         e -> e.positionProperty().get(),
-                        vatsimClient
+                        client
                 ),
                 () -> extractViewModel(
                         airportRepository.getByIata(identifier),
                         e -> e.positionProperty().get(),
-                        vatsimClient
+                        client
                 )
         );
     }
@@ -190,7 +187,7 @@ public class CallsignParser {
         return Arrays.stream(supplier).map(Supplier::get).filter(Objects::nonNull).findFirst().orElse(null);
     }
 
-    private static <ViewModel> ViewModel extractViewModel(final List<ViewModel> viewModels, final Function<ViewModel, Point2D> positionExtractor, final VatsimClient vatsimClient) {
+    private static <ViewModel> ViewModel extractViewModel(final List<ViewModel> viewModels, final Function<ViewModel, Point2D> positionExtractor, final ClientUpdate client) {
         if (viewModels.isEmpty()) {
             return null;
         }
@@ -1,13 +1,11 @@
 package net.marvk.fs.vatsim.map.data;
 
 import javafx.beans.property.*;
-import net.marvk.fs.vatsim.api.data.VatsimClient;
-import net.marvk.fs.vatsim.api.data.VatsimServer;
 
 import java.time.ZonedDateTime;
 import java.util.Objects;
 
-public abstract class Client implements Settable<VatsimClient>, Data {
+public abstract class Client implements Settable<ClientUpdate>, Data {
     private final IntegerProperty cid = new SimpleIntegerProperty();
     private final StringProperty cidString = new SimpleStringProperty();
     private final StringProperty callsign = new SimpleStringProperty();
@@ -24,18 +22,17 @@ public abstract class Client implements Settable<VatsimClient>, Data {
     }
 
     @Override
-    public void setFromModel(final VatsimClient client) {
+    public void setFromModel(final ClientUpdate client) {
         Objects.requireNonNull(client);
 
-        cid.set(Integer.parseInt(client.getCid()));
+        cid.set(client.getCid());
         callsign.set(client.getCallsign());
         realName.set(client.getName());
-        final VatsimServer server = client.getServer();
-        if (server != null) {
-            this.server.set(server.getName());
+        if (client.getServer() != null) {
+            this.server.set(client.getServer());
         }
-        logonTime.set(client.getLogon());
-        lastUpdatedTime.set(client.getLastUpdate());
+        logonTime.set(client.getLogonTime());
+        lastUpdatedTime.set(client.getLastUpdated());
     }
 
     public int getCid() {
@@ -0,0 +1,85 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes applied to the {@link ClientRepository} by a single reload.
+ * <p>
+ * Clients that were updated but did not change are not part of the delta, so consumers only have to look at the
+ * entries they are interested in instead of scanning the whole repository after every reload.
+ */
+@Value
+public class ClientDelta {
+    public static final ClientDelta EMPTY = new ClientDelta(List.of(), List.of(), List.of());
+
+    List<Client> added;
+    List<Client> removed;
+    List<Change> changed;
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return all changes whose field mask intersects {@code fields}
+     */
+    public List<Change> changed(final int fields) {
+        final List<Change> result = new ArrayList<>();
+        for (final Change change : changed) {
+            if ((change.getFields() & fields) != 0) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    public List<Change> moved() {
+        return changed(ClientField.POSITION.mask());
+    }
+
+    public List<Change> membershipChanged() {
+        return changed(ClientField.maskOf(ClientField.FIR_MEMBERSHIP, ClientField.AIRPORT_MEMBERSHIP));
+    }
+
+    @Value
+    public static class Change {
+        Client client;
+        int fields;
+
+        public boolean has(final ClientField field) {
+            return field.isIn(fields);
+        }
+    }
+
+    static class Builder {
+        private final List<Client> added = new ArrayList<>();
+        private final List<Client> removed = new ArrayList<>();
+        private final List<Change> changed = new ArrayList<>();
+
+        void added(final Client client) {
+            added.add(client);
+        }
+
+        void removed(final Client client) {
+            removed.add(client);
+        }
+
+        void changed(final Client client, final int fields) {
+            if (fields != 0) {
+                changed.add(new Change(client, fields));
+            }
+        }
+
+        ClientDelta build() {
+            return new ClientDelta(
+                    Collections.unmodifiableList(added),
+                    Collections.unmodifiableList(removed),
+                    Collections.unmodifiableList(changed)
+            );
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.marvk.fs.vatsim.map.data;
+
+/**
+ * Fields of a {@link Client} that can change between two data feed snapshots, used as bits in the field mask of a
+ * {@link ClientDelta.Change}.
+ */
+public enum ClientField {
+    POSITION,
+    ALTITUDE,
+    GROUND_SPEED,
+    HEADING,
+    TRANSPONDER,
+    QNH,
+    FLIGHT_PLAN,
+    NAME,
+    SERVER,
+    LOGON_TIME,
+    LAST_UPDATED,
+    FREQUENCY,
+    RATING,
+    FACILITY,
+    TEXT_ATIS,
+    ATIS_CODE,
+    FIR_MEMBERSHIP,
+    AIRPORT_MEMBERSHIP;
+
+    private final int mask = 1 << ordinal();
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean isIn(final int fields) {
+        return (fields & mask) != 0;
+    }
+
+    public static int maskOf(final ClientField... fields) {
+        int result = 0;
+        for (final ClientField field : fields) {
+            result |= field.mask;
+        }
+        return result;
+    }
+}
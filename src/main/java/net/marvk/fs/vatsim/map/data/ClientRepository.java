@@ -6,21 +6,30 @@ import com.github.davidmoten.rtree2.geometry.Geometries;
 import com.github.davidmoten.rtree2.geometry.Point;
 import com.github.davidmoten.rtree2.internal.EntryDefault;
 import com.google.inject.Inject;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyListWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Point2D;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.api.VatsimApi;
 import net.marvk.fs.vatsim.api.VatsimApiException;
-import net.marvk.fs.vatsim.api.data.VatsimClient;
-import net.marvk.fs.vatsim.api.data.VatsimController;
-import net.marvk.fs.vatsim.api.data.VatsimFlightPlan;
-import net.marvk.fs.vatsim.api.data.VatsimPilot;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -28,16 +37,29 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 @Log4j2
-public class ClientRepository extends SimpleDataRepository<Client, VatsimClient> {
+public class ClientRepository extends SimpleDataRepository<Client, ClientUpdate> implements Writable {
     private static final Pattern FLIGHT_NUMBER_PARSER = Pattern.compile("^(?<icao>[A-Z]{3})(?<number>[0-9][A-Z0-9]*)$");
+    private static final int ALL_FIELDS = ~0;
+    private static final Duration MAX_SNAPSHOT_AGE = Duration.ofMinutes(30);
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
 
     private final ReadOnlyListWrapper<Pilot> pilots;
     private final ReadOnlyListWrapper<Controller> controllers;
     private final AirportRepository airportRepository;
     private final CallsignParser callsignParser;
-    private final ClientTypeMapper clientTypeMapper;
     private final FlightInformationRegionBoundaryRepository flightInformationRegionBoundaryRepository;
     private final AirlineRepository airlineRepository;
+    private final FeedTimestampTracker feedTimestampTracker;
+    private final ConditionalDataSource conditionalDataSource;
+    private final DataFeedParser dataFeedParser;
+    private final ClientSnapshotStore snapshotStore;
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    private final ReadOnlyObjectWrapper<ZonedDateTime> updateTimestamp = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyBooleanWrapper stale = new ReadOnlyBooleanWrapper();
+    private final Map<String, ClientUpdate> previousUpdates = new HashMap<>();
+    private final EventStream<ClientDelta> deltas = new EventStream<>();
+    private ClientDelta.Builder delta;
+    private long lastSnapshotNanos = System.nanoTime();
     private RTree<Pilot, Point> rTree = RTree.create();
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -46,16 +68,22 @@ public class ClientRepository extends SimpleDataRepository<Client, VatsimClient>
             final VatsimApi vatsimApi,
             final AirportRepository airportRepository,
             final CallsignParser callsignParser,
-            final ClientTypeMapper clientTypeMapper,
             final FlightInformationRegionBoundaryRepository flightInformationRegionBoundaryRepository,
-            final AirlineRepository airlineRepository
+            final AirlineRepository airlineRepository,
+            final FeedTimestampTracker feedTimestampTracker,
+            final ConditionalDataSource conditionalDataSource,
+            final DataFeedParser dataFeedParser,
+            final ClientSnapshotStore snapshotStore
     ) {
         super(vatsimApi);
         this.airportRepository = airportRepository;
         this.callsignParser = callsignParser;
-        this.clientTypeMapper = clientTypeMapper;
         this.flightInformationRegionBoundaryRepository = flightInformationRegionBoundaryRepository;
         this.airlineRepository = airlineRepository;
+        this.feedTimestampTracker = feedTimestampTracker;
+        this.conditionalDataSource = conditionalDataSource;
+        this.dataFeedParser = dataFeedParser;
+        this.snapshotStore = snapshotStore;
 
         // yikes, but it works, sooo...
         pilots = new ReadOnlyListWrapper<Pilot>(new FilteredList(list(), e -> e instanceof Pilot));
@@ -63,8 +91,8 @@ public class ClientRepository extends SimpleDataRepository<Client, VatsimClient>
     }
 
     @Override
-    protected Client newViewModelInstance(final VatsimClient vatsimClient) {
-        return switch (vatsimClient.getClientType()) {
+    protected Client newViewModelInstance(final ClientUpdate clientUpdate) {
+        return switch (clientUpdate.getClientType()) {
             case CONTROLLER -> new Controller();
             case PILOT -> new Pilot();
             case ATIS -> new Atis();
@@ -72,8 +100,8 @@ public class ClientRepository extends SimpleDataRepository<Client, VatsimClient>
     }
 
     @Override
-    protected String keyFromModel(final VatsimClient vatsimClient) {
-        return vatsimClient.getCid() + vatsimClient.getCallsign() + clientTypeMapper.map(vatsimClient.getClientType());
+    protected String keyFromModel(final ClientUpdate clientUpdate) {
+        return clientUpdate.key();
     }
 
     @Override
@@ -82,36 +110,220 @@ public class ClientRepository extends SimpleDataRepository<Client, VatsimClient>
     }
 
     @Override
-    protected Collection<VatsimClient> extractModels(final VatsimApi api) throws VatsimApiException {
+    protected Collection<ClientUpdate> extractModels(final VatsimApi api) throws VatsimApiException {
         try {
-            return api.data().getClients();
+            return parse(conditionalDataSource.dataAsync().join().getBody());
         } catch (final Throwable t) {
             throw new VatsimApiException("Failed to load items", t);
         }
     }
 
     @Override
-    protected void onAdd(final Client toAdd, final VatsimClient vatsimClient) {
+    public void reload() throws RepositoryException {
+        if (!reloading.compareAndSet(false, true)) {
+            log.info("Reload already in progress, skipping");
+            return;
+        }
+
+        try {
+            final Collection<ClientUpdate> models = fetchModels();
+            final ZonedDateTime timestamp = feedTimestampTracker.getLatest();
+            if (models == null || isUnchanged(timestamp)) {
+                log.info("Data feed unchanged since %s, skipping update".formatted(timestamp));
+                return;
+            }
+            updateList(models);
+            applied(timestamp);
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    @Override
+    public void reloadAsync(final Runnable onSucceed) throws RepositoryException {
+        if (!reloading.compareAndSet(false, true)) {
+            log.info("Reload already in progress, skipping");
+            return;
+        }
+
+        final Collection<ClientUpdate> models;
+        final ZonedDateTime timestamp;
+        try {
+            models = fetchModels();
+            timestamp = feedTimestampTracker.getLatest();
+        } catch (final RepositoryException | RuntimeException e) {
+            reloading.set(false);
+            throw e;
+        }
+
+        if (models == null || isUnchanged(timestamp)) {
+            log.info("Data feed unchanged since %s, skipping update".formatted(timestamp));
+            reloading.set(false);
+            return;
+        }
+
+        Platform.runLater(() -> {
+            try {
+                updateList(models);
+                applied(timestamp);
+                if (onSucceed != null) {
+                    onSucceed.run();
+                }
+            } finally {
+                reloading.set(false);
+            }
+        });
+    }
+
+    /**
+     * @return the fetched models, or {@code null} if the data feed was not modified since the last applied snapshot
+     */
+    private Collection<ClientUpdate> fetchModels() throws RepositoryException {
+        try {
+            final FetchResult fetchResult = conditionalDataSource.dataAsync().join();
+            if (!fetchResult.isModified() && updateTimestamp.get() != null && !stale.get()) {
+                return null;
+            }
+            return parse(fetchResult.getBody());
+        } catch (final CompletionException e) {
+            throw new RepositoryException(e.getCause());
+        } catch (final IOException e) {
+            throw new RepositoryException(e);
+        }
+    }
+
+    private Collection<ClientUpdate> parse(final String feed) throws IOException {
+        if (feed == null) {
+            throw new IOException("Data feed is empty");
+        }
+
+        return dataFeedParser.parse(feed);
+    }
+
+    private boolean isUnchanged(final ZonedDateTime timestamp) {
+        return !stale.get() && timestamp != null && timestamp.equals(updateTimestamp.get());
+    }
+
+    private void applied(final ZonedDateTime timestamp) {
+        updateTimestamp.set(timestamp);
+        stale.set(false);
+
+        if (System.nanoTime() - lastSnapshotNanos >= SNAPSHOT_INTERVAL.toNanos()) {
+            lastSnapshotNanos = System.nanoTime();
+            snapshotStore.writeAsync(snapshot());
+        }
+    }
+
+    /**
+     * Applies the last persisted snapshot through the same path as a live reload and marks the repository as
+     * {@link #staleProperty() stale} until the first live reload replaces it.
+     *
+     * @return {@code true} if a recent enough snapshot was applied
+     */
+    public boolean restoreSnapshot() {
+        final Optional<ClientSnapshotStore.Snapshot> snapshot = snapshotStore.read();
+
+        if (snapshot.isEmpty()) {
+            return false;
+        }
+
+        final ZonedDateTime timestamp = snapshot.get().getTimestamp();
+
+        if (timestamp == null || Duration.between(timestamp, ZonedDateTime.now()).compareTo(MAX_SNAPSHOT_AGE) > 0) {
+            log.info("Ignoring client snapshot from %s".formatted(timestamp));
+            return false;
+        }
+
+        updateList(snapshot.get().getClients());
+        updateTimestamp.set(timestamp);
+        stale.set(true);
+
+        log.info("Restored client snapshot from %s".formatted(timestamp));
+
+        return true;
+    }
+
+    /**
+     * Persists the current state, unless it is still the restored snapshot.
+     */
+    @Override
+    public void write() {
+        if (stale.get() || updateTimestamp.get() == null) {
+            return;
+        }
+
+        snapshotStore.write(snapshot());
+    }
+
+    private ClientSnapshotStore.Snapshot snapshot() {
+        return new ClientSnapshotStore.Snapshot(updateTimestamp.get(), new ArrayList<>(previousUpdates.values()));
+    }
+
+    /**
+     * Whether the clients are restored from the last session and not yet replaced by live data.
+     */
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    public ReadOnlyBooleanProperty staleProperty() {
+        return stale.getReadOnlyProperty();
+    }
+
+    /**
+     * The {@code update_timestamp} of the data feed snapshot that was last applied to this repository.
+     */
+    public ZonedDateTime getUpdateTimestamp() {
+        return updateTimestamp.get();
+    }
+
+    public ReadOnlyObjectProperty<ZonedDateTime> updateTimestampProperty() {
+        return updateTimestamp.getReadOnlyProperty();
+    }
+
+    @Override
+    protected void onAdd(final Client toAdd, final ClientUpdate clientUpdate) {
+        previousUpdates.put(clientUpdate.key(), clientUpdate);
+        delta.added(toAdd);
+
         switch (toAdd.getClientType()) {
             case CONTROLLER, ATIS -> {
                 final Controller controller = (Controller) toAdd;
-                controller.setFromCallsignParserResult(callsignParser.parse((VatsimController) vatsimClient));
+                controller.setFromCallsignParserResult(callsignParser.parse(clientUpdate));
             }
             case PILOT -> {
                 final Pilot pilot = (Pilot) toAdd;
-                final VatsimFlightPlan flightPlan = ((VatsimPilot) vatsimClient).getFlightPlan();
-                if (flightPlan != null) {
-                    setAirports(pilot, flightPlan);
-                }
-                final List<FlightInformationRegionBoundary> firbs =
-                        flightInformationRegionBoundaryRepository.listAllByPosition(((Pilot) toAdd).getPosition());
-                pilot.flightInformationRegionBoundariesWritable().setAll(firbs);
-
+                updateMemberships(pilot, clientUpdate, ALL_FIELDS);
                 parseAndSetAirlineAndFlightNumber(pilot);
             }
         }
     }
 
+    /**
+     * Updates the airports and FIRs of {@code pilot} if the fields they are derived from changed.
+     *
+     * @return the membership fields that actually changed
+     */
+    private int updateMemberships(final Pilot pilot, final ClientUpdate clientUpdate, final int changedFields) {
+        int result = 0;
+
+        if (ClientField.FLIGHT_PLAN.isIn(changedFields) && setAirports(pilot, clientUpdate.getFlightPlan())) {
+            pilot.updateEta();
+            result |= ClientField.AIRPORT_MEMBERSHIP.mask();
+        }
+
+        if (ClientField.POSITION.isIn(changedFields) && pilot.getPosition() != null) {
+            final List<FlightInformationRegionBoundary> firbs =
+                    flightInformationRegionBoundaryRepository.listAllByPosition(pilot.getPosition());
+            if (!firbs.equals(pilot.flightInformationRegionBoundaries())) {
+                pilot.flightInformationRegionBoundariesWritable().setAll(firbs);
+                result |= ClientField.FIR_MEMBERSHIP.mask();
+            }
+        }
+
+        return result;
+    }
+
     private void parseAndSetAirlineAndFlightNumber(final Pilot pilot) {
         final Matcher matcher = FLIGHT_NUMBER_PARSER.matcher(pilot.getCallsign());
 
@@ -127,20 +339,32 @@ public class ClientRepository extends SimpleDataRepository<Client, VatsimClient>
         }
     }
 
-    private void setAirports(final Pilot pilot, final VatsimFlightPlan flightPlan) {
-        pilot.getFlightPlan()
-             .departureAirportPropertyWritable()
-             .set(getAirport(flightPlan.getDepartureAirport().strip()));
-        pilot.getFlightPlan()
-             .arrivalAirportPropertyWritable()
-             .set(getAirport(flightPlan.getArrivalAirport().strip()));
-        pilot.getFlightPlan()
-             .alternativeAirportPropertyWritable()
-             .set(getAirport(flightPlan.getAlternateAirport().strip()));
+    /**
+     * @return {@code true} if any of the airports changed
+     */
+    private boolean setAirports(final Pilot pilot, final FlightPlanUpdate flightPlan) {
+        final FlightPlan current = pilot.getFlightPlan();
+
+        final Airport departure = flightPlan == null ? null : getAirport(flightPlan.getDeparture());
+        final Airport arrival = flightPlan == null ? null : getAirport(flightPlan.getArrival());
+        final Airport alternate = flightPlan == null ? null : getAirport(flightPlan.getAlternate());
+
+        final boolean changed = current.getDepartureAirport() != departure ||
+                current.getArrivalAirport() != arrival ||
+                current.getAlternativeAirport() != alternate;
+
+        current.departureAirportPropertyWritable().set(departure);
+        current.arrivalAirportPropertyWritable().set(arrival);
+        current.alternativeAirportPropertyWritable().set(alternate);
+
+        return changed;
     }
 
     @Override
     protected void onRemove(final Client toRemove) {
+        previousUpdates.remove(keyFromViewModel(toRemove));
+        delta.removed(toRemove);
+
         switch (toRemove.getClientType()) {
             case CONTROLLER, ATIS -> {
                 final Controller controller = (Controller) toRemove;
@@ -157,19 +381,56 @@ public class ClientRepository extends SimpleDataRepository<Client, VatsimClient>
     }
 
     @Override
-    protected void onUpdate(final Client toUpdate, final VatsimClient vatsimClient) {
-        onAdd(toUpdate, vatsimClient);
+    protected void onUpdate(final Client toUpdate, final ClientUpdate clientUpdate) {
+        final ClientUpdate previous = previousUpdates.put(clientUpdate.key(), clientUpdate);
+        int changedFields = previous == null ? ALL_FIELDS : clientUpdate.changedFields(previous);
+
+        // The callsign is part of the key, so the callsign parser result of a controller never changes
+        if (toUpdate.getClientType() == ClientType.PILOT) {
+            changedFields |= updateMemberships((Pilot) toUpdate, clientUpdate, changedFields);
+        }
+
+        delta.changed(toUpdate, changedFields);
     }
 
     @Override
-    protected void updateList(final Collection<VatsimClient> updatedModels) {
-        super.updateList(updatedModels);
-        createRTree();
+    protected void updateList(final Collection<ClientUpdate> updatedModels) {
+        delta = new ClientDelta.Builder();
+        final ClientDelta result;
+        try {
+            super.updateList(updatedModels);
+            result = delta.build();
+        } finally {
+            delta = null;
+        }
+
+        if (!result.getAdded().isEmpty() || !result.getRemoved().isEmpty() || !result.moved().isEmpty()) {
+            createRTree();
+        }
+
+        log.info("Applied client delta: %d added, %d removed, %d changed, %d moved, %d membership changed".formatted(
+                result.getAdded().size(),
+                result.getRemoved().size(),
+                result.getChanged().size(),
+                result.moved().size(),
+                result.membershipChanged().size()
+        ));
+
+        deltas.publish(result);
+    }
+
+    /**
+     * Stream of the changes applied by each reload, published on the thread that applied them after the list and
+     * all relationships have been updated.
+     */
+    public EventStream<ClientDelta> deltas() {
+        return deltas;
     }
 
     private void createRTree() {
         final List<Entry<Pilot, Point>> list = pilots
                 .stream()
+                .filter(e -> e.getPosition() != null)
                 .filter(e -> e.getPosition().getX() >= -180)
                 .filter(e -> e.getPosition().getX() <= 180)
                 .filter(e -> e.getPosition().getY() >= -90)
@@ -0,0 +1,356 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * Binary snapshot of the last applied data feed, so the next start can show traffic before the first live reload
+ * completes. All strings are written to a table once and referenced by index, which deduplicates servers, aircraft
+ * types and airports across clients.
+ * <p>
+ * Snapshots are read into the heap as a whole, so every count can be checked against the rest of the file before
+ * anything is allocated for it.
+ */
+@Log4j2
+@Singleton
+public class ClientSnapshotStore {
+    private static final int MAGIC = 0x56504353;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_NAME = "clients.bin";
+    private static final long NULL_DATE_TIME = Long.MIN_VALUE;
+
+    private final Path file;
+    private final Executor executor;
+
+    @Inject
+    public ClientSnapshotStore(@Named("userCacheDir") final Path userCacheDir, final TaskExecutors executors) {
+        this(userCacheDir.resolve(FILE_NAME), executors.io());
+    }
+
+    ClientSnapshotStore(final Path file, final Executor executor) {
+        this.file = file;
+        this.executor = executor;
+    }
+
+    public Optional<Snapshot> read() {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        final long start = System.nanoTime();
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.info("Ignoring client snapshot %s with unknown format".formatted(file));
+                return Optional.empty();
+            }
+
+            // every string has at least a length
+            final String[] strings = new String[count(in, Integer.BYTES)];
+            for (int i = 0; i < strings.length; i++) {
+                final byte[] bytes = new byte[count(in, 1)];
+                in.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            final ZonedDateTime timestamp = readDateTime(in, strings);
+
+            // every client has at least a client type and a cid
+            final int numClients = count(in, 1 + Integer.BYTES);
+            final List<ClientUpdate> clients = new ArrayList<>(numClients);
+
+            for (int i = 0; i < numClients; i++) {
+                clients.add(readClient(in, strings));
+            }
+
+            log.info("Read %d clients from snapshot %s in %d ms".formatted(
+                    numClients,
+                    file,
+                    (System.nanoTime() - start) / 1_000_000
+            ));
+
+            return Optional.of(new Snapshot(timestamp, clients));
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Failed to read client snapshot %s".formatted(file), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot on a background thread. The clients must not be modified afterwards.
+     */
+    public void writeAsync(final Snapshot snapshot) {
+        executor.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Writes the snapshot. Failing to write the snapshot is logged and otherwise ignored, the next start will simply
+     * wait for the first live reload.
+     */
+    public synchronized void write(final Snapshot snapshot) {
+        final long start = System.nanoTime();
+
+        Path temp = null;
+        try {
+            final StringTable strings = new StringTable();
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+            try (final DataOutputStream out = new DataOutputStream(body)) {
+                writeDateTime(out, strings, snapshot.getTimestamp());
+                out.writeInt(snapshot.getClients().size());
+
+                for (final ClientUpdate client : snapshot.getClients()) {
+                    writeClient(out, strings, client);
+                }
+            }
+
+            Files.createDirectories(file.getParent());
+
+            temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(strings.size());
+                for (final String s : strings.strings()) {
+                    final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                body.writeTo(out);
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+
+            log.info("Wrote %d clients to snapshot %s in %d ms".formatted(
+                    snapshot.getClients().size(),
+                    file,
+                    (System.nanoTime() - start) / 1_000_000
+            ));
+        } catch (final IOException e) {
+            log.warn("Failed to write client snapshot %s".formatted(file), e);
+        } finally {
+            deleteTemp(temp);
+        }
+    }
+
+    private static void deleteTemp(final Path temp) {
+        if (temp == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(temp);
+        } catch (final IOException e) {
+            log.warn("Failed to delete temporary client snapshot %s".formatted(temp), e);
+        }
+    }
+
+    private static ClientUpdate readClient(final DataInputStream in, final String[] strings) throws IOException {
+        final ClientUpdate result = new ClientUpdate(ClientType.values()[in.readByte()]);
+
+        result.cid = in.readInt();
+        result.callsign = readString(in, strings);
+        result.name = readString(in, strings);
+        result.server = readString(in, strings);
+        result.logonTime = readDateTime(in, strings);
+        result.lastUpdated = readDateTime(in, strings);
+
+        result.latitude = in.readDouble();
+        result.longitude = in.readDouble();
+        result.altitude = in.readDouble();
+        result.groundSpeed = in.readDouble();
+        result.heading = in.readDouble();
+        result.qnhInchesMercury = in.readDouble();
+        result.qnhMilliBars = in.readDouble();
+        result.transponder = readString(in, strings);
+
+        if (in.readBoolean()) {
+            final FlightPlanUpdate flightPlan = new FlightPlanUpdate();
+            flightPlan.flightRules = readString(in, strings);
+            flightPlan.aircraft = readString(in, strings);
+            flightPlan.departure = readString(in, strings);
+            flightPlan.arrival = readString(in, strings);
+            flightPlan.alternate = readString(in, strings);
+            flightPlan.cruiseTas = readString(in, strings);
+            flightPlan.altitude = readString(in, strings);
+            flightPlan.departureTime = readString(in, strings);
+            flightPlan.enrouteTime = readString(in, strings);
+            flightPlan.fuelTime = readString(in, strings);
+            flightPlan.remarks = readString(in, strings);
+            flightPlan.route = readString(in, strings);
+            result.flightPlan = flightPlan;
+        }
+
+        result.frequency = readString(in, strings);
+        result.facility = in.readInt();
+        result.rating = in.readInt();
+
+        final int numTextAtisLines = in.readInt();
+        if (numTextAtisLines >= 0) {
+            // every line is a string index
+            checkCount(in, numTextAtisLines, Integer.BYTES);
+            final List<String> textAtis = new ArrayList<>(numTextAtisLines);
+            for (int i = 0; i < numTextAtisLines; i++) {
+                textAtis.add(readString(in, strings));
+            }
+            result.textAtis = Collections.unmodifiableList(textAtis);
+        }
+
+        result.atisCode = readString(in, strings);
+
+        return result;
+    }
+
+    private static void writeClient(final DataOutputStream out, final StringTable strings, final ClientUpdate client) throws IOException {
+        out.writeByte(client.clientType.ordinal());
+
+        out.writeInt(client.cid);
+        writeString(out, strings, client.callsign);
+        writeString(out, strings, client.name);
+        writeString(out, strings, client.server);
+        writeDateTime(out, strings, client.logonTime);
+        writeDateTime(out, strings, client.lastUpdated);
+
+        out.writeDouble(client.latitude);
+        out.writeDouble(client.longitude);
+        out.writeDouble(client.altitude);
+        out.writeDouble(client.groundSpeed);
+        out.writeDouble(client.heading);
+        out.writeDouble(client.qnhInchesMercury);
+        out.writeDouble(client.qnhMilliBars);
+        writeString(out, strings, client.transponder);
+
+        final FlightPlanUpdate flightPlan = client.flightPlan;
+        out.writeBoolean(flightPlan != null);
+        if (flightPlan != null) {
+            writeString(out, strings, flightPlan.flightRules);
+            writeString(out, strings, flightPlan.aircraft);
+            writeString(out, strings, flightPlan.departure);
+            writeString(out, strings, flightPlan.arrival);
+            writeString(out, strings, flightPlan.alternate);
+            writeString(out, strings, flightPlan.cruiseTas);
+            writeString(out, strings, flightPlan.altitude);
+            writeString(out, strings, flightPlan.departureTime);
+            writeString(out, strings, flightPlan.enrouteTime);
+            writeString(out, strings, flightPlan.fuelTime);
+            writeString(out, strings, flightPlan.remarks);
+            writeString(out, strings, flightPlan.route);
+        }
+
+        writeString(out, strings, client.frequency);
+        out.writeInt(client.facility);
+        out.writeInt(client.rating);
+
+        if (client.textAtis == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(client.textAtis.size());
+            for (final String line : client.textAtis) {
+                writeString(out, strings, line);
+            }
+        }
+
+        writeString(out, strings, client.atisCode);
+    }
+
+    /**
+     * Reads a count and checks that the rest of the snapshot can hold that many elements.
+     */
+    private static int count(final DataInputStream in, final int minBytesPerElement) throws IOException {
+        final int result = in.readInt();
+        checkCount(in, result, minBytesPerElement);
+        return result;
+    }
+
+    /**
+     * Guards allocations against corrupt counts, which would otherwise end in a {@link NegativeArraySizeException} or
+     * an {@link OutOfMemoryError}.
+     */
+    private static void checkCount(final DataInputStream in, final int count, final int minBytesPerElement) throws IOException {
+        // exact, the stream reads from a byte array
+        final int remaining = in.available();
+
+        if (count < 0 || count > remaining / minBytesPerElement) {
+            throw new IOException("Invalid count %d with %d bytes remaining".formatted(count, remaining));
+        }
+    }
+
+    private static ZonedDateTime readDateTime(final DataInputStream in, final String[] strings) throws IOException {
+        final long epochSecond = in.readLong();
+
+        if (epochSecond == NULL_DATE_TIME) {
+            return null;
+        }
+
+        final int nanos = in.readInt();
+        final ZoneId zone = ZoneId.of(readString(in, strings));
+
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), zone);
+    }
+
+    private static void writeDateTime(final DataOutputStream out, final StringTable strings, final ZonedDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            out.writeLong(NULL_DATE_TIME);
+            return;
+        }
+
+        out.writeLong(dateTime.toEpochSecond());
+        out.writeInt(dateTime.getNano());
+        writeString(out, strings, dateTime.getZone().getId());
+    }
+
+    private static String readString(final DataInputStream in, final String[] strings) throws IOException {
+        final int index = in.readInt();
+        return index < 0 ? null : strings[index];
+    }
+
+    private static void writeString(final DataOutputStream out, final StringTable strings, final String s) throws IOException {
+        out.writeInt(strings.index(s));
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> indices = new LinkedHashMap<>();
+
+        private int index(final String s) {
+            if (s == null) {
+                return -1;
+            }
+
+            return indices.computeIfAbsent(s, e -> indices.size());
+        }
+
+        private int size() {
+            return indices.size();
+        }
+
+        private Set<String> strings() {
+            return indices.keySet();
+        }
+    }
+
+    @Value
+    public static class Snapshot {
+        /**
+         * The {@code update_timestamp} of the data feed the clients were read from.
+         */
+        ZonedDateTime timestamp;
+        List<ClientUpdate> clients;
+    }
+}
@@ -0,0 +1,111 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact record of a single client in a data feed snapshot, filled directly by {@link DataFeedParser}.
+ * <p>
+ * Pilot fields are unset for controllers and vice versa.
+ */
+@Getter
+@ToString
+public final class ClientUpdate {
+    ClientType clientType;
+    int cid;
+    String callsign;
+    String name;
+    String server;
+    ZonedDateTime logonTime;
+    ZonedDateTime lastUpdated;
+
+    double latitude = Double.NaN;
+    double longitude = Double.NaN;
+    double altitude;
+    double groundSpeed;
+    double heading;
+    double qnhInchesMercury;
+    double qnhMilliBars;
+    String transponder;
+    FlightPlanUpdate flightPlan;
+
+    String frequency;
+    int facility;
+    int rating;
+    List<String> textAtis;
+    String atisCode;
+
+    ClientUpdate(final ClientType clientType) {
+        this.clientType = clientType;
+    }
+
+    public String key() {
+        return cid + callsign + clientType;
+    }
+
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    /**
+     * @return the mask of {@link ClientField}s that differ between {@code previous} and this update
+     */
+    int changedFields(final ClientUpdate previous) {
+        int result = 0;
+
+        if (Double.compare(latitude, previous.latitude) != 0 || Double.compare(longitude, previous.longitude) != 0) {
+            result |= ClientField.POSITION.mask();
+        }
+        if (Double.compare(altitude, previous.altitude) != 0) {
+            result |= ClientField.ALTITUDE.mask();
+        }
+        if (Double.compare(groundSpeed, previous.groundSpeed) != 0) {
+            result |= ClientField.GROUND_SPEED.mask();
+        }
+        if (Double.compare(heading, previous.heading) != 0) {
+            result |= ClientField.HEADING.mask();
+        }
+        if (!Objects.equals(transponder, previous.transponder)) {
+            result |= ClientField.TRANSPONDER.mask();
+        }
+        if (Double.compare(qnhInchesMercury, previous.qnhInchesMercury) != 0 || Double.compare(qnhMilliBars, previous.qnhMilliBars) != 0) {
+            result |= ClientField.QNH.mask();
+        }
+        if (!Objects.equals(flightPlan, previous.flightPlan)) {
+            result |= ClientField.FLIGHT_PLAN.mask();
+        }
+        if (!Objects.equals(name, previous.name)) {
+            result |= ClientField.NAME.mask();
+        }
+        if (!Objects.equals(server, previous.server)) {
+            result |= ClientField.SERVER.mask();
+        }
+        if (!Objects.equals(logonTime, previous.logonTime)) {
+            result |= ClientField.LOGON_TIME.mask();
+        }
+        if (!Objects.equals(lastUpdated, previous.lastUpdated)) {
+            result |= ClientField.LAST_UPDATED.mask();
+        }
+        if (!Objects.equals(frequency, previous.frequency)) {
+            result |= ClientField.FREQUENCY.mask();
+        }
+        if (rating != previous.rating) {
+            result |= ClientField.RATING.mask();
+        }
+        if (facility != previous.facility) {
+            result |= ClientField.FACILITY.mask();
+        }
+        if (!Objects.equals(textAtis, previous.textAtis)) {
+            result |= ClientField.TEXT_ATIS.mask();
+        }
+        if (!Objects.equals(atisCode, previous.atisCode)) {
+            result |= ClientField.ATIS_CODE.mask();
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,308 @@
+package net.marvk.fs.vatsim.map.data;
+
+import javafx.geometry.Point2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical grid clustering of the items of a {@link RenderSnapshot}. Level {@code 0} uses cells of
+ * {@link #ROOT_CELL_SIZE} degrees and every following level halves the cell size, the clusters of a level are the
+ * union of the clusters of the cells it contains on the next level.
+ * <p>
+ * Built once per snapshot, queries for a level don't allocate.
+ */
+public final class ClusterIndex {
+    public static final int LEVELS = 14;
+
+    /**
+     * Level without clustering.
+     */
+    public static final int NONE = LEVELS;
+
+    static final double ROOT_CELL_SIZE = 45;
+
+    private static final int NO_CLUSTER = -1;
+
+    /**
+     * Clusters of at least two items, per level.
+     */
+    private final List<List<Cluster>> clusters;
+
+    /**
+     * Index into {@link #clusters} of the cluster of every item, per level, or {@link #NO_CLUSTER} for items on
+     * their own.
+     */
+    private final int[][] clusterOfItem;
+
+    private ClusterIndex(final List<List<Cluster>> clusters, final int[][] clusterOfItem) {
+        this.clusters = clusters;
+        this.clusterOfItem = clusterOfItem;
+    }
+
+    /**
+     * @return the coarsest level whose cells are at most {@code cellSize} degrees wide, {@link #NONE} if even the
+     * cells of the finest level are too large
+     */
+    public static int level(final double cellSize) {
+        if (!(cellSize > 0)) {
+            return NONE;
+        }
+
+        final int result = (int) Math.ceil(Math.log(ROOT_CELL_SIZE / cellSize) / Math.log(2));
+        return Math.min(Math.max(result, 0), NONE);
+    }
+
+    static double cellSize(final int level) {
+        return ROOT_CELL_SIZE / (1 << level);
+    }
+
+    /**
+     * @return the clusters of at least two items on the level, unmodifiable
+     */
+    public List<Cluster> clusters(final int level) {
+        if (level < 0 || level >= LEVELS) {
+            return Collections.emptyList();
+        }
+        return clusters.get(level);
+    }
+
+    /**
+     * @return whether the item is part of a cluster of at least two items on the level
+     */
+    public boolean isClustered(final int level, final int item) {
+        if (level < 0 || level >= LEVELS || item < 0 || item >= clusterOfItem[level].length) {
+            return false;
+        }
+        return clusterOfItem[level][item] != NO_CLUSTER;
+    }
+
+    /**
+     * @param positions the positions of the items, items with a {@code null} position are never clustered
+     */
+    static ClusterIndex of(final Point2D[] positions) {
+        final int n = positions.length;
+        final int finest = LEVELS - 1;
+
+        final int[][] groupOfItem = new int[LEVELS][n];
+        final Groups[] groups = new Groups[LEVELS];
+
+        groups[finest] = new Groups(n);
+        final double cellSize = cellSize(finest);
+        for (int i = 0; i < n; i++) {
+            final Point2D position = positions[i];
+            if (position == null) {
+                groupOfItem[finest][i] = NO_CLUSTER;
+                continue;
+            }
+
+            final int cellX = (int) Math.floor((position.getX() + 180) / cellSize);
+            final int cellY = (int) Math.floor((position.getY() + 90) / cellSize);
+            final int group = groups[finest].group(cellX, cellY);
+            groups[finest].add(group, position);
+            groupOfItem[finest][i] = group;
+        }
+
+        for (int level = finest - 1; level >= 0; level--) {
+            final Groups children = groups[level + 1];
+            final Groups parents = new Groups(children.size);
+            final int[] parentOfChild = new int[children.size];
+
+            for (int child = 0; child < children.size; child++) {
+                final int parent = parents.group(children.cellX[child] >> 1, children.cellY[child] >> 1);
+                parents.merge(parent, children, child);
+                parentOfChild[child] = parent;
+            }
+
+            for (int i = 0; i < n; i++) {
+                final int child = groupOfItem[level + 1][i];
+                groupOfItem[level][i] = child == NO_CLUSTER ? NO_CLUSTER : parentOfChild[child];
+            }
+
+            groups[level] = parents;
+        }
+
+        final List<List<Cluster>> clusters = new ArrayList<>(LEVELS);
+        for (int level = 0; level < LEVELS; level++) {
+            final Groups levelGroups = groups[level];
+            final int[] clusterOfGroup = new int[levelGroups.size];
+            final List<Cluster> levelClusters = new ArrayList<>();
+
+            for (int group = 0; group < levelGroups.size; group++) {
+                if (levelGroups.count[group] < 2) {
+                    clusterOfGroup[group] = NO_CLUSTER;
+                } else {
+                    clusterOfGroup[group] = levelClusters.size();
+                    levelClusters.add(levelGroups.cluster(group));
+                }
+            }
+
+            final int[] items = groupOfItem[level];
+            for (int i = 0; i < n; i++) {
+                items[i] = items[i] == NO_CLUSTER ? NO_CLUSTER : clusterOfGroup[items[i]];
+            }
+
+            clusters.add(Collections.unmodifiableList(levelClusters));
+        }
+
+        return new ClusterIndex(Collections.unmodifiableList(clusters), groupOfItem);
+    }
+
+    /**
+     * The occupied cells of a single level while building.
+     */
+    private static final class Groups {
+        private final Map<Long, Integer> groupOfCell;
+
+        private int size = 0;
+        private int[] cellX;
+        private int[] cellY;
+        private int[] count;
+        private double[] sumX;
+        private double[] sumY;
+        private double[] minX;
+        private double[] minY;
+        private double[] maxX;
+        private double[] maxY;
+
+        private Groups(final int capacity) {
+            final int length = Math.max(capacity, 1);
+            groupOfCell = new HashMap<>(2 * length);
+            cellX = new int[length];
+            cellY = new int[length];
+            count = new int[length];
+            sumX = new double[length];
+            sumY = new double[length];
+            minX = new double[length];
+            minY = new double[length];
+            maxX = new double[length];
+            maxY = new double[length];
+        }
+
+        private int group(final int x, final int y) {
+            final long key = ((long) x << 32) | (y & 0xFFFFFFFFL);
+            final Integer existing = groupOfCell.get(key);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            if (size == cellX.length) {
+                grow();
+            }
+
+            final int result = size++;
+            groupOfCell.put(key, result);
+            cellX[result] = x;
+            cellY[result] = y;
+            minX[result] = Double.POSITIVE_INFINITY;
+            minY[result] = Double.POSITIVE_INFINITY;
+            maxX[result] = Double.NEGATIVE_INFINITY;
+            maxY[result] = Double.NEGATIVE_INFINITY;
+            return result;
+        }
+
+        private void add(final int group, final Point2D position) {
+            count[group] += 1;
+            sumX[group] += position.getX();
+            sumY[group] += position.getY();
+            minX[group] = Math.min(minX[group], position.getX());
+            minY[group] = Math.min(minY[group], position.getY());
+            maxX[group] = Math.max(maxX[group], position.getX());
+            maxY[group] = Math.max(maxY[group], position.getY());
+        }
+
+        private void merge(final int group, final Groups other, final int otherGroup) {
+            count[group] += other.count[otherGroup];
+            sumX[group] += other.sumX[otherGroup];
+            sumY[group] += other.sumY[otherGroup];
+            minX[group] = Math.min(minX[group], other.minX[otherGroup]);
+            minY[group] = Math.min(minY[group], other.minY[otherGroup]);
+            maxX[group] = Math.max(maxX[group], other.maxX[otherGroup]);
+            maxY[group] = Math.max(maxY[group], other.maxY[otherGroup]);
+        }
+
+        private Cluster cluster(final int group) {
+            return new Cluster(
+                    sumX[group] / count[group],
+                    sumY[group] / count[group],
+                    minX[group],
+                    minY[group],
+                    maxX[group],
+                    maxY[group],
+                    count[group]
+            );
+        }
+
+        private void grow() {
+            final int length = 2 * cellX.length;
+            cellX = Arrays.copyOf(cellX, length);
+            cellY = Arrays.copyOf(cellY, length);
+            count = Arrays.copyOf(count, length);
+            sumX = Arrays.copyOf(sumX, length);
+            sumY = Arrays.copyOf(sumY, length);
+            minX = Arrays.copyOf(minX, length);
+            minY = Arrays.copyOf(minY, length);
+            maxX = Arrays.copyOf(maxX, length);
+            maxY = Arrays.copyOf(maxY, length);
+        }
+    }
+
+    /**
+     * Items sharing a cell of a level, positioned at their centroid.
+     */
+    public static final class Cluster {
+        private final double x;
+        private final double y;
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+        private final int size;
+
+        private Cluster(final double x, final double y, final double minX, final double minY, final double maxX, final double maxY, final int size) {
+            this.x = x;
+            this.y = y;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.size = size;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getMinX() {
+            return minX;
+        }
+
+        public double getMinY() {
+            return minY;
+        }
+
+        public double getMaxX() {
+            return maxX;
+        }
+
+        public double getMaxY() {
+            return maxY;
+        }
+
+        /**
+         * @return the number of items in the cluster, at least two
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+}
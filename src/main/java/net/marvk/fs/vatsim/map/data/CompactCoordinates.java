@@ -0,0 +1,126 @@
+package net.marvk.fs.vatsim.map.data;
+
+import java.util.Arrays;
+
+/**
+ * Ring coordinates quantized to a fixed point grid relative to an origin, usually the minimum of the ring boundary,
+ * stored as zigzag varint encoded deltas between consecutive vertices.
+ * <p>
+ * At the maximum scale one pixel of a 4K wide view spans about 5.5e-6 degrees, so the quantization error of half a
+ * {@link #QUANTUM} stays below a tenth of a pixel at every zoom level.
+ */
+final class CompactCoordinates {
+    /**
+     * Grid size in degrees.
+     */
+    static final double QUANTUM = 1e-6;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final double originX;
+    private final double originY;
+    private final int numPoints;
+    private final byte[] data;
+
+    private CompactCoordinates(final double originX, final double originY, final int numPoints, final byte[] data) {
+        this.originX = originX;
+        this.originY = originY;
+        this.numPoints = numPoints;
+        this.data = data;
+    }
+
+    /**
+     * Encodes the first {@code n} points, all of which have to be greater or equal to the origin.
+     */
+    static CompactCoordinates encode(final double[] xs, final double[] ys, final int n, final double originX, final double originY) {
+        if (n == 0) {
+            return new CompactCoordinates(0, 0, 0, EMPTY);
+        }
+
+        // two varints of at most ten bytes each per vertex
+        byte[] buffer = new byte[Math.min(20 * n, 64 + 6 * n)];
+        int position = 0;
+
+        long lastX = 0;
+        long lastY = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (buffer.length - position < 20) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + 20));
+            }
+
+            final long x = Math.round((xs[i] - originX) / QUANTUM);
+            final long y = Math.round((ys[i] - originY) / QUANTUM);
+
+            position = writeVarint(buffer, position, zigzag(x - lastX));
+            position = writeVarint(buffer, position, zigzag(y - lastY));
+
+            lastX = x;
+            lastY = y;
+        }
+
+        return new CompactCoordinates(originX, originY, n, Arrays.copyOf(buffer, position));
+    }
+
+    /**
+     * Writes the decoded points into the first {@link #numPoints()} elements of the arrays.
+     */
+    void decode(final double[] xs, final double[] ys) {
+        int position = 0;
+
+        long x = 0;
+        long y = 0;
+
+        for (int i = 0; i < numPoints; i++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            x += unzigzag(value);
+
+            value = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            y += unzigzag(value);
+
+            xs[i] = originX + x * QUANTUM;
+            ys[i] = originY + y * QUANTUM;
+        }
+    }
+
+    int numPoints() {
+        return numPoints;
+    }
+
+    /**
+     * @return the size of the encoded coordinates in bytes
+     */
+    int byteSize() {
+        return data.length;
+    }
+
+    private static int writeVarint(final byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
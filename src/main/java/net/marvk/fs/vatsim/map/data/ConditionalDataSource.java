@@ -0,0 +1,11 @@
+package net.marvk.fs.vatsim.map.data;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ConditionalDataSource {
+    /**
+     * Fetches the data feed, completing with a {@link FetchResult.Status#NOT_MODIFIED} result if the feed did not
+     * change since the last fetch.
+     */
+    CompletableFuture<FetchResult> dataAsync();
+}
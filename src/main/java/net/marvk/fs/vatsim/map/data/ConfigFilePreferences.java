@@ -9,6 +9,7 @@ import javafx.beans.value.ObservableValue;
 import javafx.scene.paint.Color;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.Debouncer;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -32,12 +33,17 @@ public class ConfigFilePreferences implements Preferences, Writable {
     private final Path path;
     private final Adapter<Map<String, ObservableValue<?>>> adapter;
 
-    private final Debouncer writeDebouncer = new Debouncer(this::write, Duration.ofSeconds(1));
+    private final Debouncer writeDebouncer;
 
     @Inject
-    public ConfigFilePreferences(@Named("userConfigDir") final Path path, @Named("configSerializer") final Adapter<Map<String, ObservableValue<?>>> adapter) {
+    public ConfigFilePreferences(
+            @Named("userConfigDir") final Path path,
+            @Named("configSerializer") final Adapter<Map<String, ObservableValue<?>>> adapter,
+            final TaskExecutors executors
+    ) {
         this.path = path.resolve("Config.json");
         this.adapter = adapter;
+        this.writeDebouncer = new Debouncer(this::write, Duration.ofSeconds(1), executors.scheduled());
         tryCreateFilterDirectory(path);
         tryLoadConfig();
 
@@ -60,6 +66,8 @@ public class ConfigFilePreferences implements Preferences, Writable {
         integerProperty("general.font_size", 12);
         integerProperty("general.map_font_size", 12);
         doubleProperty("general.scroll_speed", 2.25);
+        booleanProperty("general.smooth_motion", true);
+        integerProperty("general.motion_frame_rate", 10);
         booleanProperty("general.prereleases", false);
         booleanProperty("general.delete_old_logs", true);
         stringProperty("meta.version", "0.0.0");
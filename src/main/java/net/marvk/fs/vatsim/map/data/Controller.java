@@ -3,8 +3,6 @@ package net.marvk.fs.vatsim.map.data;
 import javafx.beans.property.*;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
-import net.marvk.fs.vatsim.api.data.VatsimClient;
-import net.marvk.fs.vatsim.api.data.VatsimController;
 
 import java.util.List;
 
@@ -35,8 +33,7 @@ public class Controller extends Client implements Data {
             RelationshipReadOnlyObjectWrapper.withOtherList(this, UpperInformationRegion::getControllersWritable);
 
     @Override
-    public void setFromModel(final VatsimClient client) {
-        final VatsimController controller = (VatsimController) client;
+    public void setFromModel(final ClientUpdate controller) {
         super.setFromModel(controller);
 
         frequency.set(controller.getFrequency());
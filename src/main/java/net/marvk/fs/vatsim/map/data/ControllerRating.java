@@ -18,6 +18,19 @@ public class ControllerRating implements Comparable<ControllerRating> {
         return RATINGS.computeIfAbsent(id, key -> new ControllerRating(id, shortName, longName));
     }
 
+    /**
+     * @return the rating with the given id, or an unnamed rating if no rating with that id was loaded
+     */
+    public static ControllerRating of(final int id) {
+        final ControllerRating rating = RATINGS.get(id);
+
+        if (rating == null) {
+            return new ControllerRating(id, String.valueOf(id), "Unknown");
+        }
+
+        return rating;
+    }
+
     public static ControllerRating of(final VatsimControllerRating rating) {
         return of(Integer.parseInt(rating.getId()), rating.getShortName(), rating.getLongName());
     }
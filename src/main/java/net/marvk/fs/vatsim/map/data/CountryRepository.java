@@ -7,19 +7,21 @@ import net.marvk.fs.vatsim.api.VatsimApi;
 import net.marvk.fs.vatsim.api.VatsimApiException;
 import net.marvk.fs.vatsim.api.data.VatsimCountry;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Log4j2
 public class CountryRepository extends SimpleDataRepository<Country, CountryRepository.VatsimCountryWrapper> {
 
-    private final Lookup<Country> prefixLookup;
+    private volatile PrefixIndex prefixIndex = new PrefixIndex(List.of(), List.of());
 
     @Inject
     public CountryRepository(final VatsimApi vatsimApi) {
         super(vatsimApi);
-        this.prefixLookup = Lookup.fromCollection(Country::getPrefixes);
     }
 
     @Override
@@ -38,8 +40,31 @@ public class CountryRepository extends SimpleDataRepository<Country, CountryRepo
     }
 
     @Override
-    protected void onAdd(final Country toAdd, final VatsimCountryWrapper vatsimCountryWrapper) {
-        prefixLookup.put(toAdd);
+    protected void updateList(final Collection<VatsimCountryWrapper> updatedModels) {
+        super.updateList(updatedModels);
+
+        final List<String> prefixes = new ArrayList<>();
+        final List<Country> countries = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        final Set<String> duplicates = new HashSet<>();
+
+        for (final Country country : items) {
+            for (final String prefix : country.getPrefixes()) {
+                if (prefix != null) {
+                    if (!seen.add(prefix)) {
+                        duplicates.add(prefix);
+                    }
+                    prefixes.add(prefix);
+                    countries.add(country);
+                }
+            }
+        }
+
+        for (final String duplicate : duplicates) {
+            log.warn("Found multiple countries for prefix \"%s\"".formatted(duplicate));
+        }
+
+        prefixIndex = new PrefixIndex(prefixes, countries);
     }
 
     @Override
@@ -56,16 +81,29 @@ public class CountryRepository extends SimpleDataRepository<Country, CountryRepo
     }
 
     public Country getByPrefix(final String prefix) {
-        final List<Country> countries = prefixLookup.get(prefix);
-        if (countries == null || countries.isEmpty()) {
-            return null;
-        }
+        return prefixIndex.get(prefix, prefix == null ? 0 : prefix.length());
+    }
+
+    /**
+     * @return the country whose two letter prefix the ICAO code starts with, without allocating
+     */
+    public Country getByIcao(final String icao) {
+        return prefixIndex.get(icao, 2);
+    }
 
-        if (countries.size() != 1) {
-            log.warn("Found multiple countries for prefix \"%s\"".formatted(prefix));
+    private static final class PrefixIndex {
+        private final SortedIndex index;
+        private final Country[] countries;
+
+        private PrefixIndex(final List<String> prefixes, final List<Country> countries) {
+            this.index = SortedIndex.of(prefixes);
+            this.countries = countries.toArray(Country[]::new);
         }
 
-        return countries.get(0);
+        private Country get(final String s, final int length) {
+            final int i = index.get(s, length);
+            return i < 0 ? null : countries[i];
+        }
     }
 
     @Value
@@ -0,0 +1,185 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.inject.Singleton;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streaming parser for the v3 data feed that reads clients directly into {@link ClientUpdate} records, skipping
+ * everything it does not need.
+ */
+@Log4j2
+@Singleton
+public class DataFeedParser {
+    private static final int STRING_POOL_SIZE = 50_000;
+
+    private final StringPool pool = new StringPool(STRING_POOL_SIZE);
+
+    private int lastClientCount = 1024;
+
+    public synchronized List<ClientUpdate> parse(final String feed) throws IOException {
+        final long startNanos = System.nanoTime();
+        final long startAllocated = threadAllocatedBytes();
+
+        final List<ClientUpdate> result = new ArrayList<>(lastClientCount);
+
+        try (final JsonReader reader = new JsonReader(new StringReader(feed))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "pilots" -> readClients(reader, ClientType.PILOT, result);
+                    case "controllers" -> readClients(reader, ClientType.CONTROLLER, result);
+                    case "atis" -> readClients(reader, ClientType.ATIS, result);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (final IllegalStateException | NumberFormatException e) {
+            throw new IOException("Malformed data feed", e);
+        }
+
+        lastClientCount = result.size();
+
+        final long allocated = threadAllocatedBytes() - startAllocated;
+        log.info("Parsed %d clients in %d ms, %d KiB allocated, %d pooled strings".formatted(
+                result.size(),
+                (System.nanoTime() - startNanos) / 1_000_000,
+                allocated / 1024,
+                pool.size()
+        ));
+
+        return result;
+    }
+
+    private void readClients(final JsonReader reader, final ClientType clientType, final List<ClientUpdate> result) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            result.add(readClient(reader, clientType));
+        }
+        reader.endArray();
+    }
+
+    private ClientUpdate readClient(final JsonReader reader, final ClientType clientType) throws IOException {
+        final ClientUpdate client = new ClientUpdate(clientType);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+
+            switch (name) {
+                case "cid" -> client.cid = reader.nextInt();
+                case "callsign" -> client.callsign = reader.nextString();
+                case "name" -> client.name = reader.nextString();
+                case "server" -> client.server = pool.intern(reader.nextString());
+                case "logon_time" -> client.logonTime = nextDateTime(reader);
+                case "last_updated" -> client.lastUpdated = nextDateTime(reader);
+                case "latitude" -> client.latitude = reader.nextDouble();
+                case "longitude" -> client.longitude = reader.nextDouble();
+                case "altitude" -> client.altitude = reader.nextDouble();
+                case "groundspeed" -> client.groundSpeed = reader.nextDouble();
+                case "heading" -> client.heading = reader.nextDouble();
+                case "qnh_i_hg" -> client.qnhInchesMercury = reader.nextDouble();
+                case "qnh_mb" -> client.qnhMilliBars = reader.nextDouble();
+                case "transponder" -> client.transponder = pool.intern(reader.nextString());
+                case "flight_plan" -> client.flightPlan = readFlightPlan(reader);
+                case "frequency" -> client.frequency = pool.intern(reader.nextString());
+                case "facility" -> client.facility = reader.nextInt();
+                case "rating" -> client.rating = reader.nextInt();
+                case "text_atis" -> client.textAtis = readStrings(reader);
+                case "atis_code" -> client.atisCode = pool.intern(reader.nextString());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return client;
+    }
+
+    private FlightPlanUpdate readFlightPlan(final JsonReader reader) throws IOException {
+        final FlightPlanUpdate flightPlan = new FlightPlanUpdate();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+
+            switch (name) {
+                case "flight_rules" -> flightPlan.flightRules = pool.intern(reader.nextString());
+                case "aircraft" -> flightPlan.aircraft = pool.intern(reader.nextString());
+                case "departure" -> flightPlan.departure = pool.intern(reader.nextString().strip());
+                case "arrival" -> flightPlan.arrival = pool.intern(reader.nextString().strip());
+                case "alternate" -> flightPlan.alternate = pool.intern(reader.nextString().strip());
+                case "cruise_tas" -> flightPlan.cruiseTas = pool.intern(reader.nextString());
+                case "altitude" -> flightPlan.altitude = pool.intern(reader.nextString());
+                case "deptime" -> flightPlan.departureTime = pool.intern(reader.nextString());
+                case "enroute_time" -> flightPlan.enrouteTime = pool.intern(reader.nextString());
+                case "fuel_time" -> flightPlan.fuelTime = pool.intern(reader.nextString());
+                case "remarks" -> flightPlan.remarks = reader.nextString();
+                case "route" -> flightPlan.route = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return flightPlan;
+    }
+
+    private static List<String> readStrings(final JsonReader reader) throws IOException {
+        final List<String> result = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else {
+                result.add(reader.nextString());
+            }
+        }
+        reader.endArray();
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private static ZonedDateTime nextDateTime(final JsonReader reader) throws IOException {
+        final String s = reader.nextString();
+
+        try {
+            return ZonedDateTime.parse(s);
+        } catch (final DateTimeParseException e) {
+            log.warn("Failed to parse date time \"%s\"".formatted(s));
+            return null;
+        }
+    }
+
+    private static long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+        }
+
+        return 0;
+    }
+}
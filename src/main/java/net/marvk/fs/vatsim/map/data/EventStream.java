@@ -0,0 +1,36 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Minimal typed publish/subscribe stream. Events are delivered synchronously on the publishing thread, in
+ * subscription order.
+ */
+@Log4j2
+public class EventStream<E> {
+    private final List<Consumer<? super E>> subscribers = new CopyOnWriteArrayList<>();
+
+    public Subscription subscribe(final Consumer<? super E> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    public void publish(final E event) {
+        for (final Consumer<? super E> subscriber : subscribers) {
+            try {
+                subscriber.accept(event);
+            } catch (final RuntimeException e) {
+                log.error("Subscriber failed to handle event", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Subscription {
+        void unsubscribe();
+    }
+}
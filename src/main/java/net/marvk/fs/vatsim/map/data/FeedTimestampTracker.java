@@ -0,0 +1,123 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.gson.stream.JsonReader;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps track of the {@code general.update_timestamp} of the most recently downloaded data feed and predicts when the
+ * next snapshot will be published.
+ */
+@Log4j2
+@Singleton
+public class FeedTimestampTracker {
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration MAX_INTERVAL = Duration.ofMinutes(2);
+    private static final double SMOOTHING = 0.3;
+
+    private volatile ZonedDateTime latest;
+    private volatile Duration interval;
+
+    @Inject
+    public FeedTimestampTracker(@Named("vatsimApiRefreshRate") final Duration refreshRate) {
+        this.interval = refreshRate;
+    }
+
+    public void observe(final String feed) {
+        final ZonedDateTime timestamp = readUpdateTimestamp(feed);
+
+        if (timestamp != null) {
+            observe(timestamp);
+        }
+    }
+
+    public synchronized void observe(final ZonedDateTime timestamp) {
+        final ZonedDateTime previous = latest;
+
+        if (previous != null && !timestamp.isAfter(previous)) {
+            return;
+        }
+
+        if (previous != null) {
+            final Duration delta = Duration.between(previous, timestamp);
+
+            // Only learn from consecutive snapshots, a gap of several intervals means we missed some
+            if (delta.compareTo(interval.multipliedBy(2)) < 0) {
+                final long smoothed = (long) (interval.toMillis() * (1 - SMOOTHING) + delta.toMillis() * SMOOTHING);
+                interval = clamp(Duration.ofMillis(smoothed));
+            }
+        }
+
+        latest = timestamp;
+    }
+
+    public ZonedDateTime getLatest() {
+        return latest;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public ZonedDateTime predictNextPublication() {
+        final ZonedDateTime current = latest;
+
+        if (current == null) {
+            return null;
+        }
+
+        return current.plus(interval);
+    }
+
+    static ZonedDateTime readUpdateTimestamp(final String feed) {
+        if (feed == null) {
+            return null;
+        }
+
+        try (final JsonReader reader = new JsonReader(new StringReader(feed))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("general".equals(reader.nextName())) {
+                    return readUpdateTimestampFromGeneral(reader);
+                }
+                reader.skipValue();
+            }
+        } catch (final IOException | IllegalStateException | DateTimeParseException e) {
+            log.warn("Failed to read update timestamp from data feed", e);
+        }
+
+        return null;
+    }
+
+    private static ZonedDateTime readUpdateTimestampFromGeneral(final JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("update_timestamp".equals(reader.nextName())) {
+                return ZonedDateTime.parse(reader.nextString());
+            }
+            reader.skipValue();
+        }
+
+        return null;
+    }
+
+    private static Duration clamp(final Duration duration) {
+        if (duration.compareTo(MIN_INTERVAL) < 0) {
+            return MIN_INTERVAL;
+        }
+
+        if (duration.compareTo(MAX_INTERVAL) > 0) {
+            return MAX_INTERVAL;
+        }
+
+        return duration;
+    }
+}
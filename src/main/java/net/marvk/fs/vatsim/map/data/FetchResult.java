@@ -0,0 +1,28 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.Value;
+
+@Value
+public class FetchResult {
+    Status status;
+    String body;
+
+    public static FetchResult modified(final String body) {
+        return new FetchResult(Status.MODIFIED, body);
+    }
+
+    /**
+     * @param cachedBody the body of the last response that was not a {@code 304 Not Modified}
+     */
+    public static FetchResult notModified(final String cachedBody) {
+        return new FetchResult(Status.NOT_MODIFIED, cachedBody);
+    }
+
+    public boolean isModified() {
+        return status == Status.MODIFIED;
+    }
+
+    public enum Status {
+        MODIFIED, NOT_MODIFIED
+    }
+}
@@ -104,6 +104,10 @@ public class FlightInformationRegionBoundary implements Settable<VatsimAirspace>
         return polygon;
     }
 
+    ObjectProperty<Polygon> polygonPropertyWritable() {
+        return polygon;
+    }
+
     public void mergeInto(final FlightInformationRegionBoundary extension) {
         log.debug("Merging %s with it's extension".formatted(getIcao()));
         // TODO fix polygon merging...
@@ -16,12 +16,12 @@ import net.marvk.fs.vatsim.api.VatsimApi;
 import net.marvk.fs.vatsim.api.VatsimApiException;
 import net.marvk.fs.vatsim.api.data.VatsimAirspace;
 import net.marvk.fs.vatsim.api.data.VatsimAirspaceGeneral;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -29,9 +29,14 @@ import java.util.stream.StreamSupport;
 
 @Log4j2
 public class FlightInformationRegionBoundaryRepository extends ProviderRepository<FlightInformationRegionBoundary, VatsimAirspace> {
+    private static final String CACHE_NAME = "flight_information_region_boundaries";
+
     private final Lookup<FlightInformationRegionBoundary> icao = Lookup.fromProperty(FlightInformationRegionBoundary::getIcao);
     private final FlightInformationRegionRepository flightInformationRegionRepository;
     private final CountryRepository countryRepository;
+    private final GeometryCache geometryCache;
+    private final PolyLabelService polyLabelService;
+    private final Executor cpuExecutor;
     private RTree<FlightInformationRegionBoundary, PolygonGeometry> rTree = RTree.create();
 
     @Inject
@@ -39,11 +44,17 @@ public class FlightInformationRegionBoundaryRepository extends ProviderRepositor
             final VatsimApi vatsimApi,
             final Provider<FlightInformationRegionBoundary> provider,
             final FlightInformationRegionRepository flightInformationRegionRepository,
-            final CountryRepository countryRepository
+            final CountryRepository countryRepository,
+            final GeometryCache geometryCache,
+            final PolyLabelService polyLabelService,
+            final TaskExecutors executors
     ) {
         super(vatsimApi, provider);
         this.flightInformationRegionRepository = flightInformationRegionRepository;
         this.countryRepository = countryRepository;
+        this.geometryCache = geometryCache;
+        this.polyLabelService = polyLabelService;
+        this.cpuExecutor = executors.cpu();
     }
 
     @Override
@@ -76,7 +87,7 @@ public class FlightInformationRegionBoundaryRepository extends ProviderRepositor
     protected void onAdd(final FlightInformationRegionBoundary toAdd, final VatsimAirspace airspace) {
         icao.put(toAdd);
 
-        final Country country = countryRepository.getByPrefix(toAdd.getIcao().substring(0, 2));
+        final Country country = countryRepository.getByIcao(toAdd.getIcao());
         if (country != null) {
             toAdd.countryPropertyWritable().set(country);
         } else {
@@ -87,7 +98,28 @@ public class FlightInformationRegionBoundaryRepository extends ProviderRepositor
     @Override
     protected void updateList(final Collection<VatsimAirspace> updatedModels) {
         super.updateList(updatedModels);
-        mergeExtensions();
+
+        final String sourceHash = sourceHash(updatedModels);
+        final Optional<List<Polygon>> cached = geometryCache.read(CACHE_NAME, sourceHash);
+
+        final boolean restored = cached.isPresent() && restoreMergedPolygons(cached.get());
+
+        if (!restored) {
+            mergeExtensions();
+        }
+
+        final List<FlightInformationRegionBoundary> boundaries = List.copyOf(list());
+        final List<Polygon> polygons = boundaries
+                .stream()
+                .map(FlightInformationRegionBoundary::getPolygon)
+                .collect(Collectors.toList());
+
+        final CompletableFuture<Void> polyLabels = polyLabelService.computeAsync(polygons);
+
+        if (!restored) {
+            polyLabels.thenRun(() -> geometryCache.write(CACHE_NAME, sourceHash, cacheEntries(boundaries, polygons)));
+        }
+
         createRTree();
         linkFirs();
     }
@@ -195,7 +227,69 @@ public class FlightInformationRegionBoundaryRepository extends ProviderRepositor
         return new EntryDefault<>(e, new PolygonGeometry(e.getPolygon()));
     }
 
-    private void mergeExtensions() {
+    private static String sourceHash(final Collection<VatsimAirspace> airspaces) {
+        final GeometryCache.SourceHash result = new GeometryCache.SourceHash();
+
+        for (final VatsimAirspace airspace : airspaces) {
+            final VatsimAirspaceGeneral general = airspace.getGeneral();
+            result.update(general.getIcao())
+                  .update(general.getExtension())
+                  .update(general.getOceanic());
+
+            for (final net.marvk.fs.vatsim.api.data.Point point : airspace.getAirspacePoints()) {
+                result.update(point.getX()).update(point.getY());
+            }
+        }
+
+        return result.finish();
+    }
+
+    /**
+     * @return the merged polygons, each named after the {@link #parentKey(FlightInformationRegionBoundary) parent key}
+     * of its boundary so {@link #restoreMergedPolygons(List)} can verify the assignment
+     */
+    private static List<Polygon> cacheEntries(final List<FlightInformationRegionBoundary> boundaries, final List<Polygon> polygons) {
+        final List<Polygon> result = new ArrayList<>(boundaries.size());
+        for (int i = 0; i < boundaries.size(); i++) {
+            result.add(new Polygon(polygons.get(i), parentKey(boundaries.get(i))));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the polygons of all boundaries with the already merged polygons from the cache.
+     *
+     * @return {@code false} if the cache does not match the current boundaries, nothing was changed in that case
+     */
+    private boolean restoreMergedPolygons(final List<Polygon> cached) {
+        final List<FlightInformationRegionBoundary> parents = list()
+                .stream()
+                .filter(e -> !e.isExtension())
+                .collect(Collectors.toList());
+
+        if (parents.size() != cached.size()) {
+            log.warn("Geometry cache contains %d boundaries, expected %d".formatted(cached.size(), parents.size()));
+            return false;
+        }
+
+        for (int i = 0; i < parents.size(); i++) {
+            final String expected = parentKey(parents.get(i));
+            if (!expected.equals(cached.get(i).getName())) {
+                log.warn("Geometry cache entry %d belongs to %s, expected %s".formatted(i, cached.get(i).getName(), expected));
+                return false;
+            }
+        }
+
+        removeExtensions();
+
+        for (int i = 0; i < parents.size(); i++) {
+            parents.get(i).polygonPropertyWritable().set(cached.get(i));
+        }
+
+        return true;
+    }
+
+    private List<FlightInformationRegionBoundary> removeExtensions() {
         final List<FlightInformationRegionBoundary> extensions =
                 list()
                         .stream()
@@ -205,21 +299,48 @@ public class FlightInformationRegionBoundaryRepository extends ProviderRepositor
         items.removeAll(extensions);
         icao.removeAll(extensions);
 
-        for (final FlightInformationRegionBoundary extension : extensions) {
-            final Optional<FlightInformationRegionBoundary> maybeParent =
-                    items.stream()
-                         .filter(e -> e.isOceanic() == extension.isOceanic())
-                         .filter(e -> e.getIcao().equals(extension.getIcao()))
-                         .findFirst();
+        return extensions;
+    }
 
-            if (maybeParent.isPresent()) {
-                final FlightInformationRegionBoundary parent = maybeParent.get();
+    private void mergeExtensions() {
+        final long start = System.nanoTime();
+
+        final List<FlightInformationRegionBoundary> extensions = removeExtensions();
+
+        final Map<String, FlightInformationRegionBoundary> parents = new HashMap<>();
+        for (final FlightInformationRegionBoundary firb : items) {
+            parents.putIfAbsent(parentKey(firb), firb);
+        }
+
+        final Map<FlightInformationRegionBoundary, List<FlightInformationRegionBoundary>> extensionsByParent = new LinkedHashMap<>();
+        for (final FlightInformationRegionBoundary extension : extensions) {
+            final FlightInformationRegionBoundary parent = parents.get(parentKey(extension));
 
-                parent.mergeInto(extension);
+            if (parent != null) {
+                extensionsByParent.computeIfAbsent(parent, e -> new ArrayList<>()).add(extension);
             } else {
                 log.warn("No parent found for extension FIR " + keyFromViewModel(extension));
             }
         }
+
+        // merges of different parents are independent, extensions of the same parent are merged in order
+        final CompletableFuture<?>[] merges = extensionsByParent
+                .entrySet()
+                .stream()
+                .map(e -> CompletableFuture.runAsync(() -> e.getValue().forEach(e.getKey()::mergeInto), cpuExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(merges).join();
+
+        log.info("Merged %d extensions into %d boundaries in %d ms".formatted(
+                extensions.size(),
+                extensionsByParent.size(),
+                (System.nanoTime() - start) / 1_000_000
+        ));
+    }
+
+    private static String parentKey(final FlightInformationRegionBoundary firb) {
+        return firb.getIcao() + "_" + firb.isOceanic();
     }
 
     public List<FlightInformationRegionBoundary> getByIcao(final String icao) {
@@ -2,7 +2,6 @@ package net.marvk.fs.vatsim.map.data;
 
 import javafx.beans.property.*;
 import lombok.extern.log4j.Log4j2;
-import net.marvk.fs.vatsim.api.data.VatsimFlightPlan;
 import net.marvk.fs.vatsim.map.GeomUtil;
 
 import java.time.DateTimeException;
@@ -12,7 +11,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Log4j2
-public class FlightPlan implements Settable<VatsimFlightPlan>, Data {
+public class FlightPlan implements Settable<FlightPlanUpdate>, Data {
     private static final Pattern ALTITUDE_PATTERN = Pattern.compile("^(?<prefix>FL|F)?(?<amount>\\d+)$", Pattern.CASE_INSENSITIVE);
     private static final Pattern AIRCRAFT_PATTERN = Pattern.compile("^(?:./)?(...[^/-]{0,2})(?:[/-].*)?$", Pattern.CASE_INSENSITIVE);
     private static final Pattern HOURS_MINUTES = Pattern.compile("\\d{4}");
@@ -41,7 +40,7 @@ public class FlightPlan implements Settable<VatsimFlightPlan>, Data {
     }
 
     @Override
-    public void setFromModel(final VatsimFlightPlan model) {
+    public void setFromModel(final FlightPlanUpdate model) {
         if (model == null) {
             return;
         }
@@ -63,6 +62,10 @@ public class FlightPlan implements Settable<VatsimFlightPlan>, Data {
     }
 
     private String shortAircraft(final String aircraft) {
+        if (aircraft == null) {
+            return null;
+        }
+
         final Matcher matcher = AIRCRAFT_PATTERN.matcher(aircraft);
         if (matcher.matches()) {
             return matcher.group(1);
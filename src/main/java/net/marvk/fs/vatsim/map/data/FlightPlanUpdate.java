@@ -0,0 +1,26 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class FlightPlanUpdate {
+    String flightRules;
+    String aircraft;
+    String departure;
+    String arrival;
+    String alternate;
+    String cruiseTas;
+    String altitude;
+    String departureTime;
+    String enrouteTime;
+    String fuelTime;
+    String remarks;
+    String route;
+
+    FlightPlanUpdate() {
+    }
+}
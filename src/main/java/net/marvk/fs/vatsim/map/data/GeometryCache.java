@@ -0,0 +1,310 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import javafx.geometry.Point2D;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Binary snapshot of parsed and preprocessed polygons, so subsequent starts can skip parsing and merging. Snapshots are
+ * keyed by a hash of their source content and the application version.
+ * <p>
+ * Snapshots are read into the heap instead of being memory mapped, a live mapping would keep the file from being
+ * replaced on Windows.
+ */
+@Log4j2
+@Singleton
+public class GeometryCache {
+    private static final int MAGIC = 0x56504743;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+    private final String applicationVersion;
+
+    @Inject
+    public GeometryCache(@Named("userCacheDir") final Path userCacheDir, final VersionProvider versionProvider) {
+        this(userCacheDir.resolve("geometry"), versionProvider.getString());
+    }
+
+    GeometryCache(final Path directory, final String applicationVersion) {
+        this.directory = directory;
+        this.applicationVersion = applicationVersion;
+    }
+
+    /**
+     * Reads the snapshot with the given name if it exists and was created from the same source and application version.
+     */
+    public Optional<List<Polygon>> read(final String name, final String sourceHash) {
+        final Path file = file(name);
+
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.info("Ignoring geometry cache %s with unknown format".formatted(file));
+                return Optional.empty();
+            }
+
+            if (!key(sourceHash).equals(readString(buffer))) {
+                log.info("Geometry cache %s is outdated".formatted(file));
+                return Optional.empty();
+            }
+
+            // every polygon has at least a name length and a ring count
+            final int numPolygons = count(buffer, 2 * Integer.BYTES);
+            final List<Polygon> result = new ArrayList<>(numPolygons);
+
+            for (int i = 0; i < numPolygons; i++) {
+                result.add(readPolygon(buffer));
+            }
+
+            log.info("Read %d polygons from geometry cache %s in %d ms".formatted(
+                    numPolygons,
+                    file,
+                    (System.nanoTime() - start) / 1_000_000
+            ));
+
+            return Optional.of(result);
+        } catch (final IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Failed to read geometry cache %s".formatted(file), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the polygons. Failing to write the snapshot is logged and otherwise ignored, the next start
+     * will simply parse the source again.
+     */
+    public void write(final String name, final String sourceHash, final List<Polygon> polygons) {
+        final Path file = file(name);
+
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+
+            temp = Files.createTempFile(directory, name, ".tmp");
+
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, key(sourceHash));
+                out.writeInt(polygons.size());
+
+                for (final Polygon polygon : polygons) {
+                    writePolygon(out, polygon);
+                }
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+
+            log.info("Wrote %d polygons to geometry cache %s".formatted(polygons.size(), file));
+        } catch (final IOException e) {
+            log.warn("Failed to write geometry cache %s".formatted(file), e);
+        } finally {
+            deleteTemp(temp);
+        }
+    }
+
+    private static void deleteTemp(final Path temp) {
+        if (temp == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(temp);
+        } catch (final IOException e) {
+            log.warn("Failed to delete temporary geometry cache %s".formatted(temp), e);
+        }
+    }
+
+    private Path file(final String name) {
+        return directory.resolve(name + ".bin");
+    }
+
+    private String key(final String sourceHash) {
+        return sourceHash + "/" + applicationVersion;
+    }
+
+    private static Polygon readPolygon(final ByteBuffer buffer) throws IOException {
+        final String name = readString(buffer);
+        // every ring has at least a point count and a poly label flag
+        final int numRings = count(buffer, Integer.BYTES + 1);
+
+        final List<double[]> pointsX = new ArrayList<>(numRings);
+        final List<double[]> pointsY = new ArrayList<>(numRings);
+        final List<Point2D> polyLabels = new ArrayList<>(numRings);
+
+        for (int i = 0; i < numRings; i++) {
+            final int numPoints = buffer.getInt();
+
+            if (buffer.get() == 1) {
+                polyLabels.add(new Point2D(buffer.getDouble(), buffer.getDouble()));
+            } else {
+                polyLabels.add(null);
+            }
+
+            checkCount(buffer, numPoints, 2 * Double.BYTES);
+
+            final double[] x = new double[numPoints];
+            final double[] y = new double[numPoints];
+            buffer.asDoubleBuffer().get(x).get(y);
+            buffer.position(buffer.position() + 2 * numPoints * Double.BYTES);
+
+            pointsX.add(x);
+            pointsY.add(y);
+        }
+
+        return new Polygon(name, pointsX, pointsY, polyLabels);
+    }
+
+    private static void writePolygon(final DataOutputStream out, final Polygon polygon) throws IOException {
+        writeString(out, polygon.getName());
+        out.writeInt(1 + polygon.getHoleRings().size());
+
+        writeRing(out, polygon.getExteriorRing());
+        for (final Polygon.Ring ring : polygon.getHoleRings()) {
+            writeRing(out, ring);
+        }
+    }
+
+    private static void writeRing(final DataOutputStream out, final Polygon.Ring ring) throws IOException {
+        out.writeInt(ring.numPoints());
+
+        final Point2D polyLabel = ring.computedPolyLabel();
+        if (polyLabel == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            out.writeDouble(polyLabel.getX());
+            out.writeDouble(polyLabel.getY());
+        }
+
+        for (final double x : ring.getPointsX()) {
+            out.writeDouble(x);
+        }
+        for (final double y : ring.getPointsY()) {
+            out.writeDouble(y);
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) throws IOException {
+        final int length = buffer.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        checkCount(buffer, length, 1);
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count and checks that the rest of the buffer can hold that many elements.
+     */
+    private static int count(final ByteBuffer buffer, final int minBytesPerElement) throws IOException {
+        final int result = buffer.getInt();
+        checkCount(buffer, result, minBytesPerElement);
+        return result;
+    }
+
+    /**
+     * Guards allocations against corrupt counts, which would otherwise end in a {@link NegativeArraySizeException} or
+     * an {@link OutOfMemoryError}.
+     */
+    private static void checkCount(final ByteBuffer buffer, final int count, final int minBytesPerElement) throws IOException {
+        if (count < 0 || count > buffer.remaining() / minBytesPerElement) {
+            throw new IOException("Invalid count %d with %d bytes remaining".formatted(count, buffer.remaining()));
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Incremental SHA-256 of the content a snapshot is created from.
+     */
+    public static class SourceHash {
+        private final MessageDigest digest;
+        private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+
+        public SourceHash() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (final NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public SourceHash update(final byte[] bytes) {
+            digest.update(bytes);
+            return this;
+        }
+
+        public SourceHash update(final InputStream inputStream) throws IOException {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+            return this;
+        }
+
+        public SourceHash update(final String s) {
+            update(String.valueOf(s).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return this;
+        }
+
+        public SourceHash update(final double d) {
+            scratch.clear();
+            scratch.putDouble(d);
+            digest.update(scratch.array());
+            return this;
+        }
+
+        public SourceHash update(final boolean b) {
+            digest.update((byte) (b ? 1 : 0));
+            return this;
+        }
+
+        public String finish() {
+            final StringBuilder result = new StringBuilder();
+            for (final byte b : digest.digest()) {
+                result.append("%02x".formatted(b));
+            }
+            return result.toString();
+        }
+    }
+}
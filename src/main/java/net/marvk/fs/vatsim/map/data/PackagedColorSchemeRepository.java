@@ -4,11 +4,10 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
 
 import javax.inject.Inject;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -16,7 +15,12 @@ import java.util.stream.Stream;
 
 @Log4j2
 public class PackagedColorSchemeRepository implements ReadOnlyRepository<ColorScheme> {
-    private static final String PREFIX = "net.marvk.fs.vatsim.map.color_schemes";
+    private static final String DIRECTORY = "/net/marvk/fs/vatsim/map/color_schemes/";
+    /**
+     * Lists the file names of all packaged color schemes, kept in sync with the directory by
+     * {@code PackagedColorSchemeRepositoryTest}.
+     */
+    private static final String INDEX = "/net/marvk/fs/vatsim/map/color_schemes.txt";
 
     private final ObservableList<ColorScheme> colorSchemes;
 
@@ -39,11 +43,15 @@ public class PackagedColorSchemeRepository implements ReadOnlyRepository<ColorSc
 
     @SneakyThrows
     public static Stream<String> fileNamesStream() {
-        log.info("Scanning for packaged color schemes in %s".formatted(PREFIX));
-        return new Reflections(PREFIX, Scanners.Resources)
-                .getResources(".*")
-                .stream()
-                .map(e -> "/" + e);
+        try (final InputStream index = createResourceStream(INDEX)) {
+            return new String(index.readAllBytes(), StandardCharsets.UTF_8)
+                    .lines()
+                    .map(String::strip)
+                    .filter(e -> !e.isEmpty())
+                    .map(e -> DIRECTORY + e)
+                    .collect(Collectors.toList())
+                    .stream();
+        }
     }
 
     @SneakyThrows
@@ -4,9 +4,6 @@ import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Point2D;
-import net.marvk.fs.vatsim.api.data.VatsimClient;
-import net.marvk.fs.vatsim.api.data.VatsimPilot;
-import net.marvk.fs.vatsim.map.GeomUtil;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
@@ -43,23 +40,21 @@ public class Pilot extends Client implements Data {
     }
 
     @Override
-    public void setFromModel(final VatsimClient client) {
-        final VatsimPilot pilot = (VatsimPilot) client;
-
+    public void setFromModel(final ClientUpdate pilot) {
         final ZonedDateTime previousUpdatedTime = getLastUpdatedTime();
         final double previousAltitude = getAltitude();
 
-        super.setFromModel(client);
+        super.setFromModel(pilot);
 
-        flightPlan.setFromModel(((VatsimPilot) client).getFlightPlan());
+        flightPlan.setFromModel(pilot.getFlightPlan());
 
         transponder.set(pilot.getTransponder());
-        altitude.set(Double.parseDouble(pilot.getAltitude()));
-        groundSpeed.set(Double.parseDouble(pilot.getGroundSpeed()));
-        heading.set(Double.parseDouble(pilot.getHeading()));
-        qnhInchesMercury.set(Double.parseDouble(pilot.getQnhInchesMercury()));
-        qnhMilliBars.set(Double.parseDouble(pilot.getQnhMillibars()));
-        position.set(GeomUtil.parsePoint(pilot.getLongitude(), pilot.getLatitude()));
+        altitude.set(pilot.getAltitude());
+        groundSpeed.set(pilot.getGroundSpeed());
+        heading.set(pilot.getHeading());
+        qnhInchesMercury.set(pilot.getQnhInchesMercury());
+        qnhMilliBars.set(pilot.getQnhMilliBars());
+        position.set(pilot.hasPosition() ? new Point2D(pilot.getLongitude(), pilot.getLatitude()) : null);
         history.add(position.get());
 
         if (!Objects.equals(previousUpdatedTime, getLastUpdatedTime())) {
@@ -74,10 +69,17 @@ public class Pilot extends Client implements Data {
             }
         }
 
-        eta.set(Eta.of(getPosition(), getGroundSpeed(), flightPlan.getDepartureAirport(), flightPlan.getArrivalAirport()));
+        updateEta();
         getUrls().setUrlsFromString(flightPlan.getRemarks());
     }
 
+    /**
+     * Recomputes the ETA, needs to be called whenever the flight plan airports change.
+     */
+    void updateEta() {
+        eta.set(Eta.of(getPosition(), getGroundSpeed(), flightPlan.getDepartureAirport(), flightPlan.getArrivalAirport()));
+    }
+
     @Override
     public ReadOnlyObjectProperty<ClientType> clientTypeProperty() {
         return CLIENT_TYPE;
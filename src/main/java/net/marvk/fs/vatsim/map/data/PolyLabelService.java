@@ -0,0 +1,65 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import lombok.extern.log4j.Log4j2;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Computes the label anchors of polygons in the background, so painting never has to run a poly label search.
+ * Until a label is computed, {@link Polygon.Ring#getPolyLabel()} falls back to the center of the ring's boundary.
+ */
+@Log4j2
+@Singleton
+public class PolyLabelService {
+    private final Executor executor;
+
+    @Inject
+    public PolyLabelService(final TaskExecutors executors) {
+        this(executors.cpu());
+    }
+
+    PolyLabelService(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Computes the labels of the exterior rings of all polygons in parallel, skipping already computed labels.
+     *
+     * @return a future completing once all labels are computed
+     */
+    public CompletableFuture<Void> computeAsync(final Collection<Polygon> polygons) {
+        final List<Polygon.Ring> rings = polygons
+                .stream()
+                .map(Polygon::getExteriorRing)
+                .filter(e -> !e.isPolyLabelComputed())
+                .collect(Collectors.toList());
+
+        if (rings.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final long start = System.nanoTime();
+
+        final CompletableFuture<?>[] futures = rings
+                .stream()
+                .map(e -> CompletableFuture.runAsync(e::computePolyLabel, executor))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture
+                .allOf(futures)
+                .whenComplete((result, e) -> {
+                    if (e == null) {
+                        log.info("Computed %d poly labels in %d ms".formatted(rings.size(), (System.nanoTime() - start) / 1_000_000));
+                    } else {
+                        log.warn("Failed to compute poly labels", e);
+                    }
+                });
+    }
+}
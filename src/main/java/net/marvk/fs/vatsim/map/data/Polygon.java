@@ -2,6 +2,7 @@ package net.marvk.fs.vatsim.map.data;
 
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
+import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.api.data.Point;
@@ -43,9 +44,9 @@ public class Polygon {
 
     public Polygon(final Geometry geometry, final String name) {
         this(coordinates(geometry),
-                (e, i) -> e.getCoordinates()[i].getX(),
-                (e, i) -> e.getCoordinates()[i].getY(),
-                e -> e.getCoordinates().length,
+                (e, i) -> e[i].getX(),
+                (e, i) -> e[i].getY(),
+                e -> e.length,
                 name
         );
     }
@@ -70,6 +71,63 @@ public class Polygon {
                                                              .sum();
     }
 
+    /**
+     * Restores a polygon from ring coordinates that were already deduplicated, together with the poly labels that
+     * were computed for them, or {@code null} for rings without a computed label.
+     */
+    Polygon(final String name, final List<double[]> pointsX, final List<double[]> pointsY, final List<Point2D> polyLabels) {
+        this(
+                IntStream.range(0, pointsX.size()).boxed().collect(Collectors.toList()),
+                (e, i) -> pointsX.get(e)[i],
+                (e, i) -> pointsY.get(e)[i],
+                e -> pointsX.get(e).length,
+                name
+        );
+
+        exteriorRing.polyLabel = polyLabels.get(0);
+        for (int i = 0; i < holeRings.size(); i++) {
+            holeRings.get(i).polyLabel = polyLabels.get(i + 1);
+        }
+    }
+
+    private Polygon(final Polygon source) {
+        this.name = source.name;
+        this.exteriorRing = new Ring(source.exteriorRing);
+        this.holeRings = source.holeRings
+                .stream()
+                .map(Ring::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.numPoints = source.numPoints;
+    }
+
+    /**
+     * Copy of {@code source} with another name, sharing the rings of {@code source}.
+     */
+    Polygon(final Polygon source, final String name) {
+        this.name = name;
+        this.exteriorRing = source.exteriorRing;
+        this.holeRings = source.holeRings;
+        this.numPoints = source.numPoints;
+    }
+
+    /**
+     * Only painting and {@link Ring#getPolyLabel()} are supported by compact polygons, point queries and merging are
+     * not.
+     *
+     * @return a copy of this polygon that stores its coordinates as {@link CompactCoordinates}
+     */
+    public Polygon compact() {
+        return isCompact() ? this : new Polygon(this);
+    }
+
+    public boolean isCompact() {
+        return exteriorRing.compact != null;
+    }
+
+    String getName() {
+        return name;
+    }
+
     private String name() {
         return name == null ? "unnamed_polygon" : name + "_polygon";
     }
@@ -79,7 +137,7 @@ public class Polygon {
     }
 
     public boolean isInside(final double x, final double y) {
-        if (hasHoleRings()) {
+        if (hasHoleRings() || isCompact()) {
             throw new UnsupportedOperationException();
         }
 
@@ -97,7 +155,7 @@ public class Polygon {
     }
 
     public double distance(final double x, final double y) {
-        if (hasHoleRings()) {
+        if (hasHoleRings() || isCompact()) {
             throw new UnsupportedOperationException();
         }
 
@@ -201,22 +259,25 @@ public class Polygon {
         return windingNumber;
     }
 
-    private static List<Geometry> coordinates(final Geometry geometry) {
+    /**
+     * Extracts the coordinates of every ring once, {@link Geometry#getCoordinates()} copies all coordinates on each call.
+     */
+    private static List<Coordinate[]> coordinates(final Geometry geometry) {
         if (geometry instanceof org.locationtech.jts.geom.Polygon) {
             final org.locationtech.jts.geom.Polygon polygon = (org.locationtech.jts.geom.Polygon) geometry;
             final int numInteriorRing = polygon.getNumInteriorRing();
 
             if (numInteriorRing > 0) {
-                final ArrayList<Geometry> result = new ArrayList<>(1 + numInteriorRing);
-                result.add(polygon.getExteriorRing());
+                final ArrayList<Coordinate[]> result = new ArrayList<>(1 + numInteriorRing);
+                result.add(polygon.getExteriorRing().getCoordinates());
                 for (int i = 0; i < numInteriorRing; i++) {
-                    result.add(polygon.getInteriorRingN(i));
+                    result.add(polygon.getInteriorRingN(i).getCoordinates());
                 }
                 return result;
             }
         }
 
-        return Collections.singletonList(geometry);
+        return Collections.singletonList(geometry.getCoordinates());
     }
 
     public int size() {
@@ -247,6 +308,11 @@ public class Polygon {
         Objects.requireNonNull(polygon1);
         Objects.requireNonNull(polygon2);
 
+        // compact rings don't keep the plain coordinates the checks below read
+        if (polygon1.isCompact() || polygon2.isCompact()) {
+            throw new IllegalArgumentException("Compact polygons can't be merged");
+        }
+
         if (isInvalid(polygon1.exteriorRing)) {
             return polygon2;
         }
@@ -259,29 +325,12 @@ public class Polygon {
             throw new IllegalArgumentException();
         }
 
-        final Map<Integer, Integer> sameMap = new HashMap<>();
-        final List<Integer> sameJ = new ArrayList<>();
-        final List<Integer> sameI = new ArrayList<>();
-
         final Ring p1Ring = polygon1.exteriorRing;
         final Ring p2Ring = polygon2.exteriorRing;
 
-        for (int i = 0; i < p1Ring.numPoints(); i++) {
-            final double p1x = p1Ring.pointsX[i];
-            final double p1y = p1Ring.pointsY[i];
-
-            for (int j = 0; j < p2Ring.numPoints(); j++) {
-                final double p2x = p2Ring.pointsX[j];
-                final double p2y = p2Ring.pointsY[j];
-
-                if (Double.compare((p1x + 720) % 360, (p2x + 720) % 360) == 0 && Double.compare(p1y, p2y) == 0) {
-                    sameMap.put(i, j);
-                    sameI.add(i);
-                    sameJ.add(j);
-                    break;
-                }
-            }
-        }
+        final Map<Integer, Integer> sameMap = sharedVertices(p1Ring, p2Ring);
+        final List<Integer> sameI = new ArrayList<>(sameMap.keySet());
+        final List<Integer> sameJ = new ArrayList<>(sameMap.values());
 
         final boolean reverse;
 
@@ -311,7 +360,33 @@ public class Polygon {
                 List::size,
                 mergedName
         );
-        result.exteriorRing.polyLabel = polygon1.exteriorRing.polyLabel();
+        result.exteriorRing.polyLabel = polygon1.exteriorRing.computePolyLabel();
+        return result;
+    }
+
+    /**
+     * Finds the vertices of {@code ring1} that are also vertices of {@code ring2}, with longitudes compared modulo 360.
+     *
+     * @return the index of every shared vertex in {@code ring1} mapped to the index of its first occurrence in
+     * {@code ring2}, ordered by the index in {@code ring1}
+     */
+    static Map<Integer, Integer> sharedVertices(final Ring ring1, final Ring ring2) {
+        final Map<VertexKey, Integer> index = new HashMap<>(2 * ring2.numPoints());
+
+        for (int j = 0; j < ring2.numPoints(); j++) {
+            index.putIfAbsent(new VertexKey(ring2.pointsX[j], ring2.pointsY[j]), j);
+        }
+
+        final Map<Integer, Integer> result = new LinkedHashMap<>();
+
+        for (int i = 0; i < ring1.numPoints(); i++) {
+            final Integer j = index.get(new VertexKey(ring1.pointsX[i], ring1.pointsY[i]));
+
+            if (j != null) {
+                result.put(i, j);
+            }
+        }
+
         return result;
     }
 
@@ -417,6 +492,7 @@ public class Polygon {
         final List<Point2D> result = new ArrayList<>();
 
         final int step = reverse ? 1 : -1;
+        final Set<Integer> sameValues = new HashSet<>(sameMap.values());
 
         // TODO fix merging here
         for (int i = 0; i < polygon1.numPoints(); i++) {
@@ -427,7 +503,7 @@ public class Polygon {
             if (sameIndex != null) {
                 for (
                         int j = sameIndex + step;
-                        !sameMap.containsValue(j);
+                        !sameValues.contains(j);
                         j = (polygon2.numPoints() + j + step) % polygon2.numPoints()
                 ) {
                     result.add(new Point2D(polygon2.pointsX[j], polygon2.pointsY[j]));
@@ -439,18 +515,37 @@ public class Polygon {
         return result;
     }
 
+    /**
+     * Hash key of a vertex. Two keys are equal exactly if {@link Double#compare} considers both longitudes modulo 360
+     * and both latitudes equal.
+     */
+    @EqualsAndHashCode
+    private static final class VertexKey {
+        private final long x;
+        private final long y;
+
+        private VertexKey(final double x, final double y) {
+            this.x = Double.doubleToLongBits((x + 720) % 360);
+            this.y = Double.doubleToLongBits(y);
+        }
+    }
+
     @FunctionalInterface
     public interface CoordinateExtractor<T> {
         double extract(final T t, final int index);
     }
 
     public class Ring {
+        /**
+         * {@code null} for compact rings.
+         */
         private final double[] pointsX;
         private final double[] pointsY;
+        private final CompactCoordinates compact;
 
         private final Rectangle2D boundary;
 
-        private Point2D polyLabel = null;
+        private volatile Point2D polyLabel = null;
 
         public <T> Ring(final T t, final CoordinateExtractor<T> xExtractor, final CoordinateExtractor<T> yExtractor, final ToIntFunction<T> lengthSupplier) {
             final int n = lengthSupplier.applyAsInt(t);
@@ -495,6 +590,8 @@ public class Polygon {
                 this.pointsY = pointsY;
             }
 
+            this.compact = null;
+
             this.boundary = new Rectangle2D(minX, minY, maxX - minX, maxY - minY) {
                 @Override
                 public boolean contains(final double x, final double y) {
@@ -503,35 +600,112 @@ public class Polygon {
             };
         }
 
+        private Ring(final Ring source) {
+            this.pointsX = null;
+            this.pointsY = null;
+            this.boundary = source.boundary;
+            this.polyLabel = source.polyLabel;
+
+            final double[] xs = source.getPointsX();
+            final double[] ys = source.getPointsY();
+            this.compact = CompactCoordinates.encode(xs, ys, xs.length, boundary.getMinX(), boundary.getMinY());
+        }
+
         private Polygon polygon() {
             return Polygon.this;
         }
 
+        /**
+         * Never computes the label, so it is safe to call while painting.
+         *
+         * @return the pole of inaccessibility if it was already computed, the center of the boundary otherwise
+         */
         public Point2D getPolyLabel() {
-            if (polyLabel == null) {
+            final Point2D result = polyLabel;
+
+            if (result != null || numPoints() == 0) {
+                return result;
+            }
+
+            return normalize(new Point2D(boundary.getMinX() + boundary.getWidth() / 2, boundary.getMinY() + boundary.getHeight() / 2));
+        }
+
+        public boolean isPolyLabelComputed() {
+            return polyLabel != null;
+        }
+
+        /**
+         * Computes the pole of inaccessibility if it was not computed before. This search is expensive for large rings
+         * and should not be run on the FX thread.
+         */
+        public Point2D computePolyLabel() {
+            Point2D result = polyLabel;
+
+            if (result == null) {
                 if (numPoints() == 1) {
-                    polyLabel = new Point2D(pointsX[0], pointsY[0]);
+                    result = new Point2D(getPointsX()[0], getPointsY()[0]);
                 } else if (numPoints() == 2) {
-                    polyLabel = new Point2D(pointsX[0], pointsY[0]).add(pointsX[1], pointsY[1]).multiply(0.5);
+                    final double[] pointsX = getPointsX();
+                    final double[] pointsY = getPointsY();
+                    result = new Point2D(pointsX[0], pointsY[0]).add(pointsX[1], pointsY[1]).multiply(0.5);
                 } else {
-                    polyLabel = polyLabel();
+                    result = polyLabel();
                 }
 
-                if (polyLabel != null) {
-                    final double x = (polyLabel.getX() + 180) % 360 - 180;
-                    final double y = polyLabel.getY();
-                    polyLabel = new Point2D(x, y);
+                if (result != null) {
+                    result = normalize(result);
+                    polyLabel = result;
                 }
             }
 
-            return polyLabel;
+            return result;
+        }
+
+        private Point2D normalize(final Point2D point) {
+            final double x = (point.getX() + 180) % 360 - 180;
+            final double y = point.getY();
+            return new Point2D(x, y);
         }
 
         public int numPoints() {
-            return pointsX.length;
+            return compact == null ? pointsX.length : compact.numPoints();
+        }
+
+        public boolean isCompact() {
+            return compact != null;
+        }
+
+        /**
+         * Writes the points into the first {@link #numPoints()} elements of the arrays, without allocating for compact
+         * rings.
+         */
+        public void copyPoints(final double[] xs, final double[] ys) {
+            if (compact == null) {
+                System.arraycopy(pointsX, 0, xs, 0, pointsX.length);
+                System.arraycopy(pointsY, 0, ys, 0, pointsY.length);
+            } else {
+                compact.decode(xs, ys);
+            }
+        }
+
+        /**
+         * @return the memory used by the coordinates of this ring in bytes, without object headers
+         */
+        int coordinateBytes() {
+            return compact == null ? 16 * pointsX.length : compact.byteSize();
+        }
+
+        /**
+         * @return the poly label if it was already computed, {@code null} otherwise
+         */
+        Point2D computedPolyLabel() {
+            return polyLabel;
         }
 
         private Point2D polyLabel() {
+            final double[] pointsX = getPointsX();
+            final double[] pointsY = getPointsY();
+
             final Coordinate[] coordinates = IntStream
                     .rangeClosed(0, numPoints())
                     .mapToObj(e -> new Coordinate(pointsX[e % numPoints()], pointsY[e % numPoints()]))
@@ -559,12 +733,30 @@ public class Polygon {
             }
         }
 
+        /**
+         * @return the x coordinates, decoded into a new array on every call for compact rings
+         */
         public double[] getPointsX() {
-            return pointsX;
+            if (compact == null) {
+                return pointsX;
+            }
+
+            final double[] result = new double[numPoints()];
+            compact.decode(result, new double[numPoints()]);
+            return result;
         }
 
+        /**
+         * @return the y coordinates, decoded into a new array on every call for compact rings
+         */
         public double[] getPointsY() {
-            return pointsY;
+            if (compact == null) {
+                return pointsY;
+            }
+
+            final double[] result = new double[numPoints()];
+            compact.decode(new double[numPoints()], result);
+            return result;
         }
 
         public Rectangle2D getBoundary() {
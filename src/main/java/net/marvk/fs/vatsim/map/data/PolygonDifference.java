@@ -0,0 +1,123 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.extern.log4j.Log4j2;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.overlayng.OverlayNG;
+import org.locationtech.jts.operation.overlayng.OverlayNGRobust;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Subtracts one set of polygons from another, for example lakes from land, so the result can be filled in a single
+ * pass with the subtracted areas as holes.
+ */
+@Log4j2
+final class PolygonDifference {
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private PolygonDifference() {
+        throw new AssertionError("No instances of utility class " + PolygonDifference.class);
+    }
+
+    /**
+     * @return the parts of {@code polygons} not covered by any of {@code subtrahends}; polygons that intersect none of
+     * them are returned as is
+     */
+    static List<Polygon> subtract(final List<Polygon> polygons, final List<Polygon> subtrahends) {
+        final STRtree index = new STRtree();
+        for (final Polygon subtrahend : subtrahends) {
+            final Geometry geometry = toGeometry(subtrahend);
+            if (geometry != null) {
+                index.insert(geometry.getEnvelopeInternal(), geometry);
+            }
+        }
+
+        final List<Polygon> result = new ArrayList<>(polygons.size());
+
+        for (final Polygon polygon : polygons) {
+            final Geometry geometry = toGeometry(polygon);
+
+            if (geometry == null) {
+                result.add(polygon);
+                continue;
+            }
+
+            try {
+                final List<Geometry> candidates = new ArrayList<>();
+                for (final Object candidate : index.query(geometry.getEnvelopeInternal())) {
+                    if (geometry.intersects((Geometry) candidate)) {
+                        candidates.add((Geometry) candidate);
+                    }
+                }
+
+                if (candidates.isEmpty()) {
+                    result.add(polygon);
+                    continue;
+                }
+
+                final Geometry difference = OverlayNGRobust.overlay(geometry, UnaryUnionOp.union(candidates), OverlayNG.DIFFERENCE);
+                final List<Polygon> parts = new ArrayList<>(difference.getNumGeometries());
+                for (int i = 0; i < difference.getNumGeometries(); i++) {
+                    final Geometry part = difference.getGeometryN(i);
+                    if (part instanceof org.locationtech.jts.geom.Polygon && !part.isEmpty()) {
+                        parts.add(new Polygon(part, "%s_%d".formatted(polygon.getName(), i)));
+                    }
+                }
+                result.addAll(parts);
+            } catch (final RuntimeException e) {
+                log.warn("Failed to subtract from %s, keeping it as is: %s".formatted(polygon.getName(), e.getMessage()));
+                result.add(polygon);
+            }
+        }
+
+        return result;
+    }
+
+    private static Geometry toGeometry(final Polygon polygon) {
+        final LinearRing shell = toLinearRing(polygon.getExteriorRing());
+
+        if (shell == null) {
+            return null;
+        }
+
+        final List<LinearRing> holes = new ArrayList<>(polygon.getHoleRings().size());
+        for (final Polygon.Ring ring : polygon.getHoleRings()) {
+            final LinearRing hole = toLinearRing(ring);
+            if (hole != null) {
+                holes.add(hole);
+            }
+        }
+
+        return GEOMETRY_FACTORY.createPolygon(shell, holes.toArray(LinearRing[]::new));
+    }
+
+    /**
+     * @return the closed ring, or {@code null} if it has less than three vertices
+     */
+    private static LinearRing toLinearRing(final Polygon.Ring ring) {
+        final int n = ring.numPoints();
+        final double[] xs = ring.getPointsX();
+        final double[] ys = ring.getPointsY();
+
+        final boolean closed = n > 0 && xs[0] == xs[n - 1] && ys[0] == ys[n - 1];
+        final int distinct = closed ? n - 1 : n;
+
+        if (distinct < 3) {
+            return null;
+        }
+
+        final Coordinate[] coordinates = new Coordinate[distinct + 1];
+        for (int i = 0; i < distinct; i++) {
+            coordinates[i] = new Coordinate(xs[i], ys[i]);
+        }
+        coordinates[distinct] = new Coordinate(coordinates[0]);
+
+        return GEOMETRY_FACTORY.createLinearRing(coordinates);
+    }
+}
@@ -2,35 +2,56 @@ package net.marvk.fs.vatsim.map.data;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import org.geotools.data.DataStore;
-import org.geotools.data.DataStoreFinder;
-import org.geotools.data.simple.SimpleFeatureIterator;
-import org.geotools.data.simple.SimpleFeatureSource;
-import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.MultiLineString;
-import org.locationtech.jts.geom.MultiPolygon;
-import org.opengis.feature.simple.SimpleFeature;
+import lombok.extern.log4j.Log4j2;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
+@Log4j2
 public class PolygonRepository implements ReloadableRepository<Polygon> {
     private final List<String> names;
     private final List<URL> urls;
+    private final GeometryCache cache;
+    private final List<String> subtractedNames;
+    private final List<URL> subtractedUrls;
+    private final boolean compact;
     private ObservableList<Polygon> polygons;
 
     public PolygonRepository(final List<String> names, final List<URL> urls) {
-        if (names.size() != urls.size()) {
+        this(names, urls, null);
+    }
+
+    public PolygonRepository(final List<String> names, final List<URL> urls, final GeometryCache cache) {
+        this(names, urls, cache, List.of(), List.of(), false);
+    }
+
+    /**
+     * @param subtractedNames names of the shapefiles whose polygons are cut out of the polygons of this repository,
+     *                        they become holes
+     * @param compact         whether to keep the polygons as {@link Polygon#compact() compact polygons}, only for
+     *                        polygons that are painted but never queried
+     */
+    public PolygonRepository(
+            final List<String> names,
+            final List<URL> urls,
+            final GeometryCache cache,
+            final List<String> subtractedNames,
+            final List<URL> subtractedUrls,
+            final boolean compact
+    ) {
+        if (names.size() != urls.size() || subtractedNames.size() != subtractedUrls.size()) {
             throw new IllegalArgumentException();
         }
 
         this.names = names;
         this.urls = urls;
+        this.cache = cache;
+        this.subtractedNames = subtractedNames;
+        this.subtractedUrls = subtractedUrls;
+        this.compact = compact;
     }
 
     @Override
@@ -48,61 +69,127 @@ public class PolygonRepository implements ReloadableRepository<Polygon> {
     }
 
     private void loadPolygons() throws IOException {
-        final Collection<List<Polygon>> result = new ArrayList<>();
+        final List<Polygon> loaded = readPolygons();
+        polygons = toObservableList(compact ? compact(loaded) : loaded);
+    }
 
-        for (int i = 0; i < names.size(); i++) {
-            final String name = names.get(i);
-            final URL url = urls.get(i);
+    private List<Polygon> readPolygons() throws IOException {
+        if (cache == null) {
+            return parsePolygons();
+        }
+
+        final String cacheName = subtractedNames.isEmpty()
+                ? String.join("_", names)
+                : "%s_minus_%s".formatted(String.join("_", names), String.join("_", subtractedNames));
+        final String sourceHash = sourceHash();
+
+        final Optional<List<Polygon>> cached = cache.read(cacheName, sourceHash);
 
-            result.add(loadPolygons(name, url));
+        if (cached.isPresent()) {
+            return cached.get();
         }
 
-        polygons = result
-                .stream()
-                .flatMap(Collection::stream)
-                .collect(Collectors.collectingAndThen(
-                        Collectors.toCollection(FXCollections::observableArrayList),
-                        FXCollections::unmodifiableObservableList)
-                );
+        final List<Polygon> parsed = parsePolygons();
+        cache.write(cacheName, sourceHash, parsed);
+        return parsed;
     }
 
-    @SuppressWarnings("ChainOfInstanceofChecks")
-    private static List<Polygon> loadPolygons(final String name, final URL url) throws IOException {
-        final DataStore dataStore = DataStoreFinder.getDataStore(Map.of("url", url));
-        final SimpleFeatureSource featureSource = dataStore.getFeatureSource(dataStore.getTypeNames()[0]);
+    private List<Polygon> compact(final List<Polygon> polygons) {
+        final long start = System.nanoTime();
 
-        try (SimpleFeatureIterator features = featureSource.getFeatures().features()) {
-            final List<Polygon> result = new ArrayList<>();
+        final List<Polygon> result = polygons.stream().map(Polygon::compact).collect(Collectors.toList());
 
-            int id = 0;
+        log.info("Compacted %s in %d ms, %d kB before and %d kB after".formatted(
+                names,
+                (System.nanoTime() - start) / 1_000_000,
+                coordinateBytes(polygons) / 1024,
+                coordinateBytes(result) / 1024
+        ));
 
-            while (features.hasNext()) {
-                final SimpleFeature feature = features.next();
+        return result;
+    }
 
-                final Object shape = feature.getDefaultGeometry();
+    private static long coordinateBytes(final List<Polygon> polygons) {
+        long result = 0;
 
-                if (shape instanceof MultiLineString) {
-                    final MultiLineString mls = (MultiLineString) shape;
+        for (final Polygon polygon : polygons) {
+            result += polygon.getExteriorRing().coordinateBytes();
+            for (final Polygon.Ring ring : polygon.getHoleRings()) {
+                result += ring.coordinateBytes();
+            }
+        }
 
-                    for (int i = 0; i < mls.getNumGeometries(); i++) {
-                        result.add(new Polygon(mls.getGeometryN(i), "%s_%d".formatted(name, id)));
-                        id += 1;
-                    }
-                } else if (shape instanceof MultiPolygon) {
-                    final MultiPolygon mp = (MultiPolygon) shape;
+        return result;
+    }
 
-                    for (int i = 0; i < mp.getNumGeometries(); i++) {
-                        final Geometry geometryN = mp.getGeometryN(i);
-                        final org.locationtech.jts.geom.Polygon polygon = (org.locationtech.jts.geom.Polygon) geometryN;
+    private String sourceHash() throws IOException {
+        final GeometryCache.SourceHash result = new GeometryCache.SourceHash();
 
-                        result.add(new Polygon(polygon, "%s_%d".formatted(name, id)));
-                        id += 1;
-                    }
-                }
+        for (final URL url : urls) {
+            try (final InputStream inputStream = url.openStream()) {
+                result.update(inputStream);
             }
+        }
+
+        for (final URL url : subtractedUrls) {
+            try (final InputStream inputStream = url.openStream()) {
+                result.update(inputStream);
+            }
+        }
+
+        return result.finish();
+    }
+
+    private List<Polygon> parsePolygons() throws IOException {
+        final List<Polygon> polygons = parsePolygons(names, urls);
 
-            return result;
+        if (subtractedNames.isEmpty()) {
+            return polygons;
         }
+
+        final long start = System.nanoTime();
+
+        final List<Polygon> result = PolygonDifference.subtract(polygons, parsePolygons(subtractedNames, subtractedUrls));
+
+        log.info("Subtracted %s from %s in %d ms, %d polygons with %d holes".formatted(
+                subtractedNames,
+                names,
+                (System.nanoTime() - start) / 1_000_000,
+                result.size(),
+                result.stream().mapToInt(e -> e.getHoleRings().size()).sum()
+        ));
+
+        return result;
+    }
+
+    private static List<Polygon> parsePolygons(final List<String> names, final List<URL> urls) throws IOException {
+        final long start = System.nanoTime();
+
+        final Collection<List<Polygon>> result = new ArrayList<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            final URL url = urls.get(i);
+
+            result.add(ShapefileReader.read(name, url));
+        }
+
+        final List<Polygon> flattened = result
+                .stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList());
+
+        log.info("Parsed %d polygons from %s in %d ms".formatted(
+                flattened.size(),
+                names,
+                (System.nanoTime() - start) / 1_000_000
+        ));
+
+        return flattened;
+    }
+
+    private static ObservableList<Polygon> toObservableList(final List<Polygon> polygons) {
+        return FXCollections.unmodifiableObservableList(FXCollections.observableArrayList(polygons));
     }
 
     @Override
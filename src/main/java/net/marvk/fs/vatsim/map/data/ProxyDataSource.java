@@ -18,9 +18,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Log4j2
-public class ProxyDataSource implements VatsimApiDataSource {
+public class ProxyDataSource implements VatsimApiDataSource, ConditionalDataSource {
     private static final String FIRBOUNDARIES_FILENAME = "FIRBoundaries.dat";
     private static final String VATSPY_FILENAME = "VATSpy.dat";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
@@ -28,23 +30,52 @@ public class ProxyDataSource implements VatsimApiDataSource {
     private final Path configPath;
     private final Path cachePath;
     private final Preferences preferences;
+    private final FeedTimestampTracker feedTimestampTracker;
 
     @Inject
     public ProxyDataSource(
             @Named("httpDataSource") final VatsimApiDataSource dataSource,
             @Named("userConfigDir") final Path configPath,
             @Named("userCacheDir") final Path cachePath,
-            final Preferences preferences
+            final Preferences preferences,
+            final FeedTimestampTracker feedTimestampTracker
     ) {
         this.dataSource = dataSource;
         this.configPath = configPath;
         this.cachePath = cachePath;
         this.preferences = preferences;
+        this.feedTimestampTracker = feedTimestampTracker;
     }
 
     @Override
     public String data() throws VatsimApiException {
-        return dataSource.data();
+        final String result = dataSource.data();
+        feedTimestampTracker.observe(result);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<FetchResult> dataAsync() {
+        final CompletableFuture<FetchResult> result;
+
+        if (dataSource instanceof ConditionalDataSource) {
+            result = ((ConditionalDataSource) dataSource).dataAsync();
+        } else {
+            result = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return FetchResult.modified(dataSource.data());
+                } catch (final VatsimApiException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        }
+
+        return result.thenApply(fetchResult -> {
+            if (fetchResult.isModified()) {
+                feedTimestampTracker.observe(fetchResult.getBody());
+            }
+            return fetchResult;
+        });
     }
 
     @Override
@@ -0,0 +1,223 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.extern.log4j.Log4j2;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules reloads just after the data feed is predicted to publish its next snapshot instead of on a fixed period.
+ * <p>
+ * Reloads never overlap. A scheduled reload that is due while another reload is in flight is skipped, the reload in
+ * flight schedules the next one. A manual reload, see {@link #reloadNow()}, is queued instead and runs as soon as the
+ * reload in flight completed, further manual reloads are coalesced into the queued one. If the feed has not advanced
+ * or the reload failed, retries back off exponentially up to {@code maxBackoff}. Scheduled reloads run on the
+ * {@link TaskExecutors#io() io} executor, the {@link TaskExecutors#scheduled() scheduled} executor only hands them off.
+ */
+@Log4j2
+public class ReloadScheduler {
+    private static final Duration MIN_DELAY = Duration.ofSeconds(1);
+    private static final Duration MIN_RETRY = Duration.ofSeconds(2);
+
+    private final ReloadAction reloadAction;
+    private final FeedTimestampTracker tracker;
+    private final Duration publicationDelay;
+    private final Duration maxJitter;
+    private final Duration maxBackoff;
+    private final Clock clock;
+    private final Random random = new Random();
+    private final ScheduledExecutorService scheduler;
+    private final Executor worker;
+
+    private ScheduledFuture<?> next;
+    private boolean inFlight = false;
+    private boolean queued = false;
+    private ZonedDateTime lastSeen;
+    private int misses = 0;
+    private volatile boolean running = false;
+
+    public ReloadScheduler(
+            final ReloadAction reloadAction,
+            final FeedTimestampTracker tracker,
+            final Duration publicationDelay,
+            final Duration maxJitter,
+            final Duration maxBackoff,
+            final TaskExecutors executors
+    ) {
+        this.reloadAction = reloadAction;
+        this.tracker = tracker;
+        this.publicationDelay = publicationDelay;
+        this.maxJitter = maxJitter;
+        this.maxBackoff = maxBackoff;
+        this.clock = executors.clock();
+        this.scheduler = executors.scheduled();
+        this.worker = executors.io();
+    }
+
+    public synchronized void start(final Duration initialDelay) {
+        if (running) {
+            return;
+        }
+
+        log.info("Starting reload scheduler");
+        running = true;
+        misses = 0;
+        schedule(initialDelay);
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+
+        log.info("Stopping reload scheduler");
+        running = false;
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Reloads on the calling thread, or queues the reload if another reload is in flight. Reschedules the next
+     * scheduled reload once done.
+     *
+     * @return {@code true} if the reload ran on the calling thread, {@code false} if it was queued behind or coalesced
+     * into another reload
+     * @throws Exception if the reload failed
+     */
+    public boolean reloadNow() throws Exception {
+        synchronized (this) {
+            if (inFlight) {
+                log.info(queued ? "Manual reload coalesced with queued reload" : "Manual reload queued behind reload in flight");
+                queued = true;
+                return false;
+            }
+
+            inFlight = true;
+        }
+
+        try {
+            reloadAction.reload();
+        } catch (final Exception e) {
+            complete(false);
+            throw e;
+        }
+
+        complete(true);
+        return true;
+    }
+
+    private synchronized void schedule(final Duration delay) {
+        if (!running) {
+            return;
+        }
+
+        if (next != null) {
+            next.cancel(false);
+        }
+
+        log.debug("Next reload in %s".formatted(delay));
+        next = scheduler.schedule(() -> worker.execute(this::tick), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        synchronized (this) {
+            if (inFlight) {
+                log.debug("Reload in flight, skipping scheduled reload");
+                return;
+            }
+
+            inFlight = true;
+        }
+
+        complete(reload());
+    }
+
+    /**
+     * Runs the queued reloads, then releases the reload and schedules the next one.
+     */
+    private void complete(final boolean succeeded) {
+        boolean lastSucceeded = succeeded;
+        while (takeQueued(lastSucceeded)) {
+            lastSucceeded = reload();
+        }
+    }
+
+    private synchronized boolean takeQueued(final boolean succeeded) {
+        if (queued) {
+            queued = false;
+            return true;
+        }
+
+        inFlight = false;
+        schedule(nextDelay(succeeded).plus(jitter()));
+        return false;
+    }
+
+    private boolean reload() {
+        try {
+            reloadAction.reload();
+            return true;
+        } catch (final Exception e) {
+            log.warn("Reload failed", e);
+            return false;
+        }
+    }
+
+    Duration nextDelay(final boolean succeeded) {
+        final ZonedDateTime latest = tracker.getLatest();
+
+        if (!succeeded || latest == null || latest.equals(lastSeen)) {
+            misses += 1;
+            return backoff(misses);
+        }
+
+        misses = 0;
+        lastSeen = latest;
+
+        final Duration untilPublication = Duration.between(ZonedDateTime.now(clock), tracker.predictNextPublication());
+        final Duration delay = untilPublication.plus(publicationDelay);
+
+        if (delay.compareTo(MIN_DELAY) < 0) {
+            return MIN_DELAY;
+        }
+
+        return delay;
+    }
+
+    private Duration backoff(final int attempt) {
+        final int exponent = Math.min(attempt - 1, 16);
+        final Duration backoff = MIN_RETRY.multipliedBy(1L << exponent);
+
+        if (backoff.compareTo(maxBackoff) > 0) {
+            return maxBackoff;
+        }
+
+        return backoff;
+    }
+
+    private Duration jitter() {
+        if (maxJitter.isZero()) {
+            return Duration.ZERO;
+        }
+
+        return Duration.ofMillis((long) (random.nextDouble() * maxJitter.toMillis()));
+    }
+
+    @FunctionalInterface
+    public interface ReloadAction {
+        void reload() throws Exception;
+    }
+}
@@ -0,0 +1,415 @@
+package net.marvk.fs.vatsim.map.data;
+
+import javafx.geometry.Point2D;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable state of everything the map paints, published by {@link RenderSnapshots} after each client reload.
+ * Painters read the snapshot instead of live properties and relationship lists, so nothing derived is recomputed per
+ * frame and a frame never observes a partially applied reload.
+ * <p>
+ * Values are kept in arrays indexed by the position of the item in the snapshot. Items that are not part of the
+ * snapshot, for example search results or airports loaded after it was taken, fall back to the live values.
+ */
+public final class RenderSnapshot {
+    /**
+     * Epoch millis of pilots without a last updated time.
+     */
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    public static final RenderSnapshot EMPTY = new Builder(0)
+            .pilots(List.of())
+            .airports(new Index<>(List.of()))
+            .flightInformationRegionBoundaries(new Index<>(List.of()), new String[0])
+            .upperInformationRegions(new Index<>(List.of()))
+            .build();
+
+    private static final int CONTROLLED = 1;
+    private static final int ARRIVALS = 1 << 1;
+    private static final int DEPARTURES = 1 << 2;
+
+    private final long generation;
+
+    private final Index<Pilot> pilots;
+    /**
+     * The reported positions, {@link Point2D} is immutable and a new instance marks a new report.
+     */
+    private final Point2D[] pilotPositions;
+    private final double[] pilotHeadings;
+    private final double[] pilotGroundSpeeds;
+    private final long[] pilotLastUpdated;
+    private final boolean[] pilotsOnGround;
+    private final String[] pilotCallsigns;
+    private final ClusterIndex pilotClusters;
+
+    private final Index<Airport> airports;
+    private final int[] airportControllerTypes;
+    private final int[] airportFlags;
+    /**
+     * Clusters of the airports with controllers, arrivals or departures.
+     */
+    private final ClusterIndex airportClusters;
+
+    private final Index<FlightInformationRegionBoundary> firbs;
+    private final boolean[] firbsFirControlled;
+    private final boolean[] firbsUirControlled;
+    private final String[] firbLabels;
+
+    private final Index<UpperInformationRegion> uirs;
+    private final boolean[] uirsControlled;
+
+    private RenderSnapshot(final Builder builder) {
+        this.generation = builder.generation;
+        this.pilots = builder.pilots;
+        this.pilotPositions = builder.pilotPositions;
+        this.pilotHeadings = builder.pilotHeadings;
+        this.pilotGroundSpeeds = builder.pilotGroundSpeeds;
+        this.pilotLastUpdated = builder.pilotLastUpdated;
+        this.pilotsOnGround = builder.pilotsOnGround;
+        this.pilotCallsigns = builder.pilotCallsigns;
+        this.pilotClusters = builder.pilotClusters;
+        this.airports = builder.airports;
+        this.airportControllerTypes = builder.airportControllerTypes;
+        this.airportFlags = builder.airportFlags;
+        this.airportClusters = builder.airportClusters;
+        this.firbs = builder.firbs;
+        this.firbsFirControlled = builder.firbsFirControlled;
+        this.firbsUirControlled = builder.firbsUirControlled;
+        this.firbLabels = builder.firbLabels;
+        this.uirs = builder.uirs;
+        this.uirsControlled = builder.uirsControlled;
+    }
+
+    /**
+     * @return a number incremented with every published snapshot
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return the pilots at the time of the snapshot, unmodifiable
+     */
+    public List<Pilot> getPilots() {
+        return pilots.items;
+    }
+
+    /**
+     * @return the index of {@code pilot} for the {@code pilot*} accessors, or {@code -1} if it is not in the snapshot
+     */
+    public int pilotIndex(final Pilot pilot) {
+        return pilots.indexOf(pilot);
+    }
+
+    public Point2D pilotPosition(final int index) {
+        return pilotPositions[index];
+    }
+
+    public double pilotHeading(final int index) {
+        return pilotHeadings[index];
+    }
+
+    public double pilotGroundSpeed(final int index) {
+        return pilotGroundSpeeds[index];
+    }
+
+    /**
+     * @return the epoch millis of the last update, or {@link #UNKNOWN_TIME}
+     */
+    public long pilotLastUpdated(final int index) {
+        return pilotLastUpdated[index];
+    }
+
+    public boolean isPilotOnGround(final int index) {
+        return pilotsOnGround[index];
+    }
+
+    public String pilotCallsign(final int index) {
+        return pilotCallsigns[index];
+    }
+
+    /**
+     * Clusters of the reported positions, cluster centers and membership are fixed until the next snapshot. Pilots
+     * that are not clustered are painted at their extrapolated positions, so between reloads a clustered pilot keeps
+     * counting towards a cluster it may have flown out of, for at most the minute the motion extrapolates, and a
+     * pilot only joins or leaves a cluster with the next snapshot.
+     */
+    public ClusterIndex getPilotClusters() {
+        return pilotClusters;
+    }
+
+    /**
+     * @return whether the pilot is part of a cluster on the level, pilots that are not in the snapshot never are
+     */
+    public boolean isPilotClustered(final Pilot pilot, final int level) {
+        return pilotClusters.isClustered(level, pilots.indexOf(pilot));
+    }
+
+    public ClusterIndex getAirportClusters() {
+        return airportClusters;
+    }
+
+    /**
+     * @return whether the airport is part of a cluster on the level, only airports with controllers, arrivals or
+     * departures are clustered
+     */
+    public boolean isAirportClustered(final Airport airport, final int level) {
+        return airportClusters.isClustered(level, airports.indexOf(airport));
+    }
+
+    /**
+     * @return the controller types working at the airport, one bit per {@link ControllerType#ordinal()}
+     */
+    public int controllerTypes(final Airport airport) {
+        final int index = airports.indexOf(airport);
+        return index < 0 ? controllerTypesOf(airport) : airportControllerTypes[index];
+    }
+
+    public boolean hasControllers(final Airport airport) {
+        return hasFlag(airport, CONTROLLED);
+    }
+
+    public boolean hasArrivals(final Airport airport) {
+        return hasFlag(airport, ARRIVALS);
+    }
+
+    public boolean hasDepartures(final Airport airport) {
+        return hasFlag(airport, DEPARTURES);
+    }
+
+    private boolean hasFlag(final Airport airport, final int flag) {
+        final int index = airports.indexOf(airport);
+        return ((index < 0 ? flagsOf(airport) : airportFlags[index]) & flag) != 0;
+    }
+
+    public boolean hasFirControllers(final FlightInformationRegionBoundary firb) {
+        final int index = firbs.indexOf(firb);
+        return index < 0 ? firb.hasFirControllers() : firbsFirControlled[index];
+    }
+
+    public boolean hasUirControllers(final FlightInformationRegionBoundary firb) {
+        final int index = firbs.indexOf(firb);
+        return index < 0 ? firb.hasUirControllers() : firbsUirControlled[index];
+    }
+
+    public String label(final FlightInformationRegionBoundary firb) {
+        final int index = firbs.indexOf(firb);
+        return index < 0 ? labelOf(firb) : firbLabels[index];
+    }
+
+    public boolean hasControllers(final UpperInformationRegion uir) {
+        final int index = uirs.indexOf(uir);
+        return index < 0 ? !uir.getControllers().isEmpty() : uirsControlled[index];
+    }
+
+    /**
+     * @return whether the controller types contain {@code type}
+     */
+    public static boolean contains(final int controllerTypes, final ControllerType type) {
+        return (controllerTypes & bit(type)) != 0;
+    }
+
+    private static int bit(final ControllerType type) {
+        return 1 << type.ordinal();
+    }
+
+    static int controllerTypesOf(final Airport airport) {
+        int result = 0;
+        for (final Controller controller : airport.getControllers()) {
+            if (controller.getControllerType() != null) {
+                result |= bit(controller.getControllerType());
+            }
+        }
+        return result;
+    }
+
+    private static int flagsOf(final Airport airport) {
+        int result = 0;
+        if (airport.hasControllers()) {
+            result |= CONTROLLED;
+        }
+        if (airport.hasArrivals()) {
+            result |= ARRIVALS;
+        }
+        if (airport.hasDepartures()) {
+            result |= DEPARTURES;
+        }
+        return result;
+    }
+
+    static String labelOf(final FlightInformationRegionBoundary firb) {
+        return "%s%s".formatted(firb.getIcao(), firb.isOceanic() ? " Oceanic" : "");
+    }
+
+    public static long epochMillis(final ZonedDateTime time) {
+        return time == null ? UNKNOWN_TIME : time.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Immutable list of items with their positions, compared by identity.
+     */
+    static final class Index<T> {
+        private final List<T> items;
+        private final Map<T, Integer> positions;
+
+        Index(final Collection<? extends T> items) {
+            this.items = List.copyOf(items);
+            this.positions = new IdentityHashMap<>(items.size());
+            for (int i = 0; i < this.items.size(); i++) {
+                positions.put(this.items.get(i), i);
+            }
+        }
+
+        int indexOf(final T item) {
+            final Integer result = positions.get(item);
+            return result == null ? -1 : result;
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        T get(final int index) {
+            return items.get(index);
+        }
+
+        /**
+         * @return whether {@code other} contains the same items in the same order
+         */
+        boolean matches(final List<? extends T> other) {
+            if (other.size() != items.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < items.size(); i++) {
+                if (other.get(i) != items.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    static final class Builder {
+        private final long generation;
+
+        private Index<Pilot> pilots;
+        private Point2D[] pilotPositions;
+        private double[] pilotHeadings;
+        private double[] pilotGroundSpeeds;
+        private long[] pilotLastUpdated;
+        private boolean[] pilotsOnGround;
+        private String[] pilotCallsigns;
+        private ClusterIndex pilotClusters;
+
+        private Index<Airport> airports;
+        private int[] airportControllerTypes;
+        private int[] airportFlags;
+        private ClusterIndex airportClusters;
+
+        private Index<FlightInformationRegionBoundary> firbs;
+        private boolean[] firbsFirControlled;
+        private boolean[] firbsUirControlled;
+        private String[] firbLabels;
+
+        private Index<UpperInformationRegion> uirs;
+        private boolean[] uirsControlled;
+
+        Builder(final long generation) {
+            this.generation = generation;
+        }
+
+        Builder pilots(final Collection<Pilot> pilots) {
+            this.pilots = new Index<>(pilots);
+            final int n = this.pilots.size();
+
+            pilotPositions = new Point2D[n];
+            pilotHeadings = new double[n];
+            pilotGroundSpeeds = new double[n];
+            pilotLastUpdated = new long[n];
+            pilotsOnGround = new boolean[n];
+            pilotCallsigns = new String[n];
+
+            for (int i = 0; i < n; i++) {
+                final Pilot pilot = this.pilots.get(i);
+                pilotPositions[i] = pilot.getPosition();
+                pilotHeadings[i] = pilot.getHeading();
+                pilotGroundSpeeds[i] = pilot.getGroundSpeed();
+                pilotLastUpdated[i] = epochMillis(pilot.getLastUpdatedTime());
+                pilotsOnGround[i] = pilot.getEta().is(Eta.Status.GROUND);
+                pilotCallsigns[i] = pilot.getCallsign();
+            }
+
+            pilotClusters = ClusterIndex.of(pilotPositions);
+
+            return this;
+        }
+
+        Builder airports(final Index<Airport> airports) {
+            this.airports = airports;
+            final int n = airports.size();
+
+            airportControllerTypes = new int[n];
+            airportFlags = new int[n];
+            final Point2D[] activePositions = new Point2D[n];
+
+            for (int i = 0; i < n; i++) {
+                final Airport airport = airports.get(i);
+                airportFlags[i] = flagsOf(airport);
+                if ((airportFlags[i] & CONTROLLED) != 0) {
+                    airportControllerTypes[i] = controllerTypesOf(airport);
+                }
+                if (airportFlags[i] != 0) {
+                    activePositions[i] = airport.getPosition();
+                }
+            }
+
+            airportClusters = ClusterIndex.of(activePositions);
+
+            return this;
+        }
+
+        /**
+         * @param labels the labels of the boundaries, see {@link #labelOf(FlightInformationRegionBoundary)}
+         */
+        Builder flightInformationRegionBoundaries(final Index<FlightInformationRegionBoundary> firbs, final String[] labels) {
+            this.firbs = firbs;
+            this.firbLabels = labels;
+            final int n = firbs.size();
+
+            firbsFirControlled = new boolean[n];
+            firbsUirControlled = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                final FlightInformationRegionBoundary firb = firbs.get(i);
+                firbsFirControlled[i] = firb.hasFirControllers();
+                firbsUirControlled[i] = firb.hasUirControllers();
+            }
+
+            return this;
+        }
+
+        Builder upperInformationRegions(final Index<UpperInformationRegion> uirs) {
+            this.uirs = uirs;
+            final int n = uirs.size();
+
+            uirsControlled = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                uirsControlled[i] = !uirs.get(i).getControllers().isEmpty();
+            }
+
+            return this;
+        }
+
+        RenderSnapshot build() {
+            return new RenderSnapshot(this);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes a {@link RenderSnapshot} after every client reload, once the {@link TrafficAggregates} were updated.
+ * <p>
+ * Snapshots are built on the thread applying reloads and can be read from any thread.
+ */
+@Singleton
+public class RenderSnapshots {
+    private final ClientRepository clientRepository;
+    private final AirportRepository airportRepository;
+    private final FlightInformationRegionBoundaryRepository flightInformationRegionBoundaryRepository;
+    private final UpperInformationRegionRepository upperInformationRegionRepository;
+
+    private final AtomicReference<RenderSnapshot> current = new AtomicReference<>(RenderSnapshot.EMPTY);
+
+    /**
+     * Airports, boundaries and regions are loaded once, so their indices and labels are reused while they match.
+     */
+    private RenderSnapshot.Index<Airport> airports = new RenderSnapshot.Index<>(List.of());
+    private RenderSnapshot.Index<FlightInformationRegionBoundary> firbs = new RenderSnapshot.Index<>(List.of());
+    private String[] firbLabels = new String[0];
+    private RenderSnapshot.Index<UpperInformationRegion> uirs = new RenderSnapshot.Index<>(List.of());
+
+    private long generation = 0;
+
+    @Inject
+    public RenderSnapshots(
+            final ClientRepository clientRepository,
+            final AirportRepository airportRepository,
+            final FlightInformationRegionBoundaryRepository flightInformationRegionBoundaryRepository,
+            final UpperInformationRegionRepository upperInformationRegionRepository,
+            final TrafficAggregates trafficAggregates
+    ) {
+        this.clientRepository = clientRepository;
+        this.airportRepository = airportRepository;
+        this.flightInformationRegionBoundaryRepository = flightInformationRegionBoundaryRepository;
+        this.upperInformationRegionRepository = upperInformationRegionRepository;
+
+        publish();
+        trafficAggregates.updates().subscribe(e -> publish());
+    }
+
+    /**
+     * @return the latest snapshot
+     */
+    public RenderSnapshot get() {
+        return current.get();
+    }
+
+    private synchronized void publish() {
+        current.set(new RenderSnapshot.Builder(++generation)
+                .pilots(clientRepository.pilots())
+                .airports(airports())
+                .flightInformationRegionBoundaries(firbs(), firbLabels)
+                .upperInformationRegions(uirs())
+                .build());
+    }
+
+    private RenderSnapshot.Index<Airport> airports() {
+        final List<Airport> list = airportRepository.list();
+        if (!airports.matches(list)) {
+            airports = new RenderSnapshot.Index<>(list);
+        }
+        return airports;
+    }
+
+    private RenderSnapshot.Index<FlightInformationRegionBoundary> firbs() {
+        final List<FlightInformationRegionBoundary> list = flightInformationRegionBoundaryRepository.list();
+        if (!firbs.matches(list)) {
+            firbs = new RenderSnapshot.Index<>(list);
+            firbLabels = new String[firbs.size()];
+            for (int i = 0; i < firbLabels.length; i++) {
+                firbLabels[i] = RenderSnapshot.labelOf(firbs.get(i));
+            }
+        }
+        return firbs;
+    }
+
+    private RenderSnapshot.Index<UpperInformationRegion> uirs() {
+        final List<UpperInformationRegion> list = upperInformationRegionRepository.list();
+        if (!uirs.matches(list)) {
+            uirs = new RenderSnapshot.Index<>(list);
+        }
+        return uirs;
+    }
+}
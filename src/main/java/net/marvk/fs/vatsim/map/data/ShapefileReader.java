@@ -0,0 +1,264 @@
+package net.marvk.fs.vatsim.map.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the polygon and polyline subset of the ESRI shapefile format straight into {@link Polygon} rings.
+ * <p>
+ * Polygon records are split into shells and holes the same way GeoTools does: clockwise rings are shells,
+ * counterclockwise rings are holes of the smallest shell containing them, and holes without a shell become shells.
+ * Polyline records produce one polygon per part.
+ *
+ * @see <a href="https://www.esri.com/content/dam/esrisites/sitecore-archive/Files/Pdfs/library/whitepapers/pdfs/shapefile.pdf">ESRI Shapefile Technical Description</a>
+ */
+final class ShapefileReader {
+    private static final int FILE_CODE = 9994;
+    private static final int HEADER_LENGTH = 100;
+
+    private static final int NULL_SHAPE = 0;
+    private static final int POLYLINE = 3;
+    private static final int POLYGON = 5;
+    private static final int POLYLINE_Z = 13;
+    private static final int POLYGON_Z = 15;
+    private static final int POLYLINE_M = 23;
+    private static final int POLYGON_M = 25;
+
+    private ShapefileReader() {
+        throw new AssertionError("No instances of utility class " + ShapefileReader.class);
+    }
+
+    /**
+     * Reads all polygons of the shapefile, naming them {@code name_0}, {@code name_1} and so on.
+     */
+    static List<Polygon> read(final String name, final URL url) throws IOException {
+        try {
+            return read(name, buffer(url));
+        } catch (final BufferUnderflowException e) {
+            throw new IOException("Truncated shapefile " + url, e);
+        }
+    }
+
+    static List<Polygon> read(final String name, final ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
+        if (buffer.getInt(0) != FILE_CODE) {
+            throw new IOException("Not a shapefile");
+        }
+
+        final int fileLength = Math.min(buffer.limit(), buffer.getInt(24) * 2);
+
+        final List<Polygon> result = new ArrayList<>();
+        int id = 0;
+
+        int position = HEADER_LENGTH;
+
+        while (position + 8 <= fileLength) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            final int contentLength = buffer.getInt(position + 4) * 2;
+            final int contentStart = position + 8;
+
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(contentStart);
+
+            final int shapeType = buffer.getInt();
+
+            if (shapeType != NULL_SHAPE) {
+                final List<Ring> rings = readParts(buffer);
+
+                final List<List<Ring>> polygons = switch (shapeType) {
+                    case POLYGON, POLYGON_Z, POLYGON_M -> assemblePolygons(rings);
+                    case POLYLINE, POLYLINE_Z, POLYLINE_M -> lines(rings);
+                    default -> throw new IOException("Unsupported shape type " + shapeType);
+                };
+
+                for (final List<Ring> polygon : polygons) {
+                    result.add(toPolygon("%s_%d".formatted(name, id), polygon));
+                    id += 1;
+                }
+            }
+
+            position = contentStart + contentLength;
+        }
+
+        return result;
+    }
+
+    private static ByteBuffer buffer(final URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (final FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (final URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+
+        try (final InputStream inputStream = url.openStream()) {
+            return ByteBuffer.wrap(inputStream.readAllBytes());
+        }
+    }
+
+    private static List<Ring> readParts(final ByteBuffer buffer) {
+        // skip bounding box
+        buffer.position(buffer.position() + 4 * Double.BYTES);
+
+        final int numParts = buffer.getInt();
+        final int numPoints = buffer.getInt();
+
+        final int[] partStarts = new int[numParts + 1];
+        for (int i = 0; i < numParts; i++) {
+            partStarts[i] = buffer.getInt();
+        }
+        partStarts[numParts] = numPoints;
+
+        final List<Ring> result = new ArrayList<>(numParts);
+
+        for (int part = 0; part < numParts; part++) {
+            final int n = partStarts[part + 1] - partStarts[part];
+            final double[] x = new double[n];
+            final double[] y = new double[n];
+
+            for (int i = 0; i < n; i++) {
+                x[i] = buffer.getDouble();
+                y[i] = buffer.getDouble();
+            }
+
+            if (n > 0) {
+                result.add(new Ring(x, y));
+            }
+        }
+
+        return result;
+    }
+
+    private static List<List<Ring>> lines(final List<Ring> rings) {
+        final List<List<Ring>> result = new ArrayList<>(rings.size());
+        for (final Ring ring : rings) {
+            result.add(Collections.singletonList(ring));
+        }
+        return result;
+    }
+
+    private static List<List<Ring>> assemblePolygons(final List<Ring> rings) {
+        final List<Ring> shells = new ArrayList<>();
+        final List<Ring> holes = new ArrayList<>();
+
+        for (final Ring ring : rings) {
+            if (ring.isCounterClockwise()) {
+                holes.add(ring);
+            } else {
+                shells.add(ring);
+            }
+        }
+
+        if (shells.isEmpty() && holes.size() == 1) {
+            return List.of(List.of(holes.get(0).reverse()));
+        }
+
+        final List<List<Ring>> result = new ArrayList<>(shells.size());
+        for (final Ring shell : shells) {
+            final List<Ring> polygon = new ArrayList<>();
+            polygon.add(shell);
+            result.add(polygon);
+        }
+
+        if (shells.size() == 1) {
+            result.get(0).addAll(holes);
+            return result;
+        }
+
+        for (final Ring hole : holes) {
+            int minShell = -1;
+
+            for (int i = 0; i < shells.size(); i++) {
+                final Ring shell = shells.get(i);
+                if (shell.containsBounds(hole) && shell.contains(hole.x[0], hole.y[0])) {
+                    if (minShell < 0 || shells.get(minShell).containsBounds(shell)) {
+                        minShell = i;
+                    }
+                }
+            }
+
+            if (minShell < 0) {
+                result.add(new ArrayList<>(List.of(hole.reverse())));
+            } else {
+                result.get(minShell).add(hole);
+            }
+        }
+
+        return result;
+    }
+
+    private static Polygon toPolygon(final String name, final List<Ring> rings) {
+        return new Polygon(
+                rings,
+                (ring, i) -> ring.x[i],
+                (ring, i) -> ring.y[i],
+                ring -> ring.x.length,
+                name
+        );
+    }
+
+    private static final class Ring {
+        private final double[] x;
+        private final double[] y;
+
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+
+        private Ring(final double[] x, final double[] y) {
+            this.x = x;
+            this.y = y;
+            this.minX = Arrays.stream(x).min().orElse(0);
+            this.minY = Arrays.stream(y).min().orElse(0);
+            this.maxX = Arrays.stream(x).max().orElse(0);
+            this.maxY = Arrays.stream(y).max().orElse(0);
+        }
+
+        private boolean isCounterClockwise() {
+            double area = 0;
+            for (int i = 0, j = x.length - 1; i < x.length; j = i++) {
+                area += (x[j] - x[i]) * (y[j] + y[i]);
+            }
+            return area > 0;
+        }
+
+        private Ring reverse() {
+            final double[] reversedX = new double[x.length];
+            final double[] reversedY = new double[y.length];
+            for (int i = 0; i < x.length; i++) {
+                reversedX[i] = x[x.length - 1 - i];
+                reversedY[i] = y[y.length - 1 - i];
+            }
+            return new Ring(reversedX, reversedY);
+        }
+
+        private boolean containsBounds(final Ring other) {
+            return minX <= other.minX && maxX >= other.maxX && minY <= other.minY && maxY >= other.maxY;
+        }
+
+        private boolean contains(final double px, final double py) {
+            boolean inside = false;
+            for (int i = 0, j = x.length - 1; i < x.length; j = i++) {
+                if ((y[i] > py) != (y[j] > py) && px < (x[j] - x[i]) * (py - y[i]) / (y[j] - y[i]) + x[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package net.marvk.fs.vatsim.map.data;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable index from string keys to {@code int} values, backed by a sorted key array. Lookups are a binary search
+ * comparing characters in place, so neither looking up a key nor a prefix of a longer string allocates.
+ */
+final class SortedIndex {
+    private final String[] keys;
+    private final int[] values;
+
+    private SortedIndex(final String[] keys, final int[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Creates an index of the keys to their position in the list. Only the first occurrence of a duplicate key is
+     * indexed, {@code null} keys are skipped.
+     */
+    static SortedIndex of(final List<String> keys) {
+        final Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        // stable, so duplicates stay in list order
+        Arrays.sort(order, Comparator.comparing(keys::get, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        final String[] sortedKeys = new String[order.length];
+        final int[] sortedValues = new int[order.length];
+        int size = 0;
+
+        for (final int i : order) {
+            final String key = keys.get(i);
+
+            if (key == null) {
+                break;
+            }
+
+            if (size > 0 && key.equals(sortedKeys[size - 1])) {
+                continue;
+            }
+
+            sortedKeys[size] = key;
+            sortedValues[size] = i;
+            size += 1;
+        }
+
+        return new SortedIndex(Arrays.copyOf(sortedKeys, size), Arrays.copyOf(sortedValues, size));
+    }
+
+    static SortedIndex of(final String[] keys, final int[] values) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1].compareTo(keys[i]) >= 0) {
+                throw new IllegalArgumentException("Keys are not sorted and distinct at index " + i);
+            }
+        }
+
+        return new SortedIndex(keys, values);
+    }
+
+    /**
+     * @return the value of the key, or {@code -1} if the key is not indexed
+     */
+    int get(final CharSequence key) {
+        return key == null ? -1 : get(key, key.length());
+    }
+
+    /**
+     * @return the value of the key equal to the first {@code length} characters of {@code s}, or {@code -1} if there
+     * is no such key or {@code s} is shorter than {@code length}
+     */
+    int get(final CharSequence s, final int length) {
+        if (s == null || s.length() < length) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = keys.length - 1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int comparison = compare(keys[mid], s, length);
+
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+
+        return -1;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String key(final int i) {
+        return keys[i];
+    }
+
+    int value(final int i) {
+        return values[i];
+    }
+
+    private static int compare(final String key, final CharSequence s, final int length) {
+        final int n = Math.min(key.length(), length);
+
+        for (int i = 0; i < n; i++) {
+            final int diff = key.charAt(i) - s.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+
+        return key.length() - length;
+    }
+}
@@ -0,0 +1,40 @@
+package net.marvk.fs.vatsim.map.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deduplicates frequently repeated strings like aircraft types, airports and servers so repeated occurrences across
+ * clients and snapshots share a single instance. Not thread safe.
+ */
+final class StringPool {
+    private final Map<String, String> pool = new HashMap<>();
+    private final int maxSize;
+
+    StringPool(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    String intern(final String s) {
+        if (s == null) {
+            return null;
+        }
+
+        final String pooled = pool.get(s);
+
+        if (pooled != null) {
+            return pooled;
+        }
+
+        if (pool.size() >= maxSize) {
+            pool.clear();
+        }
+
+        pool.put(s, s);
+        return s;
+    }
+
+    int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,264 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import lombok.Value;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Traffic counters per airport, FIR boundary and country, maintained incrementally from the
+ * {@link ClientRepository#deltas() client deltas} so lookups are constant time and a reload only touches the
+ * counters of clients that were added, removed or changed.
+ * <p>
+ * Every client contributes to a fixed set of counters, derived from its current state. On every change the old
+ * contribution is subtracted and the new one added, which keeps the counters equal to a full recompute.
+ */
+@Singleton
+public class TrafficAggregates {
+    private static final int RELEVANT_FIELDS = ClientField.maskOf(
+            ClientField.POSITION,
+            ClientField.GROUND_SPEED,
+            ClientField.FIR_MEMBERSHIP,
+            ClientField.AIRPORT_MEMBERSHIP
+    );
+
+    private final Map<Airport, TrafficCounts> airports = new ConcurrentHashMap<>();
+    private final Map<FlightInformationRegionBoundary, TrafficCounts> flightInformationRegionBoundaries = new ConcurrentHashMap<>();
+    private final Map<Country, TrafficCounts> countries = new ConcurrentHashMap<>();
+
+    private final Map<Client, Contribution> contributions = new IdentityHashMap<>();
+
+    private final EventStream<TrafficAggregates> updates = new EventStream<>();
+
+    @Inject
+    public TrafficAggregates(final ClientRepository clientRepository) {
+        for (final Client client : clientRepository.list()) {
+            update(client, Contribution.of(client));
+        }
+
+        clientRepository.deltas().subscribe(this::apply);
+    }
+
+    TrafficAggregates() {
+    }
+
+    public TrafficCounts get(final Airport airport) {
+        return airports.getOrDefault(airport, TrafficCounts.EMPTY);
+    }
+
+    public TrafficCounts get(final FlightInformationRegionBoundary flightInformationRegionBoundary) {
+        return flightInformationRegionBoundaries.getOrDefault(flightInformationRegionBoundary, TrafficCounts.EMPTY);
+    }
+
+    public TrafficCounts get(final Country country) {
+        return countries.getOrDefault(country, TrafficCounts.EMPTY);
+    }
+
+    public List<Airport> busiestAirports(final int limit) {
+        return busiest(airports, limit);
+    }
+
+    public List<FlightInformationRegionBoundary> busiestFlightInformationRegionBoundaries(final int limit) {
+        return busiest(flightInformationRegionBoundaries, limit);
+    }
+
+    public List<Country> busiestCountries(final int limit) {
+        return busiest(countries, limit);
+    }
+
+    private static <K> List<K> busiest(final Map<K, TrafficCounts> counts, final int limit) {
+        return counts
+                .entrySet()
+                .stream()
+                .filter(e -> activity(e.getValue()) > 0)
+                .sorted(Comparator.comparingInt((Map.Entry<K, TrafficCounts> e) -> activity(e.getValue())).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static int activity(final TrafficCounts counts) {
+        return counts.getPilotsInside() + counts.getTraffic() + counts.getControllers();
+    }
+
+    void apply(final ClientDelta delta) {
+        for (final Client client : delta.getRemoved()) {
+            update(client, null);
+        }
+
+        for (final ClientDelta.Change change : delta.changed(RELEVANT_FIELDS)) {
+            update(change.getClient(), Contribution.of(change.getClient()));
+        }
+
+        for (final Client client : delta.getAdded()) {
+            update(client, Contribution.of(client));
+        }
+
+        updates.publish(this);
+    }
+
+    /**
+     * Stream published after the counters were updated from a client delta.
+     */
+    public EventStream<TrafficAggregates> updates() {
+        return updates;
+    }
+
+    /**
+     * Replaces the contribution of {@code client}.
+     *
+     * @param contribution the new contribution, or {@code null} if the client was removed
+     */
+    void update(final Client client, final Contribution contribution) {
+        final Contribution previous = contribution == null
+                ? contributions.remove(client)
+                : contributions.put(client, contribution);
+
+        if (Objects.equals(previous, contribution)) {
+            return;
+        }
+
+        if (previous != null) {
+            apply(previous, -1);
+        }
+
+        if (contribution != null) {
+            apply(contribution, 1);
+        }
+    }
+
+    private void apply(final Contribution contribution, final int delta) {
+        final Set<Country> countriesInside = new HashSet<>();
+        for (final FlightInformationRegionBoundary firb : contribution.getFlightInformationRegionBoundaries()) {
+            // only the FIR boundary, a pilot inside several FIR boundaries of a country counts once for the country
+            final TrafficCounts counts = counts(flightInformationRegionBoundaries, firb);
+            counts.addPilotsInside(delta);
+            if (contribution.isOnGround()) {
+                counts.addOnGround(delta);
+            }
+            if (firb.getCountry() != null) {
+                countriesInside.add(firb.getCountry());
+            }
+        }
+        for (final Country country : countriesInside) {
+            final TrafficCounts counts = counts(countries, country);
+            counts.addPilotsInside(delta);
+            if (contribution.isOnGround()) {
+                counts.addOnGround(delta);
+            }
+        }
+
+        forAirport(contribution.getDeparture(), counts -> counts.addOutbound(delta));
+        forAirport(contribution.getArrival(), counts -> counts.addInbound(delta));
+
+        if (contribution.getGroundAirport() != null) {
+            counts(airports, contribution.getGroundAirport()).addOnGround(delta);
+        }
+
+        final ControllerType controllerType = contribution.getControllerType();
+        if (controllerType != null) {
+            forAirport(contribution.getControllerAirport(), counts -> counts.addController(controllerType, delta));
+            forFirb(contribution.getControllerFlightInformationRegionBoundary(), counts -> counts.addController(controllerType, delta));
+        }
+    }
+
+    /**
+     * Applies {@code action} to the counters of {@code airport} and of the FIR boundary and country it is in.
+     */
+    private void forAirport(final Airport airport, final Consumer<TrafficCounts> action) {
+        if (airport == null) {
+            return;
+        }
+
+        action.accept(counts(airports, airport));
+        forFirb(airport.getFlightInformationRegionBoundary(), action);
+    }
+
+    /**
+     * Applies {@code action} to the counters of {@code firb} and of its country.
+     */
+    private void forFirb(final FlightInformationRegionBoundary firb, final Consumer<TrafficCounts> action) {
+        if (firb == null) {
+            return;
+        }
+
+        action.accept(counts(flightInformationRegionBoundaries, firb));
+
+        if (firb.getCountry() != null) {
+            action.accept(counts(countries, firb.getCountry()));
+        }
+    }
+
+    private static <K> TrafficCounts counts(final Map<K, TrafficCounts> map, final K key) {
+        return map.computeIfAbsent(key, k -> new TrafficCounts());
+    }
+
+    /**
+     * The counters a single client is counted towards.
+     */
+    @Value
+    static class Contribution {
+        Airport departure;
+        Airport arrival;
+        Airport groundAirport;
+        List<FlightInformationRegionBoundary> flightInformationRegionBoundaries;
+        boolean onGround;
+        ControllerType controllerType;
+        Airport controllerAirport;
+        FlightInformationRegionBoundary controllerFlightInformationRegionBoundary;
+
+        static Contribution pilot(
+                final Airport departure,
+                final Airport arrival,
+                final Airport groundAirport,
+                final List<FlightInformationRegionBoundary> flightInformationRegionBoundaries,
+                final boolean onGround
+        ) {
+            return new Contribution(departure, arrival, groundAirport, List.copyOf(flightInformationRegionBoundaries), onGround, null, null, null);
+        }
+
+        static Contribution controller(
+                final ControllerType controllerType,
+                final Airport controllerAirport,
+                final FlightInformationRegionBoundary controllerFlightInformationRegionBoundary
+        ) {
+            return new Contribution(null, null, null, List.of(), false, controllerType, controllerAirport, controllerFlightInformationRegionBoundary);
+        }
+
+        static Contribution of(final Client client) {
+            if (client instanceof Pilot) {
+                final Pilot pilot = (Pilot) client;
+                final FlightPlan flightPlan = pilot.getFlightPlan();
+                final Eta eta = pilot.getEta();
+
+                final Airport groundAirport;
+                if (eta != null && eta.is(Eta.Status.DEPARTING)) {
+                    groundAirport = flightPlan.getDepartureAirport();
+                } else if (eta != null && eta.is(Eta.Status.ARRIVING)) {
+                    groundAirport = flightPlan.getArrivalAirport();
+                } else {
+                    groundAirport = null;
+                }
+
+                return pilot(
+                        flightPlan.getDepartureAirport(),
+                        flightPlan.getArrivalAirport(),
+                        groundAirport,
+                        pilot.flightInformationRegionBoundaries(),
+                        eta != null && eta.is(Eta.Status.GROUND)
+                );
+            }
+
+            final Controller controller = (Controller) client;
+            return controller(
+                    controller.getControllerType(),
+                    controller.getWorkingAirport(),
+                    controller.getWorkingFlightInformationRegionBoundary()
+            );
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package net.marvk.fs.vatsim.map.data;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Traffic counters of a single airport, FIR boundary or country, maintained by {@link TrafficAggregates}.
+ * <p>
+ * Counters are only written on the thread applying client reloads; readers on other threads may observe a
+ * partially applied reload.
+ */
+@ToString
+@EqualsAndHashCode
+public final class TrafficCounts {
+    public static final TrafficCounts EMPTY = new TrafficCounts();
+
+    private int pilotsInside;
+    private int inbound;
+    private int outbound;
+    private int onGround;
+    private int controllers;
+    private final int[] controllersByType = new int[ControllerType.values().length];
+
+    TrafficCounts() {
+    }
+
+    /**
+     * @return the number of pilots currently inside the FIR boundary or country, always zero for airports
+     */
+    public int getPilotsInside() {
+        return pilotsInside;
+    }
+
+    public int getInbound() {
+        return inbound;
+    }
+
+    public int getOutbound() {
+        return outbound;
+    }
+
+    /**
+     * @return the number of pilots on the ground, for airports only the ones departing or arriving there
+     */
+    public int getOnGround() {
+        return onGround;
+    }
+
+    public int getTraffic() {
+        return inbound + outbound;
+    }
+
+    public int getControllers() {
+        return controllers;
+    }
+
+    public int getControllers(final ControllerType controllerType) {
+        return controllersByType[controllerType.ordinal()];
+    }
+
+    public boolean isEmpty() {
+        return pilotsInside == 0 && inbound == 0 && outbound == 0 && onGround == 0 && controllers == 0;
+    }
+
+    void addPilotsInside(final int delta) {
+        pilotsInside += delta;
+    }
+
+    void addInbound(final int delta) {
+        inbound += delta;
+    }
+
+    void addOutbound(final int delta) {
+        outbound += delta;
+    }
+
+    void addOnGround(final int delta) {
+        onGround += delta;
+    }
+
+    void addController(final ControllerType controllerType, final int delta) {
+        controllers += delta;
+        controllersByType[controllerType.ordinal()] += delta;
+    }
+}
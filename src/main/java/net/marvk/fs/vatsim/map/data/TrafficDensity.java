@@ -0,0 +1,190 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Point2D;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of pilots per cell of a one degree grid, maintained incrementally from the
+ * {@link ClientRepository#deltas() client deltas} like the {@link TrafficAggregates}.
+ * <p>
+ * Besides all pilots, the pilots matching any enabled {@link Filter} are counted separately. Filter changes recount
+ * only that grid.
+ */
+@Singleton
+public class TrafficDensity {
+    public static final int COLUMNS = 360;
+    public static final int ROWS = 180;
+
+    private static final int NO_CELL = -1;
+
+    private final Map<Client, Contribution> contributions = new IdentityHashMap<>();
+
+    private final int[] all = new int[COLUMNS * ROWS];
+    private final int[] filtered = new int[COLUMNS * ROWS];
+
+    private final List<Filter> filters;
+
+    private long generation = 0;
+    private volatile Grid grid = new Grid(0, new int[COLUMNS * ROWS], new int[COLUMNS * ROWS]);
+
+    @Inject
+    public TrafficDensity(final ClientRepository clientRepository, final FilterRepository filterRepository) {
+        this(filterRepository.list());
+
+        for (final Client client : clientRepository.list()) {
+            update(client);
+        }
+        publish();
+
+        clientRepository.deltas().subscribe(this::apply);
+        filterRepository.list().addListener((ListChangeListener<Filter>) c -> refilter());
+    }
+
+    TrafficDensity(final List<Filter> filters) {
+        this.filters = filters;
+    }
+
+    /**
+     * @return the counts after the last reload, can be read from any thread
+     */
+    public Grid grid() {
+        return grid;
+    }
+
+    synchronized void apply(final ClientDelta delta) {
+        for (final Client client : delta.getRemoved()) {
+            remove(client);
+        }
+
+        for (final ClientDelta.Change change : delta.getChanged()) {
+            update(change.getClient());
+        }
+
+        for (final Client client : delta.getAdded()) {
+            update(client);
+        }
+
+        publish();
+    }
+
+    synchronized void refilter() {
+        for (final Map.Entry<Client, Contribution> entry : contributions.entrySet()) {
+            final Contribution previous = entry.getValue();
+            final Contribution contribution = new Contribution(previous.cell, matchesFilter(entry.getKey()));
+            entry.setValue(contribution);
+
+            add(previous, -1);
+            add(contribution, 1);
+        }
+
+        publish();
+    }
+
+    void update(final Client client) {
+        if (!(client instanceof Pilot)) {
+            return;
+        }
+
+        final Contribution contribution = new Contribution(cell(((Pilot) client).getPosition()), matchesFilter(client));
+        final Contribution previous = contributions.put(client, contribution);
+
+        if (previous != null) {
+            add(previous, -1);
+        }
+        add(contribution, 1);
+    }
+
+    private void remove(final Client client) {
+        final Contribution previous = contributions.remove(client);
+
+        if (previous != null) {
+            add(previous, -1);
+        }
+    }
+
+    private void add(final Contribution contribution, final int delta) {
+        if (contribution.cell == NO_CELL) {
+            return;
+        }
+
+        all[contribution.cell] += delta;
+
+        if (contribution.filtered) {
+            filtered[contribution.cell] += delta;
+        }
+    }
+
+    private boolean matchesFilter(final Client client) {
+        for (int i = 0; i < filters.size(); i++) {
+            if (filters.get(i).test(client)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void publish() {
+        grid = new Grid(++generation, all.clone(), filtered.clone());
+    }
+
+    /**
+     * @return the index of the cell containing the position, row {@code 0} is the northernmost
+     */
+    static int cell(final Point2D position) {
+        if (position == null) {
+            return NO_CELL;
+        }
+
+        final int column = clamp((int) Math.floor(position.getX() + 180), COLUMNS);
+        final int row = clamp((int) Math.floor(90 - position.getY()), ROWS);
+
+        return row * COLUMNS + column;
+    }
+
+    private static int clamp(final int value, final int size) {
+        return Math.min(Math.max(value, 0), size - 1);
+    }
+
+    private static final class Contribution {
+        private final int cell;
+        private final boolean filtered;
+
+        private Contribution(final int cell, final boolean filtered) {
+            this.cell = cell;
+            this.filtered = filtered;
+        }
+    }
+
+    /**
+     * Immutable counts of a single reload, indexed by {@code row * COLUMNS + column}.
+     */
+    public static final class Grid {
+        private final long generation;
+        private final int[] all;
+        private final int[] filtered;
+
+        private Grid(final long generation, final int[] all, final int[] filtered) {
+            this.generation = generation;
+            this.all = all;
+            this.filtered = filtered;
+        }
+
+        /**
+         * @return a number that changes whenever the counts change
+         */
+        public long getGeneration() {
+            return generation;
+        }
+
+        public int count(final int index, final boolean filteredOnly) {
+            return filteredOnly ? filtered[index] : all[index];
+        }
+    }
+}
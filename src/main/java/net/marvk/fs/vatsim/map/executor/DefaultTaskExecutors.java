@@ -0,0 +1,205 @@
+package net.marvk.fs.vatsim.map.executor;
+
+import com.google.inject.Singleton;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fixed size thread pools with named daemon threads. Queues are unbounded, the number of threads is not.
+ */
+@Log4j2
+@Singleton
+public class DefaultTaskExecutors implements TaskExecutors {
+    private static final int IO_THREADS = 4;
+    private static final int CPU_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+    private static final long METRICS_LOG_INTERVAL_SECONDS = 60;
+
+    private final MeteredThreadPoolExecutor io;
+    private final MeteredThreadPoolExecutor cpu;
+    private final MeteredScheduledThreadPoolExecutor scheduled;
+    private final List<TaskMetrics> metrics = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean shutdown = new AtomicBoolean(false);
+
+    public DefaultTaskExecutors() {
+        this.io = new MeteredThreadPoolExecutor("IO", IO_THREADS);
+        this.cpu = new MeteredThreadPoolExecutor("CPU", CPU_THREADS);
+        this.scheduled = new MeteredScheduledThreadPoolExecutor("Scheduled");
+
+        metrics.add(io.metrics);
+        metrics.add(cpu.metrics);
+        metrics.add(scheduled.metrics);
+
+        scheduled.scheduleAtFixedRate(this::logMetrics, METRICS_LOG_INTERVAL_SECONDS, METRICS_LOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public ExecutorService io() {
+        return io;
+    }
+
+    @Override
+    public ExecutorService cpu() {
+        return cpu;
+    }
+
+    @Override
+    public ScheduledExecutorService scheduled() {
+        return scheduled;
+    }
+
+    @Override
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    @Override
+    public TaskMetrics metrics(final String name, final IntSupplier queueDepth) {
+        final TaskMetrics result = new TaskMetrics(name, queueDepth);
+        metrics.add(result);
+        return result;
+    }
+
+    @Override
+    public List<TaskMetrics.Snapshot> snapshot() {
+        return metrics.stream().map(TaskMetrics::snapshot).collect(Collectors.toList());
+    }
+
+    @Override
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+
+        log.info("Shutting down executors");
+
+        scheduled.shutdownNow();
+        io.shutdown();
+        cpu.shutdown();
+
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MILLIS);
+            awaitTermination(io, deadline);
+            awaitTermination(cpu, deadline);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final List<Runnable> dropped = new ArrayList<>(io.shutdownNow());
+        dropped.addAll(cpu.shutdownNow());
+
+        if (!dropped.isEmpty()) {
+            log.warn("Dropped %d queued tasks on shutdown".formatted(dropped.size()));
+        }
+
+        snapshot().forEach(e -> log.info(e.toString()));
+    }
+
+    private static void awaitTermination(final ExecutorService executor, final long deadlineNanos) throws InterruptedException {
+        executor.awaitTermination(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private void logMetrics() {
+        if (log.isDebugEnabled()) {
+            snapshot().forEach(e -> log.debug(e.toString()));
+        }
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        final AtomicInteger counter = new AtomicInteger();
+
+        return r -> {
+            final Thread thread = new Thread(r, "%s-%d".formatted(name, counter.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class MeteredThreadPoolExecutor extends ThreadPoolExecutor {
+        private final TaskMetrics metrics;
+        private final ThreadLocal<Long> started = new ThreadLocal<>();
+
+        private MeteredThreadPoolExecutor(final String name, final int threads) {
+            super(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory(name));
+            this.metrics = new TaskMetrics(name, () -> getQueue().size());
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            super.execute(new Enqueued(command, System.nanoTime()));
+        }
+
+        @Override
+        protected void beforeExecute(final Thread t, final Runnable r) {
+            super.beforeExecute(t, r);
+            final long now = System.nanoTime();
+            started.set(now);
+            metrics.started(now - ((Enqueued) r).enqueuedNanos);
+        }
+
+        @Override
+        protected void afterExecute(final Runnable r, final Throwable t) {
+            metrics.completed(System.nanoTime() - started.get());
+            super.afterExecute(r, t);
+        }
+    }
+
+    private static final class Enqueued implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedNanos;
+
+        private Enqueued(final Runnable delegate, final long enqueuedNanos) {
+            this.delegate = delegate;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    private static final class MeteredScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
+        private final TaskMetrics metrics;
+        private final ThreadLocal<Long> started = new ThreadLocal<>();
+
+        private MeteredScheduledThreadPoolExecutor(final String name) {
+            super(1, threadFactory(name));
+            this.metrics = new TaskMetrics(name, this::due);
+            setRemoveOnCancelPolicy(true);
+            setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+
+        private int due() {
+            int result = 0;
+            for (final Runnable runnable : getQueue()) {
+                if (((Delayed) runnable).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+                    result += 1;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        protected void beforeExecute(final Thread t, final Runnable r) {
+            super.beforeExecute(t, r);
+            started.set(System.nanoTime());
+            // the task was due when its delay reached zero, so a negative delay is the time it waited for a thread
+            metrics.started(-((Delayed) r).getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        protected void afterExecute(final Runnable r, final Throwable t) {
+            metrics.completed(System.nanoTime() - started.get());
+            super.afterExecute(r, t);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package net.marvk.fs.vatsim.map.executor;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.IntSupplier;
+
+/**
+ * Shared, bounded executors for all background work of the application.
+ * <p>
+ * Tasks on the {@link #scheduled() scheduled} executor must be short, longer work is handed off to {@link #io()} or
+ * {@link #cpu()}. None of the executors may be shut down by their users, only by {@link #shutdown()}.
+ */
+public interface TaskExecutors {
+    /**
+     * Executor for blocking work like network requests and file access.
+     */
+    ExecutorService io();
+
+    /**
+     * Executor for parallel computations, sized to the number of available processors.
+     */
+    ExecutorService cpu();
+
+    /**
+     * Executor for delayed and periodic tasks like debounced writes and reload ticks.
+     */
+    ScheduledExecutorService scheduled();
+
+    /**
+     * The clock delays of the {@link #scheduled() scheduled} executor are measured with.
+     */
+    Clock clock();
+
+    /**
+     * Metrics for work that is executed elsewhere, for example on the JavaFX application thread.
+     *
+     * @param queueDepth the number of tasks currently waiting to be executed
+     */
+    TaskMetrics metrics(String name, IntSupplier queueDepth);
+
+    /**
+     * @return the metrics of all executors and of all work registered with {@link #metrics(String, IntSupplier)}
+     */
+    List<TaskMetrics.Snapshot> snapshot();
+
+    /**
+     * Stops accepting tasks, waits a short while for running tasks to complete and interrupts the rest.
+     */
+    void shutdown();
+}
@@ -0,0 +1,94 @@
+package net.marvk.fs.vatsim.map.executor;
+
+import lombok.Value;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Queue depth, latency and run time of the tasks of one executor. Latency is the time a task waited between becoming
+ * ready to run and actually starting, which grows when the executor is contended.
+ */
+public final class TaskMetrics {
+    private final String name;
+    private final IntSupplier queueDepth;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+    public TaskMetrics(final String name, final IntSupplier queueDepth) {
+        this.name = name;
+        this.queueDepth = queueDepth;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the start of a task that waited {@code latencyNanos} to run.
+     */
+    public void started(final long latencyNanos) {
+        final long latency = Math.max(0, latencyNanos);
+        active.incrementAndGet();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulate(latency);
+    }
+
+    /**
+     * Records the completion of a task that ran for {@code runNanos}.
+     */
+    public void completed(final long runNanos) {
+        active.decrementAndGet();
+        completed.increment();
+        totalRunNanos.add(runNanos);
+        maxRunNanos.accumulate(runNanos);
+    }
+
+    public Snapshot snapshot() {
+        final long n = completed.sum();
+
+        return new Snapshot(
+                name,
+                queueDepth.getAsInt(),
+                active.get(),
+                n,
+                n == 0 ? 0 : totalLatencyNanos.sum() / n,
+                maxLatencyNanos.get(),
+                n == 0 ? 0 : totalRunNanos.sum() / n,
+                maxRunNanos.get()
+        );
+    }
+
+    @Value
+    public static class Snapshot {
+        String name;
+        int queueDepth;
+        int active;
+        long completed;
+        long averageLatencyNanos;
+        long maxLatencyNanos;
+        long averageRunNanos;
+        long maxRunNanos;
+
+        @Override
+        public String toString() {
+            return "%s: %d queued, %d active, %d completed, latency avg %.2f ms max %.2f ms, run avg %.2f ms max %.2f ms".formatted(
+                    name,
+                    queueDepth,
+                    active,
+                    completed,
+                    averageLatencyNanos / 1_000_000.,
+                    maxLatencyNanos / 1_000_000.,
+                    averageRunNanos / 1_000_000.,
+                    maxRunNanos / 1_000_000.
+            );
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package net.marvk.fs.vatsim.map.view;
+
+/**
+ * A view that can stop following its data while it is not displayed.
+ */
+public interface Detachable {
+    /**
+     * Starts following the data again, catching up with all changes made while detached.
+     */
+    void attach();
+
+    /**
+     * Stops following the data until {@link #attach()} is called.
+     */
+    void detach();
+}
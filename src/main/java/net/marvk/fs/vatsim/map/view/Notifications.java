@@ -2,6 +2,7 @@ package net.marvk.fs.vatsim.map.view;
 
 import de.saxsys.mvvmfx.MvvmFX;
 import net.marvk.fs.vatsim.map.data.Data;
+import net.marvk.fs.vatsim.map.view.painter.PainterExecutor;
 
 import java.util.function.Consumer;
 
@@ -11,6 +12,7 @@ public final class Notifications {
     public static final DataNotification<Integer> SWITCH_TO_TAB = new DataNotification<>("SWITCH_TO_TAB");
     public static final DataNotification<String> SET_THEME = new DataNotification<>("SET_THEME");
     public static final VoidNotification REPAINT = new VoidNotification("REPAINT");
+    public static final DataNotification<PainterExecutor<?>> REPAINT_PAINTER = new DataNotification<>("REPAINT_PAINTER");
     public static final VoidNotification RELOAD_CLIENTS = new VoidNotification("RELOAD_CLIENTS");
     public static final VoidNotification CLIENTS_RELOADED = new VoidNotification("CLIENTS_RELOADED");
     public static final VoidNotification SEARCH = new VoidNotification("SEARCH");
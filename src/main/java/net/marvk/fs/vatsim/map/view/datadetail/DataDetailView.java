@@ -110,70 +110,74 @@ public class DataDetailView implements FxmlView<DataDetailViewModel> {
         viewModel.setFollow(follow.isSelected());
     }
 
+    /**
+     * Loads every detail pane on the first time it is shown.
+     */
     private static class PaneManager implements OptionalDataVisitor<Parent> {
-        private final ViewTuple<PilotDetailView, DataDetailSubViewModel<Pilot>> pilotDetailView;
+        private final Context context;
 
-        private final ViewTuple<AirportDetailView, AirportDetailViewModel> airportDetailView;
+        private ViewTuple<PilotDetailView, DataDetailSubViewModel<Pilot>> pilotDetailView;
 
-        private final ViewTuple<FlightInformationRegionBoundaryDetailView, DataDetailSubViewModel<FlightInformationRegionBoundary>> firbDetailView;
+        private ViewTuple<AirportDetailView, AirportDetailViewModel> airportDetailView;
 
-        private final ViewTuple<UpperInformationRegionDetailView, UpperInformationRegionDetailViewModel> uirDetailView;
+        private ViewTuple<FlightInformationRegionBoundaryDetailView, DataDetailSubViewModel<FlightInformationRegionBoundary>> firbDetailView;
 
-        private final ViewTuple<ControllerDetailView, ControllerDetailViewModel> controllerView;
+        private ViewTuple<UpperInformationRegionDetailView, UpperInformationRegionDetailViewModel> uirDetailView;
 
-        public PaneManager(final Context context) {
-            this.pilotDetailView = FluentViewLoader
-                    .fxmlView(PilotDetailView.class)
-                    .context(context)
-                    .load();
+        private ViewTuple<ControllerDetailView, ControllerDetailViewModel> controllerView;
 
-            this.airportDetailView = FluentViewLoader
-                    .fxmlView(AirportDetailView.class)
-                    .context(context)
-                    .load();
-
-            this.firbDetailView = FluentViewLoader
-                    .fxmlView(FlightInformationRegionBoundaryDetailView.class)
-                    .context(context)
-                    .load();
-
-            this.uirDetailView = FluentViewLoader
-                    .fxmlView(UpperInformationRegionDetailView.class)
-                    .context(context)
-                    .load();
+        public PaneManager(final Context context) {
+            this.context = context;
+        }
 
-            this.controllerView = FluentViewLoader
-                    .fxmlView(ControllerDetailView.class)
+        private <V extends FxmlView<? extends M>, M extends ViewModel> ViewTuple<V, M> load(final Class<? extends V> viewType) {
+            return FluentViewLoader
+                    .fxmlView(viewType)
                     .context(context)
                     .load();
         }
 
         @Override
         public Optional<Parent> visit(final Controller controller) {
+            if (controllerView == null) {
+                controllerView = load(ControllerDetailView.class);
+            }
             controllerView.getViewModel().setData(controller);
             return Optional.of(controllerView.getView());
         }
 
         @Override
         public Optional<Parent> visit(final UpperInformationRegion upperInformationRegion) {
+            if (uirDetailView == null) {
+                uirDetailView = load(UpperInformationRegionDetailView.class);
+            }
             uirDetailView.getViewModel().setData(upperInformationRegion);
             return Optional.of(uirDetailView.getView());
         }
 
         @Override
         public Optional<Parent> visit(final Airport airport) {
+            if (airportDetailView == null) {
+                airportDetailView = load(AirportDetailView.class);
+            }
             airportDetailView.getViewModel().setData(airport);
             return Optional.of(airportDetailView.getView());
         }
 
         @Override
         public Optional<Parent> visit(final FlightInformationRegionBoundary flightInformationRegionBoundary) {
+            if (firbDetailView == null) {
+                firbDetailView = load(FlightInformationRegionBoundaryDetailView.class);
+            }
             firbDetailView.getViewModel().setData(flightInformationRegionBoundary);
             return Optional.of(firbDetailView.getView());
         }
 
         @Override
         public Optional<Parent> visit(final Pilot pilot) {
+            if (pilotDetailView == null) {
+                pilotDetailView = load(PilotDetailView.class);
+            }
             pilotDetailView.getViewModel().setData(pilot);
             return Optional.of(pilotDetailView.getView());
         }
@@ -3,21 +3,34 @@ package net.marvk.fs.vatsim.map.view.datatable;
 import com.google.inject.Inject;
 import de.saxsys.mvvmfx.InjectViewModel;
 import de.saxsys.mvvmfx.JavaView;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
+import javafx.scene.control.IndexedCell;
 import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.input.MouseButton;
 import net.marvk.fs.vatsim.map.data.Data;
 import net.marvk.fs.vatsim.map.data.ImmutableStringProperty;
+import net.marvk.fs.vatsim.map.view.Detachable;
 import net.marvk.fs.vatsim.map.view.TextFlowHighlighter;
 
-public abstract class AbstractTableView<ViewModel extends SimpleTableViewModel<Model>, Model extends Data> extends TableView<Model> implements JavaView<ViewModel> {
+public abstract class AbstractTableView<ViewModel extends SimpleTableViewModel<Model>, Model extends Data> extends TableView<Model> implements JavaView<ViewModel>, Detachable {
     protected static final ReadOnlyStringProperty EMPTY = new ImmutableStringProperty("");
 
     private final TextFlowHighlighter textFlowHighlighter;
+    private final ObservableList<Model> attachedItems = FXCollections.observableArrayList();
+    private boolean attached = false;
+    /**
+     * Selected and first visible item when the table was detached, restored once the items are mirrored again.
+     */
+    private Model detachedSelectedItem;
+    private Model detachedFirstVisibleItem;
     private ColumnBuilderFactory<Model> columnBuilder;
     @FXML
     protected TableView<Model> table;
@@ -41,9 +54,10 @@ public abstract class AbstractTableView<ViewModel extends SimpleTableViewModel<M
 
         getStyleClass().add("clickable-rows");
 
-        final SortedList<Model> value = new SortedList<>(viewModel.items());
+        final SortedList<Model> value = new SortedList<>(attachedItems);
         value.comparatorProperty().bind(table.comparatorProperty());
         table.setItems(value);
+        attach();
 
         table.setRowFactory(param -> new DataTableRow());
 
@@ -54,6 +68,64 @@ public abstract class AbstractTableView<ViewModel extends SimpleTableViewModel<M
         initializeColumns();
     }
 
+    /**
+     * Mirrors the items of the view model again. Binding replaces all items, which clears the selection and scrolls
+     * to the top, so both are restored if their items are still present.
+     */
+    @Override
+    public void attach() {
+        if (!attached) {
+            Bindings.bindContent(attachedItems, viewModel.items());
+            attached = true;
+
+            restore();
+        }
+    }
+
+    /**
+     * Stops mirroring the items of the view model, so hidden tables are not sorted on every reload.
+     */
+    @Override
+    public void detach() {
+        if (attached) {
+            detachedSelectedItem = table.getSelectionModel().getSelectedItem();
+            detachedFirstVisibleItem = firstVisibleItem();
+
+            Bindings.unbindContent(attachedItems, viewModel.items());
+            attached = false;
+        }
+    }
+
+    private void restore() {
+        if (detachedSelectedItem != null) {
+            table.getSelectionModel().select(detachedSelectedItem);
+        }
+
+        if (detachedFirstVisibleItem != null) {
+            final int index = table.getItems().indexOf(detachedFirstVisibleItem);
+            if (index >= 0) {
+                table.scrollTo(index);
+            }
+        }
+
+        detachedSelectedItem = null;
+        detachedFirstVisibleItem = null;
+    }
+
+    private Model firstVisibleItem() {
+        final VirtualFlow<?> flow = (VirtualFlow<?>) table.lookup(".virtual-flow");
+        if (flow == null) {
+            return null;
+        }
+
+        final IndexedCell<?> cell = flow.getFirstVisibleCell();
+        if (cell == null || cell.getIndex() < 0 || cell.getIndex() >= table.getItems().size()) {
+            return null;
+        }
+
+        return table.getItems().get(cell.getIndex());
+    }
+
     protected static String emptyIfZero(final Number e) {
         return e.intValue() == 0 ? "" : e.toString();
     }
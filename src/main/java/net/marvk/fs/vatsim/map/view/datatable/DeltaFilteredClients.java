@@ -0,0 +1,102 @@
+package net.marvk.fs.vatsim.map.view.datatable;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import net.marvk.fs.vatsim.map.data.Client;
+import net.marvk.fs.vatsim.map.data.ClientDelta;
+import net.marvk.fs.vatsim.map.data.ClientRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Filtered view of the clients in the {@link ClientRepository} that is kept up to date from the
+ * {@link ClientRepository#deltas() client deltas}, only re-testing clients that were added or had one of the
+ * relevant fields changed. Changing the predicate re-tests all clients.
+ */
+public class DeltaFilteredClients {
+    private final ClientRepository clientRepository;
+    private final int relevantFields;
+
+    private final ObservableList<Client> items = FXCollections.observableArrayList();
+    private final ObservableList<Client> unmodifiableItems = FXCollections.unmodifiableObservableList(items);
+    private final Set<Client> matching = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private Predicate<Client> predicate;
+
+    /**
+     * @param relevantFields mask of the {@link net.marvk.fs.vatsim.map.data.ClientField}s the predicate depends on
+     */
+    public DeltaFilteredClients(final ClientRepository clientRepository, final Predicate<Client> predicate, final int relevantFields) {
+        this.clientRepository = clientRepository;
+        this.relevantFields = relevantFields;
+        this.predicate = Objects.requireNonNull(predicate);
+
+        refilter();
+        clientRepository.deltas().subscribe(this::apply);
+    }
+
+    public ObservableList<Client> list() {
+        return unmodifiableItems;
+    }
+
+    public void setPredicate(final Predicate<Client> predicate) {
+        this.predicate = predicate == null ? e -> true : predicate;
+        refilter();
+    }
+
+    private void refilter() {
+        final List<Client> result = new ArrayList<>();
+        matching.clear();
+
+        for (final Client client : clientRepository.list()) {
+            if (predicate.test(client)) {
+                result.add(client);
+                matching.add(client);
+            }
+        }
+
+        items.setAll(result);
+    }
+
+    private void apply(final ClientDelta delta) {
+        final Set<Client> toRemove = new HashSet<>();
+        final List<Client> toAdd = new ArrayList<>();
+
+        for (final Client client : delta.getRemoved()) {
+            if (matching.remove(client)) {
+                toRemove.add(client);
+            }
+        }
+
+        for (final ClientDelta.Change change : delta.changed(relevantFields)) {
+            final Client client = change.getClient();
+            final boolean matches = predicate.test(client);
+            if (matches && matching.add(client)) {
+                toAdd.add(client);
+            } else if (!matches && matching.remove(client)) {
+                toRemove.add(client);
+            }
+        }
+
+        for (final Client client : delta.getAdded()) {
+            if (predicate.test(client) && matching.add(client)) {
+                toAdd.add(client);
+            }
+        }
+
+        if (!toRemove.isEmpty()) {
+            items.removeAll(toRemove);
+        }
+
+        if (!toAdd.isEmpty()) {
+            items.addAll(toAdd);
+        }
+    }
+}
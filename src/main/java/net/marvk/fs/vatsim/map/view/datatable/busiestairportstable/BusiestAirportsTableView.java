@@ -0,0 +1,75 @@
+package net.marvk.fs.vatsim.map.view.datatable.busiestairportstable;
+
+import com.google.inject.Inject;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import net.marvk.fs.vatsim.map.data.Airport;
+import net.marvk.fs.vatsim.map.data.Country;
+import net.marvk.fs.vatsim.map.data.ImmutableObjectProperty;
+import net.marvk.fs.vatsim.map.data.TrafficCounts;
+import net.marvk.fs.vatsim.map.view.TextFlowHighlighter;
+import net.marvk.fs.vatsim.map.view.datatable.AbstractTableView;
+
+import java.util.function.ToIntFunction;
+
+public class BusiestAirportsTableView extends AbstractTableView<BusiestAirportsTableViewModel, Airport> {
+    @Inject
+    public BusiestAirportsTableView(final TextFlowHighlighter textFlowHighlighter) {
+        super(textFlowHighlighter);
+    }
+
+    @Override
+    public void initialize() {
+        super.initialize();
+        // the counters are not observable, re-read them whenever the ranking is updated
+        viewModel.items().addListener((ListChangeListener<Airport>) c -> refresh());
+    }
+
+    @Override
+    protected void initializeColumns() {
+        this.<String>newColumnBuilder()
+                .title("ICAO")
+                .stringObservableValueFactory(Airport::icaoProperty)
+                .sortable()
+                .mono(true)
+                .widthFactor(0.5)
+                .build();
+
+        this.<String>newColumnBuilder()
+                .title("Name")
+                .stringObservableValueFactory(e -> e.getNames().get(0))
+                .sortable()
+                .mono(false)
+                .widthFactor(2.5)
+                .build();
+
+        this.<Country>newColumnBuilder()
+                .title("Country")
+                .objectObservableValueFactory(Airport::countryProperty)
+                .toStringMapper(Country::getName)
+                .sortable()
+                .widthFactor(1.25)
+                .build();
+
+        countColumn("Departures", TrafficCounts::getOutbound);
+        countColumn("Arrivals", TrafficCounts::getInbound);
+        countColumn("On Ground", TrafficCounts::getOnGround);
+        countColumn("Total", TrafficCounts::getTraffic);
+        countColumn("Controllers", TrafficCounts::getControllers);
+    }
+
+    private void countColumn(final String title, final ToIntFunction<TrafficCounts> count) {
+        this.<Number>newColumnBuilder()
+                .title(title)
+                .objectObservableValueFactory(e -> count(e, count))
+                .toStringMapper(AbstractTableView::emptyIfZero)
+                .sortable()
+                .mono(true)
+                .widthFactor(0.85)
+                .build();
+    }
+
+    private ObservableValue<Number> count(final Airport airport, final ToIntFunction<TrafficCounts> count) {
+        return new ImmutableObjectProperty<>(count.applyAsInt(viewModel.traffic(airport)));
+    }
+}
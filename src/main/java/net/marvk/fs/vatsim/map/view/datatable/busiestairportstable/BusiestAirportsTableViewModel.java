@@ -0,0 +1,40 @@
+package net.marvk.fs.vatsim.map.view.datatable.busiestairportstable;
+
+import com.google.inject.Inject;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import net.marvk.fs.vatsim.map.data.Airport;
+import net.marvk.fs.vatsim.map.data.Preferences;
+import net.marvk.fs.vatsim.map.data.TrafficAggregates;
+import net.marvk.fs.vatsim.map.data.TrafficCounts;
+import net.marvk.fs.vatsim.map.view.datatable.SimpleTableViewModel;
+
+public class BusiestAirportsTableViewModel extends SimpleTableViewModel<Airport> {
+    private static final int LIMIT = 100;
+
+    private final TrafficAggregates trafficAggregates;
+    private final ObservableList<Airport> airports = FXCollections.observableArrayList();
+    private final ObservableList<Airport> unmodifiableAirports = FXCollections.unmodifiableObservableList(airports);
+
+    @Inject
+    public BusiestAirportsTableViewModel(final Preferences preferences, final TrafficAggregates trafficAggregates) {
+        super(preferences);
+        this.trafficAggregates = trafficAggregates;
+
+        updateRanking();
+        trafficAggregates.updates().subscribe(e -> updateRanking());
+    }
+
+    private void updateRanking() {
+        airports.setAll(trafficAggregates.busiestAirports(LIMIT));
+    }
+
+    public TrafficCounts traffic(final Airport airport) {
+        return trafficAggregates.get(airport);
+    }
+
+    @Override
+    public ObservableList<Airport> items() {
+        return unmodifiableAirports;
+    }
+}
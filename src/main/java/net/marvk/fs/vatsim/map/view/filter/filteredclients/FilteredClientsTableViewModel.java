@@ -2,31 +2,31 @@ package net.marvk.fs.vatsim.map.view.filter.filteredclients;
 
 import com.google.inject.Inject;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import net.marvk.fs.vatsim.map.data.Client;
 import net.marvk.fs.vatsim.map.data.ClientRepository;
 import net.marvk.fs.vatsim.map.data.Preferences;
+import net.marvk.fs.vatsim.map.view.datatable.DeltaFilteredClients;
 import net.marvk.fs.vatsim.map.view.datatable.SimpleTableViewModel;
 
 import java.util.function.Predicate;
 
 public class FilteredClientsTableViewModel extends SimpleTableViewModel<Client> {
-    private final FilteredList<Client> clients;
+    private final DeltaFilteredClients clients;
     private final SimpleObjectProperty<Predicate<Client>> predicate = new SimpleObjectProperty<>(e -> true);
 
     @Inject
     public FilteredClientsTableViewModel(final ClientRepository clientRepository, final Preferences preferences) {
         super(preferences);
 
-        this.clients = new FilteredList<>(clientRepository.list());
-        this.clients.predicateProperty().bind(predicate);
+        // filters can test any field, so every changed client is re-tested
+        this.clients = new DeltaFilteredClients(clientRepository, predicate.get(), ~0);
+        this.predicate.addListener((observable, oldValue, newValue) -> clients.setPredicate(newValue));
     }
 
     @Override
     public ObservableList<Client> items() {
-        return FXCollections.unmodifiableObservableList(clients);
+        return clients.list();
     }
 
     public Predicate<Client> getPredicate() {
@@ -6,14 +6,11 @@ import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.ObservableList;
 import net.marvk.fs.vatsim.map.data.*;
-import net.marvk.fs.vatsim.map.view.Notifications;
 
-import java.time.LocalDateTime;
 import java.util.function.Predicate;
 
 public class FilteredClientsViewModel implements ViewModel {
     private final ReadOnlyObjectWrapper<Predicate<Client>> predicate = new ReadOnlyObjectWrapper<>();
-    private final ObjectProperty<LocalDateTime> lastUpdate = new SimpleObjectProperty<>();
 
     private final BooleanProperty controllers = new SimpleBooleanProperty();
     private final BooleanProperty pilots = new SimpleBooleanProperty();
@@ -32,13 +29,8 @@ public class FilteredClientsViewModel implements ViewModel {
                 filterRepository.list(),
                 controllers,
                 pilots,
-                selectedFilters,
-                lastUpdate
+                selectedFilters
         ));
-        // TODO workaround for weak listener being collected for some reason
-        lastUpdate.addListener((observable, oldValue, newValue) -> {
-        });
-        Notifications.CLIENTS_RELOADED.subscribe(() -> lastUpdate.set(LocalDateTime.now()));
     }
 
     private Predicate<Client> predicate() {
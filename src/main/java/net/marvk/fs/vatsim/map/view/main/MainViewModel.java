@@ -6,17 +6,15 @@ import de.saxsys.mvvmfx.InjectScope;
 import de.saxsys.mvvmfx.ScopeProvider;
 import de.saxsys.mvvmfx.ViewModel;
 import de.saxsys.mvvmfx.utils.commands.Action;
-import de.saxsys.mvvmfx.utils.commands.Command;
 import de.saxsys.mvvmfx.utils.commands.DelegateCommand;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.beans.value.ObservableValue;
-import javafx.concurrent.ScheduledService;
-import javafx.concurrent.Task;
 import javafx.scene.paint.Color;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.data.*;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
 import net.marvk.fs.vatsim.map.view.Notifications;
 import net.marvk.fs.vatsim.map.view.SettingsScope;
 import net.marvk.fs.vatsim.map.view.StatusScope;
@@ -28,18 +26,30 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @ScopeProvider({StatusScope.class, ToolbarScope.class, SettingsScope.class, FilterScope.class})
 @Log4j2
 public class MainViewModel implements ViewModel {
+    /**
+     * How long a reload waits for its update to be applied, for example while the application is shutting down.
+     */
+    private static final Duration APPLY_TIMEOUT = Duration.ofSeconds(30);
+
     private final ReadOnlyStringWrapper style = new ReadOnlyStringWrapper();
 
     private final DelegateCommand loadClientsAsync;
 
     private final Preferences preferences;
 
-    private final ReloadService clientReloadService;
+    private final ClientRepository clientRepository;
+
+    private final ReloadScheduler clientReloadScheduler;
+
+    private final Duration refreshRate;
 
     private final ReadOnlyBooleanWrapper onboarding = new ReadOnlyBooleanWrapper();
 
@@ -51,16 +61,26 @@ public class MainViewModel implements ViewModel {
             final ClientRepository clientRepository,
             final Preferences preferences,
             final VersionProvider versionProvider,
+            final FeedTimestampTracker feedTimestampTracker,
+            final TaskExecutors executors,
             @Named("vatsimApiRefreshRate") final Duration refreshRate
     ) {
         this.preferences = preferences;
+        this.clientRepository = clientRepository;
+        this.refreshRate = refreshRate;
 
         Notifications.RELOAD_CLIENTS.subscribe(this::reloadClients);
 
-        loadClientsAsync = new ReloadRepositoryCommand(clientRepository, this::clientReloadCompleted);
-        clientReloadService = new ReloadService(loadClientsAsync);
-        clientReloadService.setPeriod(javafx.util.Duration.seconds(refreshRate.getSeconds()));
-        clientReloadService.setDelay(javafx.util.Duration.seconds(refreshRate.getSeconds()));
+        clientReloadScheduler = new ReloadScheduler(
+                this::reloadClientsAndWait,
+                feedTimestampTracker,
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(2),
+                refreshRate.multipliedBy(8),
+                executors
+        );
+        loadClientsAsync = new ReloadNowCommand(clientReloadScheduler);
+        loadClientsAsync.setExecutor(executors.io());
 
         final StringProperty version = preferences.stringProperty("meta.version");
         if (version.get() == null || "0.0.0".equals(version.get())) {
@@ -71,10 +91,26 @@ public class MainViewModel implements ViewModel {
     }
 
     private void clientReloadCompleted() {
-        Notifications.REPAINT.publish();
         Notifications.CLIENTS_RELOADED.publish();
     }
 
+    /**
+     * Reloads the clients and waits until the update was applied on the JavaFX application thread, so the reload
+     * scheduler sees the whole reload as in flight. Must not be called on the JavaFX application thread.
+     *
+     * @throws TimeoutException if the JavaFX application thread didn't get to the update within {@link #APPLY_TIMEOUT}
+     */
+    private void reloadClientsAndWait() throws Exception {
+        clientRepository.reloadAsync(this::clientReloadCompleted);
+
+        // runLater is FIFO, the update posted by the reload has been applied once this latch is released
+        final CountDownLatch applied = new CountDownLatch(1);
+        Platform.runLater(applied::countDown);
+        if (!applied.await(APPLY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Client update was not applied within %s".formatted(APPLY_TIMEOUT));
+        }
+    }
+
     private void reloadClients() {
         loadClientsAsync.execute();
     }
@@ -91,19 +127,18 @@ public class MainViewModel implements ViewModel {
         toolbarScope.reloadExecutableProperty().bind(loadClientsAsync.executableProperty());
         toolbarScope.reloadExceptionProperty().bind(loadClientsAsync.exceptionProperty());
 
+        if (clientRepository.isStale()) {
+            reloadClients();
+        }
+
         style.bind(new StyleBindingGenerator(preferences).styleBinding());
     }
 
     private void setServiceRunning(final boolean running) {
         if (running) {
-            clientReloadService.setStopping(false);
-            if (!clientReloadService.isRunning()) {
-                log.info("Starting reload service");
-                clientReloadService.start();
-            }
+            clientReloadScheduler.start(refreshRate);
         } else {
-            log.info("Resetting reload service");
-            clientReloadService.setStopping(true);
+            clientReloadScheduler.stop();
         }
     }
 
@@ -123,64 +158,24 @@ public class MainViewModel implements ViewModel {
         return onboarding.getReadOnlyProperty();
     }
 
-    private static class ReloadService extends ScheduledService<Void> {
-        private final Command command;
-
-        private boolean stopping = false;
-
-        public ReloadService(final Command command) {
-            this.command = command;
-        }
-
-        @Override
-        protected Task<Void> createTask() {
-            return new ReloadTask();
-        }
-
-        public void setStopping(final boolean stopping) {
-            this.stopping = stopping;
-        }
-
-        private class ReloadTask extends Task<Void> {
-            @Override
-            protected Void call() {
-                if (!stopping) {
-                    Platform.runLater(command::execute);
-                }
-                return null;
-            }
-        }
-    }
-
     @Log4j2
-    public static final class ReloadRepositoryCommand extends DelegateCommand {
-        public ReloadRepositoryCommand(final ReloadableRepository<?> repository) {
-            this(repository, null);
+    public static final class ReloadNowCommand extends DelegateCommand {
+        public ReloadNowCommand(final ReloadScheduler reloadScheduler) {
+            super(() -> new ReloadNowAction(reloadScheduler), new ImmutableObjectProperty<>(true), true);
         }
 
-        public ReloadRepositoryCommand(final ReloadableRepository<?> repository, final Runnable onSucceed) {
-            super(() -> new ReloadRepositoryAction(repository, onSucceed), new ImmutableObjectProperty<>(true), onSucceed != null);
-        }
-
-        private static final class ReloadRepositoryAction extends Action {
-            private final ReloadableRepository<?> repository;
-            private final Runnable onSucceed;
+        private static final class ReloadNowAction extends Action {
+            private final ReloadScheduler reloadScheduler;
 
-            public ReloadRepositoryAction(final ReloadableRepository<?> repository, final Runnable onSucceed) {
-                this.repository = repository;
-                this.onSucceed = onSucceed;
+            public ReloadNowAction(final ReloadScheduler reloadScheduler) {
+                this.reloadScheduler = reloadScheduler;
             }
 
             @Override
             protected void action() throws Exception {
                 updateProgress(0, 1);
-                if (onSucceed != null) {
-                    log.info("Loading %s".formatted(repository.getClass().getSimpleName()));
-                    repository.reloadAsync(onSucceed);
-                } else {
-                    log.info("Async Loading %s".formatted(repository.getClass().getSimpleName()));
-                    repository.reload();
-                }
+                log.info("Loading clients");
+                reloadScheduler.reloadNow();
                 updateProgress(1, 1);
             }
         }
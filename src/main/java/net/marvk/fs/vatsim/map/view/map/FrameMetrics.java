@@ -27,18 +27,24 @@ public class FrameMetrics {
         return maxFrames;
     }
 
+    /**
+     * The last {@link #getMaxFrames()} frame times of one painter, stored in a ring buffer so appending doesn't
+     * allocate.
+     */
     public static class Metric {
         private final String name;
 
-        private final List<Long> frameTimes;
-        private final List<Long> unmodifiableFrameTimes;
+        private final long[] frameTimes;
         private final int maxFrames;
 
+        private int start = 0;
+        private int size = 0;
+        private long sum = 0;
+
         public Metric(final String name, final int maxFrames) {
             this.name = name;
             this.maxFrames = maxFrames;
-            this.frameTimes = new LinkedList<>();
-            this.unmodifiableFrameTimes = Collections.unmodifiableList(frameTimes);
+            this.frameTimes = new long[maxFrames];
         }
 
         public String getName() {
@@ -46,27 +52,44 @@ public class FrameMetrics {
         }
 
         public double getLast() {
-            return frameTimes.isEmpty() ? Double.NaN : frameTimes.get(frameTimes.size() - 1);
+            return size == 0 ? Double.NaN : get(size - 1);
         }
 
         public void append(final long frameTime) {
-            while (frameTimes.size() >= maxFrames) {
-                frameTimes.remove(0);
+            if (size == maxFrames) {
+                sum -= frameTimes[start];
+                frameTimes[start] = frameTime;
+                start = (start + 1) % maxFrames;
+            } else {
+                frameTimes[(start + size) % maxFrames] = frameTime;
+                size += 1;
             }
 
-            frameTimes.add(frameTime);
+            sum += frameTime;
         }
 
-        public long max() {
-            return frameTimes.stream().mapToLong(e -> e).max().orElse(0);
+        /**
+         * @param i the index of the frame, from the oldest at {@code 0} to the latest at
+         *          {@link #getCurrentNumberOfFrameTimes()}{@code - 1}
+         */
+        public long get(final int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException(i);
+            }
+
+            return frameTimes[(start + i) % maxFrames];
         }
 
-        public double average() {
-            return frameTimes.stream().mapToLong(e -> e).average().orElse(0);
+        public long max() {
+            long result = 0;
+            for (int i = 0; i < size; i++) {
+                result = Math.max(result, frameTimes[(start + i) % maxFrames]);
+            }
+            return result;
         }
 
-        public List<Long> getFrameTimes() {
-            return unmodifiableFrameTimes;
+        public double average() {
+            return size == 0 ? 0 : (double) sum / size;
         }
 
         public int getMaxFrames() {
@@ -74,7 +97,7 @@ public class FrameMetrics {
         }
 
         public int getCurrentNumberOfFrameTimes() {
-            return frameTimes.size();
+            return size;
         }
     }
 }
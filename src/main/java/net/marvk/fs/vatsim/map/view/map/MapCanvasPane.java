@@ -3,16 +3,22 @@ package net.marvk.fs.vatsim.map.view.map;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.layout.Pane;
 
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stacks the canvases of all map layers on top of each other, sized to fill the pane.
+ */
 public class MapCanvasPane extends Pane {
-    private final Canvas canvas;
+    private final List<Canvas> canvases;
 
-    public MapCanvasPane(final Canvas canvas) {
-        this.canvas = canvas;
-        getChildren().add(canvas);
+    public MapCanvasPane(final Collection<Canvas> canvases) {
+        this.canvases = List.copyOf(canvases);
+        getChildren().addAll(this.canvases);
     }
 
-    public Canvas getCanvas() {
-        return canvas;
+    public List<Canvas> getCanvases() {
+        return canvases;
     }
 
     @Override
@@ -22,9 +28,11 @@ public class MapCanvasPane extends Pane {
         final double y = snappedTopInset();
         final double w = snapSizeX(getWidth()) - x - snappedRightInset();
         final double h = snapSizeY(getHeight()) - y - snappedBottomInset();
-        canvas.setLayoutX(x);
-        canvas.setLayoutY(y);
-        canvas.setWidth(w);
-        canvas.setHeight(h);
+        for (final Canvas canvas : canvases) {
+            canvas.setLayoutX(x);
+            canvas.setLayoutY(y);
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+        }
     }
 }
@@ -0,0 +1,53 @@
+package net.marvk.fs.vatsim.map.view.map;
+
+/**
+ * The canvases the map is composited from, bottom to top. Every layer is only repainted when something its painters
+ * depend on changed; the viewport is shared by all layers, so panning and zooming still repaints everything.
+ */
+public enum MapLayer {
+    /**
+     * Background, land with lakes cut out, date line and scale. Depends on the viewport and painter parameters only.
+     */
+    GEOGRAPHY,
+    /**
+     * Flight and upper information regions. Depends on online controllers and the selection.
+     */
+    BOUNDARIES,
+    /**
+     * Traffic heatmap, connections of the selected item, pilot clusters and pilots, including filter highlights. Depends
+     * on the data feed and the selection, and is repainted at the motion frame rate while pilots are extrapolated, see
+     * {@link PilotMotion}.
+     */
+    MOTION,
+    /**
+     * Airport clusters, airports, search results and the selected item. Depends on the data feed, the selection and
+     * the search.
+     */
+    TRAFFIC,
+    /**
+     * Selection shape, distance measure and frame metrics. Cheap, so repainted with every frame.
+     */
+    OVERLAY;
+
+    private static final MapLayer[] VALUES = values();
+
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    static int bits(final MapLayer... layers) {
+        int result = 0;
+        for (final MapLayer layer : layers) {
+            result |= layer.bit();
+        }
+        return result;
+    }
+
+    static int allBits() {
+        return (1 << VALUES.length) - 1;
+    }
+
+    boolean isIn(final int bits) {
+        return (bits & bit()) != 0;
+    }
+}
@@ -3,6 +3,7 @@ package net.marvk.fs.vatsim.map.view.map;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import lombok.extern.log4j.Log4j2;
+import net.marvk.fs.vatsim.map.data.RenderSnapshot;
 
 @Log4j2
 public class MapVariables {
@@ -12,6 +13,9 @@ public class MapVariables {
     public static final double WORLD_HALF_HEIGHT = 90;
 
     public static final double WORLD_ASPECT_RATIO = WORLD_WIDTH / WORLD_HEIGHT;
+
+    static final double MIN_SCALE = 1;
+    static final double MAX_SCALE = 16384;
     private static final int EXPANDED_WIDTH = 5;
 
     private double scale;
@@ -30,10 +34,23 @@ public class MapVariables {
 
     private double aspectScaleY;
 
-    private Rectangle2D worldView = new Rectangle2D(0, 0, 0, 0);
-    private Rectangle2D worldViewExpanded = new Rectangle2D(0, 0, 0, 0);
+    /**
+     * Bounds of the visible world, kept as primitives so viewport changes and visibility tests don't allocate.
+     */
+    private double worldMinX;
+    private double worldMinY;
+    private double worldMaxX;
+    private double worldMaxY;
+
+    private double expandedMinX;
+    private double expandedMinY;
+    private double expandedMaxX;
+    private double expandedMaxY;
 
-    private Rectangle2D canvasView;
+    /**
+     * The data painted in the current frame, see {@link RenderSnapshot}.
+     */
+    private RenderSnapshot renderSnapshot = RenderSnapshot.EMPTY;
 
     public MapVariables() {
         this(512);
@@ -97,7 +114,7 @@ public class MapVariables {
     }
 
     public boolean isContainedInWorldView(final double x, final double y) {
-        return worldView.contains(x, y);
+        return contains(worldMinX, worldMinY, worldMaxX, worldMaxY, x, y);
     }
 
     public boolean isContainedInExpandedWorldView(final Point2D worldPosition) {
@@ -105,15 +122,27 @@ public class MapVariables {
     }
 
     public boolean isContainedInExpandedWorldView(final double x, final double y) {
-        return worldViewExpanded.contains(x, y);
+        return contains(expandedMinX, expandedMinY, expandedMaxX, expandedMaxY, x, y);
     }
 
     public boolean isRectIntersectingWorldView(final Rectangle2D worldRectangle) {
-        return worldView.intersects(worldRectangle);
+        return isRectIntersectingWorldView(worldRectangle.getMinX(), worldRectangle.getMinY(), worldRectangle.getWidth(), worldRectangle.getHeight());
+    }
+
+    public boolean isRectIntersectingWorldView(final double x, final double y, final double w, final double h) {
+        return intersects(worldMinX, worldMinY, worldMaxX, worldMaxY, x, y, w, h);
     }
 
     public boolean isRectIntersectingCanvasView(final double x, final double y, final double w, final double h) {
-        return canvasView.intersects(x, y, w, h);
+        return intersects(0, 0, viewWidth, viewHeight, x, y, w, h);
+    }
+
+    private static boolean contains(final double minX, final double minY, final double maxX, final double maxY, final double x, final double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    private static boolean intersects(final double minX, final double minY, final double maxX, final double maxY, final double x, final double y, final double w, final double h) {
+        return !(x + w < minX || y + h < minY || x > maxX || y > maxY);
     }
 
     public boolean isLineIntersectingCanvasView(final double x1, final double y1, final double x2, final double y2) {
@@ -146,27 +175,16 @@ public class MapVariables {
         final double minY = toWorldY(viewHeight);
         final double maxY = toWorldY(0);
 
-        this.worldView = new Rectangle2D(
-                minX,
-                minY,
-                maxX - minX,
-                maxY - minY
-        );
-
-        this.canvasView = new Rectangle2D(
-                0,
-                0,
-                viewWidth,
-                viewHeight
-        );
+        this.worldMinX = minX;
+        this.worldMinY = minY;
+        this.worldMaxX = maxX;
+        this.worldMaxY = maxY;
 
         final double expandedWidth = EXPANDED_WIDTH / scale;
-        this.worldViewExpanded = new Rectangle2D(
-                minX - expandedWidth,
-                minY - expandedWidth,
-                maxX - minX + expandedWidth + expandedWidth,
-                maxY - minY + expandedWidth + expandedWidth
-        );
+        this.expandedMinX = minX - expandedWidth;
+        this.expandedMinY = minY - expandedWidth;
+        this.expandedMaxX = maxX + expandedWidth;
+        this.expandedMaxY = maxY + expandedWidth;
     }
 
     void setViewWidth(final double width) {
@@ -211,6 +229,14 @@ public class MapVariables {
         return scale;
     }
 
+    public RenderSnapshot getRenderSnapshot() {
+        return renderSnapshot;
+    }
+
+    void setRenderSnapshot(final RenderSnapshot renderSnapshot) {
+        this.renderSnapshot = renderSnapshot;
+    }
+
     public double getViewWidth() {
         return viewWidth;
     }
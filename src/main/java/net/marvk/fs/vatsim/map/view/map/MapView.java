@@ -16,6 +16,7 @@ import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 import javafx.scene.Node;
 import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.ContextMenu;
@@ -29,28 +30,38 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import javafx.stage.Window;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.data.*;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
+import net.marvk.fs.vatsim.map.executor.TaskMetrics;
 import net.marvk.fs.vatsim.map.view.datadetail.DataDetailView;
 import net.marvk.fs.vatsim.map.view.datadetail.DataDetailViewModel;
 import net.marvk.fs.vatsim.map.view.painter.PainterExecutor;
 
-import java.util.concurrent.*;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Log4j2
 public class MapView implements FxmlView<MapViewModel> {
     private static final double D_MOUSE_PAN = 1;
-    private static final int MAX_SCALE = 16384;
-    private static final int MIN_SCALE = 1;
     private static final double D_KEY_ZOOM = 0.1;
     private static final double D_KEY_PAN = 10;
 
     private static final int MAX_ITEMS_IN_CONTEXT_MENU_CATEGORY = 10;
+    private static final MapLayer[] LAYERS = MapLayer.values();
 
     @FXML
     private StackPane stackPane;
 
+    /**
+     * The canvas of the top layer, receives all input.
+     */
     private final Canvas canvas;
+    private final Map<MapLayer, Canvas> layerCanvases = new EnumMap<>(MapLayer.class);
 
     private final InputEventHandler inputEventHandler = new InputEventHandler();
 
@@ -60,15 +71,27 @@ public class MapView implements FxmlView<MapViewModel> {
     @InjectContext
     private Context context;
 
-    private final Renderer renderer = new Renderer();
+    private final Renderer renderer;
 
     private MapContextMenu contextMenu;
 
     private ViewTuple<DataDetailView, DataDetailViewModel> detailView;
 
     @Inject
-    public MapView(@Named("open_hand_cursor") final Cursor openHand, @Named("closed_hand_cursor") final Cursor closedHand) {
-        this.canvas = new Canvas(100, 100);
+    public MapView(
+            @Named("open_hand_cursor") final Cursor openHand,
+            @Named("closed_hand_cursor") final Cursor closedHand,
+            final TaskExecutors executors
+    ) {
+        this.renderer = new Renderer(executors);
+        for (final MapLayer layer : MapLayer.values()) {
+            final Canvas layerCanvas = new Canvas(100, 100);
+            layerCanvas.setMouseTransparent(true);
+            layerCanvases.put(layer, layerCanvas);
+        }
+
+        this.canvas = layerCanvases.get(MapLayer.OVERLAY);
+        this.canvas.setMouseTransparent(false);
         this.canvas.setFocusTraversable(true);
 
         this.canvas.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> canvas.requestFocus());
@@ -102,7 +125,7 @@ public class MapView implements FxmlView<MapViewModel> {
         this.viewModel.viewWidthProperty().bind(this.canvas.widthProperty());
         this.viewModel.viewHeightProperty().bind(this.canvas.heightProperty());
 
-        this.stackPane.getChildren().add(new MapCanvasPane(canvas));
+        this.stackPane.getChildren().add(new MapCanvasPane(layerCanvases.values()));
         loadDetailView();
 
         this.stackPane.getChildren().add(detailViewOverlay());
@@ -118,17 +141,45 @@ public class MapView implements FxmlView<MapViewModel> {
 
         this.canvas.setOnMouseMoved(inputEventHandler::onMove);
 
-        final GraphicsContext c = this.canvas.getGraphicsContext2D();
-        viewModel.fontSizeProperty().addListener((observable, oldValue, newValue) ->
-                c.setFont(createFont(newValue.doubleValue()))
-        );
-        c.setFont(createFont(viewModel.getFontSize()));
+        viewModel.fontSizeProperty().addListener((observable, oldValue, newValue) -> setFont(newValue.doubleValue()));
+        setFont(viewModel.getFontSize());
 
         invalidateCanvas();
 
         viewModel.subscribe("REPAINT", (key, payload) -> invalidateCanvas());
 
         addContextMenuShadow();
+
+        canvas.sceneProperty().addListener((observable, oldValue, newValue) -> bindWindowShown(newValue));
+        bindWindowShown(canvas.getScene());
+    }
+
+    private void bindWindowShown(final Scene scene) {
+        if (scene == null) {
+            return;
+        }
+
+        scene.windowProperty().addListener((observable, oldValue, newValue) -> bindWindowShown(newValue));
+        bindWindowShown(scene.getWindow());
+    }
+
+    private void bindWindowShown(final Window window) {
+        if (window == null) {
+            return;
+        }
+
+        if (window instanceof Stage) {
+            viewModel.windowShownProperty().bind(window.showingProperty().and(((Stage) window).iconifiedProperty().not()));
+        } else {
+            viewModel.windowShownProperty().bind(window.showingProperty());
+        }
+    }
+
+    private void setFont(final double size) {
+        final Font font = createFont(size);
+        for (final Canvas layerCanvas : layerCanvases.values()) {
+            layerCanvas.getGraphicsContext2D().setFont(font);
+        }
     }
 
     private Font createFont(final double size) {
@@ -320,7 +371,7 @@ public class MapView implements FxmlView<MapViewModel> {
             final double delta = scollingIn ? fScroll : 1.0 / fScroll;
 
             final double oldScale = viewModel.scaleProperty().get();
-            final double newScale = Math.min(Math.max(oldScale * delta, MIN_SCALE), MAX_SCALE);
+            final double newScale = Math.min(Math.max(oldScale * delta, MapVariables.MIN_SCALE), MapVariables.MAX_SCALE);
 
             if (Double.compare(oldScale, newScale) == 0) {
                 return;
@@ -505,60 +556,79 @@ public class MapView implements FxmlView<MapViewModel> {
         }
     }
 
+    /**
+     * Coalesces invalidations into at most one pending frame on the JavaFX application thread. Only the layers
+     * invalidated since the last frame are cleared and repainted, the others keep their pixels.
+     */
     private final class Renderer {
-        private final ExecutorService executor = Executors.newSingleThreadExecutor();
-        private final Semaphore renderSemaphore = new Semaphore(1);
+        private final AtomicBoolean pending = new AtomicBoolean(false);
+        private final TaskMetrics metrics;
 
         private final DoubleProperty lastFrameTimeMillis = new SimpleDoubleProperty();
 
         private int frame = 0;
+        private volatile long queuedNanos;
 
-        private Renderer() {
-            start();
-        }
-
-        private void start() {
-            executor.submit(() -> {
-                while (true) {
-                    try {
-                        renderSemaphore.acquire();
-                        log.trace("Drawing frame %d".formatted(frame));
-                        final long start = System.nanoTime();
-                        redraw().get();
-                        final long frameTimeNanos = System.nanoTime() - start;
-                        viewModel.onFrameCompleted(frameTimeNanos);
-                        final double frameTimeMillis = frameTimeNanos / 1000000.;
-                        lastFrameTimeMillis.set(frameTimeMillis);
-                        log.debug("Drew frame %d in %sms".formatted(frame, frameTimeMillis));
-                    } catch (final InterruptedException | ExecutionException e) {
-                        log.error("Failed to draw frame %d".formatted(frame), e);
-                    } finally {
-                        frame += 1;
+        private Renderer(final TaskExecutors executors) {
+            this.metrics = executors.metrics("Render", () -> pending.get() ? 1 : 0);
+        }
+
+        private void render() {
+            final long queued = queuedNanos;
+            // invalidations during the frame schedule the next one
+            pending.set(false);
+
+            final long start = System.nanoTime();
+            metrics.started(start - queued);
+            if (log.isTraceEnabled()) {
+                log.trace("Drawing frame %d".formatted(frame));
+            }
+
+            viewModel.beginFrame(start);
+            final int layers = viewModel.pollDirtyLayers();
+
+            try {
+                for (final MapLayer layer : LAYERS) {
+                    if (layer.isIn(layers)) {
+                        paint(layer);
                     }
                 }
-            });
-        }
 
-        private RunnableFuture<Void> redraw() {
-            final FutureTask<Void> task = new FutureTask<>(() -> {
-                for (final PainterExecutor<?> painterExecutor : viewModel.getPainterExecutors()) {
-                    painterExecutor.paint(canvas.getGraphicsContext2D());
-                    log.trace(painterExecutor.getName() + " finished in " + (painterExecutor.getLastDurationNanos() / 1000000.0) + "ms");
+                final long end = System.nanoTime();
+                final long frameTimeNanos = end - queued;
+                viewModel.onFrameCompleted(frameTimeNanos, layers);
+                final double frameTimeMillis = frameTimeNanos / 1000000.;
+                lastFrameTimeMillis.set(frameTimeMillis);
+                if (log.isDebugEnabled()) {
+                    log.debug("Drew frame %d in %sms".formatted(frame, frameTimeMillis));
                 }
-            }, null);
+            } catch (final RuntimeException e) {
+                log.error("Failed to draw frame %d".formatted(frame), e);
+            } finally {
+                metrics.completed(System.nanoTime() - start);
+                frame += 1;
+            }
+        }
 
-            Platform.runLater(task);
+        private void paint(final MapLayer layer) {
+            final Canvas layerCanvas = layerCanvases.get(layer);
+            final GraphicsContext c = layerCanvas.getGraphicsContext2D();
+            c.clearRect(0, 0, layerCanvas.getWidth(), layerCanvas.getHeight());
 
-            return task;
+            final List<PainterExecutor<?>> executors = viewModel.getPainterExecutors(layer);
+            for (int i = 0; i < executors.size(); i++) {
+                final PainterExecutor<?> painterExecutor = executors.get(i);
+                painterExecutor.paint(c);
+                if (log.isTraceEnabled()) {
+                    log.trace(painterExecutor.getName() + " finished in " + (painterExecutor.getLastDurationNanos() / 1000000.0) + "ms");
+                }
+            }
         }
 
         public void invalidate() {
-            incrementSemaphore();
-        }
-
-        private void incrementSemaphore() {
-            if (renderSemaphore.availablePermits() == 0) {
-                renderSemaphore.release();
+            if (pending.compareAndSet(false, true)) {
+                queuedNanos = System.nanoTime();
+                Platform.runLater(this::render);
             }
         }
     }
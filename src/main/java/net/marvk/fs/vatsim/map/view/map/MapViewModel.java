@@ -9,6 +9,7 @@ import javafx.animation.Transition;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
@@ -16,15 +17,16 @@ import javafx.scene.paint.Color;
 import javafx.util.Duration;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.data.*;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
 import net.marvk.fs.vatsim.map.view.Notifications;
 import net.marvk.fs.vatsim.map.view.SettingsScope;
 import net.marvk.fs.vatsim.map.view.StatusScope;
 import net.marvk.fs.vatsim.map.view.painter.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -52,7 +54,6 @@ public class MapViewModel implements ViewModel {
     private final UpperInformationRegionRepository upperInformationRegionRepository;
 
     private final List<Polygon> world;
-    private final List<Polygon> lakes;
 
     private final MapVariables mapVariables = new MapVariables();
 
@@ -65,8 +66,25 @@ public class MapViewModel implements ViewModel {
     private final ObjectProperty<DistanceMeasure> distanceMeasureWorld = new SimpleObjectProperty<>();
     private final Preferences preferences;
     private final FilterRepository filterRepository;
+    private final RenderSnapshots renderSnapshots;
+    private final TaskExecutors executors;
+
+    private final PilotMotion pilotMotion = new PilotMotion();
+    private final HeatmapPainter heatmapPainter;
+    private final ClusterPainter pilotClusterPainter;
+    private final ClusterPainter airportClusterPainter;
+    private final BooleanProperty smoothMotion;
+    private final IntegerProperty motionFrameRate;
+    private final BooleanProperty windowShown = new SimpleBooleanProperty(true);
+    private volatile boolean motionActive = false;
+    private ScheduledFuture<?> motionTicker;
 
     private ObservableList<PainterExecutor<?>> painterExecutors;
+    private static final MapLayer[] LAYERS = MapLayer.values();
+
+    private final Map<MapLayer, List<PainterExecutor<?>>> layers = new EnumMap<>(MapLayer.class);
+    private final PainterMetric framePainterMetric = new PainterMetric();
+    private final AtomicInteger dirtyLayers = new AtomicInteger(MapLayer.allBits());
 
     private FrameMetrics frameMetrics;
 
@@ -89,8 +107,10 @@ public class MapViewModel implements ViewModel {
             final UpperInformationRegionRepository upperInformationRegionRepository,
             final Preferences preferences,
             final FilterRepository filterRepository,
-            @Named("world") final PolygonRepository world,
-            @Named("lakes") final PolygonRepository lakes
+            final RenderSnapshots renderSnapshots,
+            final TrafficDensity trafficDensity,
+            final TaskExecutors executors,
+            @Named("world") final PolygonRepository world
     ) {
         this.clientRepository = clientRepository;
         this.airportRepository = airportRepository;
@@ -100,11 +120,20 @@ public class MapViewModel implements ViewModel {
 
         this.preferences = preferences;
         this.filterRepository = filterRepository;
+        this.renderSnapshots = renderSnapshots;
+        this.executors = executors;
+        this.heatmapPainter = new HeatmapPainter(
+                mapVariables,
+                trafficDensity,
+                Color.valueOf("3b3526").deriveColor(0, 1, 3, 0.15),
+                Color.valueOf("f0a830").deriveColor(0, 1, 1, 0.85)
+        );
+        this.pilotClusterPainter = new ClusterPainter(mapVariables, Color.valueOf("3b3526").deriveColor(0, 1, 1, 0.85), Color.valueOf("f0a830"));
+        this.airportClusterPainter = new ClusterPainter(mapVariables, Color.valueOf("1f3b4d").deriveColor(0, 1, 1, 0.85), Color.WHITE);
 
         this.scrollSpeed.bind(preferences.doubleProperty("general.scroll_speed"));
 
         this.world = world.list();
-        this.lakes = lakes.list();
 
         this.mouseViewPosition.addListener((observable, oldValue, newValue) -> recalculateMouseWorldPosition());
 
@@ -117,12 +146,13 @@ public class MapViewModel implements ViewModel {
         this.viewHeight.addListener((observable, oldValue, newValue) -> mapVariables.setViewHeight(newValue.doubleValue()));
         this.mapVariables.setViewHeight(viewHeight.get());
 
-        this.selectedItem.addListener((observable, oldValue, newValue) -> triggerRepaint());
+        // the boundary and traffic painters skip the selected item, the selected item painter draws it on top
+        this.selectedItem.addListener((observable, oldValue, newValue) -> invalidate(MapLayer.BOUNDARIES, MapLayer.MOTION, MapLayer.TRAFFIC));
         this.viewHeight.addListener((observable, oldValue, newValue) -> triggerRepaint());
         this.viewWidth.addListener((observable, oldValue, newValue) -> triggerRepaint());
         this.worldCenter.addListener((observable, oldValue, newValue) -> triggerRepaint());
         this.scale.addListener((observable, oldValue, newValue) -> triggerRepaint());
-        this.selectionShape.addListener((observable, oldValue, newValue) -> triggerRepaint());
+        this.selectionShape.addListener((observable, oldValue, newValue) -> invalidate(MapLayer.OVERLAY));
         this.distanceMeasureCanvas.addListener((observable, oldValue, newValue) -> {
             if (newValue == null) {
                 distanceMeasureWorld.set(null);
@@ -134,9 +164,17 @@ public class MapViewModel implements ViewModel {
                 ));
             }
         });
-        this.distanceMeasureWorld.addListener((observable, oldValue, newValue) -> triggerRepaint());
+        this.distanceMeasureWorld.addListener((observable, oldValue, newValue) -> invalidate(MapLayer.OVERLAY));
 
         this.fontSize.bind(preferences.integerProperty("general.map_font_size"));
+        this.fontSize.addListener((observable, oldValue, newValue) -> triggerRepaint());
+
+        this.smoothMotion = preferences.booleanProperty("general.smooth_motion");
+        this.motionFrameRate = preferences.integerProperty("general.motion_frame_rate");
+        this.smoothMotion.addListener((observable, oldValue, newValue) -> updateMotionTicker());
+        this.motionFrameRate.addListener((observable, oldValue, newValue) -> updateMotionTicker());
+        this.windowShown.addListener((observable, oldValue, newValue) -> updateMotionTicker());
+        clientRepository.staleProperty().addListener((observable, oldValue, newValue) -> updateMotionTicker());
     }
 
     public void recalculateMouseWorldPosition() {
@@ -160,8 +198,48 @@ public class MapViewModel implements ViewModel {
 
         Bindings.bindContent(settingsScope.getPainters(), painterExecutors);
 
+        statusScope.getSearchedData().addListener((ListChangeListener<Data>) c -> invalidate(MapLayer.TRAFFIC));
+
         Notifications.REPAINT.subscribe(this::triggerRepaint);
+        Notifications.REPAINT_PAINTER.subscribe(this::invalidate);
+        Notifications.CLIENTS_RELOADED.subscribe(() -> invalidate(MapLayer.BOUNDARIES, MapLayer.MOTION, MapLayer.TRAFFIC));
         Notifications.PAN_TO_DATA.subscribe(this::panToData);
+
+        updateMotionTicker();
+    }
+
+    /**
+     * Repaints the motion layer at the configured frame rate. Paused while the window is hidden or minimized, while
+     * the data is a stale snapshot and while no pilot is moving, see {@link PilotMotion#isMoving()}.
+     */
+    private void updateMotionTicker() {
+        motionActive = smoothMotion.get() && windowShown.get() && !clientRepository.isStale();
+
+        if (motionTicker != null) {
+            motionTicker.cancel(false);
+            motionTicker = null;
+        }
+
+        if (motionActive) {
+            final long period = TimeUnit.SECONDS.toNanos(1) / Math.max(1, motionFrameRate.get());
+            motionTicker = executors.scheduled().scheduleAtFixedRate(this::motionTick, period, period, TimeUnit.NANOSECONDS);
+        }
+
+        invalidate(MapLayer.MOTION);
+    }
+
+    private void motionTick() {
+        if (motionActive && pilotMotion.isMoving()) {
+            invalidate(MapLayer.MOTION);
+        }
+    }
+
+    /**
+     * Called by the renderer before painting a frame, all layers of the frame paint the same {@link RenderSnapshot}.
+     */
+    void beginFrame(final long nanoTime) {
+        mapVariables.setRenderSnapshot(renderSnapshots.get());
+        pilotMotion.beginFrame(nanoTime, motionActive);
     }
 
     private void panToData(final Data data) {
@@ -181,10 +259,47 @@ public class MapViewModel implements ViewModel {
     }
 
     public void openClosest() {
+        final Optional<ClusterIndex.Cluster> cluster = closestCluster();
+
+        if (cluster.isPresent()) {
+            zoomToCluster(cluster.get());
+            return;
+        }
+
         setContextMenuItems();
         selectedItem.set(contextMenu.closest(getMouseWorldPosition()).orElse(null));
     }
 
+    /**
+     * @return the painted cluster within the selection distance of the mouse closest to it
+     */
+    private Optional<ClusterIndex.Cluster> closestCluster() {
+        final Point2D mouse = getMouseWorldPosition();
+        if (mouse == null) {
+            return Optional.empty();
+        }
+
+        final RenderSnapshot snapshot = mapVariables.getRenderSnapshot();
+
+        return Stream.concat(pilotClusters(snapshot).stream(), airportClusters(snapshot).stream())
+                     .filter(e -> mouse.distance(e.getX(), e.getY()) <= selectionDistance())
+                     .min(Comparator.comparingDouble(e -> mouse.distance(e.getX(), e.getY())));
+    }
+
+    /**
+     * Zooms in far enough for the cluster to fall apart, at least to twice the current scale.
+     */
+    private void zoomToCluster(final ClusterIndex.Cluster cluster) {
+        final double width = cluster.getMaxX() - cluster.getMinX();
+        final double height = cluster.getMaxY() - cluster.getMinY();
+        final double fitScale = mapVariables.scaleForRectFit(width * 1.5, height * 1.5);
+        final double targetScale = Math.min(Math.max(fitScale, scale.get() * 2), MapVariables.MAX_SCALE);
+
+        final Point2D center = new Point2D(cluster.getMinX() + width / 2.0, cluster.getMinY() + height / 2.0);
+
+        fireTransition(new WorldPanTransition(new Viewport(getWorldCenter().multiply(-1), scale.get()), new Viewport(center, targetScale)));
+    }
+
     private void fireTransition(final WorldPanTransition transition) {
         if (panTransition != null) {
             if (panTransition.getStatus() == Animation.Status.RUNNING) {
@@ -205,36 +320,108 @@ public class MapViewModel implements ViewModel {
     }
 
     private ObservableList<PainterExecutor<?>> executors(final UpperInformationRegionRepository upperInformationRegionRepository) {
-        return FXCollections.observableArrayList(
+        layer(
+                MapLayer.GEOGRAPHY,
                 PainterExecutor.of("Background", new BackgroundPainter(mapVariables, Color.valueOf("291e0f"))),
                 PainterExecutor.ofCollection("World", new WorldPainter(mapVariables, Color.valueOf("1a130a")), this::world),
-                PainterExecutor.ofCollection("Lakes", new WorldPainter(mapVariables, Color.valueOf("291e0f")), this::lakes),
                 PainterExecutor.ofItem("Date Line", new IdlPainter(mapVariables, Color.valueOf("3b3b3b")), this::internationalDateLine),
-                PainterExecutor.of("Scale", new ScalePainter(mapVariables)),
+                PainterExecutor.of("Scale", new ScalePainter(mapVariables))
+        );
+        layer(
+                MapLayer.BOUNDARIES,
                 PainterExecutor.ofCollection("Inactive Firs", new InactiveFirbPainter(mapVariables), this::flightInformationRegionBoundaries, this::isNotSelected),
                 PainterExecutor.ofCollection("Inactive Uirs", new InactiveUirPainter(mapVariables), upperInformationRegionRepository::list, this::isNotSelected),
                 PainterExecutor.ofCollection("Active Uirs", new ActiveUirPainter(mapVariables), upperInformationRegionRepository::list, this::isNotSelected),
-                PainterExecutor.ofCollection("Active Firs", new ActiveFirbPainter(mapVariables), this::flightInformationRegionBoundaries, this::isNotSelected),
+                PainterExecutor.ofCollection("Active Firs", new ActiveFirbPainter(mapVariables), this::flightInformationRegionBoundaries, this::isNotSelected)
+        );
+        layer(
+                MapLayer.MOTION,
+                PainterExecutor.of("Heatmap", heatmapPainter),
+                // below the pilots, as before the layers were split
                 PainterExecutor.ofItem("Connections", new ConnectionsPainter(mapVariables), this.selectedItemProperty()::get),
-                PainterExecutor.ofCollection("Pilots", new PilotPainter(mapVariables), this::pilots, this::isNotSelected),
-                PainterExecutor.ofCollection("Filters", new FilterPainter(mapVariables, filterRepository.list()), this::pilots, this::isNotSelected),
-                PainterExecutor.ofCollection("Airports", new AirportPainter(mapVariables), this::airports, this::isNotSelected),
-                PainterExecutor.ofCollection("Search Items", new SelectedPainter(mapVariables, Color.DEEPSKYBLUE, true), statusScope::getSearchedData, this::isNotSelected),
-                PainterExecutor.ofItem("Selected Item", new SelectedPainter(mapVariables), selectedItem::get),
+                PainterExecutor.ofCollection("Pilot Clusters", pilotClusterPainter, () -> pilotClusters(mapVariables.getRenderSnapshot())),
+                PainterExecutor.ofCollection("Pilots", new PilotPainter(mapVariables, pilotMotion), this::pilotMarkers, this::isUnclusteredPilot),
+                PainterExecutor.ofCollection("Filters", new FilterPainter(mapVariables, filterRepository.list(), pilotMotion), this::renderedPilots, this::isNotSelected)
+        );
+        layer(
+                MapLayer.TRAFFIC,
+                PainterExecutor.ofCollection("Airport Clusters", airportClusterPainter, () -> airportClusters(mapVariables.getRenderSnapshot())),
+                PainterExecutor.ofCollection("Airports", new AirportPainter(mapVariables), this::airports, this::isUnclusteredAirport),
+                PainterExecutor.ofCollection("Search Items", new SelectedPainter(mapVariables, Color.DEEPSKYBLUE, true, pilotMotion), statusScope::getSearchedData, this::isNotSelected),
+                PainterExecutor.ofItem("Selected Item", new SelectedPainter(mapVariables, pilotMotion), selectedItem::get)
+        );
+        layer(
+                MapLayer.OVERLAY,
                 PainterExecutor.ofItem("Selection Shape", new SelectionShapePainter(mapVariables), selectionShape::get),
                 PainterExecutor.ofItem("Distance Measure", new DistanceMeasurePainter(mapVariables), distanceMeasureWorld::get),
                 PainterExecutor.ofItem("Metrics", new FrameMetricsPainter(mapVariables), () -> frameMetrics)
         );
+
+        return FXCollections.observableArrayList(layers
+                .values()
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList())
+        );
+    }
+
+    private void layer(final MapLayer layer, final PainterExecutor<?>... executors) {
+        layers.put(layer, List.of(executors));
     }
 
     private boolean isNotSelected(final Data e) {
         return e != selectedItem.get();
     }
 
+    /**
+     * Clustering is decided by the reported positions of the snapshot, not the extrapolated ones, see
+     * {@link RenderSnapshot#getPilotClusters()}.
+     *
+     * @return whether the pilot is neither selected nor part of a painted cluster
+     */
+    private boolean isUnclusteredPilot(final Pilot pilot) {
+        return isNotSelected(pilot) && !mapVariables.getRenderSnapshot().isPilotClustered(pilot, pilotClusterPainter.level());
+    }
+
+    /**
+     * @return whether the airport is neither selected nor part of a painted cluster
+     */
+    private boolean isUnclusteredAirport(final Airport airport) {
+        return isNotSelected(airport) && !mapVariables.getRenderSnapshot().isAirportClustered(airport, airportClusterPainter.level());
+    }
+
     private void triggerRepaint() {
+        invalidate(MapLayer.values());
+    }
+
+    /**
+     * Marks the layers as dirty and requests a frame.
+     */
+    public void invalidate(final MapLayer... layers) {
+        dirtyLayers.getAndAccumulate(MapLayer.bits(layers), (a, b) -> a | b);
         publish("REPAINT");
     }
 
+    private void invalidate(final PainterExecutor<?> executor) {
+        for (final Map.Entry<MapLayer, List<PainterExecutor<?>>> entry : layers.entrySet()) {
+            if (entry.getValue().contains(executor)) {
+                invalidate(entry.getKey());
+                return;
+            }
+        }
+
+        triggerRepaint();
+    }
+
+    /**
+     * Clears the dirty layers, the overlay is always included.
+     *
+     * @return the bits of the layers to repaint, see {@link MapLayer#isIn(int)}
+     */
+    int pollDirtyLayers() {
+        return dirtyLayers.getAndSet(0) | MapLayer.OVERLAY.bit();
+    }
+
     public DoubleProperty scaleProperty() {
         return scale;
     }
@@ -263,6 +450,32 @@ public class MapViewModel implements ViewModel {
         return clientRepository.pilots();
     }
 
+    private List<Pilot> renderedPilots() {
+        return mapVariables.getRenderSnapshot().getPilots();
+    }
+
+    /**
+     * @return the pilots painted as markers, none while the heatmap replaces them
+     */
+    private List<Pilot> pilotMarkers() {
+        return heatmapPainter.isReplacingPilots() ? List.of() : renderedPilots();
+    }
+
+    /**
+     * @return the pilot clusters at the current scale, none while the heatmap replaces the pilots
+     */
+    private List<ClusterIndex.Cluster> pilotClusters(final RenderSnapshot snapshot) {
+        if (heatmapPainter.isReplacingPilots()) {
+            return List.of();
+        }
+
+        return snapshot.getPilotClusters().clusters(pilotClusterPainter.level());
+    }
+
+    private List<ClusterIndex.Cluster> airportClusters(final RenderSnapshot snapshot) {
+        return snapshot.getAirportClusters().clusters(airportClusterPainter.level());
+    }
+
     public ObservableList<Controller> controllers() {
         return clientRepository.controllers();
     }
@@ -283,10 +496,6 @@ public class MapViewModel implements ViewModel {
         return world;
     }
 
-    public List<Polygon> lakes() {
-        return lakes;
-    }
-
     public DoubleProperty viewWidthProperty() {
         return viewWidth;
     }
@@ -299,6 +508,10 @@ public class MapViewModel implements ViewModel {
         return painterExecutors;
     }
 
+    public List<PainterExecutor<?>> getPainterExecutors(final MapLayer layer) {
+        return layers.get(layer);
+    }
+
     public ObjectProperty<Point2D> mouseViewPositionProperty() {
         return mouseViewPosition;
     }
@@ -335,6 +548,13 @@ public class MapViewModel implements ViewModel {
         return fontSize.getReadOnlyProperty();
     }
 
+    /**
+     * Whether the window showing the map is visible, motion is paused otherwise.
+     */
+    public BooleanProperty windowShownProperty() {
+        return windowShown;
+    }
+
     public void setDistanceMeasureCanvas(final DistanceMeasure distanceMeasureCanvas) {
         this.distanceMeasureCanvas.set(distanceMeasureCanvas);
     }
@@ -351,26 +571,37 @@ public class MapViewModel implements ViewModel {
         selectionShape.set(null);
     }
 
-    public void onFrameCompleted(final long totalFrameTimeNanos) {
-        for (final PainterExecutor<?> painterExecutor : painterExecutors) {
-            frameMetrics.getMetric(painterExecutor.getName()).append(painterExecutor.getLastDurationNanos());
+    /**
+     * @param paintedLayers the bits of the layers that were repainted this frame, the painters of the other layers
+     *                      are recorded as taking no time
+     */
+    public void onFrameCompleted(final long totalFrameTimeNanos, final int paintedLayers) {
+        for (final MapLayer layer : LAYERS) {
+            final List<PainterExecutor<?>> executors = layers.get(layer);
+            final boolean painted = layer.isIn(paintedLayers);
+            for (int i = 0; i < executors.size(); i++) {
+                final PainterExecutor<?> painterExecutor = executors.get(i);
+                frameMetrics.getMetric(painterExecutor.getName()).append(painted ? painterExecutor.getLastDurationNanos() : 0);
+            }
         }
 
         frameMetrics.getMetric("Total").append(totalFrameTimeNanos);
 
-        painterMetricsSnapshot().forEach(this::logCounter);
-    }
-
-    private void logCounter(final PainterMetric.Counter counter) {
-        log.trace("%d calls to %s".formatted(counter.getCount(), counter.getName()));
+        if (log.isTraceEnabled()) {
+            for (final PainterMetric.Counter counter : painterMetricsSnapshot()) {
+                log.trace("%s: %d".formatted(counter.getName(), counter.getCount()));
+            }
+        }
     }
 
     private PainterMetric painterMetricsSnapshot() {
-        final List<PainterMetric> painterMetrics = painterExecutors.stream()
-                                                                   .map(PainterExecutor::getLastPainterMetric)
-                                                                   .collect(Collectors.toList());
+        framePainterMetric.reset();
+
+        for (int i = 0; i < painterExecutors.size(); i++) {
+            framePainterMetric.add(painterExecutors.get(i).getLastPainterMetric());
+        }
 
-        return PainterMetric.ofMetrics(painterMetrics);
+        return framePainterMetric;
     }
 
     private class ContextMenuSetter {
@@ -482,7 +713,8 @@ public class MapViewModel implements ViewModel {
                 return tautology;
             }
 
-            final boolean paintPilots = isProperty("pilots.enabled");
+            // pilots replaced by the heatmap are not painted and can't be picked
+            final boolean paintPilots = isProperty("pilots.enabled") && !heatmapPainter.isReplacingPilots();
 
             if (paintPilots) {
                 final boolean paintPilotsOnGround = isProperty("pilots.pilots_on_ground");
@@ -533,13 +765,25 @@ public class MapViewModel implements ViewModel {
         }
 
         private void setPilots() {
+            final Point2D mouse = mouseWorldPosition.get();
+            final double selectionDistance = selectionDistance();
+
+            // indexed by their reported positions, but hit where they are painted
             final var pilots = clientRepository
-                    .streamSearchByPosition(mouseWorldPosition.get(), selectionDistance(), Integer.MAX_VALUE)
+                    .streamSearchByPosition(mouse, selectionDistance + PilotMotion.MAX_DEVIATION_DEGREES, Integer.MAX_VALUE)
                     .filter(pilotPredicate())
+                    .filter(e -> paintedDistance(mouse, e) <= selectionDistance)
+                    .sorted(Comparator.comparingDouble(e -> paintedDistance(mouse, e)))
                     .collect(Collectors.toList());
 
             contextMenu.getPilots().getItems().setAll(pilots);
         }
+
+        private double paintedDistance(final Point2D worldPosition, final Pilot pilot) {
+            final Point2D position = pilotMotion.position(pilot);
+            final double dx = ((worldPosition.getX() - position.getX()) % 360 + 540) % 360 - 180;
+            return Math.hypot(dx, worldPosition.getY() - position.getY());
+        }
     }
 
     private class TransitionDataVisitor implements OptionalDataVisitor<Viewport> {
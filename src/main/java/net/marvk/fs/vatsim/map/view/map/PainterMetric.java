@@ -9,6 +9,11 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
+/**
+ * Number of draw calls per kind and of polygon and polyline vertices before and after simplification and clipping.
+ * Instances are reused from frame to frame, see {@link #reset()} and
+ * {@link #add(PainterMetric)}.
+ */
 @Value
 public class PainterMetric implements Iterable<PainterMetric.Counter> {
     Counter strokePolyline = new Counter("strokePolyline");
@@ -20,6 +25,9 @@ public class PainterMetric implements Iterable<PainterMetric.Counter> {
     Counter strokeLine = new Counter("strokeLine");
     Counter strokeRect = new Counter("strokeRect");
     Counter fillRect = new Counter("fillRect");
+    Counter drawImage = new Counter("drawImage");
+    Counter verticesIn = new Counter("verticesIn");
+    Counter verticesOut = new Counter("verticesOut");
 
     @Getter(AccessLevel.PRIVATE)
     List<Counter> counters = List.of(
@@ -31,7 +39,10 @@ public class PainterMetric implements Iterable<PainterMetric.Counter> {
             strokeOval,
             strokeLine,
             strokeRect,
-            fillRect
+            fillRect,
+            drawImage,
+            verticesIn,
+            verticesOut
     );
 
     @Override
@@ -39,6 +50,26 @@ public class PainterMetric implements Iterable<PainterMetric.Counter> {
         return counters.iterator();
     }
 
+    public void reset() {
+        for (int i = 0; i < counters.size(); i++) {
+            counters.get(i).count = 0;
+        }
+    }
+
+    public void add(final PainterMetric other) {
+        for (int i = 0; i < counters.size(); i++) {
+            counters.get(i).increment(other.counters.get(i));
+        }
+    }
+
+    /**
+     * Sets all counters to the ones of {@code other}.
+     */
+    public void set(final PainterMetric other) {
+        reset();
+        add(other);
+    }
+
     @Data
     public static class Counter {
         private final String name;
@@ -52,6 +83,10 @@ public class PainterMetric implements Iterable<PainterMetric.Counter> {
             count += 1;
         }
 
+        public void increment(final int amount) {
+            count += amount;
+        }
+
         private void increment(final Counter other) {
             count += other.count;
         }
@@ -61,15 +96,7 @@ public class PainterMetric implements Iterable<PainterMetric.Counter> {
         final PainterMetric result = new PainterMetric();
 
         for (final PainterMetric metric : metrics) {
-            result.strokePolyline.increment(metric.strokePolyline);
-            result.strokePolygon.increment(metric.strokePolygon);
-            result.fillPolygon.increment(metric.fillPolygon);
-            result.fillText.increment(metric.fillText);
-            result.fillOval.increment(metric.fillOval);
-            result.strokeOval.increment(metric.strokeOval);
-            result.strokeLine.increment(metric.strokeLine);
-            result.strokeRect.increment(metric.strokeRect);
-            result.fillRect.increment(metric.fillRect);
+            result.add(metric);
         }
 
         return result;
@@ -0,0 +1,269 @@
+package net.marvk.fs.vatsim.map.view.map;
+
+import javafx.geometry.Point2D;
+import net.marvk.fs.vatsim.map.data.Pilot;
+import net.marvk.fs.vatsim.map.data.RenderSnapshot;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dead reckoning of pilot positions between data feed updates. Positions are extrapolated along the great circle
+ * given by the reported heading and ground speed. When a new position is reported, the difference to the
+ * extrapolated position is blended out over {@link #BLEND}, so pilots glide to their new position instead of jumping.
+ * <p>
+ * Only used on the JavaFX application thread, except for {@link #isMoving()}.
+ */
+public class PilotMotion {
+    private static final double EARTH_RADIUS_NM = 3440.065;
+    private static final double MIN_GROUND_SPEED = 5;
+    /**
+     * Extrapolation stops this long after the last report, so pilots of a stalled feed don't fly off.
+     */
+    private static final long MAX_EXTRAPOLATION = Duration.ofSeconds(60).toNanos();
+    private static final long MAX_REPORT_AGE = Duration.ofSeconds(15).toNanos();
+    private static final long BLEND = Duration.ofSeconds(2).toNanos();
+    /**
+     * Larger corrections, for example after a reconnect, are applied immediately.
+     */
+    private static final double MAX_BLEND_DEGREES = 1;
+    /**
+     * Bounds the distance in degrees between the reported and the extrapolated position: a minute at 1000 knots is
+     * less than a third of a degree of latitude, plus the blended offset. Only a lookup radius, pilots close to the
+     * poles may exceed it in longitude.
+     */
+    public static final double MAX_DEVIATION_DEGREES = 2;
+    private static final int PRUNE_INTERVAL_FRAMES = 256;
+
+    private final Map<Pilot, Track> tracks = new IdentityHashMap<>();
+
+    private long frame = 0;
+    private long frameNanos = System.nanoTime();
+    private boolean enabled = false;
+    private boolean movingThisFrame = false;
+    private volatile boolean moving = true;
+
+    /**
+     * Starts a new frame, all positions resolved until the next call are extrapolated to {@code nanoTime}.
+     *
+     * @param enabled if false, the reported positions are used as is
+     */
+    public void beginFrame(final long nanoTime, final boolean enabled) {
+        if (frame > 0) {
+            moving = movingThisFrame;
+        }
+
+        frame += 1;
+        frameNanos = nanoTime;
+        movingThisFrame = false;
+
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            tracks.clear();
+        }
+
+        if (frame % PRUNE_INTERVAL_FRAMES == 0) {
+            prune();
+        }
+    }
+
+    private void prune() {
+        final Iterator<Track> iterator = tracks.values().iterator();
+        while (iterator.hasNext()) {
+            if (frame - iterator.next().lastFrame > PRUNE_INTERVAL_FRAMES) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return whether any pilot resolved in the last frame is still moving, i.e. whether the next frame would look
+     * different
+     */
+    public boolean isMoving() {
+        return moving;
+    }
+
+    /**
+     * @return the track of the pilot, resolved for the current frame
+     */
+    public Track resolve(final Pilot pilot) {
+        return resolve(pilot, pilot.getPosition(), pilot.getHeading(), pilot.getGroundSpeed(), RenderSnapshot.epochMillis(pilot.getLastUpdatedTime()));
+    }
+
+    /**
+     * @param reported               the reported position, a new instance marks a new report
+     * @param lastUpdatedEpochMillis the time of the report, or {@link RenderSnapshot#UNKNOWN_TIME}
+     * @return the track of the pilot, resolved for the current frame
+     */
+    public Track resolve(final Pilot pilot, final Point2D reported, final double heading, final double groundSpeed, final long lastUpdatedEpochMillis) {
+        final Track track = tracks.computeIfAbsent(pilot, e -> new Track());
+        track.lastFrame = frame;
+
+        if (reported != track.reported) {
+            track.report(reported, heading, groundSpeed, reportAge(lastUpdatedEpochMillis), frameNanos);
+        }
+
+        if (enabled) {
+            track.extrapolate(frameNanos);
+        } else {
+            track.reset();
+        }
+
+        movingThisFrame |= track.moving;
+
+        return track;
+    }
+
+    /**
+     * Doesn't resolve the pilot, so it can be called outside of painting.
+     *
+     * @return the position the pilot was painted at when it was last resolved, the reported position if it never was
+     */
+    public Point2D position(final Pilot pilot) {
+        final Track track = tracks.get(pilot);
+
+        if (track == null || track.reported == null) {
+            return pilot.getPosition();
+        }
+
+        return new Point2D(track.longitude, track.latitude);
+    }
+
+    private static long reportAge(final long lastUpdatedEpochMillis) {
+        if (lastUpdatedEpochMillis == RenderSnapshot.UNKNOWN_TIME) {
+            return 0;
+        }
+
+        final long age = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - lastUpdatedEpochMillis);
+        return Math.max(0, Math.min(MAX_REPORT_AGE, age));
+    }
+
+    /**
+     * The position of a pilot at the current frame.
+     */
+    public static final class Track {
+        private Point2D reported;
+        private double heading;
+        private double groundSpeed;
+        private long reportNanos;
+
+        private double offsetLongitude;
+        private double offsetLatitude;
+        private long blendStartNanos;
+
+        private double longitude;
+        private double latitude;
+        private boolean moving;
+        private long lastFrame;
+
+        Track() {
+        }
+
+        /**
+         * @param reportAgeNanos how old the report already was when it was received
+         */
+        void report(final Point2D reported, final double heading, final double groundSpeed, final long reportAgeNanos, final long nanoTime) {
+            if (this.reported != null && reported != null) {
+                // where the pilot is shown right now, the new track starts from there and converges on the report
+                extrapolate(nanoTime);
+                final double dLongitude = normalizeLongitude(longitude - reported.getX());
+                final double dLatitude = latitude - reported.getY();
+
+                if (Math.abs(dLongitude) <= MAX_BLEND_DEGREES && Math.abs(dLatitude) <= MAX_BLEND_DEGREES) {
+                    offsetLongitude = dLongitude;
+                    offsetLatitude = dLatitude;
+                } else {
+                    offsetLongitude = 0;
+                    offsetLatitude = 0;
+                }
+            } else {
+                offsetLongitude = 0;
+                offsetLatitude = 0;
+            }
+
+            this.reported = reported;
+            this.heading = heading;
+            this.groundSpeed = groundSpeed;
+            this.reportNanos = nanoTime - reportAgeNanos;
+            this.blendStartNanos = nanoTime;
+        }
+
+        void extrapolate(final long nanoTime) {
+            if (reported == null) {
+                moving = false;
+                return;
+            }
+
+            final long elapsed = Math.min(MAX_EXTRAPOLATION, Math.max(0, nanoTime - reportNanos));
+            final boolean extrapolating = groundSpeed >= MIN_GROUND_SPEED && elapsed < MAX_EXTRAPOLATION;
+
+            if (groundSpeed >= MIN_GROUND_SPEED) {
+                final double distance = groundSpeed * elapsed / 3.6e12;
+                destination(reported.getX(), reported.getY(), heading, distance);
+            } else {
+                longitude = reported.getX();
+                latitude = reported.getY();
+            }
+
+            final long blending = nanoTime - blendStartNanos;
+            final boolean blended = blending < BLEND && (offsetLongitude != 0 || offsetLatitude != 0);
+
+            if (blended) {
+                final double remaining = 1 - (double) blending / BLEND;
+                longitude = normalizeLongitude(longitude + offsetLongitude * remaining);
+                latitude += offsetLatitude * remaining;
+            }
+
+            moving = extrapolating || blended;
+        }
+
+        void reset() {
+            if (reported != null) {
+                longitude = reported.getX();
+                latitude = reported.getY();
+            }
+            offsetLongitude = 0;
+            offsetLatitude = 0;
+            moving = false;
+        }
+
+        private void destination(final double longitude, final double latitude, final double heading, final double distanceNm) {
+            final double delta = distanceNm / EARTH_RADIUS_NM;
+            final double theta = Math.toRadians(heading);
+            final double phi1 = Math.toRadians(latitude);
+            final double lambda1 = Math.toRadians(longitude);
+
+            final double sinPhi1 = Math.sin(phi1);
+            final double cosPhi1 = Math.cos(phi1);
+            final double sinDelta = Math.sin(delta);
+            final double cosDelta = Math.cos(delta);
+
+            final double sinPhi2 = sinPhi1 * cosDelta + cosPhi1 * sinDelta * Math.cos(theta);
+            final double phi2 = Math.asin(sinPhi2);
+            final double lambda2 = lambda1 + Math.atan2(Math.sin(theta) * sinDelta * cosPhi1, cosDelta - sinPhi1 * sinPhi2);
+
+            this.latitude = Math.toDegrees(phi2);
+            this.longitude = normalizeLongitude(Math.toDegrees(lambda2));
+        }
+
+        private static double normalizeLongitude(final double longitude) {
+            return ((longitude + 540) % 360) - 180;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public boolean isMoving() {
+            return moving;
+        }
+    }
+}
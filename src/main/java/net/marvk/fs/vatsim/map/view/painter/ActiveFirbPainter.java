@@ -12,7 +12,10 @@ public class ActiveFirbPainter extends CompositeMapPainter<FlightInformationRegi
     @MetaPainter("FIR")
     private final FirbPainter firbPainter;
 
+    private final MapVariables mapVariables;
+
     public ActiveFirbPainter(final MapVariables mapVariables) {
+        this.mapVariables = mapVariables;
         this.firbPainter = new FirbPainter(
                 mapVariables,
                 Color.DARKMAGENTA,
@@ -35,7 +38,7 @@ public class ActiveFirbPainter extends CompositeMapPainter<FlightInformationRegi
 
     @Override
     public void paint(final GraphicsContext c, final FlightInformationRegionBoundary firb) {
-        if (firb.hasFirControllers()) {
+        if (mapVariables.getRenderSnapshot().hasFirControllers(firb)) {
             firbPainter.paint(c, firb);
         }
     }
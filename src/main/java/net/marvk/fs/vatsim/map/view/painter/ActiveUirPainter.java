@@ -12,7 +12,10 @@ public class ActiveUirPainter extends CompositeMapPainter<UpperInformationRegion
     @MetaPainter("UIR")
     private final UirPainter uirPainter;
 
+    private final MapVariables mapVariables;
+
     public ActiveUirPainter(final MapVariables mapVariables) {
+        this.mapVariables = mapVariables;
         this.uirPainter = new UirPainter(mapVariables, Color.DARKCYAN, false);
     }
 
@@ -28,7 +31,7 @@ public class ActiveUirPainter extends CompositeMapPainter<UpperInformationRegion
 
     @Override
     public void paint(final GraphicsContext c, final UpperInformationRegion uir) {
-        if (!uir.getControllers().isEmpty()) {
+        if (mapVariables.getRenderSnapshot().hasControllers(uir)) {
             this.uirPainter.paint(c, uir);
         }
     }
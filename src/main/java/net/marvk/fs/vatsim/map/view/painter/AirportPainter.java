@@ -6,16 +6,34 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.TextAlignment;
 import net.marvk.fs.vatsim.map.data.Airport;
-import net.marvk.fs.vatsim.map.data.Controller;
 import net.marvk.fs.vatsim.map.data.ControllerType;
+import net.marvk.fs.vatsim.map.data.RenderSnapshot;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
 public class AirportPainter extends MapPainter<Airport> {
     private static final int TYPES_WIDTH = 9;
+    private static final ControllerType[] CONTROLLER_TYPES = Arrays
+            .stream(ControllerType.values())
+            .sorted(ControllerType.COMPARATOR)
+            .toArray(ControllerType[]::new);
+    private static final String[] TYPE_LABELS = Arrays
+            .stream(ControllerType.values())
+            .map(e -> e.toString().substring(0, 1))
+            .toArray(String[]::new);
+
+    /**
+     * The controller types of the airport being painted, reused for all airports.
+     */
+    private final ControllerType[] types = new ControllerType[CONTROLLER_TYPES.length];
+
+    /**
+     * State of the airport being painted, read from the {@link RenderSnapshot}.
+     */
+    private boolean hasControllers;
+    private boolean hasArrivalsOrDepartures;
+    private int controllerTypes;
 
     @Parameter("Paint Uncontrolled Airports")
     private boolean paintAll = false;
@@ -91,13 +109,19 @@ public class AirportPainter extends MapPainter<Airport> {
             return;
         }
 
+        final RenderSnapshot snapshot = mapVariables.getRenderSnapshot();
+        hasControllers = snapshot.hasControllers(airport);
+        hasArrivalsOrDepartures = snapshot.hasArrivals(airport) || snapshot.hasDepartures(airport);
+
         if (!paintAll &&
-                !airport.hasControllers() &&
-                (!paintUncontrolledButDestinationsOrArrivals || (!airport.hasArrivals() && !airport.hasDepartures()))
+                !hasControllers &&
+                (!paintUncontrolledButDestinationsOrArrivals || !hasArrivalsOrDepartures)
         ) {
             return;
         }
 
+        controllerTypes = hasControllers ? snapshot.controllerTypes(airport) : 0;
+
         draw(c, airport, xOffset);
     }
 
@@ -106,13 +130,12 @@ public class AirportPainter extends MapPainter<Airport> {
         final double x = (int) mapVariables.toCanvasX(point.getX() + xOffset);
         final double y = (int) mapVariables.toCanvasY(point.getY());
 
-        final List<ControllerType> types = airport
-                .getControllers()
-                .stream()
-                .map(Controller::getControllerType)
-                .distinct()
-                .sorted(ControllerType.COMPARATOR)
-                .collect(Collectors.toCollection(ArrayList::new));
+        int n = 0;
+        for (final ControllerType type : CONTROLLER_TYPES) {
+            if (type != ControllerType.DEP && type != ControllerType.APP && RenderSnapshot.contains(controllerTypes, type)) {
+                types[n++] = type;
+            }
+        }
 
         c.setLineDashes(null);
         c.setLineWidth(1);
@@ -122,7 +145,7 @@ public class AirportPainter extends MapPainter<Airport> {
         final double textScale = c.getFont().getSize() / 12.0;
         final boolean paintApproachCircle = mapVariables.getScale() > (40 / approachRadius) * textScale;
         final boolean paintApproachLabel = paintApproachCircle;
-        final boolean paintApproach = types.remove(ControllerType.DEP) | types.remove(ControllerType.APP);
+        final boolean paintApproach = RenderSnapshot.contains(controllerTypes, ControllerType.DEP) || RenderSnapshot.contains(controllerTypes, ControllerType.APP);
 
         if (paintControllers) {
             c.setTextAlign(TextAlignment.CENTER);
@@ -149,15 +172,13 @@ public class AirportPainter extends MapPainter<Airport> {
 
         if (paintControllers) {
             c.setTextBaseline(VPos.TOP);
-            if (paintApproach && types.isEmpty() && !paintApproachCircle) {
-                types.add(ControllerType.APP);
+            if (paintApproach && n == 0 && !paintApproachCircle) {
+                types[n++] = ControllerType.APP;
             }
 
-            final int n = types.size();
-
             final int typesWidth = (int) Math.ceil(textScale * TYPES_WIDTH);
             for (int i = 0; i < n; i++) {
-                final ControllerType type = types.get(i);
+                final ControllerType type = types[i];
                 c.setFill(color(type));
                 c.setStroke(typesBorderColor);
                 final double xCur = typeLabelX(x, n, i, typesWidth);
@@ -168,7 +189,7 @@ public class AirportPainter extends MapPainter<Airport> {
                     c.setFill(typesLabelColor);
                     painterHelper.fillText(
                             c,
-                            type.toString().substring(0, 1),
+                            TYPE_LABELS[type.ordinal()],
                             xCur + typesWidth / 2.0,
                             yCur - 3
                     );
@@ -187,8 +208,8 @@ public class AirportPainter extends MapPainter<Airport> {
         }
 
         if (text) {
-            final boolean uncontrolledButDestinationOriginEnabled = (airport.hasDepartures() || airport.hasArrivals()) && paintUncontrolledButDestinationsOrArrivalLabels;
-            if (paintAllLabels || airport.hasControllers() || uncontrolledButDestinationOriginEnabled) {
+            final boolean uncontrolledButDestinationOriginEnabled = hasArrivalsOrDepartures && paintUncontrolledButDestinationsOrArrivalLabels;
+            if (paintAllLabels || hasControllers || uncontrolledButDestinationOriginEnabled) {
                 painterHelper.fillTextWithBackground(
                         c,
                         x,
@@ -0,0 +1,84 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import net.marvk.fs.vatsim.map.data.ClusterIndex;
+import net.marvk.fs.vatsim.map.view.map.MapVariables;
+
+/**
+ * Paints a {@link ClusterIndex.Cluster} as a circle with the number of items it contains. The painter also decides
+ * the cluster level for the current scale, see {@link #level()}.
+ */
+public class ClusterPainter extends MapPainter<ClusterIndex.Cluster> {
+    private static final double MIN_RADIUS = 6;
+
+    @Parameter(value = "Cluster Size", min = 8, max = 256)
+    private double clusterSize = 40;
+
+    @Parameter("Color")
+    private Color color;
+
+    @Parameter("Label Color")
+    private Color labelColor;
+
+    public ClusterPainter(final MapVariables mapVariables, final Color color, final Color labelColor) {
+        super(mapVariables);
+        this.color = color;
+        this.labelColor = labelColor;
+    }
+
+    /**
+     * @return the level whose cells are at most {@code Cluster Size} pixels wide at the current scale, or
+     * {@link ClusterIndex#NONE} if the painter is disabled
+     */
+    public int level() {
+        if (!enabled) {
+            return ClusterIndex.NONE;
+        }
+
+        return ClusterIndex.level(clusterSize / mapVariables.worldWidthToViewWidth(1));
+    }
+
+    @Override
+    public void paint(final GraphicsContext c, final ClusterIndex.Cluster cluster) {
+        final double centerX = mapVariables.toCanvasX(cluster.getX());
+        // like the MULTI_DRAW_BOUND of the pilot and FIR painters, but as wide as the circle
+        final double r = radius(cluster.getSize());
+
+        if (centerX - r < 0) {
+            draw(c, cluster, r, 360);
+        }
+
+        if (centerX + r > mapVariables.getViewWidth()) {
+            draw(c, cluster, r, -360);
+        }
+
+        draw(c, cluster, r, 0);
+    }
+
+    private void draw(final GraphicsContext c, final ClusterIndex.Cluster cluster, final double r, final double xOffset) {
+        final double x = (int) mapVariables.toCanvasX(cluster.getX() + xOffset);
+        final double y = (int) mapVariables.toCanvasY(cluster.getY());
+
+        if (!mapVariables.isRectIntersectingCanvasView(x - r, y - r, 2 * r, 2 * r)) {
+            return;
+        }
+
+        c.setFill(color);
+        painterHelper.fillOval(c, x - r, y - r, 2 * r, 2 * r);
+
+        c.setTextAlign(TextAlignment.CENTER);
+        c.setTextBaseline(VPos.CENTER);
+        c.setFill(labelColor);
+        painterHelper.fillText(c, String.valueOf(cluster.getSize()), x, y);
+    }
+
+    /**
+     * @return a radius growing with the logarithm of the size, so large clusters don't cover their neighbours
+     */
+    private static double radius(final int size) {
+        return MIN_RADIUS + 2 * Math.log(size) / Math.log(2);
+    }
+}
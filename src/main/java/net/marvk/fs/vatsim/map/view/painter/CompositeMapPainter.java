@@ -3,11 +3,10 @@ package net.marvk.fs.vatsim.map.view.painter;
 import net.marvk.fs.vatsim.map.view.map.PainterMetric;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public abstract class CompositeMapPainter<T> extends DisableablePainter<T> {
     private Collection<? extends Painter<?>> painters = null;
+    private final PainterMetric metricsSnapshot = new PainterMetric();
 
     protected abstract Collection<? extends Painter<?>> painters();
 
@@ -21,12 +20,13 @@ public abstract class CompositeMapPainter<T> extends DisableablePainter<T> {
 
     @Override
     public PainterMetric getMetricsSnapshot() {
-        final List<PainterMetric> metrics = getPainters()
-                .stream()
-                .map(Painter::getMetricsSnapshot)
-                .collect(Collectors.toList());
+        metricsSnapshot.reset();
 
-        return PainterMetric.ofMetrics(metrics);
+        for (final Painter<?> painter : getPainters()) {
+            metricsSnapshot.add(painter.getMetricsSnapshot());
+        }
+
+        return metricsSnapshot;
     }
 
     @Override
@@ -10,10 +10,13 @@ import net.marvk.fs.vatsim.map.view.map.MapVariables;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class ConnectionsPainter extends CompositeMapPainter<Data> {
+    private static final int GREAT_CIRCLE_POINTS = 51;
+    private static final double[] ARRIVAL_DASHES = {1, 5};
+    private static final double[] DEPARTURE_DASHES = {1, 10};
+
     @Parameter(value = "Stroke Width", min = 0, max = 10)
     private double strokeWidth = 1;
 
@@ -37,7 +40,10 @@ public class ConnectionsPainter extends CompositeMapPainter<Data> {
 
     private final PainterVisitor painterVisitor = new PainterVisitor();
 
-    private Point2D[] greatCircleBufferArray = null;
+    private final double[] greatCircleX = new double[GREAT_CIRCLE_POINTS];
+    private final double[] greatCircleY = new double[GREAT_CIRCLE_POINTS];
+
+    private GraphicsContext context;
 
     public ConnectionsPainter(final MapVariables mapVariables) {
         pilots = new ConnectionPainter(
@@ -78,51 +84,56 @@ public class ConnectionsPainter extends CompositeMapPainter<Data> {
     @Override
     public void paint(final GraphicsContext c, final Data data) {
         c.setLineWidth(strokeWidth);
-        painterVisitor.visit(data).accept(c);
-    }
-
-    private Point2D[] getGreatCircleBufferArray() {
-        if (greatCircleBufferArray == null) {
-            greatCircleBufferArray = new Point2D[51];
+        context = c;
+        try {
+            painterVisitor.visit(data);
+        } finally {
+            context = null;
         }
-
-        return greatCircleBufferArray;
     }
 
-    private class PainterVisitor extends DefaultingDataVisitor<Consumer<GraphicsContext>> {
+    /**
+     * Paints to {@link #context}, returns whether anything was visited. Painting through the visitor instead of
+     * returning a painting closure keeps the frame free of allocations.
+     */
+    private class PainterVisitor extends DefaultingDataVisitor<Boolean> {
         public PainterVisitor() {
-            super(c -> {
-            });
+            super(false);
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final Airport airport) {
-            return c -> {
-                for (final FlightPlan flightPlan : airport.getDeparting()) {
-                    airportDepartures.paint(c, new Connection(
-                            flightPlan.getDepartureAirport(),
-                            flightPlan.getPilot(),
-                            flightPlan.getArrivalAirport()
-                    ));
-                }
+        public Boolean visit(final Airport airport) {
+            for (final FlightPlan flightPlan : airport.getDeparting()) {
+                airportDepartures.paint(
+                        context,
+                        flightPlan.getDepartureAirport(),
+                        flightPlan.getPilot(),
+                        flightPlan.getArrivalAirport()
+                );
+            }
 
-                for (final FlightPlan flightPlan : airport.getArriving()) {
-                    airportArrivals.paint(c, new Connection(
-                            flightPlan.getDepartureAirport(),
-                            flightPlan.getPilot(),
-                            flightPlan.getArrivalAirport()
-                    ));
-                }
-            };
+            for (final FlightPlan flightPlan : airport.getArriving()) {
+                airportArrivals.paint(
+                        context,
+                        flightPlan.getDepartureAirport(),
+                        flightPlan.getPilot(),
+                        flightPlan.getArrivalAirport()
+                );
+            }
+
+            return true;
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final Pilot pilot) {
-            return c -> pilots.paint(c, new Connection(
+        public Boolean visit(final Pilot pilot) {
+            pilots.paint(
+                    context,
                     pilot.getFlightPlan().getDepartureAirport(),
                     pilot,
                     pilot.getFlightPlan().getArrivalAirport()
-            ));
+            );
+
+            return true;
         }
     }
 
@@ -157,14 +168,14 @@ public class ConnectionsPainter extends CompositeMapPainter<Data> {
 
         @Override
         public void paint(final GraphicsContext c, final Connection connection) {
+            paint(c, connection.getDeparture(), connection.getPilot(), connection.getArrival());
+        }
+
+        private void paint(final GraphicsContext c, final Airport departureAirport, final Pilot pilot, final Airport arrivalAirport) {
             if (!enabled) {
                 return;
             }
 
-            final Airport departureAirport = connection.getDeparture();
-            final Pilot pilot = connection.getPilot();
-            final Airport arrivalAirport = connection.getArrival();
-
             if (arrival && arrivalAirport != null) {
                 setArrivalStroke(c);
                 connect(c, pilot.getPosition(), arrivalAirport.getPosition());
@@ -172,7 +183,7 @@ public class ConnectionsPainter extends CompositeMapPainter<Data> {
 
             if (history) {
                 setHistoryStroke(c);
-                painterHelper.strokePolyline(c, pilot.getHistory().toArray(Point2D[]::new));
+                painterHelper.strokePolyline(c, pilot.getHistory());
             }
 
             if (departure && departureAirport != null) {
@@ -186,12 +197,12 @@ public class ConnectionsPainter extends CompositeMapPainter<Data> {
         }
 
         private void setArrivalStroke(final GraphicsContext c) {
-            c.setLineDashes(1, 5);
+            c.setLineDashes(ARRIVAL_DASHES);
             c.setStroke(arrivalColorSupplier.get());
         }
 
         private void setDepartureStroke(final GraphicsContext c) {
-            c.setLineDashes(1, 10);
+            c.setLineDashes(DEPARTURE_DASHES);
             c.setStroke(departureColorSupplier.get());
         }
 
@@ -210,14 +221,18 @@ public class ConnectionsPainter extends CompositeMapPainter<Data> {
         }
 
         private void greatCircleLine(final GraphicsContext c, final Point2D p1, final Point2D p2) {
-            final Point2D[] points = GeomUtil.greatCirclePolyline(p1, p2, getGreatCircleBufferArray());
-            painterHelper.strokePolyline(c, points);
+            GeomUtil.greatCirclePolyline(p1, p2, greatCircleX, greatCircleY);
+            painterHelper.strokePolyline(c, greatCircleX, greatCircleY, GREAT_CIRCLE_POINTS);
         }
 
         private void line(final GraphicsContext c, final Point2D p1, final Point2D p2, final int offsetX) {
-            final Point2D c1 = mapVariables.toCanvas(p1.add(offsetX, 0));
-            final Point2D c2 = mapVariables.toCanvas(p2.add(offsetX, 0));
-            painterHelper.strokeLine(c, c1.getX(), c1.getY(), c2.getX(), c2.getY());
+            painterHelper.strokeLine(
+                    c,
+                    mapVariables.toCanvasX(p1.getX() + offsetX),
+                    mapVariables.toCanvasY(p1.getY()),
+                    mapVariables.toCanvasX(p2.getX() + offsetX),
+                    mapVariables.toCanvasY(p2.getY())
+            );
         }
 
     }
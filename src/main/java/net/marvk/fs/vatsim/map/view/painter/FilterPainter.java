@@ -6,6 +6,7 @@ import javafx.scene.canvas.GraphicsContext;
 import net.marvk.fs.vatsim.map.data.Filter;
 import net.marvk.fs.vatsim.map.data.Pilot;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
+import net.marvk.fs.vatsim.map.view.map.PilotMotion;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -16,9 +17,11 @@ public class FilterPainter extends CompositeMapPainter<Pilot> {
 
     private final List<FilteredPilotPainter> filterPainters;
     private MapVariables mapVariables;
+    private final PilotMotion motion;
 
-    public FilterPainter(final MapVariables mapVariables, final ObservableList<Filter> filters) {
+    public FilterPainter(final MapVariables mapVariables, final ObservableList<Filter> filters, final PilotMotion motion) {
         this.mapVariables = mapVariables;
+        this.motion = motion;
         filterPainters = filters
                 .stream()
                 .map(FilteredPilotPainter::new)
@@ -56,7 +59,7 @@ public class FilterPainter extends CompositeMapPainter<Pilot> {
         public FilteredPilotPainter(final Filter filter) {
             super(FilterPainter.this.mapVariables);
 
-            this.painter = new PilotPainter(mapVariables, filter.getTextColor(), filter.getBackgroundColor());
+            this.painter = new PilotPainter(mapVariables, filter.getTextColor(), filter.getBackgroundColor(), motion);
             this.filter = filter;
         }
 
@@ -9,7 +9,8 @@ import net.marvk.fs.vatsim.map.data.FlightInformationRegionBoundary;
 import net.marvk.fs.vatsim.map.data.Polygon;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Set;
 
 public class FirbPainter extends MapPainter<FlightInformationRegionBoundary> {
@@ -29,7 +30,10 @@ public class FirbPainter extends MapPainter<FlightInformationRegionBoundary> {
     @Parameter("Label Color")
     private final Color textColor;
 
-    private final Set<FlightInformationRegionBoundary> paintedFirbs = new HashSet<>();
+    /**
+     * Open addressing, so adding to it after {@link #afterAllRender()} cleared it doesn't allocate.
+     */
+    private final Set<FlightInformationRegionBoundary> paintedFirbs = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public FirbPainter(final MapVariables mapVariables, final Color strokeColor, final double lineWidth, final boolean fill, final boolean stroke, final boolean label) {
         super(mapVariables);
@@ -98,7 +102,7 @@ public class FirbPainter extends MapPainter<FlightInformationRegionBoundary> {
             c.setTextBaseline(VPos.CENTER);
             painterHelper.fillText(
                     c,
-                    "%s%s".formatted(firb.getIcao(), firb.isOceanic() ? " Oceanic" : ""),
+                    mapVariables.getRenderSnapshot().label(firb),
                     mapVariables.toCanvasX(polyLabel.getX() + offsetX),
                     mapVariables.toCanvasY(polyLabel.getY())
             );
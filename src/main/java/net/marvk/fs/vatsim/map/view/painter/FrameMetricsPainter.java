@@ -8,7 +8,6 @@ import net.marvk.fs.vatsim.map.view.map.FrameMetrics;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
 
 import java.util.List;
-import java.util.stream.DoubleStream;
 
 public class FrameMetricsPainter extends MapPainter<FrameMetrics> {
     private static final double NANOS_IN_MILLI = 1000000.;
@@ -80,10 +79,10 @@ public class FrameMetricsPainter extends MapPainter<FrameMetrics> {
         final int width = averageListWidth() + chartWidth;
         painterHelper.fillRect(c, x, y, width, getChartHeight() + borderWidth * 2);
 
-        final double averageDrawNanos = averages(metrics).sum();
+        final double averageDrawNanos = sumOfAverages(metrics);
 
         if (showAverages) {
-            final double max = averages(metrics).max().orElse(0);
+            final double max = maxOfAverages(metrics);
 
             final int n = metrics.size() + 1;
             for (int i = 0; i < n; i++) {
@@ -127,9 +126,9 @@ public class FrameMetricsPainter extends MapPainter<FrameMetrics> {
             c.setFill(Color.GRAY);
             painterHelper.fillRect(c, xOffset, yOffset, chartColumns, getChartHeight());
 
-            final List<Long> frameTimes = total.getFrameTimes();
-            for (int i = 0; i < frameTimes.size(); i++) {
-                final long totalNanos = frameTimes.get(i);
+            final int frames = total.getCurrentNumberOfFrameTimes();
+            for (int i = 0; i < frames; i++) {
+                final long totalNanos = total.get(i);
                 final double totalHeight = height(maxNanos, totalNanos);
                 c.setFill(COLORS[0]);
                 painterHelper.fillRect(
@@ -147,7 +146,7 @@ public class FrameMetricsPainter extends MapPainter<FrameMetrics> {
                     if ("Total".equals(metric.getName())) {
                         continue;
                     }
-                    final long currentNanos = metric.getFrameTimes().get(i);
+                    final long currentNanos = metric.get(i);
                     final double currentHeight = height(maxNanos, currentNanos);
 
                     c.setFill(COLORS[j]);
@@ -202,11 +201,24 @@ public class FrameMetricsPainter extends MapPainter<FrameMetrics> {
         return showAverages ? Math.max(375, chartHeight) : chartHeight;
     }
 
-    private static DoubleStream averages(final List<FrameMetrics.Metric> metrics) {
-        return metrics
-                .stream()
-                .filter(e -> !"Total".equals(e.getName()))
-                .mapToDouble(FrameMetrics.Metric::average);
+    private static double sumOfAverages(final List<FrameMetrics.Metric> metrics) {
+        double result = 0;
+        for (int i = 0; i < metrics.size(); i++) {
+            if (!"Total".equals(metrics.get(i).getName())) {
+                result += metrics.get(i).average();
+            }
+        }
+        return result;
+    }
+
+    private static double maxOfAverages(final List<FrameMetrics.Metric> metrics) {
+        double result = 0;
+        for (int i = 0; i < metrics.size(); i++) {
+            if (!"Total".equals(metrics.get(i).getName())) {
+                result = Math.max(result, metrics.get(i).average());
+            }
+        }
+        return result;
     }
 
     private void drawLine(final GraphicsContext c, final double value, final long max, final double xOffset, final double yOffset, final int width, final Color color) {
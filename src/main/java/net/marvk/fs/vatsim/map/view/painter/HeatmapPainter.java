@@ -0,0 +1,164 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import net.marvk.fs.vatsim.map.data.TrafficDensity;
+import net.marvk.fs.vatsim.map.view.map.MapVariables;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Pilot density per one degree cell, blurred and drawn as a single image stretched over the world.
+ * <p>
+ * The image is only recomputed when the {@link TrafficDensity} was updated or a parameter changed, panning and
+ * zooming just draw it again.
+ */
+public class HeatmapPainter extends MapPainter<Void> {
+    private static final int COLUMNS = TrafficDensity.COLUMNS;
+    private static final int ROWS = TrafficDensity.ROWS;
+
+    @Parameter(value = "Heatmap Below Scale", min = 1)
+    private double heatmapScale = 2;
+
+    @Parameter("Replace Pilots")
+    private boolean replacePilots = false;
+
+    @Parameter("Filtered Pilots Only")
+    private boolean filteredOnly = false;
+
+    @Parameter(value = "Blur Radius", min = 0, max = 10)
+    private int blurRadius = 2;
+
+    @Parameter("Cold Color")
+    private Color coldColor;
+
+    @Parameter("Hot Color")
+    private Color hotColor;
+
+    private final TrafficDensity density;
+
+    private final SeparableBlur blur = new SeparableBlur();
+    private final float[] values = new float[COLUMNS * ROWS];
+
+    private final IntBuffer pixels = ByteBuffer
+            .allocateDirect(4 * COLUMNS * ROWS)
+            .order(ByteOrder.nativeOrder())
+            .asIntBuffer();
+    private final PixelBuffer<IntBuffer> pixelBuffer = new PixelBuffer<>(COLUMNS, ROWS, pixels, PixelFormat.getIntArgbPreInstance());
+    private final WritableImage image = new WritableImage(pixelBuffer);
+
+    /**
+     * State the image was last computed for.
+     */
+    private long generation = -1;
+    private boolean imageFilteredOnly;
+    private int imageBlurRadius;
+    private Color imageColdColor;
+    private Color imageHotColor;
+
+    public HeatmapPainter(final MapVariables mapVariables, final TrafficDensity density, final Color coldColor, final Color hotColor) {
+        super(mapVariables);
+        this.density = density;
+        this.coldColor = coldColor;
+        this.hotColor = hotColor;
+    }
+
+    /**
+     * @return whether the heatmap is painted at the current scale
+     */
+    public boolean isShowing() {
+        return enabled && mapVariables.getScale() < heatmapScale;
+    }
+
+    /**
+     * @return whether the heatmap is painted instead of the pilot markers at the current scale
+     */
+    public boolean isReplacingPilots() {
+        return replacePilots && isShowing();
+    }
+
+    @Override
+    public void paint(final GraphicsContext c, final Void unused) {
+        if (!isShowing()) {
+            return;
+        }
+
+        updateImage();
+
+        final double top = mapVariables.toCanvasY(90);
+        final double height = mapVariables.toCanvasY(-90) - top;
+
+        for (int offset = -360; offset <= 360; offset += 360) {
+            final double left = mapVariables.toCanvasX(-180 + offset);
+            final double width = mapVariables.toCanvasX(180 + offset) - left;
+
+            if (left + width > 0 && left < mapVariables.getViewWidth()) {
+                painterHelper.drawImage(c, image, left, top, width, height);
+            }
+        }
+    }
+
+    private void updateImage() {
+        final TrafficDensity.Grid grid = density.grid();
+
+        final boolean upToDate = grid.getGeneration() == generation &&
+                filteredOnly == imageFilteredOnly &&
+                blurRadius == imageBlurRadius &&
+                coldColor.equals(imageColdColor) &&
+                hotColor.equals(imageHotColor);
+
+        if (upToDate) {
+            return;
+        }
+
+        generation = grid.getGeneration();
+        imageFilteredOnly = filteredOnly;
+        imageBlurRadius = blurRadius;
+        imageColdColor = coldColor;
+        imageHotColor = hotColor;
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = grid.count(i, filteredOnly);
+        }
+
+        blur.blur(values, COLUMNS, ROWS, blurRadius);
+
+        float max = 0;
+        for (final float value : values) {
+            max = Math.max(max, value);
+        }
+
+        // logarithmic, so single pilots remain visible next to the hubs
+        final double scale = max > 0 ? 1 / Math.log1p(max) : 0;
+
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i] < 1e-3 ? 0 : Math.log1p(values[i]) * scale;
+            pixels.put(i, value == 0 ? 0 : argb(value));
+        }
+
+        pixelBuffer.updateBuffer(e -> null);
+    }
+
+    /**
+     * @return the premultiplied color between the cold and hot color
+     */
+    private int argb(final double value) {
+        final double opacity = lerp(coldColor.getOpacity(), hotColor.getOpacity(), value);
+
+        final int a = (int) Math.round(opacity * 255);
+        final int r = (int) Math.round(lerp(coldColor.getRed(), hotColor.getRed(), value) * opacity * 255);
+        final int g = (int) Math.round(lerp(coldColor.getGreen(), hotColor.getGreen(), value) * opacity * 255);
+        final int b = (int) Math.round(lerp(coldColor.getBlue(), hotColor.getBlue(), value) * opacity * 255);
+
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    private static double lerp(final double from, final double to, final double t) {
+        return from + (to - from) * t;
+    }
+}
@@ -7,6 +7,8 @@ import net.marvk.fs.vatsim.map.data.Polygon;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
 
 public class IdlPainter extends MapPainter<InternationalDateLine> {
+    private static final double[] DASHES = {1, 10};
+
     @Parameter("Stroke Color")
     private final Color color;
 
@@ -21,7 +23,7 @@ public class IdlPainter extends MapPainter<InternationalDateLine> {
 
         c.setLineWidth(1);
         c.setStroke(color);
-        c.setLineDashes(1, 10);
+        c.setLineDashes(DASHES);
 
         painterHelper.strokePolylines(c, points);
     }
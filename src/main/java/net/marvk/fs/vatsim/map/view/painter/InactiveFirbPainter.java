@@ -3,6 +3,7 @@ package net.marvk.fs.vatsim.map.view.painter;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import net.marvk.fs.vatsim.map.data.FlightInformationRegionBoundary;
+import net.marvk.fs.vatsim.map.data.RenderSnapshot;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
 
 public class InactiveFirbPainter extends MapPainter<FlightInformationRegionBoundary> {
@@ -30,7 +31,8 @@ public class InactiveFirbPainter extends MapPainter<FlightInformationRegionBound
 
     @Override
     public void paint(final GraphicsContext c, final FlightInformationRegionBoundary firb) {
-        if (firb.hasFirControllers() || firb.hasUirControllers()) {
+        final RenderSnapshot snapshot = mapVariables.getRenderSnapshot();
+        if (snapshot.hasFirControllers(firb) || snapshot.hasUirControllers(firb)) {
             return;
         }
 
@@ -12,7 +12,10 @@ public class InactiveUirPainter extends CompositeMapPainter<UpperInformationRegi
     @MetaPainter("UIR")
     private final UirPainter uirPainter;
 
+    private final MapVariables mapVariables;
+
     public InactiveUirPainter(final MapVariables mapVariables) {
+        this.mapVariables = mapVariables;
         this.uirPainter = new UirPainter(mapVariables, Color.valueOf("3B341F"), false);
         this.enabled = false;
     }
@@ -29,7 +32,7 @@ public class InactiveUirPainter extends CompositeMapPainter<UpperInformationRegi
 
     @Override
     public void paint(final GraphicsContext c, final UpperInformationRegion uir) {
-        if (uir.getControllers().isEmpty()) {
+        if (!mapVariables.getRenderSnapshot().hasControllers(uir)) {
             this.uirPainter.paint(c, uir);
         }
     }
@@ -10,21 +10,25 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public final class PainterExecutor<T> {
+    private static final List<?> SINGLE_NULL = Collections.singletonList(null);
+
     private final Painter<T> painter;
     private final Supplier<Collection<T>> paintablesSupplier;
+    /**
+     * Set instead of {@link #paintablesSupplier} for painters of a single item, so painting doesn't need to wrap the
+     * item in a collection.
+     */
+    private final Supplier<T> paintableSupplier;
     private final String name;
     private final Predicate<T> filter;
 
     private long lastDurationNanos = 0L;
     private PainterMetric lastPainterMetric = new PainterMetric();
 
-    private PainterExecutor(final String name, final Painter<T> painter) {
-        this(name, painter, () -> Collections.singletonList(null), e -> true);
-    }
-
-    private PainterExecutor(final String name, final Painter<T> painter, final Supplier<Collection<T>> paintablesSupplier, final Predicate<T> filter) {
+    private PainterExecutor(final String name, final Painter<T> painter, final Supplier<Collection<T>> paintablesSupplier, final Supplier<T> paintableSupplier, final Predicate<T> filter) {
         this.painter = painter;
         this.paintablesSupplier = paintablesSupplier;
+        this.paintableSupplier = paintableSupplier;
         this.name = name;
         this.filter = filter;
     }
@@ -33,11 +37,14 @@ public final class PainterExecutor<T> {
         final long start = System.nanoTime();
         painter.beforeAllRender();
         if (painter.isEnabled()) {
-            for (final T t : paintablesSupplier.get()) {
-                if (filter.test(t)) {
-                    painter.beforeEachRender();
-                    painter.paint(c, t);
-                    painter.afterEachRender();
+            if (paintableSupplier == null) {
+                for (final T t : paintablesSupplier.get()) {
+                    paint(c, t);
+                }
+            } else {
+                final T t = paintableSupplier.get();
+                if (t != null) {
+                    paint(c, t);
                 }
             }
         }
@@ -46,6 +53,14 @@ public final class PainterExecutor<T> {
         lastDurationNanos = System.nanoTime() - start;
     }
 
+    private void paint(final GraphicsContext c, final T t) {
+        if (filter.test(t)) {
+            painter.beforeEachRender();
+            painter.paint(c, t);
+            painter.afterEachRender();
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -62,12 +77,13 @@ public final class PainterExecutor<T> {
         return lastPainterMetric;
     }
 
+    @SuppressWarnings("unchecked")
     public static <T> PainterExecutor<T> of(final String name, final Painter<T> painter) {
-        return ofCollection(name, painter, () -> Collections.singletonList(null));
+        return ofCollection(name, painter, () -> (Collection<T>) SINGLE_NULL);
     }
 
     public static <T> PainterExecutor<T> ofItem(final String name, final Painter<T> painter, final Supplier<T> paintablesSupplier, final Predicate<T> filter) {
-        return new PainterExecutor<>(name, painter, () -> getPaintable(paintablesSupplier), filter);
+        return new PainterExecutor<>(name, painter, null, paintablesSupplier, filter);
     }
 
     public static <T> PainterExecutor<T> ofItem(final String name, final Painter<T> painter, final Supplier<T> paintablesSupplier) {
@@ -75,15 +91,10 @@ public final class PainterExecutor<T> {
     }
 
     public static <T> PainterExecutor<T> ofCollection(final String name, final Painter<T> painter, final Supplier<Collection<T>> paintablesSupplier, final Predicate<T> filter) {
-        return new PainterExecutor<>(name, painter, paintablesSupplier, filter);
+        return new PainterExecutor<>(name, painter, paintablesSupplier, null, filter);
     }
 
     public static <T> PainterExecutor<T> ofCollection(final String name, final Painter<T> painter, final Supplier<Collection<T>> paintablesSupplier) {
         return ofCollection(name, painter, paintablesSupplier, e -> true);
     }
-
-    private static <T> List<T> getPaintable(final Supplier<T> paintablesSupplier) {
-        final var t = paintablesSupplier.get();
-        return t == null ? Collections.emptyList() : Collections.singletonList(t);
-    }
 }
@@ -7,7 +7,10 @@ import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.FillRule;
+import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
 import net.marvk.fs.vatsim.map.GeomUtil;
 import net.marvk.fs.vatsim.map.data.Polygon;
@@ -19,8 +22,40 @@ import java.util.List;
 public class PainterHelper {
     private static final double MIN_DISTANCE = 2;
     private static final double MIN_SQUARE_DISTANCE = squareThreshold(MIN_DISTANCE);
-
-    private PainterMetric metric = new PainterMetric();
+    /**
+     * Polygons are clipped to the canvas expanded by this many pixels, so clipped edges and their strokes stay hidden.
+     */
+    private static final double CLIP_MARGIN = 16;
+
+    private final PainterMetric metric = new PainterMetric();
+    private final PainterMetric snapshot = new PainterMetric();
+
+    private double[] polylineX = new double[64];
+    private double[] polylineY = new double[64];
+
+    private final PolygonClipper clipper = new PolygonClipper();
+
+    /**
+     * Decoded points of compact rings.
+     */
+    private double[] ringX = new double[64];
+    private double[] ringY = new double[64];
+    /**
+     * Start index of each ring written by {@link #writePolygonToBuffer}, followed by the end of the last ring.
+     */
+    private int[] ringStarts = new int[8];
+    private int rings;
+
+    /**
+     * Clip rectangle of the polygon being drawn, in world coordinates without its wrap offset.
+     */
+    private double clipMinX;
+    private double clipMinY;
+    private double clipMaxX;
+    private double clipMaxY;
+
+    private Font metricsFont;
+    private FontMetrics fontMetrics;
 
     private static double squareThreshold(final double value) {
         return value <= 0 ? Integer.MIN_VALUE : value * value;
@@ -32,10 +67,13 @@ public class PainterHelper {
         this.mapVariables = mapVariables;
     }
 
+    /**
+     * @return the calls since the last snapshot, the returned instance is reused and only valid until the next call
+     */
     public PainterMetric metricSnapshot() {
-        final PainterMetric result = this.metric;
-        this.metric = new PainterMetric();
-        return result;
+        snapshot.set(metric);
+        metric.reset();
+        return snapshot;
     }
 
     public void strokePolygons(final GraphicsContext c, final Polygon polygon) {
@@ -51,35 +89,66 @@ public class PainterHelper {
     }
 
     public void strokePolyline(final GraphicsContext c, final Point2D[] polyline) {
-        if (polyline.length == 0) {
+        ensurePolylineCapacity(polyline.length);
+        for (int i = 0; i < polyline.length; i++) {
+            polylineX[i] = polyline[i].getX();
+            polylineY[i] = polyline[i].getY();
+        }
+        strokePolyline(c, polylineX, polylineY, polyline.length);
+    }
+
+    public void strokePolyline(final GraphicsContext c, final List<Point2D> polyline) {
+        final int n = polyline.size();
+        ensurePolylineCapacity(n);
+        for (int i = 0; i < n; i++) {
+            final Point2D p = polyline.get(i);
+            polylineX[i] = p.getX();
+            polylineY[i] = p.getY();
+        }
+        strokePolyline(c, polylineX, polylineY, n);
+    }
+
+    /**
+     * Strokes the first {@code n} points of a polyline in world coordinates.
+     */
+    public void strokePolyline(final GraphicsContext c, final double[] xs, final double[] ys, final int n) {
+        if (n == 0) {
             return;
         }
 
         double minX = Double.MAX_VALUE;
         double maxX = -Double.MAX_VALUE;
 
-        strokePolyline(c, polyline, 0);
+        strokePolyline(c, xs, ys, n, 0);
 
         // TODO I don't think this is right for wrapping paths
-        for (final Point2D p : polyline) {
-            minX = Math.min(p.getX(), minX);
-            maxX = Math.max(p.getX(), maxX);
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(xs[i], minX);
+            maxX = Math.max(xs[i], maxX);
         }
 
         if (mapVariables.toCanvasX(minX) > 0) {
-            strokePolyline(c, polyline, -360);
+            strokePolyline(c, xs, ys, n, -360);
         }
 
         if (mapVariables.toCanvasX(maxX) < mapVariables.getViewWidth()) {
-            strokePolyline(c, polyline, 360);
+            strokePolyline(c, xs, ys, n, 360);
         }
     }
 
-    private void strokePolyline(final GraphicsContext c, final Point2D[] polyline, final double offsetX) {
-        final int n = writePolylineToBuffer(polyline, offsetX);
+    private void strokePolyline(final GraphicsContext c, final double[] xs, final double[] ys, final int n, final double offsetX) {
+        writePolylineToBuffer(xs, ys, n, offsetX);
         strokePolyline(c, n);
     }
 
+    private void ensurePolylineCapacity(final int n) {
+        if (n > polylineX.length) {
+            final int length = Math.max(n, polylineX.length * 2);
+            polylineX = new double[length];
+            polylineY = new double[length];
+        }
+    }
+
     private void drawPolygons(final GraphicsContext c, final Polygon polygon, final boolean polyline, final boolean fill, final boolean simplify) {
         if (mapVariables.toCanvasX(polygon.boundary().getMinX()) < 0) {
             drawPolygon(c, polygon, 360, polyline, fill, simplify);
@@ -93,18 +162,24 @@ public class PainterHelper {
     }
 
     private void drawPolygon(final GraphicsContext c, final Polygon polygon, final double offsetX, final boolean polyline, final boolean fill, final boolean simplify) {
-        if (!mapVariables.isRectIntersectingWorldView(shiftedBounds(polygon, offsetX))) {
+        final Rectangle2D boundary = polygon.boundary();
+        if (!mapVariables.isRectIntersectingWorldView(boundary.getMinX() + offsetX, boundary.getMinY(), boundary.getWidth(), boundary.getHeight())) {
             return;
         }
 
-        final int numPoints = writePolygonToBuffer(polygon, offsetX);
+        final boolean clip = !polyline && updateClipBounds(boundary, offsetX);
+        final int numPoints = writePolygonToBuffer(polygon, offsetX, clip);
 
         final boolean twoDimensional = numPoints >= 3;
         if (!twoDimensional) {
             return;
         }
 
-        if (polyline) {
+        if (rings > 1) {
+            if (!(polyline && fill)) {
+                drawRings(c, !polyline, fill);
+            }
+        } else if (polyline) {
             if (!fill) {
                 strokePolyline(c, numPoints);
             }
@@ -117,29 +192,90 @@ public class PainterHelper {
         }
     }
 
+    /**
+     * Updates the clip rectangle for the wrap offset.
+     *
+     * @return whether the polygon extends past the clip rectangle and needs to be clipped
+     */
+    private boolean updateClipBounds(final Rectangle2D boundary, final double offsetX) {
+        clipMinX = mapVariables.toWorldX(-CLIP_MARGIN) - offsetX;
+        clipMaxX = mapVariables.toWorldX(mapVariables.getViewWidth() + CLIP_MARGIN) - offsetX;
+
+        final double y1 = mapVariables.toWorldY(-CLIP_MARGIN);
+        final double y2 = mapVariables.toWorldY(mapVariables.getViewHeight() + CLIP_MARGIN);
+        clipMinY = Math.min(y1, y2);
+        clipMaxY = Math.max(y1, y2);
+
+        return boundary.getMinX() < clipMinX ||
+                boundary.getMaxX() > clipMaxX ||
+                boundary.getMinY() < clipMinY ||
+                boundary.getMaxY() > clipMaxY;
+    }
+
     private void strokePolygon(final GraphicsContext c, final int numPoints) {
         metric.getStrokePolygon().increment();
+        metric.getVerticesOut().increment(numPoints);
         c.strokePolygon(mapVariables.getXBuf(), mapVariables.getYBuf(), numPoints);
     }
 
     private void fillPolygon(final GraphicsContext c, final int numPoints) {
         metric.getFillPolygon().increment();
+        metric.getVerticesOut().increment(numPoints);
         c.fillPolygon(mapVariables.getXBuf(), mapVariables.getYBuf(), numPoints);
     }
 
+    /**
+     * Draws the rings in the buffer as a single path, filled even-odd so the holes stay empty.
+     */
+    private void drawRings(final GraphicsContext c, final boolean close, final boolean fill) {
+        final double[] xs = mapVariables.getXBuf();
+        final double[] ys = mapVariables.getYBuf();
+
+        c.beginPath();
+        for (int ring = 0; ring < rings; ring++) {
+            final int start = ringStarts[ring];
+            final int end = ringStarts[ring + 1];
+
+            c.moveTo(xs[start], ys[start]);
+            for (int i = start + 1; i < end; i++) {
+                c.lineTo(xs[i], ys[i]);
+            }
+            if (close) {
+                c.closePath();
+            }
+        }
+
+        metric.getVerticesOut().increment(ringStarts[rings]);
+
+        if (fill) {
+            metric.getFillPolygon().increment();
+            c.setFillRule(FillRule.EVEN_ODD);
+            c.fill();
+            c.setFillRule(FillRule.NON_ZERO);
+        } else if (close) {
+            metric.getStrokePolygon().increment();
+            c.stroke();
+        } else {
+            metric.getStrokePolyline().increment();
+            c.stroke();
+        }
+    }
+
     private void strokePolyline(final GraphicsContext c, final int numPoints) {
         metric.getStrokePolyline().increment();
+        metric.getVerticesOut().increment(numPoints);
         c.strokePolyline(mapVariables.getXBuf(), mapVariables.getYBuf(), numPoints);
     }
 
-    private int writePolylineToBuffer(final Point2D[] polyline, final double offsetX) {
-        double lastX = polyline[0].getX();
+    private void writePolylineToBuffer(final double[] xs, final double[] ys, final int n, final double offsetX) {
+        metric.getVerticesIn().increment(n);
+
+        double lastX = xs[0];
 
         double offset = 0;
 
-        for (int i = 0; i < polyline.length; i++) {
-            final Point2D p = polyline[i];
-            final double curX = p.getX();
+        for (int i = 0; i < n; i++) {
+            final double curX = xs[i];
             if (Math.abs(curX - lastX) >= 180) {
                 if (curX < 0) {
                     offset += 360;
@@ -148,46 +284,88 @@ public class PainterHelper {
                 }
             }
 
-            final double x = mapVariables.toCanvasX(p.getX() + offsetX + offset);
-            final double y = mapVariables.toCanvasY(p.getY());
+            final double x = mapVariables.toCanvasX(curX + offsetX + offset);
+            final double y = mapVariables.toCanvasY(ys[i]);
             mapVariables.setBuf(i, x, y);
             lastX = curX;
         }
-        return polyline.length;
     }
 
-    private int writePolygonToBuffer(final Polygon polygon, final double offsetX) {
-        int numPoints = writeRingToBuffer(polygon.getExteriorRing(), offsetX, 0);
+    /**
+     * Writes the exterior ring followed by the holes that are still visible, see {@link #ringStarts}.
+     */
+    private int writePolygonToBuffer(final Polygon polygon, final double offsetX, final boolean clip) {
+        int numPoints = writeRingToBuffer(polygon.getExteriorRing(), offsetX, 0, clip);
 
-        final List<Polygon.Ring> holeRings = polygon.getHoleRings();
+        rings = 0;
 
-        for (final Polygon.Ring hole : holeRings) {
-            numPoints += writeRingToBuffer(hole, offsetX, numPoints);
+        if (numPoints == 0) {
+            return 0;
         }
 
-        for (int i = 0; i < holeRings.size() - 1; i++) {
-            final Polygon.Ring hole = holeRings.get(holeRings.size() - 2 - i);
-            mapVariables.setBuf(numPoints, mapVariables.toCanvasX(hole.getPointsX()[0] + offsetX), mapVariables.toCanvasY(hole
-                    .getPointsY()[0]));
-            numPoints += 1;
+        final List<Polygon.Ring> holeRings = polygon.getHoleRings();
+        if (holeRings.size() + 2 > ringStarts.length) {
+            ringStarts = new int[Math.max(holeRings.size() + 2, ringStarts.length * 2)];
         }
 
+        ringStarts[rings++] = 0;
+
+        for (int i = 0; i < holeRings.size(); i++) {
+            final int n = writeRingToBuffer(holeRings.get(i), offsetX, numPoints, clip);
+            if (n >= 3) {
+                ringStarts[rings++] = numPoints;
+                numPoints += n;
+            }
+        }
+
+        ringStarts[rings] = numPoints;
+
         return numPoints;
     }
 
-    private int writeRingToBuffer(final Polygon.Ring ring, final double offsetX, final int indexOffset) {
+    /**
+     * @param clip whether to clip the ring to the clip rectangle before projecting it, see {@link #updateClipBounds}
+     */
+    private int writeRingToBuffer(final Polygon.Ring ring, final double offsetX, final int indexOffset, final boolean clip) {
+        int n = ring.numPoints();
+
+        metric.getVerticesIn().increment(n);
+
+        double[] xs;
+        double[] ys;
+
+        if (ring.isCompact()) {
+            if (n > ringX.length) {
+                final int length = Math.max(n, ringX.length * 2);
+                ringX = new double[length];
+                ringY = new double[length];
+            }
+            ring.copyPoints(ringX, ringY);
+            xs = ringX;
+            ys = ringY;
+        } else {
+            xs = ring.getPointsX();
+            ys = ring.getPointsY();
+        }
+
+        if (clip) {
+            n = clipper.clip(xs, ys, n, clipMinX, clipMinY, clipMaxX, clipMaxY);
+            xs = clipper.getXs();
+            ys = clipper.getYs();
+        }
+
         double lastDrawnX = Double.MAX_VALUE;
         double lastDrawnY = Double.MAX_VALUE;
 
         int numPoints = 0;
 
-        for (int i = 0; i < ring.numPoints(); i++) {
-            final double x = mapVariables.toCanvasX(ring.getPointsX()[i] + offsetX);
-            final double y = mapVariables.toCanvasY(ring.getPointsY()[i]);
+        for (int i = 0; i < n; i++) {
+            final double x = mapVariables.toCanvasX(xs[i] + offsetX);
+            final double y = mapVariables.toCanvasY(ys[i]);
 
             final double squareDistance = GeomUtil.squareDistance(lastDrawnX, lastDrawnY, x, y);
 
-            if (i == 0 || i == ring.numPoints() - 1 || squareDistance > MIN_SQUARE_DISTANCE) {
+            if (i == 0 || i == n - 1 || squareDistance > MIN_SQUARE_DISTANCE) {
                 mapVariables.setBuf(indexOffset + numPoints, x, y);
 
                 numPoints += 1;
@@ -200,16 +378,6 @@ public class PainterHelper {
         return numPoints;
     }
 
-    private static Rectangle2D shiftedBounds(final Polygon polygon, final double offsetX) {
-        final Rectangle2D boundary = polygon.boundary();
-        return new Rectangle2D(
-                boundary.getMinX() + offsetX,
-                boundary.getMinY(),
-                boundary.getWidth(),
-                boundary.getHeight()
-        );
-    }
-
     public void setPixel(final GraphicsContext c, final Color color, final int x, final int y) {
         final int actualX;
 
@@ -244,10 +412,10 @@ public class PainterHelper {
 
         if (background) {
             c.setTextBaseline(baseline);
-            final FontMetrics fm = Toolkit.getToolkit().getFontLoader().getFontMetrics(c.getFont());
+            final FontMetrics fm = fontMetrics(c.getFont());
 
             c.setFill(backgroundColor);
-            final int width = (int) Math.round(text.chars().mapToDouble(e -> fm.getCharWidth((char) e)).sum());
+            final int width = (int) Math.round(textWidth(fm, text));
             final int height = Math.round(fm.getLineHeight());
 
             final double baselineOffset = switch (baseline) {
@@ -277,6 +445,23 @@ public class PainterHelper {
         fillText(c, text, _x, _y);
     }
 
+    private FontMetrics fontMetrics(final Font font) {
+        if (font != metricsFont) {
+            metricsFont = font;
+            fontMetrics = Toolkit.getToolkit().getFontLoader().getFontMetrics(font);
+        }
+
+        return fontMetrics;
+    }
+
+    private static double textWidth(final FontMetrics fm, final String text) {
+        double result = 0;
+        for (int i = 0; i < text.length(); i++) {
+            result += fm.getCharWidth(text.charAt(i));
+        }
+        return result;
+    }
+
     public void fillText(final GraphicsContext c, final String text, final double x, final double y) {
         // TODO temporary fix
         if (!mapVariables.isRectIntersectingCanvasView(x - 150, y - 150, 300, 300)) {
@@ -323,6 +508,16 @@ public class PainterHelper {
         c.strokeRect(x, y, w, h);
     }
 
+    public void drawImage(final GraphicsContext c, final Image image, final double x, final double y) {
+        metric.getDrawImage().increment();
+        c.drawImage(image, x, y);
+    }
+
+    public void drawImage(final GraphicsContext c, final Image image, final double x, final double y, final double w, final double h) {
+        metric.getDrawImage().increment();
+        c.drawImage(image, x, y, w, h);
+    }
+
     public void fillRect(final GraphicsContext c, final double x, final double y, final double w, final double h) {
         if (!mapVariables.isRectIntersectingCanvasView(x, y, w, h)) {
             return;
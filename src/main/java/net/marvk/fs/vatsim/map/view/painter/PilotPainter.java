@@ -7,7 +7,9 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.TextAlignment;
 import net.marvk.fs.vatsim.map.data.Eta;
 import net.marvk.fs.vatsim.map.data.Pilot;
+import net.marvk.fs.vatsim.map.data.RenderSnapshot;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
+import net.marvk.fs.vatsim.map.view.map.PilotMotion;
 
 public class PilotPainter extends MapPainter<Pilot> {
     private static final int HEAD_SPEED_THRESHOLD = 5;
@@ -51,24 +53,59 @@ public class PilotPainter extends MapPainter<Pilot> {
     @Parameter(value = "Head/Tail length scaled with speed")
     private boolean headTailScaledWithSpeed = true;
 
+    @Parameter("Point Markers")
+    private boolean pointMarkers = true;
+
+    @Parameter(value = "Point Markers Below Scale", min = 1)
+    private double pointMarkersScale = 3;
+
     private final TextAngleResolver textAngleResolver = new TextAngleResolver();
 
-    public PilotPainter(final MapVariables mapVariables, final Color labelColor, final Color backgroundColor) {
+    /**
+     * Extrapolates the positions between reloads, reported positions are painted if {@code null}.
+     */
+    private final PilotMotion motion;
+
+    private double longitude;
+    private double latitude;
+    private double heading;
+    private double groundSpeed;
+    private String callsign;
+
+    private final double[] tailDashes = new double[2];
+
+    private final PointRaster pointRaster = new PointRaster();
+
+    /**
+     * Whether this frame only writes markers to the {@link #pointRaster}, only set between {@link #beforeAllRender()}
+     * and {@link #afterAllRender()} so painters painting single pilots are not affected.
+     */
+    private boolean points = false;
+    private int pointColor;
+    /**
+     * Context of the pilots painted as points, the raster is drawn onto it once all pilots were written.
+     */
+    private GraphicsContext pointContext;
+
+    public PilotPainter(final MapVariables mapVariables, final Color labelColor, final Color backgroundColor, final PilotMotion motion) {
         super(mapVariables);
         this.labelColor = labelColor;
         this.backgroundColor = backgroundColor;
         this.paintBackground = true;
+        this.motion = motion;
     }
 
-    public PilotPainter(final MapVariables mapVariables, final Color labelColor, final boolean paintBackground) {
+    public PilotPainter(final MapVariables mapVariables, final Color labelColor, final boolean paintBackground, final PilotMotion motion) {
         super(mapVariables);
         this.labelColor = labelColor;
         this.paintBackground = paintBackground;
+        this.motion = motion;
         setBackgroundColor();
     }
 
-    public PilotPainter(final MapVariables mapVariables) {
+    public PilotPainter(final MapVariables mapVariables, final PilotMotion motion) {
         super(mapVariables);
+        this.motion = motion;
         setBackgroundColor();
     }
 
@@ -76,42 +113,142 @@ public class PilotPainter extends MapPainter<Pilot> {
         backgroundColor = labelColor.deriveColor(0, 1, 0.5, 1);
     }
 
+    /**
+     * Switches to point markers below the configured scale, where heads, tails and labels are barely visible and
+     * thousands of pilots would otherwise cost several draw calls each.
+     */
+    @Override
+    public void beforeAllRender() {
+        points = pointMarkers && mapVariables.getScale() < pointMarkersScale;
+
+        if (points) {
+            pointRaster.begin((int) Math.ceil(mapVariables.getViewWidth()), (int) Math.ceil(mapVariables.getViewHeight()));
+            pointColor = PointRaster.argb(labelColor);
+        }
+    }
+
+    @Override
+    public void afterAllRender() {
+        if (points && pointContext != null) {
+            painterHelper.drawImage(pointContext, pointRaster.finish(), 0, 0);
+        }
+
+        points = false;
+        pointContext = null;
+    }
+
     @Override
     public void paint(final GraphicsContext c, final Pilot pilot) {
-        if (pilot.getEta().is(Eta.Status.GROUND) && !onGround) {
+        final RenderSnapshot snapshot = mapVariables.getRenderSnapshot();
+        final int index = snapshot.pilotIndex(pilot);
+
+        final boolean painted = index < 0 ? load(pilot) : load(pilot, snapshot, index);
+        if (!painted) {
             return;
         }
 
-        final Point2D position = pilot.getPosition();
+        final double centerX = mapVariables.toCanvasX(longitude);
+
+        if (points) {
+            pointContext = c;
+
+            if (centerX - MULTI_DRAW_BOUND < 0) {
+                drawPoint(360);
+            }
+
+            if (centerX + MULTI_DRAW_BOUND > mapVariables.getViewWidth()) {
+                drawPoint(-360);
+            }
 
-        final double centerX = mapVariables.toCanvasX(position.getX());
+            drawPoint(0);
+            return;
+        }
 
         if (centerX - MULTI_DRAW_BOUND < 0) {
-            draw(c, pilot, 360);
+            draw(c, 360);
         }
 
         if (centerX + MULTI_DRAW_BOUND > mapVariables.getViewWidth()) {
-            draw(c, pilot, -360);
+            draw(c, -360);
+        }
+
+        draw(c, 0);
+    }
+
+    /**
+     * Writes the same pixels as the rectangle stroked by {@link #draw}.
+     */
+    private void drawPoint(final int xOffset) {
+        final int x = (int) mapVariables.toCanvasX(longitude + xOffset);
+        final int y = (int) mapVariables.toCanvasY(latitude);
+
+        pointRaster.strokeSquare(x - 2, y - 2, RECT_SIZE + 1, pointColor);
+    }
+
+    /**
+     * Loads a pilot that is not part of the render snapshot from its live properties.
+     *
+     * @return false if the pilot is not painted
+     */
+    private boolean load(final Pilot pilot) {
+        if (pilot.getEta().is(Eta.Status.GROUND) && !onGround) {
+            return false;
         }
 
-        draw(c, pilot, 0);
+        heading = pilot.getHeading();
+        groundSpeed = pilot.getGroundSpeed();
+        callsign = pilot.getCallsign();
+
+        if (motion == null) {
+            final Point2D position = pilot.getPosition();
+            longitude = position.getX();
+            latitude = position.getY();
+        } else {
+            final PilotMotion.Track track = motion.resolve(pilot);
+            longitude = track.getLongitude();
+            latitude = track.getLatitude();
+        }
+
+        return true;
     }
 
-    private void draw(final GraphicsContext c, final Pilot pilot, final int xOffset) {
-        final Point2D point = pilot.getPosition();
+    /**
+     * @return false if the pilot is not painted
+     */
+    private boolean load(final Pilot pilot, final RenderSnapshot snapshot, final int index) {
+        if (snapshot.isPilotOnGround(index) && !onGround) {
+            return false;
+        }
+
+        heading = snapshot.pilotHeading(index);
+        groundSpeed = snapshot.pilotGroundSpeed(index);
+        callsign = snapshot.pilotCallsign(index);
+
+        final Point2D position = snapshot.pilotPosition(index);
+        if (motion == null) {
+            longitude = position.getX();
+            latitude = position.getY();
+        } else {
+            final PilotMotion.Track track = motion.resolve(pilot, position, heading, groundSpeed, snapshot.pilotLastUpdated(index));
+            longitude = track.getLongitude();
+            latitude = track.getLatitude();
+        }
+
+        return true;
+    }
 
-        final double x = mapVariables.toCanvasX(point.getX() + xOffset);
-        final double y = mapVariables.toCanvasY(point.getY());
+    private void draw(final GraphicsContext c, final int xOffset) {
+        final double x = mapVariables.toCanvasX(longitude + xOffset);
+        final double y = mapVariables.toCanvasY(latitude);
 
-        c.setLineDashes();
+        c.setLineDashes(null);
         c.setStroke(labelColor);
         c.setFill(labelColor);
         c.setLineWidth(1);
         painterHelper.strokeRect(c, (int) x - 1.5, (int) y - 1.5, RECT_SIZE, RECT_SIZE);
-        final double heading = pilot.getHeading();
 
-        if ((head || tail) && pilot.getGroundSpeed() > HEAD_SPEED_THRESHOLD) {
-            final double speedScale = speedScale(pilot);
+        if ((head || tail) && groundSpeed > HEAD_SPEED_THRESHOLD) {
+            final double speedScale = speedScale();
             final double actualHeadLength = getActualHeadLength(this.headLength, speedScale);
             final double actualTailLength = getActualHeadLength(this.tailLength, speedScale);
 
@@ -119,9 +256,11 @@ public class PilotPainter extends MapPainter<Pilot> {
                 paintLine(c, x, y, heading, actualHeadLength);
             }
 
-            if (tail && pilot.getGroundSpeed() > TAIL_SPEED_THRESHOLD && actualTailLength > 0) {
+            if (tail && groundSpeed > TAIL_SPEED_THRESHOLD && actualTailLength > 0) {
                 final double scale = mapVariables.getScale() / 64.;
-                c.setLineDashes((double) 1 / 16 * scale, 1 * scale);
+                tailDashes[0] = (double) 1 / 16 * scale;
+                tailDashes[1] = 1 * scale;
+                c.setLineDashes(tailDashes);
                 c.setLineWidth(Math.min(1, (1.0 / 8) * scale));
                 paintLine(c, x, y, 180 + heading, actualTailLength);
             }
@@ -141,7 +280,7 @@ public class PilotPainter extends MapPainter<Pilot> {
                     c,
                     (int) (x + xShift),
                     (int) (y + yShift),
-                    pilot.getCallsign(),
+                    callsign,
                     paintBackground,
                     hPos,
                     vPos,
@@ -151,12 +290,12 @@ public class PilotPainter extends MapPainter<Pilot> {
         }
     }
 
-    private double speedScale(final Pilot pilot) {
+    private double speedScale() {
         if (headTailScaledWithSpeed) {
-            if (pilot.getGroundSpeed() < SPEED_THRESHOLD) {
+            if (groundSpeed < SPEED_THRESHOLD) {
                 return 0;
             }
-            return pilot.getGroundSpeed() / MAX_SPEED;
+            return groundSpeed / MAX_SPEED;
         }
         return 1;
     }
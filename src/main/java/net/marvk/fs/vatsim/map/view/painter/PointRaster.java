@@ -0,0 +1,202 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.util.Callback;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Square point markers written straight into the {@link IntBuffer} of a {@link PixelBuffer}, so any number of
+ * markers is shown with a single image.
+ * <p>
+ * Markers overwrite each other instead of blending. Only the pixels of the markers of the previous frame are cleared,
+ * so the cost of a frame depends on the number of markers and not on the size of the view. Likewise, only the bounds of
+ * the cleared and the new markers are reported as dirty, so the upload of the image shrinks with the markers.
+ */
+final class PointRaster {
+    private int width;
+    private int height;
+
+    private IntBuffer pixels;
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private WritableImage image;
+
+    /**
+     * Top left corner and size of every marker written since the last {@link #begin}.
+     */
+    private int[] markers = new int[3 * 256];
+    private int numMarkers;
+
+    /**
+     * Bounds of the markers written since the last {@link #begin}, clipped to the image, max exclusive.
+     */
+    private final Bounds written = new Bounds();
+    /**
+     * Bounds of the pixels cleared by the last {@link #begin}.
+     */
+    private final Bounds cleared = new Bounds();
+
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> dirtyRegionCallback = pixelBuffer -> dirtyRegion();
+
+    /**
+     * Clears the markers of the last frame, reallocating the buffer if the size of the view changed.
+     */
+    void begin(final int width, final int height) {
+        if (width != this.width || height != this.height || image == null) {
+            this.width = Math.max(1, width);
+            this.height = Math.max(1, height);
+
+            pixels = ByteBuffer
+                    .allocateDirect(4 * this.width * this.height)
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+            pixelBuffer = new PixelBuffer<>(this.width, this.height, pixels, PixelFormat.getIntArgbPreInstance());
+            image = new WritableImage(pixelBuffer);
+
+            cleared.set(0, 0, this.width, this.height);
+        } else {
+            for (int i = 0; i < numMarkers; i++) {
+                fill(markers[3 * i], markers[3 * i + 1], markers[3 * i + 2], 0);
+            }
+
+            cleared.set(written);
+        }
+
+        numMarkers = 0;
+        written.reset();
+    }
+
+    /**
+     * Writes the outline of a square with the top left corner at {@code x}, {@code y}, clipped to the image.
+     *
+     * @param argb premultiplied color, see {@link #argb(Color)}
+     */
+    void strokeSquare(final int x, final int y, final int size, final int argb) {
+        if (x >= width || y >= height || x + size <= 0 || y + size <= 0) {
+            return;
+        }
+
+        if (3 * numMarkers == markers.length) {
+            final int[] grown = new int[2 * markers.length];
+            System.arraycopy(markers, 0, grown, 0, markers.length);
+            markers = grown;
+        }
+        markers[3 * numMarkers] = x;
+        markers[3 * numMarkers + 1] = y;
+        markers[3 * numMarkers + 2] = size;
+        numMarkers += 1;
+
+        written.add(Math.max(0, x), Math.max(0, y), Math.min(width, x + size), Math.min(height, y + size));
+
+        final int last = size - 1;
+        for (int i = 0; i < size; i++) {
+            set(x + i, y, argb);
+            set(x + i, y + last, argb);
+            set(x, y + i, argb);
+            set(x + last, y + i, argb);
+        }
+    }
+
+    /**
+     * @return the image showing the markers written since the last {@link #begin}
+     */
+    WritableImage finish() {
+        pixelBuffer.updateBuffer(dirtyRegionCallback);
+        return image;
+    }
+
+    /**
+     * @return the union of the pixels cleared by the last {@link #begin} and the markers written since, or
+     * {@link Rectangle2D#EMPTY} if there are neither
+     */
+    Rectangle2D dirtyRegion() {
+        final int minX = Math.min(cleared.minX, written.minX);
+        final int minY = Math.min(cleared.minY, written.minY);
+        final int maxX = Math.max(cleared.maxX, written.maxX);
+        final int maxY = Math.max(cleared.maxY, written.maxY);
+
+        if (minX >= maxX || minY >= maxY) {
+            return Rectangle2D.EMPTY;
+        }
+
+        return new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    int getPixel(final int x, final int y) {
+        return pixels.get(y * width + x);
+    }
+
+    int getNumMarkers() {
+        return numMarkers;
+    }
+
+    private void fill(final int x, final int y, final int size, final int argb) {
+        for (int j = 0; j < size; j++) {
+            for (int i = 0; i < size; i++) {
+                set(x + i, y + j, argb);
+            }
+        }
+    }
+
+    private void set(final int x, final int y, final int argb) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            pixels.put(y * width + x, argb);
+        }
+    }
+
+    /**
+     * @return the color as premultiplied ARGB
+     */
+    static int argb(final Color color) {
+        final double opacity = color.getOpacity();
+
+        final int a = (int) Math.round(opacity * 255);
+        final int r = (int) Math.round(color.getRed() * opacity * 255);
+        final int g = (int) Math.round(color.getGreen() * opacity * 255);
+        final int b = (int) Math.round(color.getBlue() * opacity * 255);
+
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    private static final class Bounds {
+        private int minX;
+        private int minY;
+        private int maxX;
+        private int maxY;
+
+        private Bounds() {
+            reset();
+        }
+
+        private void reset() {
+            minX = Integer.MAX_VALUE;
+            minY = Integer.MAX_VALUE;
+            maxX = Integer.MIN_VALUE;
+            maxY = Integer.MIN_VALUE;
+        }
+
+        private void set(final int minX, final int minY, final int maxX, final int maxY) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        private void set(final Bounds other) {
+            set(other.minX, other.minY, other.maxX, other.maxY);
+        }
+
+        private void add(final int minX, final int minY, final int maxX, final int maxY) {
+            this.minX = Math.min(this.minX, minX);
+            this.minY = Math.min(this.minY, minY);
+            this.maxX = Math.max(this.maxX, maxX);
+            this.maxY = Math.max(this.maxY, maxY);
+        }
+    }
+}
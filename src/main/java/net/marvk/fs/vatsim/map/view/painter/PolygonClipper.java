@@ -0,0 +1,130 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+/**
+ * Sutherland-Hodgman clipping of closed rings against an axis aligned rectangle. The result replaces the parts of the
+ * ring outside the rectangle with segments on its border, so it fills and strokes the same inside the rectangle.
+ * <p>
+ * Buffers are reused between calls, the result is only valid until the next call.
+ */
+final class PolygonClipper {
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+    private static final int BOTTOM = 2;
+    private static final int TOP = 3;
+
+    private double[] xs = new double[64];
+    private double[] ys = new double[64];
+    private double[] scratchX = new double[64];
+    private double[] scratchY = new double[64];
+
+    /**
+     * Clips the first {@code n} points of the ring.
+     *
+     * @return the number of points of the clipped ring, see {@link #getXs()} and {@link #getYs()}
+     */
+    int clip(final double[] ringX, final double[] ringY, final int n, final double minX, final double minY, final double maxX, final double maxY) {
+        ensureCapacity(2 * n);
+        System.arraycopy(ringX, 0, xs, 0, n);
+        System.arraycopy(ringY, 0, ys, 0, n);
+
+        int result = n;
+        result = clip(result, LEFT, minX);
+        result = clip(result, RIGHT, maxX);
+        result = clip(result, BOTTOM, minY);
+        result = clip(result, TOP, maxY);
+        return result;
+    }
+
+    double[] getXs() {
+        return xs;
+    }
+
+    double[] getYs() {
+        return ys;
+    }
+
+    /**
+     * Clips the ring in {@link #xs} and {@link #ys} against one edge, leaving the result in the same arrays.
+     */
+    private int clip(final int n, final int edge, final double value) {
+        if (n == 0) {
+            return 0;
+        }
+
+        ensureCapacity(2 * n);
+
+        int m = 0;
+        double previousX = xs[n - 1];
+        double previousY = ys[n - 1];
+        boolean previousInside = isInside(edge, value, previousX, previousY);
+
+        for (int i = 0; i < n; i++) {
+            final double x = xs[i];
+            final double y = ys[i];
+            final boolean inside = isInside(edge, value, x, y);
+
+            if (inside != previousInside) {
+                if (edge == LEFT || edge == RIGHT) {
+                    scratchX[m] = value;
+                    scratchY[m] = previousY + (value - previousX) * (y - previousY) / (x - previousX);
+                } else {
+                    scratchX[m] = previousX + (value - previousY) * (x - previousX) / (y - previousY);
+                    scratchY[m] = value;
+                }
+                m += 1;
+            }
+
+            if (inside) {
+                scratchX[m] = x;
+                scratchY[m] = y;
+                m += 1;
+            }
+
+            previousX = x;
+            previousY = y;
+            previousInside = inside;
+        }
+
+        swap();
+
+        return m;
+    }
+
+    private static boolean isInside(final int edge, final double value, final double x, final double y) {
+        return switch (edge) {
+            case LEFT -> x >= value;
+            case RIGHT -> x <= value;
+            case BOTTOM -> y >= value;
+            default -> y <= value;
+        };
+    }
+
+    private void swap() {
+        final double[] x = xs;
+        final double[] y = ys;
+        xs = scratchX;
+        ys = scratchY;
+        scratchX = x;
+        scratchY = y;
+    }
+
+    private void ensureCapacity(final int n) {
+        if (n > scratchX.length) {
+            final int length = Math.max(n, scratchX.length * 2);
+            scratchX = new double[length];
+            scratchY = new double[length];
+        }
+
+        if (n > xs.length) {
+            final int length = Math.max(n, xs.length * 2);
+            xs = copyOf(xs, length);
+            ys = copyOf(ys, length);
+        }
+    }
+
+    private static double[] copyOf(final double[] array, final int length) {
+        final double[] result = new double[length];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+}
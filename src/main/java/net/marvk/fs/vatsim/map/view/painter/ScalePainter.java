@@ -14,6 +14,14 @@ public class ScalePainter extends MapPainter<Void> {
     @Parameter("Color")
     private Color color = Color.web("3b3526");
 
+    /**
+     * The label is only formatted when the rounded scale changes.
+     */
+    private int lastKind = -1;
+    private int lastMajor;
+    private int lastMinor;
+    private String lastLabel;
+
     public ScalePainter(final MapVariables mapVariables) {
         super(mapVariables);
     }
@@ -37,23 +45,46 @@ public class ScalePainter extends MapPainter<Void> {
         painterHelper.strokeLine(context, x1, y - 1, x1, y - LIMIT_LENGTH);
         painterHelper.strokeLine(context, x2, y - 1, x2, y - LIMIT_LENGTH);
 
-        final String s;
-
         final double degrees = degreesPerPixel * MAX_WIDTH;
+        final String s = label(degrees);
+
+        context.setTextAlign(TextAlignment.CENTER);
+        context.setTextBaseline(VPos.BOTTOM);
+        painterHelper.fillText(context, s, (x1 + x2) / 2.0, y - 5);
+    }
+
+    private String label(final double degrees) {
         final double arcminutes = degrees * 60;
         final double arcseconds = arcminutes * 60;
+
+        final int kind;
+        final int major;
+        final int minor;
         if (degrees >= 1) {
-            s = "%s°%s'".formatted((int) degrees, (int) (arcminutes % 60));
+            kind = 0;
+            major = (int) degrees;
+            minor = (int) (arcminutes % 60);
+        } else if (arcminutes >= 1) {
+            kind = 1;
+            major = (int) arcminutes;
+            minor = (int) (arcseconds % 60);
         } else {
-            if (arcminutes >= 1) {
-                s = "%s'%s\"".formatted((int) arcminutes, (int) (arcseconds % 60));
-            } else {
-                s = "%s.%s\"".formatted((int) arcseconds, (int) ((arcseconds * 60) % 60));
-            }
+            kind = 2;
+            major = (int) arcseconds;
+            minor = (int) ((arcseconds * 60) % 60);
         }
 
-        context.setTextAlign(TextAlignment.CENTER);
-        context.setTextBaseline(VPos.BOTTOM);
-        painterHelper.fillText(context, s, (x1 + x2) / 2.0, y - 5);
+        if (kind != lastKind || major != lastMajor || minor != lastMinor) {
+            lastKind = kind;
+            lastMajor = major;
+            lastMinor = minor;
+            lastLabel = switch (kind) {
+                case 0 -> "%s°%s'".formatted(major, minor);
+                case 1 -> "%s'%s\"".formatted(major, minor);
+                default -> "%s.%s\"".formatted(major, minor);
+            };
+        }
+
+        return lastLabel;
     }
 }
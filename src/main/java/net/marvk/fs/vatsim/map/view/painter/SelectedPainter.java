@@ -4,10 +4,10 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import net.marvk.fs.vatsim.map.data.*;
 import net.marvk.fs.vatsim.map.view.map.MapVariables;
+import net.marvk.fs.vatsim.map.view.map.PilotMotion;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.function.Consumer;
 
 public class SelectedPainter extends CompositeMapPainter<Data> {
     @MetaPainter("Pilot")
@@ -21,20 +21,27 @@ public class SelectedPainter extends CompositeMapPainter<Data> {
 
     private final PainterVisitor painterVisitor;
 
-    public SelectedPainter(final MapVariables mapVariables) {
-        this(mapVariables, Color.RED, false);
+    private GraphicsContext context;
+
+    public SelectedPainter(final MapVariables mapVariables, final PilotMotion motion) {
+        this(mapVariables, Color.RED, false, motion);
     }
 
-    public SelectedPainter(final MapVariables mapVariables, final Color color, final boolean backgrounds) {
+    public SelectedPainter(final MapVariables mapVariables, final Color color, final boolean backgrounds, final PilotMotion motion) {
         this.painterVisitor = new PainterVisitor();
         this.airportPainter = new AirportPainter(mapVariables, color, color, true, true, true);
-        this.pilotPainter = new PilotPainter(mapVariables, color, backgrounds);
+        this.pilotPainter = new PilotPainter(mapVariables, color, backgrounds, motion);
         this.firbPainter = new FirbPainter(mapVariables, color, 2.5, true, true, true);
     }
 
     @Override
     public void paint(final GraphicsContext context, final Data data) {
-        painterVisitor.visit(data).accept(context);
+        this.context = context;
+        try {
+            painterVisitor.visit(data);
+        } finally {
+            this.context = null;
+        }
     }
 
     @Override
@@ -42,35 +49,41 @@ public class SelectedPainter extends CompositeMapPainter<Data> {
         return List.of(firbPainter);
     }
 
-    private class PainterVisitor extends DefaultingDataVisitor<Consumer<GraphicsContext>> {
+    /**
+     * Paints to {@link #context}, returns whether anything was visited.
+     */
+    private class PainterVisitor extends DefaultingDataVisitor<Boolean> {
         public PainterVisitor() {
-            super(c -> {
-            });
+            super(false);
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final UpperInformationRegion upperInformationRegion) {
-            return c -> firbPainter.paint(c, upperInformationRegion.getFlightInformationRegionBoundaries());
+        public Boolean visit(final UpperInformationRegion upperInformationRegion) {
+            firbPainter.paint(context, upperInformationRegion.getFlightInformationRegionBoundaries());
+            return true;
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final Airport airport) {
-            return c -> airportPainter.paint(c, airport);
+        public Boolean visit(final Airport airport) {
+            airportPainter.paint(context, airport);
+            return true;
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final FlightInformationRegionBoundary flightInformationRegionBoundary) {
-            return c -> firbPainter.paint(c, flightInformationRegionBoundary);
+        public Boolean visit(final FlightInformationRegionBoundary flightInformationRegionBoundary) {
+            firbPainter.paint(context, flightInformationRegionBoundary);
+            return true;
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final Pilot pilot) {
-            return c -> pilotPainter.paint(c, pilot);
+        public Boolean visit(final Pilot pilot) {
+            pilotPainter.paint(context, pilot);
+            return true;
         }
 
         @Override
-        public Consumer<GraphicsContext> visit(final Controller controller) {
-            return c -> visit(controller.getWorkingLocation());
+        public Boolean visit(final Controller controller) {
+            return visit(controller.getWorkingLocation());
         }
     }
 }
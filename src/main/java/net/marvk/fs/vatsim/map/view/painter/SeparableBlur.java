@@ -0,0 +1,75 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+/**
+ * Gaussian blur of a grid, applied as a horizontal and a vertical pass with the same one dimensional kernel. Rows
+ * wrap around like longitudes, columns are clamped at the poles.
+ * <p>
+ * Buffers are reused between calls.
+ */
+final class SeparableBlur {
+    private int radius = -1;
+    private float[] kernel = new float[0];
+    private float[] scratch = new float[0];
+
+    /**
+     * Blurs the grid in place.
+     */
+    void blur(final float[] values, final int columns, final int rows, final int radius) {
+        if (radius <= 0) {
+            return;
+        }
+
+        if (radius != this.radius) {
+            this.radius = radius;
+            this.kernel = kernel(radius);
+        }
+
+        if (scratch.length < values.length) {
+            scratch = new float[values.length];
+        }
+
+        for (int row = 0; row < rows; row++) {
+            final int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                float sum = 0;
+                for (int k = -radius; k <= radius; k++) {
+                    final int c = Math.floorMod(column + k, columns);
+                    sum += kernel[k + radius] * values[offset + c];
+                }
+                scratch[offset + column] = sum;
+            }
+        }
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                float sum = 0;
+                for (int k = -radius; k <= radius; k++) {
+                    final int r = Math.min(Math.max(row + k, 0), rows - 1);
+                    sum += kernel[k + radius] * scratch[r * columns + column];
+                }
+                values[row * columns + column] = sum;
+            }
+        }
+    }
+
+    /**
+     * @return normalized weights of a gaussian with the standard deviation of half the radius
+     */
+    private static float[] kernel(final int radius) {
+        final float[] result = new float[2 * radius + 1];
+        final double sigma = Math.max(0.5, radius / 2.0);
+
+        double sum = 0;
+        for (int i = -radius; i <= radius; i++) {
+            final double weight = Math.exp(-(i * i) / (2 * sigma * sigma));
+            result[i + radius] = (float) weight;
+            sum += weight;
+        }
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] /= sum;
+        }
+
+        return result;
+    }
+}
@@ -13,10 +13,13 @@ public class UirPainter extends CompositeMapPainter<UpperInformationRegion> {
     @MetaPainter("FIR")
     private final FirbPainter firbPainter;
 
+    private final MapVariables mapVariables;
+
     @Parameter("Paint FIRs with FIR controller")
     private final boolean paintFirControlled;
 
     public UirPainter(final MapVariables mapVariables, final Color color, final boolean paintFirControlled) {
+        this.mapVariables = mapVariables;
         this.firbPainter = new FirbPainter(
                 mapVariables,
                 color,
@@ -37,7 +40,7 @@ public class UirPainter extends CompositeMapPainter<UpperInformationRegion> {
     @Override
     public void paint(final GraphicsContext c, final UpperInformationRegion uir) {
         for (final FlightInformationRegionBoundary firb : uir.getFlightInformationRegionBoundaries()) {
-            if ((!firb.hasFirControllers() || paintFirControlled)) {
+            if (paintFirControlled || !mapVariables.getRenderSnapshot().hasFirControllers(firb)) {
                 firbPainter.paint(c, firb);
             }
         }
@@ -0,0 +1,252 @@
+package net.marvk.fs.vatsim.map.view.preferences;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import javafx.beans.property.Property;
+import javafx.collections.ListChangeListener;
+import javafx.scene.paint.Color;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import net.marvk.fs.vatsim.map.data.Preferences;
+import net.marvk.fs.vatsim.map.view.Notifications;
+import net.marvk.fs.vatsim.map.view.SettingsScope;
+import net.marvk.fs.vatsim.map.view.painter.Group;
+import net.marvk.fs.vatsim.map.view.painter.MetaPainter;
+import net.marvk.fs.vatsim.map.view.painter.Painter;
+import net.marvk.fs.vatsim.map.view.painter.PainterExecutor;
+import net.marvk.fs.vatsim.map.view.painter.Parameter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Binds the {@link Parameter} fields of all painters to their preferences as soon as the painters are registered, so
+ * the preferences dialog itself can be built lazily.
+ * <p>
+ * The annotated fields of every painter class are resolved once into {@link VarHandle} accessors, painting and
+ * preference changes never go through reflection.
+ */
+@Log4j2
+@Singleton
+public class PainterParameters {
+    private static final ClassValue<List<Entry>> ENTRIES = new ClassValue<>() {
+        @Override
+        protected List<Entry> computeValue(final Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    private final Preferences preferences;
+    private final Map<PainterExecutor<?>, List<ParameterGroup>> groups = new IdentityHashMap<>();
+
+    @Inject
+    public PainterParameters(final Preferences preferences, final SettingsScope settingsScope) {
+        this.preferences = preferences;
+
+        settingsScope.getPainters().forEach(this::bind);
+        settingsScope.getPainters().addListener((ListChangeListener<PainterExecutor<?>>) c -> {
+            while (c.next()) {
+                c.getAddedSubList().forEach(this::bind);
+            }
+        });
+    }
+
+    /**
+     * @return the parameter groups of the painter, in declaration order, with meta painters last
+     */
+    public List<ParameterGroup> groups(final PainterExecutor<?> executor) {
+        return groups.getOrDefault(executor, Collections.emptyList());
+    }
+
+    private void bind(final PainterExecutor<?> executor) {
+        groups.computeIfAbsent(executor, e -> bind(e, e.getPainter(), e.getName()));
+    }
+
+    private List<ParameterGroup> bind(final PainterExecutor<?> executor, final Painter<?> painter, final String prefix) {
+        final List<Entry> entries = ENTRIES.get(painter.getClass());
+
+        final List<ParameterGroup> result = new ArrayList<>();
+
+        String currentGroup = prefix;
+        List<BoundParameter> parameters = new ArrayList<>();
+
+        for (final Entry entry : entries) {
+            if (entry.group != null) {
+                if (!parameters.isEmpty()) {
+                    result.add(new ParameterGroup(currentGroup, parameters));
+                    parameters = new ArrayList<>();
+                }
+                currentGroup = entry.group;
+            }
+
+            if (entry.parameter != null) {
+                final BoundParameter parameter = bind(executor, painter, entry, prefix);
+                if (parameter != null) {
+                    parameters.add(parameter);
+                }
+            }
+        }
+
+        if (!parameters.isEmpty()) {
+            result.add(new ParameterGroup(currentGroup, parameters));
+        }
+
+        for (final Entry entry : entries) {
+            if (entry.metaPainter != null) {
+                final Painter<?> metaPainter = (Painter<?>) entry.handle.get(painter);
+                result.addAll(bind(executor, metaPainter, prefix + "." + entry.metaPainter));
+            }
+        }
+
+        return result;
+    }
+
+    private BoundParameter bind(final PainterExecutor<?> executor, final Painter<?> painter, final Entry entry, final String prefix) {
+        final Parameter parameter = entry.parameter;
+
+        final String name = parameter.value();
+        final String bindToKey = parameter.bind();
+        final boolean enabled = !parameter.disabled();
+        final boolean visible = parameter.visible() && enabled;
+        final boolean bind = !bindToKey.isBlank() && enabled;
+        final String key = key(prefix, name);
+
+        final Type type = Type.of(entry.fieldType);
+
+        if (type == null) {
+            log.warn("Unsupported parameter type %s of \"%s\"".formatted(entry.fieldType, key));
+            return null;
+        }
+
+        final Property<?> property = type.property(preferences, key, entry.handle.get(painter));
+        property.addListener((observable, oldValue, newValue) -> set(executor, entry.handle, painter, newValue));
+        set(executor, entry.handle, painter, property.getValue());
+
+        if (bind) {
+            bindUnchecked(property, type.property(preferences, bindToKey, null));
+        }
+
+        if (!visible) {
+            return null;
+        }
+
+        return new BoundParameter(name, key, type, parameter.min(), parameter.max(), property);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void bindUnchecked(final Property<T> property, final Property<?> other) {
+        property.bind((Property<T>) other);
+    }
+
+    private static void set(final PainterExecutor<?> executor, final VarHandle handle, final Painter<?> painter, final Object value) {
+        handle.set(painter, value);
+        Notifications.REPAINT_PAINTER.publish(executor);
+    }
+
+    private static List<Entry> scan(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+
+        Class<?> clazz = type;
+        while (clazz != Object.class) {
+            final Field[] declaredFields = clazz.getDeclaredFields();
+            for (int i = 0; i < declaredFields.length; i++) {
+                fields.add(i, declaredFields[i]);
+            }
+            clazz = clazz.getSuperclass();
+        }
+
+        return fields
+                .stream()
+                .filter(e -> e.isAnnotationPresent(Group.class) || e.isAnnotationPresent(Parameter.class) || e.isAnnotationPresent(MetaPainter.class))
+                .map(PainterParameters::entry)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static Entry entry(final Field field) {
+        try {
+            final VarHandle handle = MethodHandles
+                    .privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectVarHandle(field);
+
+            final Group group = field.getAnnotation(Group.class);
+            final MetaPainter metaPainter = field.getAnnotation(MetaPainter.class);
+
+            return new Entry(
+                    group == null ? null : group.value(),
+                    field.getAnnotation(Parameter.class),
+                    metaPainter == null ? null : metaPainter.value(),
+                    field.getType(),
+                    handle
+            );
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException("Failed to access painter parameter " + field, e);
+        }
+    }
+
+    private static String key(final String... keys) {
+        return Arrays
+                .stream(keys)
+                .map(e -> e.toLowerCase(Locale.ROOT))
+                .map(e -> e.replaceAll("\\s", "_"))
+                .map(e -> e.replaceAll("[^A-Za-z0-9._]", ""))
+                .collect(Collectors.joining("."));
+    }
+
+    public enum Type {
+        COLOR,
+        INTEGER,
+        DOUBLE,
+        BOOLEAN;
+
+        private static Type of(final Class<?> fieldType) {
+            if (Color.class.isAssignableFrom(fieldType)) {
+                return COLOR;
+            } else if (int.class == fieldType) {
+                return INTEGER;
+            } else if (double.class == fieldType) {
+                return DOUBLE;
+            } else if (boolean.class == fieldType) {
+                return BOOLEAN;
+            }
+
+            return null;
+        }
+
+        private Property<?> property(final Preferences preferences, final String key, final Object initialValue) {
+            return switch (this) {
+                case COLOR -> initialValue == null ? preferences.colorProperty(key) : preferences.colorProperty(key, (Color) initialValue);
+                case INTEGER -> initialValue == null ? preferences.integerProperty(key) : preferences.integerProperty(key, (int) initialValue);
+                case DOUBLE -> initialValue == null ? preferences.doubleProperty(key) : preferences.doubleProperty(key, (double) initialValue);
+                case BOOLEAN -> initialValue == null ? preferences.booleanProperty(key) : preferences.booleanProperty(key, (boolean) initialValue);
+            };
+        }
+    }
+
+    @Value
+    public static class ParameterGroup {
+        String name;
+        List<BoundParameter> parameters;
+    }
+
+    @Value
+    public static class BoundParameter {
+        String name;
+        String key;
+        Type type;
+        double min;
+        double max;
+        Property<?> property;
+    }
+
+    @Value
+    private static class Entry {
+        String group;
+        Parameter parameter;
+        String metaPainter;
+        Class<?> fieldType;
+        VarHandle handle;
+    }
+}
@@ -11,33 +11,25 @@ import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 import de.saxsys.mvvmfx.FluentViewLoader;
 import javafx.beans.property.*;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.paint.Color;
-import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.App;
 import net.marvk.fs.vatsim.map.data.Preferences;
-import net.marvk.fs.vatsim.map.view.Notifications;
 import net.marvk.fs.vatsim.map.view.SettingsScope;
-import net.marvk.fs.vatsim.map.view.painter.MetaPainter;
-import net.marvk.fs.vatsim.map.view.painter.Painter;
 import net.marvk.fs.vatsim.map.view.painter.PainterExecutor;
-import net.marvk.fs.vatsim.map.view.painter.Parameter;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.kordamp.ikonli.octicons.Octicons;
 
 import java.awt.*;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Singleton
 @Log4j2
@@ -46,17 +38,36 @@ public class PreferencesView {
     private static final String WARNING_STYLE = "-fx-text-fill: darkred; -fx-font-weight: bold; -fx-font-size: 10;";
     private final Preferences preferences;
     private final SettingsScope settingsScope;
+    private final PainterParameters painterParameters;
     private final Path configDirectory;
     private PreferencesFx preferencesFx;
 
     @Inject
-    public PreferencesView(final Preferences preferences, final SettingsScope settingsScope, @Named("userConfigDir") final Path configDirectory) {
+    public PreferencesView(
+            final Preferences preferences,
+            final SettingsScope settingsScope,
+            final PainterParameters painterParameters,
+            @Named("userConfigDir") final Path configDirectory
+    ) {
         this.preferences = preferences;
         this.settingsScope = settingsScope;
+        this.painterParameters = painterParameters;
         this.configDirectory = configDirectory;
-        this.settingsScope.getPainters()
-                          .addListener((ListChangeListener<PainterExecutor<?>>) c -> getPreferencesDialog());
 
+        setupDebug();
+    }
+
+    /**
+     * Runs at startup, the dialog itself is only built when it is first shown.
+     */
+    private void setupDebug() {
+        final BooleanProperty debug = preferences.booleanProperty("general.debug");
+        debug.addListener((observable, oldValue, newValue) -> {
+            if (!newValue) {
+                preferences.booleanProperty("metrics.enabled").set(false);
+            }
+        });
+        debug.set(true);
     }
 
     public void show() {
@@ -71,7 +82,6 @@ public class PreferencesView {
         return preferencesFx;
     }
 
-    @SneakyThrows
     private PreferencesFx createPreferencesDialog() {
         return PreferencesFx.of(
                 App.class,
@@ -135,6 +145,8 @@ public class PreferencesView {
         final IntegerProperty uiFontSize = preferences.integerProperty("general.font_size");
         final IntegerProperty property = preferences.integerProperty("general.map_font_size");
         final DoubleProperty scrollSpeed = preferences.doubleProperty("general.scroll_speed");
+        final BooleanProperty smoothMotion = preferences.booleanProperty("general.smooth_motion");
+        final IntegerProperty motionFrameRate = preferences.integerProperty("general.motion_frame_rate");
         final BooleanProperty social = preferences.booleanProperty("general.social");
         final BooleanProperty cacheMapData = preferences.booleanProperty("general.use_map_data_cache");
 
@@ -142,13 +154,6 @@ public class PreferencesView {
         final BooleanProperty prereleases = preferences.booleanProperty("general.prereleases");
         final BooleanProperty deleteOldLogs = preferences.booleanProperty("general.delete_old_logs");
 
-        debug.addListener((observable, oldValue, newValue) -> {
-            if (!newValue) {
-                preferences.booleanProperty("metrics.enabled").set(false);
-            }
-        });
-        debug.set(true);
-
         final IntegerProperty uiScale = preferences.integerProperty("general.ui_scale");
         uiScale.bind(uiFontSize.divide(12.0));
 
@@ -161,6 +166,9 @@ public class PreferencesView {
                         Setting.of("UI Font Size", uiFontSize, 4, 72),
                         Setting.of("Map Font Size", property, 4, 72),
                         Setting.of("Scroll Speed", scrollSpeed, 1.1, 16, 2),
+                        Setting.of("Smooth Pilot Motion", smoothMotion),
+                        Setting.of(infoLabel("Moves pilots along their heading between data updates", INFO_STYLE)),
+                        Setting.of("Motion Frame Rate", motionFrameRate, 1, 60),
                         Setting.of("Show Twitch stream links", social),
                         Setting.of("Cache static map data", cacheMapData),
                         Setting.of(infoLabel("Accelerates startup time, outdated map data will still be updated automatically", INFO_STYLE)),
@@ -192,7 +200,7 @@ public class PreferencesView {
         }
     }
 
-    private Category painters() throws IllegalAccessException {
+    private Category painters() {
         final Category[] painters = paintersCategories(settingsScope.getPainters());
 
         return Category
@@ -201,167 +209,49 @@ public class PreferencesView {
                 .expand();
     }
 
-    private Category[] paintersCategories(final ObservableList<PainterExecutor<?>> executors) throws IllegalAccessException {
+    private Category[] paintersCategories(final ObservableList<PainterExecutor<?>> executors) {
         final List<Category> categories = new ArrayList<>();
 
         for (final PainterExecutor<?> executor : executors) {
-            final Group[] groups = getSettings(executor.getPainter(), executor.getName());
-            for (final Group group : groups) {
-                for (final Setting<?, ?> setting : group.getSettings()) {
-                    final Property<?> o = setting.valueProperty();
-//                    observables.put(o.getName(), o);
-                }
-            }
-            final Category category = Category.of(executor.getName(), groups);
-            categories.add(category);
-        }
-        return categories.toArray(Category[]::new);
-    }
-
-    private Group[] getSettings(final Painter<?> painter, final String prefix) throws IllegalAccessException {
-
-        final List<Field> fields = Arrays
-                .stream(fields(painter))
-                .filter(e -> e.isAnnotationPresent(net.marvk.fs.vatsim.map.view.painter.Group.class) || e.isAnnotationPresent(Parameter.class) || e
-                        .isAnnotationPresent(MetaPainter.class))
-                .peek(e -> e.setAccessible(true))
-                .collect(Collectors.toList());
-
-        final ArrayList<Group> result = new ArrayList<>();
+            final Group[] groups = painterParameters
+                    .groups(executor)
+                    .stream()
+                    .map(PreferencesView::group)
+                    .toArray(Group[]::new);
 
-        String currentGroup = prefix;
-        final Collection<Setting<?, ?>> settings = new ArrayList<>();
-
-        for (final Field field : fields) {
-            if (field.isAnnotationPresent(net.marvk.fs.vatsim.map.view.painter.Group.class)) {
-                if (!settings.isEmpty()) {
-                    settings.removeIf(Objects::isNull);
-
-                    if (!settings.isEmpty()) {
-                        result.add(Group.of(currentGroup, settings.toArray(Setting[]::new)));
-                    }
-                    settings.clear();
-                }
-
-                final var groupAnnotation = field.getAnnotation(net.marvk.fs.vatsim.map.view.painter.Group.class);
-                currentGroup = groupAnnotation.value();
-            }
-
-            if (field.isAnnotationPresent(Parameter.class)) {
-                settings.add(extracted(painter, field, prefix));
-            }
+            categories.add(Category.of(executor.getName(), groups));
         }
-
-        if (!settings.isEmpty()) {
-            settings.removeIf(Objects::isNull);
-
-            if (!settings.isEmpty()) {
-                result.add(Group.of(currentGroup, settings.toArray(Setting[]::new)));
-            }
-        }
-
-        for (final Field field : fields) {
-            if (field.isAnnotationPresent(MetaPainter.class)) {
-                final MetaPainter metaPainter = field.getAnnotation(MetaPainter.class);
-
-                final Painter<?> thePainter = (Painter<?>) field.get(painter);
-                result.addAll(Arrays.asList(getSettings(thePainter, prefix + "." + metaPainter.value())));
-            }
-        }
-
-        return result.toArray(Group[]::new);
-    }
-
-    private static Field[] fields(final Painter<?> painter) {
-        Class<?> clazz = painter.getClass();
-
-        final ArrayList<Field> result = new ArrayList<>();
-
-        while (clazz != Object.class) {
-            final Field[] declaredFields = clazz.getDeclaredFields();
-            for (int i = 0; i < declaredFields.length; i++) {
-                result.add(i, declaredFields[i]);
-            }
-            clazz = clazz.getSuperclass();
-        }
-
-        return result.toArray(Field[]::new);
+        return categories.toArray(Category[]::new);
     }
 
-    private Setting<?, ?> extracted(final Painter<?> painter, final Field field, final String prefix) throws IllegalAccessException {
-        final Parameter parameter = field.getAnnotation(Parameter.class);
-
-        final String name = parameter.value();
-
-        final double min = parameter.min();
-        final double max = parameter.max();
-
-        final String bindToKey = parameter.bind();
-        final boolean enabled = !parameter.disabled();
-        final boolean visible = parameter.visible() && enabled;
-        final boolean bind = !bindToKey.isBlank() && enabled;
-        final String key = key(prefix, name);
-        if (Color.class.isAssignableFrom(field.getType())) {
-            final ObjectProperty<Color> property = preferences.colorProperty(key, (Color) field.get(painter));
-            property.addListener((observable, oldValue, newValue) -> setField(field, painter, newValue));
-            setField(field, painter, property.getValue());
-            if (bind) {
-                property.bind(preferences.colorProperty(bindToKey));
-            }
-            if (visible) {
-                return Setting.of(name, property).customKey(key);
-            }
-        } else if (int.class.isAssignableFrom(field.getType())) {
-            final IntegerProperty property = preferences.integerProperty(key, (int) field.get(painter));
-            property.addListener((observable, oldValue, newValue) -> setField(field, painter, newValue));
-            setField(field, painter, property.getValue());
-            if (bind) {
-                property.bind(preferences.integerProperty(bindToKey));
-            }
-            if (visible) {
-                return Setting.of(name, property)
-                              .customKey(key)
-                              .validate(IntegerRangeValidator.between((int) min, (int) max, "Not in range"));
-            }
-        } else if (double.class.isAssignableFrom(field.getType())) {
-            final DoubleProperty property = preferences.doubleProperty(key, (double) field.get(painter));
-            property.addListener((observable, oldValue, newValue) -> setField(field, painter, newValue));
-            setField(field, painter, property.getValue());
-            if (bind) {
-                property.bind(preferences.doubleProperty(bindToKey));
-            }
-            if (visible) {
-                return Setting.of(name, property)
-                              .customKey(key)
-                              .validate(DoubleRangeValidator.between(min, max, "Not in range"));
-            }
-        } else if (boolean.class.isAssignableFrom(field.getType())) {
-            final BooleanProperty property = preferences.booleanProperty(key, (boolean) field.get(painter));
-            property.addListener((observable, oldValue, newValue) -> setField(field, painter, newValue));
-            setField(field, painter, property.getValue());
-            if (bind) {
-                property.bind(preferences.booleanProperty(bindToKey));
-            }
-            if (visible) {
-                return Setting.of(name, property)
-                              .customKey(key);
-            }
-        }
-        return null;
-    }
+    private static Group group(final PainterParameters.ParameterGroup group) {
+        final Setting<?, ?>[] settings = group
+                .getParameters()
+                .stream()
+                .map(PreferencesView::setting)
+                .toArray(Setting[]::new);
 
-    @SneakyThrows
-    private static void setField(final Field field, final Painter<?> painter, final Object newValue) {
-        field.set(painter, newValue);
-        Notifications.REPAINT.publish();
+        return Group.of(group.getName(), settings);
     }
 
-    private static String key(final String... keys) {
-        return Arrays
-                .stream(keys)
-                .map(e -> e.toLowerCase(Locale.ROOT))
-                .map(e -> e.replaceAll("\\s", "_"))
-                .map(e -> e.replaceAll("[^A-Za-z0-9._]", ""))
-                .collect(Collectors.joining("."));
+    @SuppressWarnings("unchecked")
+    private static Setting<?, ?> setting(final PainterParameters.BoundParameter parameter) {
+        final String name = parameter.getName();
+        final String key = parameter.getKey();
+        final double min = parameter.getMin();
+        final double max = parameter.getMax();
+
+        return switch (parameter.getType()) {
+            case COLOR -> Setting.of(name, (ObjectProperty<Color>) parameter.getProperty())
+                                 .customKey(key);
+            case INTEGER -> Setting.of(name, (IntegerProperty) parameter.getProperty())
+                                   .customKey(key)
+                                   .validate(IntegerRangeValidator.between((int) min, (int) max, "Not in range"));
+            case DOUBLE -> Setting.of(name, (DoubleProperty) parameter.getProperty())
+                                  .customKey(key)
+                                  .validate(DoubleRangeValidator.between(min, max, "Not in range"));
+            case BOOLEAN -> Setting.of(name, (BooleanProperty) parameter.getProperty())
+                                   .customKey(key);
+        };
     }
 }
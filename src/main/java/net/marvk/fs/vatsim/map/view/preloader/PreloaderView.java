@@ -51,6 +51,10 @@ public class PreloaderView implements FxmlView<PreloaderViewModel> {
         task.textProperty().bind(viewModel.taskDescriptionProperty());
         error.textProperty().bind(viewModel.errorProperty());
 
+        final Tooltip timings = new Tooltip();
+        timings.textProperty().bind(viewModel.timingsProperty());
+        progressBar.setTooltip(timings);
+
         taskHolder.getChildren().setAll(task);
 
         viewModel.errorProperty().addListener((observable, oldValue, newValue) -> {
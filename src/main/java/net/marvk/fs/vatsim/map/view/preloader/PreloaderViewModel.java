@@ -18,6 +18,7 @@ import net.marvk.fs.vatsim.map.api.VatprismApi;
 import net.marvk.fs.vatsim.map.api.VatprismApiException;
 import net.marvk.fs.vatsim.map.api.VersionResponse;
 import net.marvk.fs.vatsim.map.data.*;
+import net.marvk.fs.vatsim.map.executor.TaskExecutors;
 import net.marvk.fs.vatsim.map.view.main.MainView;
 import net.marvk.fs.vatsim.map.view.main.MainViewModel;
 
@@ -27,8 +28,9 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Log4j2
@@ -36,6 +38,7 @@ public class PreloaderViewModel implements ViewModel {
     private final ReadOnlyObjectWrapper<ViewTuple<MainView, MainViewModel>> viewTuple = new ReadOnlyObjectWrapper<>();
     private final ReadOnlyStringWrapper taskDescription = new ReadOnlyStringWrapper();
     private final ReadOnlyStringWrapper error = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper timings = new ReadOnlyStringWrapper();
 
     private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper();
     private final ReadOnlyObjectWrapper<VersionResponse> versionResponse = new ReadOnlyObjectWrapper<>();
@@ -44,6 +47,7 @@ public class PreloaderViewModel implements ViewModel {
     private final HostServices hostServices;
     private final RepositoryLoader repositoryLoader;
     private final VersionProvider versionProvider;
+    private final TaskExecutors executors;
 
     private final ObjectProperty<Throwable> exception = new SimpleObjectProperty<>();
 
@@ -53,13 +57,15 @@ public class PreloaderViewModel implements ViewModel {
             final VatprismApi vatprismApi,
             final HostServices hostServices,
             final RepositoryLoader repositoryLoader,
-            final VersionProvider versionProvider
+            final VersionProvider versionProvider,
+            final TaskExecutors executors
     ) {
         this.preferences = preferences;
         this.vatprismApi = vatprismApi;
         this.hostServices = hostServices;
         this.repositoryLoader = repositoryLoader;
         this.versionProvider = versionProvider;
+        this.executors = executors;
     }
 
     public void load() {
@@ -67,48 +73,53 @@ public class PreloaderViewModel implements ViewModel {
                         .addListener((observable, oldValue, newValue) -> progress.set(newValue.doubleValue()));
         repositoryLoader.currentTaskDescriptionProperty()
                         .addListener((observable, oldValue, newValue) -> taskDescription.set(newValue));
+        repositoryLoader.timingsProperty()
+                        .addListener((observable, oldValue, newValue) -> timings.set(newValue));
 
-        tryCheckVersion();
-
-        repositoryLoader.setOnSucceeded(e -> {
-            log.debug("Loading view");
-            Platform.runLater(() -> taskDescription.set("Loading View"));
-            Platform.runLater(() -> {
-                try {
-                    runTimed(() -> {
-                        final var viewTuple = FluentViewLoader.fxmlView(MainView.class).load();
-                        this.viewTuple.set(viewTuple);
-                    }, "Loading view", "Loaded view");
-                    progress.set(1);
-                } catch (final Exception ex) {
-                    failed(ex);
-                }
-            });
-        });
+        final CompletableFuture<Void> versionCheck = checkVersionAsync();
+
+        // the version check runs concurrently, only wait for it before the preloader is closed
+        repositoryLoader.setOnSucceeded(e -> versionCheck.whenComplete((result, ex) -> Platform.runLater(this::loadView)));
         repositoryLoader.setOnFailed(e -> failed(repositoryLoader.getException()));
 
         repositoryLoader.start();
     }
 
-    private void tryCheckVersion() {
-        repositoryLoader.currentTaskDescription.set("Checking Version");
+    private void loadView() {
+        log.debug("Loading view");
+        taskDescription.set("Loading View");
+        Platform.runLater(() -> {
+            try {
+                runTimed(() -> {
+                    final var viewTuple = FluentViewLoader.fxmlView(MainView.class).load();
+                    this.viewTuple.set(viewTuple);
+                }, "Loading view", "Loaded view");
+                progress.set(1);
+            } catch (final Exception ex) {
+                failed(ex);
+            }
+        });
+    }
 
+    private CompletableFuture<Void> checkVersionAsync() {
         final UpdateChannel channel =
                 preferences.booleanProperty("general.prereleases").get()
                         ? UpdateChannel.EXPERIMENTAL
                         : UpdateChannel.STABLE;
-        try {
-            final VersionResponse versionResponse = vatprismApi.checkVersion(channel);
-            if (versionResponse.getResult() == VersionResponse.Result.OUTDATED) {
-                log.warn("Found newer version: %s".formatted(versionResponse.getLatestVersion()));
-            } else {
-                log.info("Version is current");
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                final VersionResponse versionResponse = vatprismApi.checkVersion(channel);
+                if (versionResponse.getResult() == VersionResponse.Result.OUTDATED) {
+                    log.warn("Found newer version: %s".formatted(versionResponse.getLatestVersion()));
+                } else {
+                    log.info("Version is current");
+                }
+                Platform.runLater(() -> this.versionResponse.set(versionResponse));
+            } catch (final VatprismApiException e) {
+                log.error("Failed to fetch version", e);
             }
-            repositoryLoader.currentTaskDescription.set("Checked Version");
-            this.versionResponse.set(versionResponse);
-        } catch (final VatprismApiException e) {
-            log.error("Failed to fetch version", e);
-        }
+        }, executors.io());
     }
 
     private void failed(final Throwable e) {
@@ -157,6 +168,17 @@ public class PreloaderViewModel implements ViewModel {
         return taskDescription.getReadOnlyProperty();
     }
 
+    /**
+     * Completion times of the finished preloader tasks, one per line.
+     */
+    public String getTimings() {
+        return timings.get();
+    }
+
+    public ReadOnlyStringProperty timingsProperty() {
+        return timings.getReadOnlyProperty();
+    }
+
     public String getError() {
         return error.get();
     }
@@ -192,55 +214,74 @@ public class PreloaderViewModel implements ViewModel {
         System.exit(0);
     }
 
-    private static class CallableTask extends Task<Void> {
-        private final String taskStarted;
-        private final String taskCompleted;
-        private final VoidCallable callable;
-
-        public CallableTask(final String taskStarted, final String taskCompleted, final VoidCallable callable) {
-            this.taskStarted = taskStarted;
-            this.taskCompleted = taskCompleted;
-            this.callable = callable;
-        }
-
-        @Override
-        protected Void call() throws Exception {
-            runTimed(callable, taskStarted, taskCompleted);
-            updateProgress(1, 1);
-            return null;
-        }
-    }
-
-    private static class CompositeTask extends Task<Void> {
+    private static class GraphTask extends Task<Void> {
         private final ReadOnlyStringWrapper currentTaskDescription = new ReadOnlyStringWrapper();
-        private final List<CallableTask> tasks;
-
-        public CompositeTask(final List<CallableTask> tasks) {
-            this.tasks = tasks;
+        private final ReadOnlyStringWrapper timings = new ReadOnlyStringWrapper();
+        private final TaskGraph graph;
+        private final Executor executor;
+        private final Set<TaskGraph.Node> running = new LinkedHashSet<>();
+        private final List<TaskGraph.Node> completed = new ArrayList<>();
+
+        public GraphTask(final TaskGraph graph, final Executor executor) {
+            this.graph = graph;
+            this.executor = executor;
         }
 
         @Override
         protected Void call() throws Exception {
             log.debug("Starting preloader tasks");
-            final int n = tasks.size();
-
-            for (int i = 0; i < n; i++) {
-                final CallableTask task = tasks.get(i);
-                final int progressDone = i;
-                Platform.runLater(() -> {
-                    updateProgress(progressDone, n);
-                    currentTaskDescription.set(task.taskStarted);
-                });
+            final long start = System.nanoTime();
+
+            graph.execute(executor, new TaskGraph.Listener() {
+                @Override
+                public void started(final TaskGraph.Node node) {
+                    Platform.runLater(() -> {
+                        running.add(node);
+                        updateDescription();
+                    });
+                }
 
-                task.call();
-            }
+                @Override
+                public void completed(final TaskGraph.Node node) {
+                    Platform.runLater(() -> {
+                        running.remove(node);
+                        completed.add(node);
+                        updateProgress(completed.size(), graph.size());
+                        updateDescription();
+                        timings.set(completed
+                                .stream()
+                                .map(GraphTask::timing)
+                                .collect(Collectors.joining("\n")));
+                    });
+                }
+            });
 
             Platform.runLater(() -> updateProgress(1, 1));
 
-            log.debug("Completed preloader tasks");
+            log.info("Completed preloader tasks in %s, longest dependency chain %s".formatted(
+                    Duration.ofNanos(System.nanoTime() - start),
+                    graph.criticalPath()
+            ));
+            for (final TaskGraph.Node node : graph.nodes()) {
+                log.info(timing(node));
+            }
+
             return null;
         }
 
+        private void updateDescription() {
+            if (!running.isEmpty()) {
+                currentTaskDescription.set(running
+                        .stream()
+                        .map(TaskGraph.Node::getTaskStarted)
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        private static String timing(final TaskGraph.Node node) {
+            return "%s in %d ms".formatted(node.getTaskCompleted(), node.getDuration().toMillis());
+        }
+
         public String getCurrentTaskDescription() {
             return currentTaskDescription.get();
         }
@@ -248,26 +289,25 @@ public class PreloaderViewModel implements ViewModel {
         public ReadOnlyStringProperty currentTaskDescriptionProperty() {
             return currentTaskDescription.getReadOnlyProperty();
         }
-    }
 
-    private static class RepositoryTask extends CallableTask {
-        public RepositoryTask(final String taskStarted, final String taskCompleted, final ReloadableRepository<?> repository) {
-            super(taskStarted, taskCompleted, repository::reload);
+        public ReadOnlyStringProperty timingsProperty() {
+            return timings.getReadOnlyProperty();
         }
     }
 
     private static class RepositoryLoader extends Service<Void> {
         private final ReadOnlyStringWrapper currentTaskDescription = new ReadOnlyStringWrapper();
+        private final ReadOnlyStringWrapper timings = new ReadOnlyStringWrapper();
         private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper();
         private final ReadOnlyBooleanWrapper completed = new ReadOnlyBooleanWrapper();
 
-        private final List<CallableTask> tasks;
+        private final TaskGraph graph = new TaskGraph();
+        private final Executor executor;
 
         @Inject
         public RepositoryLoader(
                 final RatingsLoader ratingsLoader,
                 @Named("world") final PolygonRepository worldRepository,
-                @Named("lakes") final PolygonRepository lakesRepository,
                 final AirportRepository airportRepository,
                 final ClientRepository clientRepository,
                 final FlightInformationRegionRepository flightInformationRegionRepository,
@@ -278,72 +318,99 @@ public class PreloaderViewModel implements ViewModel {
                 final AirlineRepository airlineRepository,
                 final VatsimApi vatsimApi,
                 final Preferences preferences,
-                @Named("userLogDir") final Path logDir
+                @Named("userLogDir") final Path logDir,
+                final TaskExecutors executors
         ) {
-            final var loadWorld = new CallableTask(
+            // the graph itself only waits for its nodes, so it keeps running on the service's own thread
+            this.executor = executors.io();
+
+            graph.add(
                     "Loading World",
                     "Loaded World",
                     worldRepository::reload
             );
-            final var loadLakes = new CallableTask(
-                    "Loading Lakes",
-                    "Loaded Lakes",
-                    lakesRepository::reload
-            );
-            final var loadRatings = new CallableTask(
+            final var loadRatings = graph.add(
                     "Loading Ratings",
                     "Loaded Ratings",
                     ratingsLoader::loadRatings
             );
-            final var loadAirports = new RepositoryTask(
-                    "Loading Airports",
-                    "Loaded Airports",
-                    airportRepository
+            final var loadAirlines = graph.add(
+                    "Loading Airlines",
+                    "Loaded Airlines",
+                    airlineRepository::load
             );
-            final var loadInternationalDateLine = new RepositoryTask(
-                    "Loading International Date Line",
-                    "Loaded International Date Line",
-                    internationalDateLineRepository
+            // Fetch the shared VAT-Spy and boundary data once up front, so the repositories depending on them read
+            // from the api cache instead of all fetching them concurrently
+            final var fetchVatSpy = graph.add(
+                    "Fetching VAT-Spy Data",
+                    "Fetched VAT-Spy Data",
+                    vatsimApi::vatSpy
             );
-            final var loadFirs = new RepositoryTask(
-                    "Loading Flight Information Regions",
-                    "Loaded Flight Information Regions",
-                    flightInformationRegionRepository
+            final var fetchFirBoundaries = graph.add(
+                    "Fetching Flight Information Region Boundaries",
+                    "Fetched Flight Information Region Boundaries",
+                    vatsimApi::firBoundaries
             );
-            final var loadFirbs = new RepositoryTask(
-                    "Loading Flight Information Region Boundaries",
-                    "Loaded Flight Information Region Boundaries",
-                    flightInformationRegionBoundaryRepository
+            final var loadCountries = repositoryNode(
+                    "Countries",
+                    countryRepository,
+                    fetchVatSpy
             );
-            final var loadUirs = new RepositoryTask(
-                    "Loading Upper Information Regions",
-                    "Loaded Upper Information Regions",
-                    upperInformationRegionRepository
+            final var loadInternationalDateLine = repositoryNode(
+                    "International Date Line",
+                    internationalDateLineRepository,
+                    fetchVatSpy
             );
-            final var loadCountries = new RepositoryTask(
-                    "Loading Countries",
-                    "Loaded Countries",
-                    countryRepository
+            final var loadFirs = repositoryNode(
+                    "Flight Information Regions",
+                    flightInformationRegionRepository,
+                    fetchVatSpy
             );
-            final var loadAirlines = new CallableTask(
-                    "Loading Airlines",
-                    "Loaded Airlines",
-                    airlineRepository::list
+            final var loadFirbs = repositoryNode(
+                    "Flight Information Region Boundaries",
+                    flightInformationRegionBoundaryRepository,
+                    loadFirs,
+                    loadCountries,
+                    fetchFirBoundaries
+            );
+            final var loadUirs = repositoryNode(
+                    "Upper Information Regions",
+                    upperInformationRegionRepository,
+                    loadFirbs
             );
-            final var loadClients = new RepositoryTask(
+            final var loadAirports = repositoryNode(
+                    "Airports",
+                    airportRepository,
+                    loadFirbs,
+                    loadCountries
+            );
+            // Show the clients of the last session right away if possible, the first live reload then applies
+            // as an incremental update once the map is visible
+            final var loadClients = graph.add(
                     "Loading Clients",
                     "Loaded Clients",
-                    clientRepository
+                    () -> {
+                        if (!clientRepository.restoreSnapshot()) {
+                            clientRepository.reload();
+                        }
+                    },
+                    loadAirports,
+                    loadUirs,
+                    loadAirlines,
+                    loadRatings
             );
-            final var clearCaches = new CallableTask(
+            graph.add(
                     "Cleaning Caches",
                     "Cleaned Caches",
                     () -> {
                         if (vatsimApi instanceof CachedVatsimApi) {
                             ((CachedVatsimApi) vatsimApi).clear();
                         }
-                    });
-            final var deletingOldLogs = new CallableTask(
+                    },
+                    loadInternationalDateLine,
+                    loadClients
+            );
+            graph.add(
                     "Deleting Old Logs",
                     "Old Logs Deleted",
                     () -> {
@@ -352,22 +419,10 @@ public class PreloaderViewModel implements ViewModel {
                         }
                     }
             );
+        }
 
-            tasks = List.of(
-                    loadWorld,
-                    loadLakes,
-                    loadCountries,
-                    loadInternationalDateLine,
-                    loadFirs,
-                    loadFirbs,
-                    loadUirs,
-                    loadAirports,
-                    loadRatings,
-                    loadAirlines,
-                    loadClients,
-                    clearCaches,
-                    deletingOldLogs
-            );
+        private TaskGraph.Node repositoryNode(final String name, final ReloadableRepository<?> repository, final TaskGraph.Node... dependencies) {
+            return graph.add("Loading " + name, "Loaded " + name, repository::reload, dependencies);
         }
 
         private void deleteOldLogs(final Path logDir) throws IOException {
@@ -389,8 +444,9 @@ public class PreloaderViewModel implements ViewModel {
 
         @Override
         protected Task<Void> createTask() {
-            final CompositeTask result = new CompositeTask(tasks);
+            final GraphTask result = new GraphTask(graph, executor);
             currentTaskDescription.bind(result.currentTaskDescriptionProperty());
+            timings.bind(result.timingsProperty());
             /////////////////////////////////////////////////////
             // dont remove or progress bindings might be GC'd  //
             /////////////////////////////////////////////////////
@@ -409,6 +465,10 @@ public class PreloaderViewModel implements ViewModel {
         public ReadOnlyStringProperty currentTaskDescriptionProperty() {
             return currentTaskDescription.getReadOnlyProperty();
         }
+
+        public ReadOnlyStringProperty timingsProperty() {
+            return timings.getReadOnlyProperty();
+        }
     }
 
     @FunctionalInterface
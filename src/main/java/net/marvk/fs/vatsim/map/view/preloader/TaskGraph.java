@@ -0,0 +1,183 @@
+package net.marvk.fs.vatsim.map.view.preloader;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Directed acyclic graph of preloader tasks. Every task is started as soon as all of its dependencies completed, so
+ * the total run time approaches the longest dependency chain instead of the sum of all tasks.
+ */
+@Log4j2
+final class TaskGraph {
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Adds a task to the graph. Dependencies have to be added before their dependents, which keeps the graph acyclic.
+     */
+    Node add(final String taskStarted, final String taskCompleted, final Action action, final Node... dependencies) {
+        for (final Node dependency : dependencies) {
+            if (!nodes.contains(dependency)) {
+                throw new IllegalArgumentException("Unknown dependency \"%s\"".formatted(dependency.getTaskStarted()));
+            }
+        }
+
+        final Node node = new Node(taskStarted, taskCompleted, action, List.of(dependencies));
+        nodes.add(node);
+        return node;
+    }
+
+    List<Node> nodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Runs all tasks on {@code executor} and blocks until all of them completed. Fails with the exception of the first
+     * failed task without waiting for unrelated tasks.
+     */
+    void execute(final Executor executor, final Listener listener) throws Exception {
+        final Map<Node, CompletableFuture<Void>> futures = new HashMap<>();
+        final CompletableFuture<Void> failure = new CompletableFuture<>();
+
+        for (final Node node : nodes) {
+            final CompletableFuture<?>[] dependencies = node
+                    .getDependencies()
+                    .stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+
+            final CompletableFuture<Void> future = CompletableFuture
+                    .allOf(dependencies)
+                    .thenRunAsync(() -> run(node, listener), executor);
+            future.whenComplete((result, e) -> {
+                if (e != null) {
+                    failure.completeExceptionally(e);
+                }
+            });
+
+            futures.put(node, future);
+        }
+
+        final CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new));
+
+        try {
+            CompletableFuture.anyOf(all, failure).join();
+        } catch (final CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static void run(final Node node, final Listener listener) {
+        listener.started(node);
+        log.info(node.getTaskStarted());
+
+        final long start = System.nanoTime();
+        try {
+            node.action.run();
+        } catch (final Exception e) {
+            throw new CompletionException(e);
+        }
+        node.duration = Duration.ofNanos(System.nanoTime() - start);
+
+        log.info("%s in %s".formatted(node.getTaskCompleted(), node.getDuration()));
+        listener.completed(node);
+    }
+
+    private static Exception unwrap(final CompletionException e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        return e;
+    }
+
+    /**
+     * @return the duration of the longest dependency chain of the last execution
+     */
+    Duration criticalPath() {
+        final Map<Node, Duration> finished = new HashMap<>();
+        Duration result = Duration.ZERO;
+
+        for (final Node node : nodes) {
+            Duration start = Duration.ZERO;
+            for (final Node dependency : node.getDependencies()) {
+                final Duration dependencyFinished = finished.get(dependency);
+                if (dependencyFinished.compareTo(start) > 0) {
+                    start = dependencyFinished;
+                }
+            }
+
+            final Duration end = start.plus(node.getDuration() == null ? Duration.ZERO : node.getDuration());
+            finished.put(node, end);
+
+            if (end.compareTo(result) > 0) {
+                result = end;
+            }
+        }
+
+        return result;
+    }
+
+    static final class Node {
+        private final String taskStarted;
+        private final String taskCompleted;
+        private final Action action;
+        private final List<Node> dependencies;
+
+        private volatile Duration duration;
+
+        private Node(final String taskStarted, final String taskCompleted, final Action action, final List<Node> dependencies) {
+            this.taskStarted = taskStarted;
+            this.taskCompleted = taskCompleted;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+
+        String getTaskStarted() {
+            return taskStarted;
+        }
+
+        String getTaskCompleted() {
+            return taskCompleted;
+        }
+
+        List<Node> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return the run time of this task, or {@code null} if it did not complete yet
+         */
+        Duration getDuration() {
+            return duration;
+        }
+    }
+
+    interface Listener {
+        void started(final Node node);
+
+        void completed(final Node node);
+    }
+
+    @FunctionalInterface
+    interface Action {
+        void run() throws Exception;
+    }
+}
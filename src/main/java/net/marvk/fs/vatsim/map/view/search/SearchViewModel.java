@@ -12,7 +12,6 @@ import javafx.collections.transformation.FilteredList;
 import lombok.extern.log4j.Log4j2;
 import net.marvk.fs.vatsim.map.data.*;
 import net.marvk.fs.vatsim.map.view.BaseViewModel;
-import net.marvk.fs.vatsim.map.view.Notifications;
 import net.marvk.fs.vatsim.map.view.StatusScope;
 import net.marvk.fs.vatsim.map.view.ToolbarScope;
 
@@ -52,8 +51,6 @@ public class SearchViewModel extends BaseViewModel {
             } else {
                 statusScope.getSearchedData().setAll(newValue);
             }
-
-            Notifications.REPAINT.publish();
         });
         statusScope.searchQueryProperty().bind(query);
 
@@ -20,26 +20,42 @@ public final class PlayerStats {
     }
 
     public static PlayerStats read(final Collection<Client> clients) {
-        int pilots = 0;
-        int controllers = 0;
-        int observers = 0;
-        int unknown = 0;
+        final int[] counts = new int[Category.values().length];
 
         for (final Client client : clients) {
-            switch (client.getClientType()) {
-                case PILOT -> pilots++;
-                case CONTROLLER, ATIS -> {
-                    final Controller controller = (Controller) client;
-                    switch (controller.getControllerType()) {
-                        case NONE -> unknown++;
-                        case OBS -> observers++;
-                        default -> controllers++;
-                    }
-                }
-                default -> unknown++;
-            }
+            counts[Category.of(client).ordinal()]++;
         }
 
-        return new PlayerStats(pilots, controllers, observers, unknown);
+        return of(counts);
+    }
+
+    /**
+     * @param counts number of clients per {@link Category}, indexed by ordinal
+     */
+    static PlayerStats of(final int[] counts) {
+        return new PlayerStats(
+                counts[Category.PILOT.ordinal()],
+                counts[Category.CONTROLLER.ordinal()],
+                counts[Category.OBSERVER.ordinal()],
+                counts[Category.UNKNOWN.ordinal()]
+        );
+    }
+
+    enum Category {
+        PILOT,
+        CONTROLLER,
+        OBSERVER,
+        UNKNOWN;
+
+        static Category of(final Client client) {
+            return switch (client.getClientType()) {
+                case PILOT -> PILOT;
+                case CONTROLLER, ATIS -> switch (((Controller) client).getControllerType()) {
+                    case NONE -> UNKNOWN;
+                    case OBS -> OBSERVER;
+                    default -> CONTROLLER;
+                };
+            };
+        }
     }
 }
@@ -3,6 +3,7 @@ package net.marvk.fs.vatsim.map.view.statusbar;
 import de.saxsys.mvvmfx.FxmlView;
 import de.saxsys.mvvmfx.InjectViewModel;
 import javafx.application.Platform;
+import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tooltip;
@@ -11,12 +12,16 @@ import net.marvk.fs.vatsim.map.view.BindingsUtil;
 import java.util.StringJoiner;
 
 public class StatusBarView implements FxmlView<StatusBarViewModel> {
+    private static final PseudoClass STALE = PseudoClass.getPseudoClass("stale");
+
     @FXML
     private Label playersOnline;
     @FXML
     private Label mousePosition;
     @FXML
     private Label information;
+    @FXML
+    private Label dataAge;
     @InjectViewModel
     private StatusBarViewModel viewModel;
 
@@ -25,12 +30,17 @@ public class StatusBarView implements FxmlView<StatusBarViewModel> {
 
         information.textProperty().bind(viewModel.informationProperty());
 
+        dataAge.textProperty().bind(viewModel.dataAgeProperty());
+        viewModel.staleProperty().addListener((observable, oldValue, newValue) -> setStale(newValue));
+        setStale(viewModel.staleProperty().get());
+
         viewModel.playerStatsProperty().addListener((observable, oldValue, newValue) -> setPlayerStats());
         setPlayerStats();
 
         bindTextToTooltip(playersOnline);
         bindTextToTooltip(information);
         bindTextToTooltip(mousePosition);
+        bindTextToTooltip(dataAge);
     }
 
     private void setPlayerStats() {
@@ -46,6 +56,10 @@ public class StatusBarView implements FxmlView<StatusBarViewModel> {
         });
     }
 
+    private void setStale(final boolean stale) {
+        Platform.runLater(() -> dataAge.pseudoClassStateChanged(STALE, stale));
+    }
+
     private static void bindTextToTooltip(final Label label) {
         final Tooltip value = new Tooltip();
         value.textProperty().bind(label.textProperty());
@@ -6,15 +6,20 @@ import de.saxsys.mvvmfx.ViewModel;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Point2D;
 import net.marvk.fs.vatsim.map.data.Client;
+import net.marvk.fs.vatsim.map.data.ClientDelta;
 import net.marvk.fs.vatsim.map.data.ClientRepository;
 import net.marvk.fs.vatsim.map.data.Data;
 import net.marvk.fs.vatsim.map.data.IcaoVisitor;
+import net.marvk.fs.vatsim.map.data.UpdatingTimeProvider;
 import net.marvk.fs.vatsim.map.view.StatusScope;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class StatusBarViewModel implements ViewModel {
@@ -22,9 +27,13 @@ public class StatusBarViewModel implements ViewModel {
     private final ObservableList<Data> highlightedData = FXCollections.observableArrayList();
 
     private final ReadOnlyObjectWrapper<PlayerStats> playerStats = new ReadOnlyObjectWrapper<>(new PlayerStats());
+    private final Map<Client, PlayerStats.Category> playerCategories = new IdentityHashMap<>();
+    private final int[] playerCounts = new int[PlayerStats.Category.values().length];
     private final ClientRepository clientRepository;
 
     private final ReadOnlyStringWrapper information = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper dataAge = new ReadOnlyStringWrapper();
+    private final UpdatingTimeProvider clock = new UpdatingTimeProvider(Duration.ofSeconds(1));
     private final IcaoVisitor icaoVisitor = new IcaoVisitor("");
 
     @InjectScope
@@ -39,16 +48,66 @@ public class StatusBarViewModel implements ViewModel {
         mouseWorldPosition.bind(statusScope.mouseWorldPositionProperty());
 
         Bindings.bindContent(highlightedData, statusScope.highlightedFirs());
-        clientRepository.list().addListener((ListChangeListener<Client>) c -> updatePlayerStats());
-        updatePlayerStats();
+        for (final Client client : clientRepository.list()) {
+            addPlayer(client);
+        }
+        playerStats.set(PlayerStats.of(playerCounts));
+        clientRepository.deltas().subscribe(this::updatePlayerStats);
         information.bind(Bindings.createStringBinding(
                 () -> highlightedData.stream().map(icaoVisitor::visit).collect(Collectors.joining(", ")),
                 highlightedData
         ));
+        dataAge.bind(Bindings.createStringBinding(
+                this::dataAge,
+                clientRepository.updateTimestampProperty(),
+                clientRepository.staleProperty(),
+                clock.currentTimeProperty()
+        ));
+        clock.start();
+    }
+
+    private String dataAge() {
+        final ZonedDateTime updateTimestamp = clientRepository.getUpdateTimestamp();
+
+        if (updateTimestamp == null) {
+            return "No data";
+        }
+
+        final Duration age = Duration.between(updateTimestamp, clock.getCurrentTime());
+        final String prefix = clientRepository.isStale() ? "Cached data" : "Data";
+
+        if (age.isNegative() || age.toSeconds() < 60) {
+            return "%s %ss old".formatted(prefix, Math.max(0, age.toSeconds()));
+        }
+
+        return "%s %sm %ss old".formatted(prefix, age.toMinutes(), age.toSecondsPart());
+    }
+
+    private void updatePlayerStats(final ClientDelta delta) {
+        if (delta.getAdded().isEmpty() && delta.getRemoved().isEmpty()) {
+            return;
+        }
+
+        for (final Client client : delta.getRemoved()) {
+            final PlayerStats.Category category = playerCategories.remove(client);
+            if (category != null) {
+                playerCounts[category.ordinal()]--;
+            }
+        }
+
+        for (final Client client : delta.getAdded()) {
+            addPlayer(client);
+        }
+
+        playerStats.set(PlayerStats.of(playerCounts));
     }
 
-    private void updatePlayerStats() {
-        playerStats.set(PlayerStats.read(clientRepository.list()));
+    private void addPlayer(final Client client) {
+        // the category only depends on the callsign, which never changes for a client
+        final PlayerStats.Category category = PlayerStats.Category.of(client);
+        if (playerCategories.put(client, category) == null) {
+            playerCounts[category.ordinal()]++;
+        }
     }
 
     public ObjectProperty<Point2D> mouseWorldPositionProperty() {
@@ -70,4 +129,16 @@ public class StatusBarViewModel implements ViewModel {
     public ReadOnlyStringProperty informationProperty() {
         return information.getReadOnlyProperty();
     }
+
+    public String getDataAge() {
+        return dataAge.get();
+    }
+
+    public ReadOnlyStringProperty dataAgeProperty() {
+        return dataAge.getReadOnlyProperty();
+    }
+
+    public ReadOnlyBooleanProperty staleProperty() {
+        return clientRepository.staleProperty();
+    }
 }
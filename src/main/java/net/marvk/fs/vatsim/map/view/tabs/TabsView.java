@@ -14,8 +14,10 @@ import javafx.scene.control.skin.TabPaneSkin;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import lombok.SneakyThrows;
+import net.marvk.fs.vatsim.map.view.Detachable;
 import net.marvk.fs.vatsim.map.view.Notifications;
 import net.marvk.fs.vatsim.map.view.datatable.airportstable.AirportsTableView;
+import net.marvk.fs.vatsim.map.view.datatable.busiestairportstable.BusiestAirportsTableView;
 import net.marvk.fs.vatsim.map.view.datatable.clientstable.ClientsTableView;
 import net.marvk.fs.vatsim.map.view.datatable.controllerstable.ControllersTableView;
 import net.marvk.fs.vatsim.map.view.datatable.flightinformationregionboundariestable.FlightInformationRegionBoundariesTableView;
@@ -29,6 +31,7 @@ import net.marvk.fs.vatsim.map.view.search.SearchView;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 public class TabsView implements FxmlView<TabsViewModel> {
     @FXML
@@ -55,11 +58,13 @@ public class TabsView implements FxmlView<TabsViewModel> {
         tabPaneHolder.getChildren().add(0, tabPane);
         StackPane.setAlignment(searchBoxContainer, Pos.TOP_LEFT);
         tabPane.getTabs().clear();
-        tabPane.getTabs().add(createFxmlViewTab("Map", MapView.class));
+        tabPane.getTabs().add(createEagerFxmlViewTab("Map", MapView.class));
+        // every other tab is only loaded once it is selected for the first time
         tabPane.getTabs().add(createJavaViewTab("Clients", ClientsTableView.class));
         tabPane.getTabs().add(createJavaViewTab("Pilots", PilotsTableView.class));
         tabPane.getTabs().add(createJavaViewTab("Controllers", ControllersTableView.class));
         tabPane.getTabs().add(createJavaViewTab("Airports", AirportsTableView.class));
+        tabPane.getTabs().add(createJavaViewTab("Busiest", BusiestAirportsTableView.class));
         tabPane.getTabs().add(createJavaViewTab("FIRs", FlightInformationRegionBoundariesTableView.class));
         tabPane.getTabs().add(createJavaViewTab("UIRs", UpperInformationRegionsTableView.class));
         tabPane.getTabs().add(createFxmlViewTab("Filtered Clients", FilteredClientsView.class));
@@ -74,12 +79,37 @@ public class TabsView implements FxmlView<TabsViewModel> {
         Notifications.SWITCH_TO_TAB.subscribe(i -> tabPane.getSelectionModel().select(i));
     }
 
-    private Tab createFxmlViewTab(final String map, final Class<? extends FxmlView<?>> clazz) {
+    private Tab createEagerFxmlViewTab(final String map, final Class<? extends FxmlView<?>> clazz) {
         return new Tab(map, loadFxmlView(clazz));
     }
 
+    private Tab createFxmlViewTab(final String map, final Class<? extends FxmlView<?>> clazz) {
+        return createLazyTab(map, () -> loadFxmlView(clazz));
+    }
+
     private Tab createJavaViewTab(final String map, final Class<? extends JavaView<?>> clazz) {
-        return new Tab(map, loadJavaView(clazz));
+        return createLazyTab(map, () -> loadJavaView(clazz));
+    }
+
+    private static Tab createLazyTab(final String map, final Supplier<Parent> viewLoader) {
+        final Tab result = new Tab(map);
+
+        result.selectedProperty().addListener((observable, oldValue, selected) -> {
+            if (selected && result.getContent() == null) {
+                result.setContent(viewLoader.get());
+            }
+
+            if (result.getContent() instanceof Detachable) {
+                final Detachable detachable = (Detachable) result.getContent();
+                if (selected) {
+                    detachable.attach();
+                } else {
+                    detachable.detach();
+                }
+            }
+        });
+
+        return result;
     }
 
     private Parent loadFxmlView(final Class<? extends FxmlView<?>> clazz) {
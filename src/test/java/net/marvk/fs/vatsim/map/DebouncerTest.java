@@ -0,0 +1,48 @@
+package net.marvk.fs.vatsim.map;
+
+import net.marvk.fs.vatsim.map.executor.VirtualTimeExecutors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class DebouncerTest {
+    private VirtualTimeExecutors executors;
+    private AtomicInteger calls;
+    private Debouncer sut;
+
+    @BeforeEach
+    void setup() {
+        executors = new VirtualTimeExecutors();
+        calls = new AtomicInteger();
+        sut = new Debouncer(calls::incrementAndGet, Duration.ofSeconds(1), executors.scheduled());
+    }
+
+    @Test
+    void testCallsAfterDelay() {
+        sut.callDebounced();
+
+        executors.advance(Duration.ofMillis(999));
+        Assertions.assertEquals(0, calls.get());
+
+        executors.advance(Duration.ofMillis(1));
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testRepeatedCallsAreCoalesced() {
+        for (int i = 0; i < 10; i++) {
+            sut.callDebounced();
+            executors.advance(Duration.ofMillis(500));
+        }
+
+        Assertions.assertEquals(0, calls.get());
+        Assertions.assertEquals(1, executors.queued());
+
+        executors.advance(Duration.ofMillis(500));
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, executors.queued());
+    }
+}
@@ -0,0 +1,133 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+class AirlineTableTest {
+    private static final Pattern AIRLINE_PATTERN = Pattern.compile("^(?<id>-?\\d+),\"?(?<name>.*?)\"?,\"?(?<alias>.*?)\"?,\"?(?<iata>.*?)\"?,\"?(?<icao>.*?)\"?,\"?(?<callsign>.*?)\"?,\"?(?<country>.*?)\"?,\"?(?<active>.*?)\"?$");
+
+    private static List<Airline> expectedAirlines;
+    private static Map<String, Airline> expectedLookup;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        expectedAirlines = readCsv()
+                .lines()
+                .map(AirlineTableTest::parseLine)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .filter(e -> e.getIcao() != null)
+                .filter(e -> e.getAirlineId() >= 0)
+                .collect(Collectors.toList());
+
+        expectedLookup = new HashMap<>();
+
+        for (final Airline airline : expectedAirlines) {
+            expectedLookup.compute(airline.getIcao(), (unused, oldValue) -> {
+                if (oldValue == null || !oldValue.isActive()) {
+                    return airline;
+                }
+                return oldValue;
+            });
+        }
+    }
+
+    @Test
+    void testParsedTableMatchesCsv() throws IOException {
+        assertParity(AirlineTable.parse(readCsv()));
+    }
+
+    @Test
+    void testCompiledTableMatchesCsv() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AirlineTable.parse(readCsv()).write(out);
+
+        assertParity(AirlineTable.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void testBundledTableMatchesCsv() throws IOException {
+        try (final InputStream inputStream = AirlineTableTest.class.getResourceAsStream("/net/marvk/fs/vatsim/map/data/airlines.bin")) {
+            // only present if the build step ran, e.g. not when running tests from an IDE
+            if (inputStream != null) {
+                assertParity(AirlineTable.read(inputStream));
+            }
+        }
+    }
+
+    @Test
+    void testLookupsAreStable() throws IOException {
+        final AirlineTable table = AirlineTable.parse(readCsv());
+
+        Assertions.assertSame(table.getByIcao("DLH"), table.getByIcao("DLH"));
+        Assertions.assertNull(table.getByIcao("DL"));
+        Assertions.assertNull(table.getByIcao("DLHX"));
+        Assertions.assertNull(table.getByIcao(null));
+    }
+
+    private static void assertParity(final AirlineTable table) {
+        Assertions.assertEquals(expectedAirlines.size(), table.size());
+
+        for (int i = 0; i < expectedAirlines.size(); i++) {
+            assertAirlineEquals(expectedAirlines.get(i), table.get(i));
+        }
+
+        for (final Map.Entry<String, Airline> entry : expectedLookup.entrySet()) {
+            assertAirlineEquals(entry.getValue(), table.getByIcao(entry.getKey()));
+        }
+    }
+
+    private static void assertAirlineEquals(final Airline expected, final Airline actual) {
+        Assertions.assertNotNull(actual, expected.getIcao());
+        Assertions.assertEquals(expected.getAirlineId(), actual.getAirlineId());
+        Assertions.assertEquals(expected.getName(), actual.getName());
+        Assertions.assertEquals(expected.getAlias(), actual.getAlias());
+        Assertions.assertEquals(expected.getIata(), actual.getIata());
+        Assertions.assertEquals(expected.getIcao(), actual.getIcao());
+        Assertions.assertEquals(expected.getCallsign(), actual.getCallsign());
+        Assertions.assertEquals(expected.getCountry(), actual.getCountry());
+        Assertions.assertEquals(expected.isActive(), actual.isActive());
+    }
+
+    private static BufferedReader readCsv() {
+        final InputStream inputStream = AirlineTableTest.class.getResourceAsStream("/net/marvk/fs/vatsim/map/data/airlines.csv");
+        Objects.requireNonNull(inputStream);
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    private static Optional<Airline> parseLine(final String line) {
+        final Matcher matcher = AIRLINE_PATTERN.matcher(line);
+        if (matcher.matches()) {
+            return Optional.of(new Airline(
+                    Integer.parseInt(parse(matcher, "id")),
+                    parse(matcher, "name"),
+                    parse(matcher, "alias"),
+                    parse(matcher, "iata"),
+                    parse(matcher, "icao"),
+                    parse(matcher, "callsign"),
+                    parse(matcher, "country"),
+                    parse(matcher, "active") != null && !"N".equalsIgnoreCase(parse(matcher, "active"))
+            ));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static String parse(final Matcher matcher, final String groupName) {
+        final String result = matcher.group(groupName);
+
+        if (result == null || result.isBlank() || "\\N".equalsIgnoreCase(result)) {
+            return null;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+package net.marvk.fs.vatsim.map.data;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+class AsyncHttpDataSourceTest {
+    private static final String ETAG = "\"abc\"";
+    private static final String LAST_MODIFIED = "Sun, 05 Jun 2022 12:00:00 GMT";
+    private static final String BODY = "{\"general\": {\"update_timestamp\": \"2022-06-05T12:00:00Z\"}}";
+
+    private final List<String> receivedIfNoneMatch = new ArrayList<>();
+    private final List<String> receivedIfModifiedSince = new ArrayList<>();
+    private final List<String> receivedAcceptEncoding = new ArrayList<>();
+
+    private HttpServer server;
+    private AsyncHttpDataSource sut;
+    private int status = 200;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/data", this::handle);
+        server.start();
+
+        final String url = "http://localhost:%d/data".formatted(server.getAddress().getPort());
+
+        sut = new AsyncHttpDataSource(
+                HttpClient.newHttpClient(),
+                null,
+                "VATprism-Test",
+                url,
+                url,
+                Duration.ofSeconds(5)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        receivedIfNoneMatch.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        receivedIfModifiedSince.add(exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+        receivedAcceptEncoding.add(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        final byte[] compressed = gzip(BODY);
+        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+        exchange.sendResponseHeaders(200, compressed.length);
+        try (final OutputStream os = exchange.getResponseBody()) {
+            os.write(compressed);
+        }
+    }
+
+    private static byte[] gzip(final String s) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(bos)) {
+            gzip.write(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return bos.toByteArray();
+    }
+
+    @Test
+    void testCompressedResponseIsDecoded() {
+        final FetchResult result = sut.dataAsync().join();
+
+        Assertions.assertTrue(result.isModified());
+        Assertions.assertEquals(BODY, result.getBody());
+        Assertions.assertEquals("gzip", receivedAcceptEncoding.get(0));
+        Assertions.assertNull(receivedIfNoneMatch.get(0));
+    }
+
+    @Test
+    void testNotModified() {
+        sut.dataAsync().join();
+        final long bytesAfterFirstRequest = sut.getBytesTransferred();
+
+        final FetchResult result = sut.dataAsync().join();
+
+        Assertions.assertFalse(result.isModified());
+        Assertions.assertEquals(BODY, result.getBody());
+        Assertions.assertEquals(ETAG, receivedIfNoneMatch.get(1));
+        Assertions.assertEquals(LAST_MODIFIED, receivedIfModifiedSince.get(1));
+        Assertions.assertEquals(bytesAfterFirstRequest, sut.getBytesTransferred());
+    }
+
+    @Test
+    void testBlockingDataReturnsCachedBodyWhenNotModified() throws Exception {
+        Assertions.assertEquals(BODY, sut.data());
+        Assertions.assertEquals(BODY, sut.data());
+        Assertions.assertEquals(2, receivedIfNoneMatch.size());
+    }
+
+    @Test
+    void testErrorStatus() {
+        status = 500;
+
+        Assertions.assertThrows(Exception.class, sut::data);
+    }
+}
@@ -0,0 +1,147 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class ClientSnapshotStoreTest {
+    @TempDir
+    Path directory;
+
+    private static ClientUpdate pilot() {
+        final ClientUpdate result = new ClientUpdate(ClientType.PILOT);
+        result.cid = 1234567;
+        result.callsign = "DLH123";
+        result.name = "Jane Doe EDDF";
+        result.server = "GERMANY";
+        result.logonTime = ZonedDateTime.parse("2022-06-05T11:00:00.0000000Z");
+        result.lastUpdated = ZonedDateTime.parse("2022-06-05T12:00:10.1234567Z");
+        result.latitude = 50.03;
+        result.longitude = 8.57;
+        result.altitude = 350;
+        result.groundSpeed = 12;
+        result.heading = 250;
+        result.qnhInchesMercury = 29.92;
+        result.qnhMilliBars = 1013;
+        result.transponder = "2000";
+        result.rating = 1;
+
+        final FlightPlanUpdate flightPlan = new FlightPlanUpdate();
+        flightPlan.flightRules = "I";
+        flightPlan.aircraft = "A320/M-SDE3FGHIRWY/LB1";
+        flightPlan.departure = "EDDF";
+        flightPlan.arrival = "EGLL";
+        flightPlan.alternate = "";
+        flightPlan.route = "DCT";
+        result.flightPlan = flightPlan;
+
+        return result;
+    }
+
+    private static ClientUpdate pilotWithoutPosition() {
+        final ClientUpdate result = new ClientUpdate(ClientType.PILOT);
+        result.cid = 7654321;
+        result.callsign = "BAW1";
+        result.server = "GERMANY";
+        return result;
+    }
+
+    private static ClientUpdate atis() {
+        final ClientUpdate result = new ClientUpdate(ClientType.ATIS);
+        result.cid = 1111111;
+        result.callsign = "EDDF_ATIS";
+        result.name = "Max Mustermann";
+        result.server = "GERMANY";
+        result.logonTime = ZonedDateTime.parse("2022-06-05T10:00:00Z");
+        result.frequency = "118.025";
+        result.facility = 4;
+        result.rating = 5;
+        result.textAtis = List.of("FRANKFURT INFORMATION A", "RWY 25C");
+        result.atisCode = "A";
+        return result;
+    }
+
+    @Test
+    void testRoundTripHasNoChangedFields() {
+        final ZonedDateTime timestamp = ZonedDateTime.parse("2022-06-05T12:00:15.1234567Z");
+        final List<ClientUpdate> expected = List.of(pilot(), pilotWithoutPosition(), atis());
+
+        final ClientSnapshotStore sut = new ClientSnapshotStore(directory.resolve("clients.bin"), Runnable::run);
+        sut.writeAsync(new ClientSnapshotStore.Snapshot(timestamp, expected));
+
+        final Optional<ClientSnapshotStore.Snapshot> actual = sut.read();
+
+        Assertions.assertTrue(actual.isPresent());
+        Assertions.assertEquals(timestamp, actual.get().getTimestamp());
+        Assertions.assertEquals(expected.size(), actual.get().getClients().size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            final ClientUpdate e = expected.get(i);
+            final ClientUpdate a = actual.get().getClients().get(i);
+
+            Assertions.assertEquals(e.key(), a.key());
+            Assertions.assertEquals(e.getClientType(), a.getClientType());
+            Assertions.assertEquals(e.hasPosition(), a.hasPosition());
+            Assertions.assertEquals(0, a.changedFields(e), e.key());
+        }
+    }
+
+    @Test
+    void testFailedWriteLeavesNoTemporaryFile() throws Exception {
+        final Path file = directory.resolve("clients.bin");
+        // a non empty directory can't be replaced by the temporary file
+        Files.createDirectories(file.resolve("blocker"));
+
+        final ClientSnapshotStore sut = new ClientSnapshotStore(file, Runnable::run);
+        sut.write(new ClientSnapshotStore.Snapshot(ZonedDateTime.parse("2022-06-05T12:00:15Z"), List.of(pilot())));
+
+        try (final Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(file), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testMissingOrCorruptSnapshotIsIgnored() throws Exception {
+        final Path file = directory.resolve("clients.bin");
+        final ClientSnapshotStore sut = new ClientSnapshotStore(file, Runnable::run);
+
+        Assertions.assertTrue(sut.read().isEmpty());
+
+        Files.write(file, new byte[]{1, 2, 3});
+
+        Assertions.assertTrue(sut.read().isEmpty());
+    }
+
+    @Test
+    void testCorruptCountsAreIgnored() throws Exception {
+        final Path file = directory.resolve("clients.bin");
+        final ClientSnapshotStore sut = new ClientSnapshotStore(file, Runnable::run);
+        final ClientSnapshotStore.Snapshot snapshot = new ClientSnapshotStore.Snapshot(ZonedDateTime.parse("2022-06-05T12:00:15Z"), List.of(pilot(), atis()));
+
+        // magic and version precede the string count, which precedes the length of the first string
+        final int stringCountOffset = 4 + 4;
+        final int firstStringLengthOffset = stringCountOffset + 4;
+
+        for (final int offset : new int[]{stringCountOffset, firstStringLengthOffset}) {
+            for (final int count : new int[]{-1, Integer.MAX_VALUE, 100_000_000}) {
+                sut.write(snapshot);
+                Assertions.assertTrue(sut.read().isPresent());
+
+                final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+                bytes.putInt(offset, count);
+                Files.write(file, bytes.array());
+
+                Assertions.assertTrue(sut.read().isEmpty(), "%d at %d".formatted(count, offset));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ClientUpdateTest {
+    @Test
+    void testUnchanged() {
+        Assertions.assertEquals(0, pilot(50, 8).changedFields(pilot(50, 8)));
+    }
+
+    @Test
+    void testMoved() {
+        final int fields = pilot(50.1, 8).changedFields(pilot(50, 8));
+
+        Assertions.assertTrue(ClientField.POSITION.isIn(fields));
+        Assertions.assertFalse(ClientField.ALTITUDE.isIn(fields));
+        Assertions.assertFalse(ClientField.FLIGHT_PLAN.isIn(fields));
+    }
+
+    @Test
+    void testFieldMask() {
+        final ClientUpdate previous = pilot(50, 8);
+        final ClientUpdate current = pilot(50, 8);
+        current.altitude = 1000;
+        current.flightPlan = new FlightPlanUpdate();
+        current.flightPlan.arrival = "EGLL";
+
+        final int fields = current.changedFields(previous);
+
+        Assertions.assertEquals(ClientField.maskOf(ClientField.ALTITUDE, ClientField.FLIGHT_PLAN), fields);
+    }
+
+    @Test
+    void testEqualFlightPlansAreUnchanged() {
+        final ClientUpdate previous = pilot(50, 8);
+        previous.flightPlan = new FlightPlanUpdate();
+        previous.flightPlan.departure = "EDDF";
+        final ClientUpdate current = pilot(50, 8);
+        current.flightPlan = new FlightPlanUpdate();
+        current.flightPlan.departure = "EDDF";
+
+        Assertions.assertEquals(0, current.changedFields(previous));
+    }
+
+    private static ClientUpdate pilot(final double latitude, final double longitude) {
+        final ClientUpdate result = new ClientUpdate(ClientType.PILOT);
+        result.cid = 1234567;
+        result.callsign = "DLH123";
+        result.latitude = latitude;
+        result.longitude = longitude;
+        return result;
+    }
+}
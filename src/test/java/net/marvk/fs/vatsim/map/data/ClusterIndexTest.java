@@ -0,0 +1,75 @@
+package net.marvk.fs.vatsim.map.data;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ClusterIndexTest {
+    @Test
+    void testNearbyItemsSplitWhenZoomingIn() {
+        final ClusterIndex sut = ClusterIndex.of(new Point2D[]{
+                new Point2D(8.55, 50.03),
+                new Point2D(8.56, 50.04),
+                new Point2D(11.78, 48.35),
+                null
+        });
+
+        final List<ClusterIndex.Cluster> coarse = sut.clusters(0);
+        Assertions.assertEquals(1, coarse.size());
+        Assertions.assertEquals(3, coarse.get(0).getSize());
+        Assertions.assertEquals(8.55, coarse.get(0).getMinX(), 1e-9);
+        Assertions.assertEquals(11.78, coarse.get(0).getMaxX(), 1e-9);
+        Assertions.assertTrue(sut.isClustered(0, 2));
+        Assertions.assertFalse(sut.isClustered(0, 3));
+
+        final int level = ClusterIndex.level(1);
+        final List<ClusterIndex.Cluster> fine = sut.clusters(level);
+        Assertions.assertEquals(1, fine.size());
+        Assertions.assertEquals(2, fine.get(0).getSize());
+        Assertions.assertEquals(8.555, fine.get(0).getX(), 1e-9);
+        Assertions.assertTrue(sut.isClustered(level, 0));
+        Assertions.assertFalse(sut.isClustered(level, 2));
+
+        Assertions.assertTrue(sut.clusters(ClusterIndex.LEVELS - 1).isEmpty());
+        Assertions.assertTrue(sut.clusters(ClusterIndex.NONE).isEmpty());
+        Assertions.assertFalse(sut.isClustered(ClusterIndex.NONE, 0));
+    }
+
+    @Test
+    void testLevel() {
+        Assertions.assertEquals(0, ClusterIndex.level(90));
+        Assertions.assertEquals(0, ClusterIndex.level(ClusterIndex.ROOT_CELL_SIZE));
+        Assertions.assertEquals(1, ClusterIndex.level(ClusterIndex.ROOT_CELL_SIZE / 2));
+        Assertions.assertEquals(2, ClusterIndex.level(ClusterIndex.ROOT_CELL_SIZE / 3));
+        Assertions.assertEquals(ClusterIndex.NONE, ClusterIndex.level(1e-9));
+        Assertions.assertEquals(ClusterIndex.NONE, ClusterIndex.level(0));
+    }
+
+    @Test
+    void testClustersNeverExceedItems() {
+        final Point2D[] positions = new Point2D[1000];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new Point2D((i * 37) % 360 - 180, (i * 11) % 180 - 90);
+        }
+
+        final ClusterIndex sut = ClusterIndex.of(positions);
+
+        for (int level = 0; level < ClusterIndex.LEVELS; level++) {
+            int clustered = 0;
+            for (final ClusterIndex.Cluster cluster : sut.clusters(level)) {
+                clustered += cluster.getSize();
+            }
+
+            int flagged = 0;
+            for (int i = 0; i < positions.length; i++) {
+                if (sut.isClustered(level, i)) {
+                    flagged += 1;
+                }
+            }
+
+            Assertions.assertEquals(flagged, clustered);
+        }
+    }
+}
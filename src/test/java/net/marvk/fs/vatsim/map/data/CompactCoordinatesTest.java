@@ -0,0 +1,59 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CompactCoordinatesTest {
+    /**
+     * Rounding to the nearest quantum, plus the floating point error of scaling back.
+     */
+    private static final double MAX_ERROR = CompactCoordinates.QUANTUM / 2 + 1e-12;
+
+    @Test
+    void testRoundTripIsWithinHalfQuantum() {
+        final int n = 10_000;
+        final double[] xs = new double[n];
+        final double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            final double angle = 2 * Math.PI * i / n;
+            xs[i] = 10 + 5 * Math.cos(angle) + 1e-3 * Math.sin(37 * angle);
+            ys[i] = 50 + 5 * Math.sin(angle);
+        }
+
+        final CompactCoordinates sut = CompactCoordinates.encode(xs, ys, n, 5 - 1e-3, 45);
+
+        final double[] actualX = new double[n];
+        final double[] actualY = new double[n];
+        sut.decode(actualX, actualY);
+
+        Assertions.assertEquals(n, sut.numPoints());
+        for (int i = 0; i < n; i++) {
+            Assertions.assertEquals(xs[i], actualX[i], MAX_ERROR);
+            Assertions.assertEquals(ys[i], actualY[i], MAX_ERROR);
+        }
+        Assertions.assertTrue(sut.byteSize() <= 4 * n, "Encoded to %d bytes".formatted(sut.byteSize()));
+    }
+
+    @Test
+    void testLargeDeltas() {
+        final double[] xs = {-180, 180, 180, -180};
+        final double[] ys = {-90, -90, 90, 90};
+
+        final CompactCoordinates sut = CompactCoordinates.encode(xs, ys, 4, -180, -90);
+
+        final double[] actualX = new double[4];
+        final double[] actualY = new double[4];
+        sut.decode(actualX, actualY);
+
+        Assertions.assertArrayEquals(xs, actualX, 1e-9);
+        Assertions.assertArrayEquals(ys, actualY, 1e-9);
+    }
+
+    @Test
+    void testEmpty() {
+        final CompactCoordinates sut = CompactCoordinates.encode(new double[0], new double[0], 0, 0, 0);
+
+        Assertions.assertEquals(0, sut.numPoints());
+        Assertions.assertEquals(0, sut.byteSize());
+    }
+}
@@ -0,0 +1,55 @@
+package net.marvk.fs.vatsim.map.data;
+
+import net.marvk.fs.vatsim.api.SimpleVatsimApi;
+import net.marvk.fs.vatsim.api.StringDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+class CountryRepositoryTest {
+    private CountryRepository sut;
+
+    @BeforeEach
+    void setup() throws IOException, RepositoryException {
+        try (final var is = CountryRepositoryTest.class.getResourceAsStream("/net/marvk/fs/vatsim/map/data/VATSpy.dat")) {
+            Objects.requireNonNull(is);
+            final String vatSpy = new String(is.readAllBytes());
+            sut = new CountryRepository(new SimpleVatsimApi(new StringDataSource(null, null, null, vatSpy, null, null)));
+        }
+
+        sut.reload();
+    }
+
+    @Test
+    void testPrefixIndexMatchesLookup() {
+        final Lookup<Country> expected = Lookup.fromCollection(Country::getPrefixes);
+        sut.list().forEach(expected::put);
+
+        Assertions.assertFalse(sut.list().isEmpty());
+
+        for (final Country country : sut.list()) {
+            for (final String prefix : country.getPrefixes()) {
+                final List<Country> countries = expected.get(prefix);
+                final Country expectedCountry = countries.isEmpty() ? null : countries.get(0);
+
+                Assertions.assertSame(expectedCountry, sut.getByPrefix(prefix), prefix);
+
+                if (prefix.length() == 2) {
+                    Assertions.assertSame(expectedCountry, sut.getByIcao(prefix + "XX"), prefix);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testUnknownPrefix() {
+        Assertions.assertNull(sut.getByPrefix("??"));
+        Assertions.assertNull(sut.getByIcao("??XX"));
+        Assertions.assertNull(sut.getByIcao("E"));
+        Assertions.assertNull(sut.getByPrefix(null));
+    }
+}
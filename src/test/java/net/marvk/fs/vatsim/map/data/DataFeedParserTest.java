@@ -0,0 +1,163 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+class DataFeedParserTest {
+    private static final String FEED = """
+            {
+              "general": {
+                "version": 3,
+                "update_timestamp": "2022-06-05T12:00:15.1234567Z"
+              },
+              "pilots": [
+                {
+                  "cid": 1234567,
+                  "name": "Jane Doe EDDF",
+                  "callsign": "DLH123",
+                  "server": "GERMANY",
+                  "pilot_rating": 0,
+                  "latitude": 50.03,
+                  "longitude": 8.57,
+                  "altitude": 350,
+                  "groundspeed": 12,
+                  "transponder": "2000",
+                  "heading": 250,
+                  "qnh_i_hg": 29.92,
+                  "qnh_mb": 1013,
+                  "flight_plan": {
+                    "flight_rules": "I",
+                    "aircraft": "A320/M-SDE3FGHIRWY/LB1",
+                    "aircraft_faa": "H/A320/L",
+                    "aircraft_short": "A320",
+                    "departure": "EDDF ",
+                    "arrival": "EGLL",
+                    "alternate": "",
+                    "cruise_tas": "450",
+                    "altitude": "FL360",
+                    "deptime": "1200",
+                    "enroute_time": "0130",
+                    "fuel_time": "0300",
+                    "remarks": "/V/",
+                    "route": "DCT",
+                    "revision_id": 1,
+                    "assigned_transponder": "0000"
+                  },
+                  "logon_time": "2022-06-05T11:00:00.0000000Z",
+                  "last_updated": "2022-06-05T12:00:10.0000000Z"
+                },
+                {
+                  "cid": 7654321,
+                  "name": "John Doe",
+                  "callsign": "BAW1",
+                  "server": "GERMANY",
+                  "latitude": 51.47,
+                  "longitude": -0.45,
+                  "altitude": 0,
+                  "groundspeed": 0,
+                  "transponder": "2000",
+                  "heading": 90,
+                  "qnh_i_hg": 29.92,
+                  "qnh_mb": 1013,
+                  "flight_plan": null,
+                  "logon_time": "not a date",
+                  "last_updated": "2022-06-05T12:00:10.0000000Z"
+                }
+              ],
+              "controllers": [
+                {
+                  "cid": 1111111,
+                  "name": "Max Mustermann",
+                  "callsign": "EDDF_TWR",
+                  "frequency": "119.900",
+                  "facility": 4,
+                  "rating": 3,
+                  "server": "GERMANY",
+                  "visual_range": 50,
+                  "text_atis": ["Frankfurt Tower", "Online until 1400z"],
+                  "last_updated": "2022-06-05T12:00:10.0000000Z",
+                  "logon_time": "2022-06-05T11:00:00.0000000Z"
+                }
+              ],
+              "atis": [
+                {
+                  "cid": 1111111,
+                  "name": "Max Mustermann",
+                  "callsign": "EDDF_ATIS",
+                  "frequency": "118.025",
+                  "facility": 4,
+                  "rating": 3,
+                  "server": "GERMANY",
+                  "visual_range": 0,
+                  "atis_code": "A",
+                  "text_atis": null,
+                  "last_updated": "2022-06-05T12:00:10.0000000Z",
+                  "logon_time": "2022-06-05T11:00:00.0000000Z"
+                }
+              ],
+              "servers": [],
+              "prefiles": [],
+              "facilities": [],
+              "ratings": [],
+              "pilot_ratings": []
+            }
+            """;
+
+    @Test
+    void testParse() throws IOException {
+        final List<ClientUpdate> actual = new DataFeedParser().parse(FEED);
+
+        Assertions.assertEquals(4, actual.size());
+
+        final ClientUpdate pilot = actual.get(0);
+        Assertions.assertEquals(ClientType.PILOT, pilot.getClientType());
+        Assertions.assertEquals(1234567, pilot.getCid());
+        Assertions.assertEquals("DLH123", pilot.getCallsign());
+        Assertions.assertEquals(50.03, pilot.getLatitude());
+        Assertions.assertEquals(8.57, pilot.getLongitude());
+        Assertions.assertEquals(350, pilot.getAltitude());
+        Assertions.assertEquals(1013, pilot.getQnhMilliBars());
+        Assertions.assertEquals(ZonedDateTime.parse("2022-06-05T11:00:00Z"), pilot.getLogonTime());
+        Assertions.assertEquals("EDDF", pilot.getFlightPlan().getDeparture());
+        Assertions.assertEquals("EGLL", pilot.getFlightPlan().getArrival());
+        Assertions.assertEquals("A320/M-SDE3FGHIRWY/LB1", pilot.getFlightPlan().getAircraft());
+        Assertions.assertEquals("FL360", pilot.getFlightPlan().getAltitude());
+        Assertions.assertEquals("1234567DLH123PILOT", pilot.key());
+
+        final ClientUpdate pilotWithoutFlightPlan = actual.get(1);
+        Assertions.assertNull(pilotWithoutFlightPlan.getFlightPlan());
+        Assertions.assertNull(pilotWithoutFlightPlan.getLogonTime());
+
+        final ClientUpdate controller = actual.get(2);
+        Assertions.assertEquals(ClientType.CONTROLLER, controller.getClientType());
+        Assertions.assertEquals("119.900", controller.getFrequency());
+        Assertions.assertEquals(3, controller.getRating());
+        Assertions.assertEquals(List.of("Frankfurt Tower", "Online until 1400z"), controller.getTextAtis());
+
+        final ClientUpdate atis = actual.get(3);
+        Assertions.assertEquals(ClientType.ATIS, atis.getClientType());
+        Assertions.assertEquals("A", atis.getAtisCode());
+        Assertions.assertNull(atis.getTextAtis());
+    }
+
+    @Test
+    void testRepeatedStringsAreShared() throws IOException {
+        final DataFeedParser sut = new DataFeedParser();
+
+        final List<ClientUpdate> first = sut.parse(FEED);
+        final List<ClientUpdate> second = sut.parse(FEED);
+
+        Assertions.assertSame(first.get(0).getServer(), first.get(1).getServer());
+        Assertions.assertSame(first.get(0).getServer(), second.get(2).getServer());
+        Assertions.assertSame(first.get(0).getFlightPlan().getAircraft(), second.get(0).getFlightPlan().getAircraft());
+    }
+
+    @Test
+    void testMalformedFeed() {
+        Assertions.assertThrows(IOException.class, () -> new DataFeedParser().parse("{\"pilots\": [{\"cid\": \"abc\"}]}"));
+    }
+}
@@ -0,0 +1,66 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+class FeedTimestampTrackerTest {
+    private static final String FEED = """
+            {
+              "general": {
+                "version": 3,
+                "reload": 1,
+                "update": "20220605120015",
+                "update_timestamp": "2022-06-05T12:00:15.1234567Z",
+                "connected_clients": 1,
+                "unique_users": 1
+              },
+              "pilots": []
+            }
+            """;
+
+    @Test
+    void testReadUpdateTimestamp() {
+        final ZonedDateTime actual = FeedTimestampTracker.readUpdateTimestamp(FEED);
+
+        Assertions.assertEquals(ZonedDateTime.parse("2022-06-05T12:00:15.1234567Z"), actual);
+    }
+
+    @Test
+    void testReadUpdateTimestampMissing() {
+        Assertions.assertNull(FeedTimestampTracker.readUpdateTimestamp("{\"pilots\": []}"));
+        Assertions.assertNull(FeedTimestampTracker.readUpdateTimestamp("not json"));
+    }
+
+    @Test
+    void testPredictNextPublication() {
+        final FeedTimestampTracker sut = new FeedTimestampTracker(Duration.ofSeconds(15));
+        final ZonedDateTime start = ZonedDateTime.parse("2022-06-05T12:00:00Z");
+
+        Assertions.assertNull(sut.predictNextPublication());
+
+        sut.observe(start);
+        Assertions.assertEquals(start.plusSeconds(15), sut.predictNextPublication());
+
+        for (int i = 1; i <= 20; i++) {
+            sut.observe(start.plusSeconds(20L * i));
+        }
+
+        final long interval = sut.getInterval().toSeconds();
+        Assertions.assertTrue(interval >= 19 && interval <= 20, "Interval should converge to 20s, was " + interval);
+    }
+
+    @Test
+    void testIgnoresOlderTimestamps() {
+        final FeedTimestampTracker sut = new FeedTimestampTracker(Duration.ofSeconds(15));
+        final ZonedDateTime start = ZonedDateTime.parse("2022-06-05T12:00:00Z");
+
+        sut.observe(start);
+        sut.observe(start.minusSeconds(15));
+
+        Assertions.assertEquals(start, sut.getLatest());
+        Assertions.assertEquals(Duration.ofSeconds(15), sut.getInterval());
+    }
+}
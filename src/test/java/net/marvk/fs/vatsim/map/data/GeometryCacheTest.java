@@ -0,0 +1,111 @@
+package net.marvk.fs.vatsim.map.data;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+class GeometryCacheTest {
+    @TempDir
+    Path directory;
+
+    private static Polygon polygon() {
+        return new Polygon(
+                "test",
+                List.of(new double[]{0, 10, 10, 0}, new double[]{2, 4, 4}),
+                List.of(new double[]{0, 0, 10, 10}, new double[]{2, 2, 4}),
+                Arrays.asList(new Point2D(5, 5), null)
+        );
+    }
+
+    @Test
+    void testRoundTrip() {
+        final GeometryCache sut = new GeometryCache(directory, "1.0.0");
+        sut.write("polygons", "hash", List.of(polygon()));
+
+        final Optional<List<Polygon>> actual = sut.read("polygons", "hash");
+
+        Assertions.assertTrue(actual.isPresent());
+        Assertions.assertEquals(1, actual.get().size());
+
+        final Polygon polygon = actual.get().get(0);
+        Assertions.assertEquals("test", polygon.getName());
+        Assertions.assertArrayEquals(new double[]{0, 10, 10, 0}, polygon.getExteriorRing().getPointsX());
+        Assertions.assertArrayEquals(new double[]{0, 0, 10, 10}, polygon.getExteriorRing().getPointsY());
+        Assertions.assertEquals(new Point2D(5, 5), polygon.getExteriorRing().computedPolyLabel());
+        Assertions.assertEquals(1, polygon.getHoleRings().size());
+        Assertions.assertArrayEquals(new double[]{2, 4, 4}, polygon.getHoleRings().get(0).getPointsX());
+        Assertions.assertNull(polygon.getHoleRings().get(0).computedPolyLabel());
+        Assertions.assertEquals(7, polygon.numPoints());
+    }
+
+    @Test
+    void testSourceOrVersionChangeInvalidates() {
+        new GeometryCache(directory, "1.0.0").write("polygons", "hash", List.of(polygon()));
+
+        Assertions.assertTrue(new GeometryCache(directory, "1.0.0").read("polygons", "other").isEmpty());
+        Assertions.assertTrue(new GeometryCache(directory, "1.0.1").read("polygons", "hash").isEmpty());
+        Assertions.assertTrue(new GeometryCache(directory, "1.0.0").read("missing", "hash").isEmpty());
+    }
+
+    @Test
+    void testCorruptFileIsIgnored() throws Exception {
+        final GeometryCache sut = new GeometryCache(directory, "1.0.0");
+        sut.write("polygons", "hash", List.of(polygon()));
+
+        final Path file = directory.resolve("polygons.bin");
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        Assertions.assertTrue(sut.read("polygons", "hash").isEmpty());
+    }
+
+    @Test
+    void testCorruptCountsAreIgnored() throws Exception {
+        final GeometryCache sut = new GeometryCache(directory, "1.0.0");
+        final Path file = directory.resolve("polygons.bin");
+
+        // magic, version, key "hash/1.0.0", polygon count, name "test" and ring count precede the first point count
+        final int numPointsOffset = 4 + 4 + (4 + 10) + 4 + (4 + 4) + 4;
+
+        for (final int numPoints : new int[]{-1, Integer.MAX_VALUE, 1_000_000}) {
+            sut.write("polygons", "hash", List.of(polygon()));
+
+            final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            Assertions.assertEquals(4, bytes.getInt(numPointsOffset));
+            bytes.putInt(numPointsOffset, numPoints);
+            Files.write(file, bytes.array());
+
+            Assertions.assertTrue(sut.read("polygons", "hash").isEmpty(), String.valueOf(numPoints));
+        }
+    }
+
+    @Test
+    void testWriteReplacesReadSnapshot() {
+        final GeometryCache sut = new GeometryCache(directory, "1.0.0");
+        sut.write("polygons", "hash", List.of(polygon()));
+        Assertions.assertTrue(sut.read("polygons", "hash").isPresent());
+
+        sut.write("polygons", "other", List.of(polygon(), polygon()));
+
+        Assertions.assertEquals(2, sut.read("polygons", "other").orElseThrow().size());
+    }
+
+    @Test
+    void testSourceHash() {
+        final String a = new GeometryCache.SourceHash().update("EDGG").update(1.5).update(true).finish();
+        final String b = new GeometryCache.SourceHash().update("EDGG").update(1.5).update(true).finish();
+        final String c = new GeometryCache.SourceHash().update("EDGG").update(1.5).update(false).finish();
+
+        Assertions.assertEquals(a, b);
+        Assertions.assertNotEquals(a, c);
+        Assertions.assertEquals(64, a.length());
+    }
+}
@@ -0,0 +1,30 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class PackagedColorSchemeRepositoryTest {
+    @Test
+    void testIndexListsAllPackagedColorSchemes() throws IOException, URISyntaxException {
+        final Path directory = Path.of(PackagedColorSchemeRepositoryTest.class.getResource("/net/marvk/fs/vatsim/map/color_schemes").toURI());
+
+        final Set<String> expected;
+        try (final Stream<Path> files = Files.list(directory)) {
+            expected = files
+                    .map(e -> "/net/marvk/fs/vatsim/map/color_schemes/" + e.getFileName())
+                    .collect(Collectors.toSet());
+        }
+
+        final Set<String> actual = PackagedColorSchemeRepository.fileNamesStream().collect(Collectors.toSet());
+
+        Assertions.assertEquals(expected, actual);
+    }
+}
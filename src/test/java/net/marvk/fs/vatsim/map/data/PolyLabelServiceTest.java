@@ -0,0 +1,39 @@
+package net.marvk.fs.vatsim.map.data;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+class PolyLabelServiceTest {
+    private static Polygon lShape() {
+        return new Polygon(
+                "l_shape",
+                List.of(new double[]{0, 10, 10, 2, 2, 0}),
+                List.of(new double[]{0, 0, 2, 2, 10, 10}),
+                Collections.singletonList(null)
+        );
+    }
+
+    @Test
+    void testFallbackIsBoundaryCenter() {
+        final Polygon polygon = lShape();
+
+        Assertions.assertFalse(polygon.getExteriorRing().isPolyLabelComputed());
+        Assertions.assertEquals(new Point2D(5, 5), polygon.getExteriorRing().getPolyLabel());
+        Assertions.assertFalse(polygon.getExteriorRing().isPolyLabelComputed());
+    }
+
+    @Test
+    void testComputeAsync() {
+        final Polygon polygon = lShape();
+
+        new PolyLabelService(Runnable::run).computeAsync(List.of(polygon)).join();
+
+        final Polygon.Ring ring = polygon.getExteriorRing();
+        Assertions.assertTrue(ring.isPolyLabelComputed());
+        Assertions.assertTrue(ring.getPolyLabel().getX() < 2 || ring.getPolyLabel().getY() < 2, ring.getPolyLabel().toString());
+    }
+}
@@ -0,0 +1,46 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+class PolygonDifferenceTest {
+    private static Polygon polygon(final String name, final double[] x, final double[] y) {
+        return new Polygon(name, List.of(x), List.of(y), Collections.singletonList(null));
+    }
+
+    @Test
+    void testContainedPolygonBecomesHole() {
+        final Polygon land = polygon("land", new double[]{0, 10, 10, 0}, new double[]{0, 0, 10, 10});
+        final Polygon lake = polygon("lake", new double[]{2, 4, 4, 2}, new double[]{2, 2, 4, 4});
+
+        final List<Polygon> actual = PolygonDifference.subtract(List.of(land), List.of(lake));
+
+        Assertions.assertEquals(1, actual.size());
+        Assertions.assertEquals(1, actual.get(0).getHoleRings().size());
+        Assertions.assertEquals(5, actual.get(0).getHoleRings().get(0).numPoints());
+    }
+
+    @Test
+    void testSplittingPolygonYieldsParts() {
+        final Polygon land = polygon("land", new double[]{0, 10, 10, 0}, new double[]{0, 0, 10, 10});
+        final Polygon river = polygon("river", new double[]{4, 6, 6, 4}, new double[]{-1, -1, 11, 11});
+
+        final List<Polygon> actual = PolygonDifference.subtract(List.of(land), List.of(river));
+
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertTrue(actual.stream().allMatch(e -> e.getHoleRings().isEmpty()));
+    }
+
+    @Test
+    void testDisjointPolygonIsKept() {
+        final Polygon land = polygon("land", new double[]{0, 10, 10, 0}, new double[]{0, 0, 10, 10});
+        final Polygon lake = polygon("lake", new double[]{20, 30, 30, 20}, new double[]{20, 20, 30, 30});
+
+        final List<Polygon> actual = PolygonDifference.subtract(List.of(land), List.of(lake));
+
+        Assertions.assertEquals(List.of(land), actual);
+    }
+}
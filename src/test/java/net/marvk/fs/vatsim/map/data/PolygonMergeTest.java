@@ -0,0 +1,109 @@
+package net.marvk.fs.vatsim.map.data;
+
+import net.marvk.fs.vatsim.api.SimpleVatsimApi;
+import net.marvk.fs.vatsim.api.StringDataSource;
+import net.marvk.fs.vatsim.api.data.VatsimAirspace;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+class PolygonMergeTest {
+    private static Polygon polygon(final double[] x, final double[] y) {
+        return new Polygon(null, List.of(x), List.of(y), Collections.singletonList(null));
+    }
+
+    @Test
+    void testMergeAlongSharedEdge() {
+        final Polygon west = polygon(new double[]{0, 1, 1, 0}, new double[]{0, 0, 1, 1});
+        final Polygon east = polygon(new double[]{1, 1, 2, 2}, new double[]{1, 0, 0, 1});
+
+        final Polygon actual = Polygon.merge(west, east);
+
+        Assertions.assertArrayEquals(new double[]{0, 1, 2, 2, 0}, actual.getExteriorRing().getPointsX());
+        Assertions.assertArrayEquals(new double[]{0, 0, 0, 1, 1}, actual.getExteriorRing().getPointsY());
+    }
+
+    @Test
+    void testMergeAcrossAntimeridian() {
+        final Polygon west = polygon(new double[]{170, 180, 180, 170}, new double[]{0, 0, 10, 10});
+        final Polygon east = polygon(new double[]{-180, -180, -170, -170}, new double[]{10, 0, 0, 10});
+
+        final Polygon actual = Polygon.merge(west, east);
+
+        Assertions.assertArrayEquals(new double[]{170, 180, 190, 190, 170}, actual.getExteriorRing().getPointsX());
+        Assertions.assertArrayEquals(new double[]{0, 0, 0, 10, 10}, actual.getExteriorRing().getPointsY());
+    }
+
+    @Test
+    void testMergeRejectsCompactPolygons() {
+        final Polygon west = polygon(new double[]{0, 1, 1, 0}, new double[]{0, 0, 1, 1});
+        final Polygon east = polygon(new double[]{1, 1, 2, 2}, new double[]{1, 0, 0, 1});
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Polygon.merge(west.compact(), east));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Polygon.merge(west, east.compact()));
+    }
+
+    @Test
+    void testSharedVerticesMatchPairwiseComparison() throws IOException {
+        final List<VatsimAirspace> airspaces = loadAirspaces();
+
+        final Map<String, Polygon> parents = new HashMap<>();
+        final List<Map.Entry<String, Polygon>> extensions = new ArrayList<>();
+
+        for (final VatsimAirspace airspace : airspaces) {
+            final String key = airspace.getGeneral().getIcao() + "_" + airspace.getGeneral().getOceanic();
+            final Polygon polygon = new Polygon(airspace.getAirspacePoints(), key);
+
+            if (airspace.getGeneral().getExtension()) {
+                extensions.add(Map.entry(key, polygon));
+            } else {
+                parents.putIfAbsent(key, polygon);
+            }
+        }
+
+        Assertions.assertFalse(extensions.isEmpty());
+
+        for (final Map.Entry<String, Polygon> extension : extensions) {
+            final Polygon parent = parents.get(extension.getKey());
+
+            if (parent == null) {
+                continue;
+            }
+
+            final Polygon.Ring ring1 = parent.getExteriorRing();
+            final Polygon.Ring ring2 = extension.getValue().getExteriorRing();
+
+            Assertions.assertEquals(pairwise(ring1, ring2), Polygon.sharedVertices(ring1, ring2), extension.getKey());
+            Assertions.assertEquals(pairwise(ring2, ring1), Polygon.sharedVertices(ring2, ring1), extension.getKey());
+        }
+    }
+
+    private static Map<Integer, Integer> pairwise(final Polygon.Ring ring1, final Polygon.Ring ring2) {
+        final Map<Integer, Integer> result = new LinkedHashMap<>();
+
+        for (int i = 0; i < ring1.numPoints(); i++) {
+            for (int j = 0; j < ring2.numPoints(); j++) {
+                if (Double.compare((ring1.getPointsX()[i] + 720) % 360, (ring2.getPointsX()[j] + 720) % 360) == 0 &&
+                        Double.compare(ring1.getPointsY()[i], ring2.getPointsY()[j]) == 0) {
+                    result.put(i, j);
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static List<VatsimAirspace> loadAirspaces() throws IOException {
+        try (final var is = PolygonMergeTest.class.getResourceAsStream("/net/marvk/fs/vatsim/map/data/FIRBoundaries.dat")) {
+            Objects.requireNonNull(is);
+            final String firBoundaries = new String(is.readAllBytes());
+            final var api = new SimpleVatsimApi(new StringDataSource(null, null, firBoundaries, null, null, null));
+            return new ArrayList<>(api.firBoundaries().getAirspaces());
+        } catch (final Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
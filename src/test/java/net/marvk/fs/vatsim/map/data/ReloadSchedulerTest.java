@@ -0,0 +1,106 @@
+package net.marvk.fs.vatsim.map.data;
+
+import net.marvk.fs.vatsim.map.executor.VirtualTimeExecutors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+class ReloadSchedulerTest {
+    private VirtualTimeExecutors executors;
+    private List<Instant> reloads;
+
+    @BeforeEach
+    void setup() {
+        executors = new VirtualTimeExecutors();
+        reloads = new ArrayList<>();
+    }
+
+    @Test
+    void testBackoffWhileFeedDoesNotAdvance() {
+        final ReloadScheduler sut = scheduler(this::record);
+
+        sut.start(Duration.ZERO);
+        executors.advance(Duration.ofSeconds(100));
+
+        final List<Long> delays = new ArrayList<>();
+        for (int i = 1; i < reloads.size(); i++) {
+            delays.add(Duration.between(reloads.get(i - 1), reloads.get(i)).toSeconds());
+        }
+
+        Assertions.assertEquals(List.of(2L, 4L, 8L, 16L, 16L, 16L, 16L, 16L), delays);
+    }
+
+    @Test
+    void testManualReloadsDuringReloadAreQueuedAndCoalesced() throws Exception {
+        final List<Boolean> nested = new ArrayList<>();
+        final ReloadScheduler[] sut = new ReloadScheduler[1];
+        sut[0] = scheduler(() -> {
+            record();
+            if (reloads.size() == 1) {
+                nested.add(sut[0].reloadNow());
+                nested.add(sut[0].reloadNow());
+            }
+        });
+
+        Assertions.assertTrue(sut[0].reloadNow());
+
+        Assertions.assertEquals(List.of(false, false), nested);
+        Assertions.assertEquals(2, reloads.size());
+    }
+
+    @Test
+    void testScheduledReloadIsSkippedWhileManualReloadIsInFlight() throws Exception {
+        final ReloadScheduler sut = scheduler(() -> {
+            record();
+            if (reloads.size() == 1) {
+                // the scheduled reload becomes due while the manual reload is in flight
+                executors.advance(Duration.ofSeconds(2));
+            }
+        });
+
+        sut.start(Duration.ofSeconds(1));
+        Assertions.assertTrue(sut.reloadNow());
+
+        Assertions.assertEquals(1, reloads.size());
+        Assertions.assertEquals(1, executors.queued(), "the manual reload schedules exactly one next reload");
+
+        executors.advance(Duration.ofSeconds(2));
+        Assertions.assertEquals(2, reloads.size());
+    }
+
+    @Test
+    void testFailedManualReloadIsRethrownAndRescheduled() {
+        final ReloadScheduler sut = scheduler(() -> {
+            record();
+            throw new IOException("unreachable");
+        });
+
+        sut.start(Duration.ofSeconds(60));
+        Assertions.assertThrows(IOException.class, sut::reloadNow);
+        Assertions.assertEquals(1, executors.queued());
+
+        executors.advance(Duration.ofSeconds(2));
+        Assertions.assertEquals(2, reloads.size());
+    }
+
+    private void record() {
+        reloads.add(executors.clock().instant());
+    }
+
+    private ReloadScheduler scheduler(final ReloadScheduler.ReloadAction reloadAction) {
+        return new ReloadScheduler(
+                reloadAction,
+                new FeedTimestampTracker(Duration.ofSeconds(15)),
+                Duration.ZERO,
+                Duration.ZERO,
+                Duration.ofSeconds(16),
+                executors
+        );
+    }
+}
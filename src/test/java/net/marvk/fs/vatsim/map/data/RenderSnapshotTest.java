@@ -0,0 +1,81 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class RenderSnapshotTest {
+    private final Airport airport = new Airport();
+    private final FlightInformationRegionBoundary firb = new FlightInformationRegionBoundary();
+    private final UpperInformationRegion uir = new UpperInformationRegion();
+
+    @Test
+    void testControllerTypes() {
+        controller(new CallsignParser.Result(ControllerType.TWR, airport, null, null, null));
+        controller(new CallsignParser.Result(ControllerType.APP, airport, null, null, null));
+
+        final RenderSnapshot sut = snapshot();
+        final int types = sut.controllerTypes(airport);
+
+        Assertions.assertTrue(sut.hasControllers(airport));
+        Assertions.assertTrue(RenderSnapshot.contains(types, ControllerType.TWR));
+        Assertions.assertTrue(RenderSnapshot.contains(types, ControllerType.APP));
+        Assertions.assertFalse(RenderSnapshot.contains(types, ControllerType.GND));
+        Assertions.assertFalse(sut.hasArrivals(airport));
+        Assertions.assertFalse(sut.hasDepartures(airport));
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterChanges() {
+        final Controller tower = controller(new CallsignParser.Result(ControllerType.TWR, airport, null, null, null));
+        final Controller center = controller(new CallsignParser.Result(ControllerType.CTR, null, firb, null, null));
+        final Controller upper = controller(new CallsignParser.Result(ControllerType.CTR, null, null, null, uir));
+
+        final RenderSnapshot sut = snapshot();
+
+        tower.setFromCallsignParserResult(CallsignParser.Result.EMPTY);
+        center.setFromCallsignParserResult(CallsignParser.Result.EMPTY);
+        upper.setFromCallsignParserResult(CallsignParser.Result.EMPTY);
+
+        Assertions.assertTrue(sut.hasControllers(airport));
+        Assertions.assertTrue(sut.hasFirControllers(firb));
+        Assertions.assertTrue(sut.hasControllers(uir));
+
+        final RenderSnapshot next = snapshot();
+
+        Assertions.assertFalse(next.hasControllers(airport));
+        Assertions.assertEquals(0, next.controllerTypes(airport));
+        Assertions.assertFalse(next.hasFirControllers(firb));
+        Assertions.assertFalse(next.hasControllers(uir));
+    }
+
+    @Test
+    void testUnknownItemsFallBackToLiveValues() {
+        final Airport unknown = new Airport();
+        controller(new CallsignParser.Result(ControllerType.GND, unknown, null, null, null));
+
+        final RenderSnapshot sut = snapshot();
+
+        Assertions.assertTrue(sut.hasControllers(unknown));
+        Assertions.assertTrue(RenderSnapshot.contains(sut.controllerTypes(unknown), ControllerType.GND));
+        Assertions.assertEquals(-1, sut.pilotIndex(new Pilot()));
+        Assertions.assertFalse(RenderSnapshot.EMPTY.hasControllers(uir));
+    }
+
+    private static Controller controller(final CallsignParser.Result result) {
+        final Controller controller = new Controller();
+        controller.setFromCallsignParserResult(result);
+        return controller;
+    }
+
+    private RenderSnapshot snapshot() {
+        final RenderSnapshot.Index<FlightInformationRegionBoundary> firbs = new RenderSnapshot.Index<>(List.of(firb));
+        return new RenderSnapshot.Builder(1)
+                .pilots(List.of())
+                .airports(new RenderSnapshot.Index<>(List.of(airport)))
+                .flightInformationRegionBoundaries(firbs, new String[]{RenderSnapshot.labelOf(firb)})
+                .upperInformationRegions(new RenderSnapshot.Index<>(List.of(uir)))
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.geotools.data.DataStore;
+import org.geotools.data.DataStoreFinder;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPolygon;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class ShapefileReaderTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"ne_50m_land", "ne_50m_lakes", "ne_50m_coastline"})
+    void testMatchesGeoTools(final String name) throws IOException {
+        final URL url = ShapefileReaderTest.class.getResource("/net/marvk/fs/vatsim/map/world/%s/%s.shp".formatted(name, name));
+
+        final List<Polygon> expected = readWithGeoTools(name, url);
+        final List<Polygon> actual = ShapefileReader.read(name, url);
+
+        Assertions.assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            final Polygon e = expected.get(i);
+            final Polygon a = actual.get(i);
+
+            Assertions.assertEquals(e.getName(), a.getName());
+            assertRingEquals(e.getExteriorRing(), a.getExteriorRing());
+            Assertions.assertEquals(e.getHoleRings().size(), a.getHoleRings().size(), e.getName());
+
+            for (int j = 0; j < e.getHoleRings().size(); j++) {
+                assertRingEquals(e.getHoleRings().get(j), a.getHoleRings().get(j));
+            }
+        }
+    }
+
+    private static void assertRingEquals(final Polygon.Ring expected, final Polygon.Ring actual) {
+        Assertions.assertArrayEquals(expected.getPointsX(), actual.getPointsX());
+        Assertions.assertArrayEquals(expected.getPointsY(), actual.getPointsY());
+    }
+
+    private static List<Polygon> readWithGeoTools(final String name, final URL url) throws IOException {
+        final DataStore dataStore = DataStoreFinder.getDataStore(Map.of("url", url));
+
+        try (final SimpleFeatureIterator features = dataStore.getFeatureSource(dataStore.getTypeNames()[0]).getFeatures().features()) {
+            final List<Polygon> result = new ArrayList<>();
+
+            while (features.hasNext()) {
+                final Object shape = features.next().getDefaultGeometry();
+
+                if (shape instanceof MultiLineString || shape instanceof MultiPolygon) {
+                    final Geometry geometry = (Geometry) shape;
+
+                    for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                        result.add(new Polygon(geometry.getGeometryN(i), "%s_%d".formatted(name, result.size())));
+                    }
+                }
+            }
+
+            return result;
+        } finally {
+            dataStore.dispose();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package net.marvk.fs.vatsim.map.data;
+
+import net.marvk.fs.vatsim.api.SimpleVatsimApi;
+import net.marvk.fs.vatsim.api.StringDataSource;
+import net.marvk.fs.vatsim.api.VatsimApi;
+import net.marvk.fs.vatsim.api.data.VatsimAirport;
+import net.marvk.fs.vatsim.api.data.VatsimAirspace;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link RenderSnapshot}s of the airports and boundaries in the test resources, for tests outside of this
+ * package.
+ */
+public final class TestRenderSnapshots {
+    private final List<Airport> airports;
+    private final List<FlightInformationRegionBoundary> firbs;
+
+    /**
+     * Loads all airports and all boundaries that are not extensions, with their labels computed like the
+     * {@link PolyLabelService} does after loading.
+     */
+    public TestRenderSnapshots() throws IOException {
+        final VatsimApi api = new SimpleVatsimApi(new StringDataSource(null, null, resource("FIRBoundaries.dat"), resource("VATSpy.dat"), null, null));
+
+        try {
+            this.airports = api
+                    .vatSpy()
+                    .getAirports()
+                    .stream()
+                    .collect(Collectors.groupingBy(VatsimAirport::getIcao))
+                    .values()
+                    .stream()
+                    .map(TestRenderSnapshots::airport)
+                    .collect(Collectors.toUnmodifiableList());
+
+            this.firbs = api
+                    .firBoundaries()
+                    .getAirspaces()
+                    .stream()
+                    .filter(e -> !e.getGeneral().getExtension())
+                    .map(TestRenderSnapshots::firb)
+                    .collect(Collectors.toUnmodifiableList());
+        } catch (final Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    public List<Airport> getAirports() {
+        return airports;
+    }
+
+    public List<FlightInformationRegionBoundary> getFirbs() {
+        return firbs;
+    }
+
+    /**
+     * Adds a controller of the type working at the airport.
+     */
+    public static void control(final Airport airport, final ControllerType type) {
+        control(new CallsignParser.Result(type, airport, null, null, null));
+    }
+
+    /**
+     * Adds a center controller working in the boundary.
+     */
+    public static void control(final FlightInformationRegionBoundary firb) {
+        control(new CallsignParser.Result(ControllerType.CTR, null, firb, null, null));
+    }
+
+    private static void control(final CallsignParser.Result result) {
+        new Controller().setFromCallsignParserResult(result);
+    }
+
+    public static Pilot pilot(final String callsign, final double latitude, final double longitude, final double heading, final double groundSpeed) {
+        final ClientUpdate update = new ClientUpdate(ClientType.PILOT);
+        update.callsign = callsign;
+        update.latitude = latitude;
+        update.longitude = longitude;
+        update.heading = heading;
+        update.groundSpeed = groundSpeed;
+
+        final Pilot result = new Pilot();
+        result.setFromModel(update);
+        return result;
+    }
+
+    /**
+     * @return a snapshot of the pilots and of all airports and boundaries
+     */
+    public RenderSnapshot snapshot(final Collection<Pilot> pilots) {
+        final RenderSnapshot.Index<FlightInformationRegionBoundary> firbIndex = new RenderSnapshot.Index<>(firbs);
+        final String[] labels = new String[firbIndex.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = RenderSnapshot.labelOf(firbIndex.get(i));
+        }
+
+        return new RenderSnapshot.Builder(1)
+                .pilots(pilots)
+                .airports(new RenderSnapshot.Index<>(airports))
+                .flightInformationRegionBoundaries(firbIndex, labels)
+                .upperInformationRegions(new RenderSnapshot.Index<>(List.of()))
+                .build();
+    }
+
+    private static Airport airport(final List<VatsimAirport> airports) {
+        final Airport result = new Airport();
+        result.setFromModel(new AirportRepository.VatsimAirportWrapper(airports));
+        return result;
+    }
+
+    private static FlightInformationRegionBoundary firb(final VatsimAirspace airspace) {
+        final FlightInformationRegionBoundary result = new FlightInformationRegionBoundary();
+        result.setFromModel(airspace);
+        result.getPolygon().getExteriorRing().computePolyLabel();
+        return result;
+    }
+
+    private static String resource(final String name) throws IOException {
+        try (final var is = TestRenderSnapshots.class.getResourceAsStream("/net/marvk/fs/vatsim/map/data/" + name)) {
+            Objects.requireNonNull(is);
+            return new String(is.readAllBytes());
+        }
+    }
+}
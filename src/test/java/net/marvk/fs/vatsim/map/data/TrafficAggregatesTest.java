@@ -0,0 +1,269 @@
+package net.marvk.fs.vatsim.map.data;
+
+import net.marvk.fs.vatsim.api.SimpleVatsimApi;
+import net.marvk.fs.vatsim.api.StringDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+
+class TrafficAggregatesTest {
+    private static final int PILOTS_INSIDE = 0;
+    private static final int INBOUND = 1;
+    private static final int OUTBOUND = 2;
+    private static final int ON_GROUND = 3;
+    private static final int CONTROLLERS = 4;
+
+    private final Random random = new Random(42);
+
+    private final List<Country> countries;
+    private final List<FlightInformationRegionBoundary> firbs = new ArrayList<>();
+    private final List<Airport> airports = new ArrayList<>();
+
+    TrafficAggregatesTest() throws IOException, RepositoryException {
+        // countries are equal by name, so they have to be loaded instead of created empty
+        try (final var is = TrafficAggregatesTest.class.getResourceAsStream("/net/marvk/fs/vatsim/map/data/VATSpy.dat")) {
+            Objects.requireNonNull(is);
+            final String vatSpy = new String(is.readAllBytes());
+            final CountryRepository countryRepository = new CountryRepository(new SimpleVatsimApi(new StringDataSource(null, null, null, vatSpy, null, null)));
+            countryRepository.reload();
+            countries = List.copyOf(countryRepository.list().subList(0, 2));
+        }
+        Assertions.assertNotEquals(countries.get(0), countries.get(1));
+
+        for (int i = 0; i < 6; i++) {
+            final FlightInformationRegionBoundary firb = new FlightInformationRegionBoundary();
+            firb.countryPropertyWritable().set(countries.get(i % countries.size()));
+            firbs.add(firb);
+        }
+
+        for (int i = 0; i < 12; i++) {
+            final Airport airport = new Airport();
+            airport.flightInformationRegionBoundaryPropertyWritable().set(firbs.get(i % firbs.size()));
+            airports.add(airport);
+        }
+    }
+
+    @Test
+    void testPilotCounts() {
+        final TrafficAggregates sut = new TrafficAggregates();
+        final Airport departure = airports.get(0);
+        final Airport arrival = airports.get(1);
+
+        sut.update(new Pilot(), TrafficAggregates.Contribution.pilot(departure, arrival, departure, List.of(firbs.get(0)), true));
+
+        Assertions.assertEquals(1, sut.get(departure).getOutbound());
+        Assertions.assertEquals(1, sut.get(departure).getOnGround());
+        Assertions.assertEquals(1, sut.get(arrival).getInbound());
+        Assertions.assertEquals(1, sut.get(firbs.get(0)).getPilotsInside());
+        Assertions.assertEquals(1, sut.get(firbs.get(0)).getOutbound());
+        Assertions.assertEquals(1, sut.get(firbs.get(1)).getInbound());
+        Assertions.assertEquals(1, sut.get(countries.get(0)).getOutbound());
+        Assertions.assertEquals(1, sut.get(countries.get(1)).getInbound());
+        Assertions.assertEquals(Set.of(departure, arrival), Set.copyOf(sut.busiestAirports(10)));
+    }
+
+    @Test
+    void testPilotInsideTwoFirsOfOneCountryCountsOnceForTheCountry() {
+        final TrafficAggregates sut = new TrafficAggregates();
+        final FlightInformationRegionBoundary first = firbs.get(0);
+        final FlightInformationRegionBoundary second = firbs.get(2);
+        final Pilot pilot = new Pilot();
+
+        sut.update(pilot, TrafficAggregates.Contribution.pilot(null, null, null, List.of(first), true));
+
+        Assertions.assertEquals(1, sut.get(first).getPilotsInside());
+        Assertions.assertEquals(1, sut.get(countries.get(0)).getPilotsInside());
+        Assertions.assertEquals(1, sut.get(countries.get(0)).getOnGround());
+
+        sut.update(pilot, TrafficAggregates.Contribution.pilot(null, null, null, List.of(first, second), true));
+
+        Assertions.assertEquals(1, sut.get(first).getPilotsInside());
+        Assertions.assertEquals(1, sut.get(second).getPilotsInside());
+        Assertions.assertEquals(1, sut.get(countries.get(0)).getPilotsInside());
+        Assertions.assertEquals(1, sut.get(countries.get(0)).getOnGround());
+        Assertions.assertEquals(0, sut.get(countries.get(1)).getPilotsInside());
+
+        sut.update(pilot, null);
+
+        Assertions.assertEquals(0, sut.get(first).getPilotsInside());
+        Assertions.assertEquals(0, sut.get(countries.get(0)).getPilotsInside());
+        Assertions.assertEquals(0, sut.get(countries.get(0)).getOnGround());
+    }
+
+    @Test
+    void testControllerCounts() {
+        final TrafficAggregates sut = new TrafficAggregates();
+        final Airport airport = airports.get(2);
+
+        sut.update(new Controller(), TrafficAggregates.Contribution.controller(ControllerType.TWR, airport, null));
+        sut.update(new Controller(), TrafficAggregates.Contribution.controller(ControllerType.GND, airport, null));
+        final Controller center = new Controller();
+        sut.update(center, TrafficAggregates.Contribution.controller(ControllerType.CTR, null, firbs.get(2)));
+
+        Assertions.assertEquals(2, sut.get(airport).getControllers());
+        Assertions.assertEquals(1, sut.get(airport).getControllers(ControllerType.TWR));
+        Assertions.assertEquals(3, sut.get(firbs.get(2)).getControllers());
+        Assertions.assertEquals(1, sut.get(firbs.get(2)).getControllers(ControllerType.CTR));
+
+        sut.update(center, null);
+
+        Assertions.assertEquals(0, sut.get(firbs.get(2)).getControllers(ControllerType.CTR));
+        Assertions.assertEquals(2, sut.get(countries.get(0)).getControllers());
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchNaiveRecount() {
+        final TrafficAggregates sut = new TrafficAggregates();
+        final Map<Client, TrafficAggregates.Contribution> current = new HashMap<>();
+        final List<Client> clients = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            final int operation = random.nextInt(3);
+            if (operation == 0 || clients.isEmpty()) {
+                final Client client = random.nextInt(4) == 0 ? new Controller() : new Pilot();
+                final TrafficAggregates.Contribution contribution = randomContribution(client);
+                clients.add(client);
+                current.put(client, contribution);
+                sut.update(client, contribution);
+            } else if (operation == 1) {
+                final Client client = clients.remove(random.nextInt(clients.size()));
+                current.remove(client);
+                sut.update(client, null);
+            } else {
+                final Client client = clients.get(random.nextInt(clients.size()));
+                final TrafficAggregates.Contribution contribution = randomContribution(client);
+                current.put(client, contribution);
+                sut.update(client, contribution);
+            }
+        }
+
+        final Map<Object, List<Integer>> expected = naiveRecount(current.values());
+
+        for (final Airport airport : airports) {
+            Assertions.assertEquals(expected(expected, airport), counts(sut.get(airport)));
+        }
+        for (final FlightInformationRegionBoundary firb : firbs) {
+            Assertions.assertEquals(expected(expected, firb), counts(sut.get(firb)));
+        }
+        for (final Country country : countries) {
+            Assertions.assertEquals(expected(expected, country), counts(sut.get(country)));
+        }
+    }
+
+    /**
+     * Counts every contribution from scratch, in the same order as {@link #counts(TrafficCounts)}.
+     */
+    private static Map<Object, List<Integer>> naiveRecount(final Iterable<TrafficAggregates.Contribution> contributions) {
+        final Map<Object, List<Integer>> result = new HashMap<>();
+
+        for (final TrafficAggregates.Contribution contribution : contributions) {
+            final Set<Country> countriesInside = new HashSet<>();
+            for (final FlightInformationRegionBoundary firb : contribution.getFlightInformationRegionBoundaries()) {
+                increment(result, firb, PILOTS_INSIDE);
+                if (contribution.isOnGround()) {
+                    increment(result, firb, ON_GROUND);
+                }
+                countriesInside.add(firb.getCountry());
+            }
+            for (final Country country : countriesInside) {
+                increment(result, country, PILOTS_INSIDE);
+                if (contribution.isOnGround()) {
+                    increment(result, country, ON_GROUND);
+                }
+            }
+
+            incrementWithFirbAndCountry(result, contribution.getDeparture(), OUTBOUND);
+            incrementWithFirbAndCountry(result, contribution.getArrival(), INBOUND);
+
+            if (contribution.getGroundAirport() != null) {
+                increment(result, contribution.getGroundAirport(), ON_GROUND);
+            }
+
+            if (contribution.getControllerType() != null) {
+                final int index = CONTROLLERS + contribution.getControllerType().ordinal();
+                incrementWithFirbAndCountry(result, contribution.getControllerAirport(), index);
+
+                final FlightInformationRegionBoundary firb = contribution.getControllerFlightInformationRegionBoundary();
+                if (firb != null) {
+                    increment(result, firb, index);
+                    increment(result, firb.getCountry(), index);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static void incrementWithFirbAndCountry(final Map<Object, List<Integer>> counts, final Airport airport, final int index) {
+        if (airport == null) {
+            return;
+        }
+
+        increment(counts, airport, index);
+        increment(counts, airport.getFlightInformationRegionBoundary(), index);
+        increment(counts, airport.getFlightInformationRegionBoundary().getCountry(), index);
+    }
+
+    private static void increment(final Map<Object, List<Integer>> counts, final Object key, final int index) {
+        final List<Integer> list = counts.computeIfAbsent(key, k -> new ArrayList<>(empty()));
+        list.set(index, list.get(index) + 1);
+    }
+
+    private static List<Integer> expected(final Map<Object, List<Integer>> expected, final Object key) {
+        return expected.getOrDefault(key, empty());
+    }
+
+    private static List<Integer> empty() {
+        return Collections.nCopies(CONTROLLERS + ControllerType.values().length, 0);
+    }
+
+    private static List<Integer> counts(final TrafficCounts counts) {
+        final List<Integer> result = new ArrayList<>(List.of(
+                counts.getPilotsInside(),
+                counts.getInbound(),
+                counts.getOutbound(),
+                counts.getOnGround()
+        ));
+        for (final ControllerType type : ControllerType.values()) {
+            result.add(counts.getControllers(type));
+        }
+        return result;
+    }
+
+    private TrafficAggregates.Contribution randomContribution(final Client client) {
+        if (client instanceof Controller) {
+            final ControllerType type = ControllerType.values()[random.nextInt(ControllerType.values().length)];
+            return random.nextBoolean()
+                    ? TrafficAggregates.Contribution.controller(type, randomAirport(), null)
+                    : TrafficAggregates.Contribution.controller(type, null, randomElement(firbs));
+        }
+
+        final Airport departure = randomAirport();
+        final Airport arrival = randomAirport();
+        final boolean onGround = random.nextBoolean();
+        final Set<FlightInformationRegionBoundary> inside = new HashSet<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            inside.add(randomElement(firbs));
+        }
+
+        return TrafficAggregates.Contribution.pilot(departure, arrival, onGround ? departure : null, List.copyOf(inside), onGround);
+    }
+
+    private Airport randomAirport() {
+        return random.nextInt(5) == 0 ? null : randomElement(airports);
+    }
+
+    private <E> E randomElement(final List<E> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+}
@@ -0,0 +1,155 @@
+package net.marvk.fs.vatsim.map.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+class TrafficDensityTest {
+    private final Random random = new Random(42);
+
+    private final Set<Client> matching = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Filter filter = new Filter() {
+        @Override
+        public boolean test(final Client client) {
+            return matching.contains(client);
+        }
+    };
+
+    private final TrafficDensity sut = new TrafficDensity(List.of(filter));
+
+    @Test
+    void testMovedRemovedAndRefilteredPilots() {
+        final Pilot frankfurt = pilot(50.03, 8.57);
+        final Pilot newYork = pilot(40.64, -73.78);
+        final int frankfurtCell = TrafficDensity.cell(frankfurt.getPosition());
+        final int newYorkCell = TrafficDensity.cell(newYork.getPosition());
+
+        matching.add(frankfurt);
+        apply(delta -> {
+            delta.added(frankfurt);
+            delta.added(newYork);
+        });
+
+        Assertions.assertEquals(1, sut.grid().count(frankfurtCell, false));
+        Assertions.assertEquals(1, sut.grid().count(frankfurtCell, true));
+        Assertions.assertEquals(1, sut.grid().count(newYorkCell, false));
+        Assertions.assertEquals(0, sut.grid().count(newYorkCell, true));
+
+        move(frankfurt, 40.5, -73.5);
+        apply(delta -> delta.changed(frankfurt, ClientField.POSITION.mask()));
+
+        Assertions.assertEquals(0, sut.grid().count(frankfurtCell, false));
+        Assertions.assertEquals(0, sut.grid().count(frankfurtCell, true));
+        Assertions.assertEquals(2, sut.grid().count(newYorkCell, false));
+        Assertions.assertEquals(1, sut.grid().count(newYorkCell, true));
+
+        matching.clear();
+        matching.add(newYork);
+        sut.refilter();
+
+        Assertions.assertEquals(2, sut.grid().count(newYorkCell, false));
+        Assertions.assertEquals(1, sut.grid().count(newYorkCell, true));
+
+        apply(delta -> delta.removed(newYork));
+
+        Assertions.assertEquals(1, sut.grid().count(newYorkCell, false));
+        Assertions.assertEquals(0, sut.grid().count(newYorkCell, true));
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchNaiveRecount() {
+        final List<Client> clients = new ArrayList<>();
+        long generation = sut.grid().getGeneration();
+
+        for (int i = 0; i < 2000; i++) {
+            final int operation = random.nextInt(4);
+            if (operation == 0 || clients.isEmpty()) {
+                final Client client = random.nextInt(5) == 0 ? new Controller() : randomPilot();
+                if (random.nextBoolean()) {
+                    matching.add(client);
+                }
+                clients.add(client);
+                apply(delta -> delta.added(client));
+            } else if (operation == 1) {
+                final Client client = clients.remove(random.nextInt(clients.size()));
+                matching.remove(client);
+                apply(delta -> delta.removed(client));
+            } else if (operation == 2) {
+                final Client client = clients.get(random.nextInt(clients.size()));
+                if (client instanceof Pilot) {
+                    move((Pilot) client, randomLatitude(), randomLongitude());
+                }
+                apply(delta -> delta.changed(client, ClientField.POSITION.mask()));
+            } else {
+                final Client client = clients.get(random.nextInt(clients.size()));
+                if (!matching.remove(client)) {
+                    matching.add(client);
+                }
+                sut.refilter();
+            }
+
+            Assertions.assertTrue(sut.grid().getGeneration() > generation);
+            generation = sut.grid().getGeneration();
+        }
+
+        final int[] all = new int[TrafficDensity.COLUMNS * TrafficDensity.ROWS];
+        final int[] filtered = new int[TrafficDensity.COLUMNS * TrafficDensity.ROWS];
+        for (final Client client : clients) {
+            if (client instanceof Pilot && ((Pilot) client).getPosition() != null) {
+                final int cell = TrafficDensity.cell(((Pilot) client).getPosition());
+                all[cell] += 1;
+                if (matching.contains(client)) {
+                    filtered[cell] += 1;
+                }
+            }
+        }
+
+        final Set<Integer> mismatches = new HashSet<>();
+        for (int cell = 0; cell < all.length; cell++) {
+            if (all[cell] != sut.grid().count(cell, false) || filtered[cell] != sut.grid().count(cell, true)) {
+                mismatches.add(cell);
+            }
+        }
+        Assertions.assertEquals(Set.of(), mismatches);
+    }
+
+    private void apply(final Consumer<ClientDelta.Builder> changes) {
+        final ClientDelta.Builder delta = new ClientDelta.Builder();
+        changes.accept(delta);
+        sut.apply(delta.build());
+    }
+
+    private Pilot randomPilot() {
+        // some pilots don't report a position
+        return random.nextInt(10) == 0 ? pilot(Double.NaN, Double.NaN) : pilot(randomLatitude(), randomLongitude());
+    }
+
+    private double randomLatitude() {
+        return random.nextDouble() * 180 - 90;
+    }
+
+    private double randomLongitude() {
+        return random.nextDouble() * 360 - 180;
+    }
+
+    private static Pilot pilot(final double latitude, final double longitude) {
+        final Pilot result = new Pilot();
+        move(result, latitude, longitude);
+        return result;
+    }
+
+    private static void move(final Pilot pilot, final double latitude, final double longitude) {
+        final ClientUpdate update = new ClientUpdate(ClientType.PILOT);
+        update.latitude = latitude;
+        update.longitude = longitude;
+        pilot.setFromModel(update);
+    }
+}
@@ -0,0 +1,101 @@
+package net.marvk.fs.vatsim.map.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class DefaultTaskExecutorsTest {
+    private DefaultTaskExecutors sut;
+
+    @BeforeEach
+    void setup() {
+        sut = new DefaultTaskExecutors();
+    }
+
+    @AfterEach
+    void teardown() {
+        sut.shutdown();
+    }
+
+    @Test
+    void testQueueDepthAndCompletedTasks() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final int tasks = 20;
+
+        final Future<?>[] futures = new Future<?>[tasks];
+        for (int i = 0; i < tasks; i++) {
+            futures[i] = sut.io().submit(() -> {
+                release.await();
+                return null;
+            });
+        }
+
+        final TaskMetrics.Snapshot blocked = ioSnapshot();
+        Assertions.assertTrue(blocked.getQueueDepth() > 0, blocked.toString());
+
+        release.countDown();
+        for (final Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        final TaskMetrics.Snapshot done = awaitCompleted(tasks);
+        Assertions.assertEquals(0, done.getQueueDepth());
+        Assertions.assertEquals(tasks, done.getCompleted());
+        Assertions.assertTrue(done.getMaxLatencyNanos() > 0);
+    }
+
+    @Test
+    void testScheduledTaskLatencyIsMeasuredFromDueTime() throws Exception {
+        final CountDownLatch ran = new CountDownLatch(1);
+        sut.scheduled().schedule(ran::countDown, 50, TimeUnit.MILLISECONDS);
+
+        Assertions.assertTrue(ran.await(5, TimeUnit.SECONDS));
+
+        final TaskMetrics.Snapshot snapshot = sut
+                .snapshot()
+                .stream()
+                .filter(e -> "Scheduled".equals(e.getName()))
+                .findFirst()
+                .orElseThrow();
+
+        // the delay itself is not latency
+        Assertions.assertTrue(snapshot.getMaxLatencyNanos() < TimeUnit.MILLISECONDS.toNanos(50), snapshot.toString());
+    }
+
+    @Test
+    void testShutdownRejectsTasks() {
+        sut.shutdown();
+
+        Assertions.assertTrue(sut.io().isShutdown());
+        Assertions.assertTrue(sut.cpu().isShutdown());
+        Assertions.assertTrue(sut.scheduled().isShutdown());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> sut.cpu().execute(() -> {
+        }));
+    }
+
+    private TaskMetrics.Snapshot awaitCompleted(final int tasks) throws InterruptedException {
+        // futures complete before afterExecute records the task
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TaskMetrics.Snapshot result = ioSnapshot();
+        while (result.getCompleted() < tasks && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            result = ioSnapshot();
+        }
+        return result;
+    }
+
+    private TaskMetrics.Snapshot ioSnapshot() {
+        return sut
+                .snapshot()
+                .stream()
+                .filter(e -> "IO".equals(e.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
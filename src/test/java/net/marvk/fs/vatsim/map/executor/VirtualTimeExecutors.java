@@ -0,0 +1,273 @@
+package net.marvk.fs.vatsim.map.executor;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.*;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Executors running all tasks on the calling thread in virtual time. Nothing runs until {@link #runPending()} or
+ * {@link #advance(Duration)} is called; {@link #io()}, {@link #cpu()} and {@link #scheduled()} share one queue, so
+ * tasks run in the order they are due in, ties broken by submission order.
+ */
+public class VirtualTimeExecutors implements TaskExecutors {
+    private final VirtualScheduler scheduler;
+    private final Clock clock;
+    private final List<TaskMetrics> metrics = new ArrayList<>();
+
+    public VirtualTimeExecutors() {
+        this(Instant.EPOCH);
+    }
+
+    public VirtualTimeExecutors(final Instant start) {
+        this.scheduler = new VirtualScheduler();
+        this.clock = new VirtualClock(start, ZoneOffset.UTC);
+        metrics.add(scheduler.metrics);
+    }
+
+    /**
+     * Runs all tasks that are due without advancing time.
+     */
+    public void runPending() {
+        scheduler.advanceTo(scheduler.now);
+    }
+
+    /**
+     * Advances time by {@code duration}, running all tasks in the order they become due.
+     */
+    public void advance(final Duration duration) {
+        scheduler.advanceTo(scheduler.now + duration.toNanos());
+    }
+
+    /**
+     * @return the number of tasks waiting to run, including tasks that are not due yet
+     */
+    public int queued() {
+        return scheduler.queue.size();
+    }
+
+    @Override
+    public ExecutorService io() {
+        return scheduler;
+    }
+
+    @Override
+    public ExecutorService cpu() {
+        return scheduler;
+    }
+
+    @Override
+    public ScheduledExecutorService scheduled() {
+        return scheduler;
+    }
+
+    @Override
+    public Clock clock() {
+        return clock;
+    }
+
+    @Override
+    public TaskMetrics metrics(final String name, final IntSupplier queueDepth) {
+        final TaskMetrics result = new TaskMetrics(name, queueDepth);
+        metrics.add(result);
+        return result;
+    }
+
+    @Override
+    public List<TaskMetrics.Snapshot> snapshot() {
+        return metrics.stream().map(TaskMetrics::snapshot).collect(Collectors.toList());
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private final class VirtualClock extends Clock {
+        private final Instant start;
+        private final ZoneId zone;
+
+        private VirtualClock(final Instant start, final ZoneId zone) {
+            this.start = start;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return new VirtualClock(start, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return start.plusNanos(scheduler.now);
+        }
+    }
+
+    private static final class VirtualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final PriorityQueue<VirtualTask<?>> queue = new PriorityQueue<>();
+        private final TaskMetrics metrics = new TaskMetrics("Virtual", this::due);
+
+        private long now = 0;
+        private long sequence = 0;
+        private boolean shutdown = false;
+
+        private int due() {
+            return (int) queue.stream().filter(e -> e.time <= now).count();
+        }
+
+        private void advanceTo(final long target) {
+            while (!queue.isEmpty() && queue.peek().time <= target) {
+                final VirtualTask<?> task = queue.poll();
+                now = Math.max(now, task.time);
+                metrics.started(now - task.time);
+                task.run();
+                metrics.completed(0);
+            }
+
+            now = target;
+        }
+
+        private <V> VirtualTask<V> enqueue(final VirtualTask<V> task) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+
+            queue.add(task);
+            return task;
+        }
+
+        private long time(final long delay, final TimeUnit unit) {
+            return now + Math.max(0, unit.toNanos(delay));
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+            return enqueue(new VirtualTask<Void>(command, time(delay, unit), 0));
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay, final TimeUnit unit) {
+            return enqueue(new VirtualTask<>(callable, time(delay, unit)));
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay, final long period, final TimeUnit unit) {
+            if (period <= 0) {
+                throw new IllegalArgumentException();
+            }
+            return enqueue(new VirtualTask<Void>(command, time(initialDelay, unit), unit.toNanos(period)));
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command, final long initialDelay, final long delay, final TimeUnit unit) {
+            if (delay <= 0) {
+                throw new IllegalArgumentException();
+            }
+            return enqueue(new VirtualTask<Void>(command, time(initialDelay, unit), -unit.toNanos(delay)));
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            schedule(command, 0, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            final List<Runnable> result = new ArrayList<>(queue);
+            queue.clear();
+            return result;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && queue.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return isTerminated();
+        }
+
+        private final class VirtualTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+            private final long id = sequence++;
+            /**
+             * Zero for one shot tasks, positive for a fixed rate and negative for a fixed delay.
+             */
+            private final long period;
+            private long time;
+
+            private VirtualTask(final Runnable runnable, final long time, final long period) {
+                super(runnable, null);
+                this.time = time;
+                this.period = period;
+            }
+
+            private VirtualTask(final Callable<V> callable, final long time) {
+                super(callable);
+                this.time = time;
+                this.period = 0;
+            }
+
+            @Override
+            public boolean isPeriodic() {
+                return period != 0;
+            }
+
+            @Override
+            public long getDelay(final TimeUnit unit) {
+                return unit.convert(time - now, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public int compareTo(final Delayed o) {
+                if (o == this) {
+                    return 0;
+                }
+
+                if (o instanceof VirtualTask) {
+                    final VirtualTask<?> other = (VirtualTask<?>) o;
+                    final int result = Long.compare(time, other.time);
+                    return result != 0 ? result : Long.compare(id, other.id);
+                }
+
+                return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void run() {
+                if (!isPeriodic()) {
+                    super.run();
+                } else if (runAndReset() && !shutdown) {
+                    time = period > 0 ? time + period : now - period;
+                    queue.add(this);
+                }
+            }
+
+            @Override
+            public boolean cancel(final boolean mayInterruptIfRunning) {
+                final boolean result = super.cancel(mayInterruptIfRunning);
+                queue.remove(this);
+                return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.marvk.fs.vatsim.map.view.map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FrameMetricsTest {
+    @Test
+    void testKeepsLatestFrames() {
+        final FrameMetrics.Metric sut = new FrameMetrics.Metric("Test", 3);
+
+        for (long i = 1; i <= 5; i++) {
+            sut.append(i);
+        }
+
+        Assertions.assertEquals(3, sut.getCurrentNumberOfFrameTimes());
+        Assertions.assertEquals(3, sut.get(0));
+        Assertions.assertEquals(4, sut.get(1));
+        Assertions.assertEquals(5, sut.get(2));
+        Assertions.assertEquals(5, sut.getLast());
+        Assertions.assertEquals(5, sut.max());
+        Assertions.assertEquals(4, sut.average());
+    }
+
+    @Test
+    void testEmpty() {
+        final FrameMetrics.Metric sut = new FrameMetrics.Metric("Test", 3);
+
+        Assertions.assertTrue(Double.isNaN(sut.getLast()));
+        Assertions.assertEquals(0, sut.max());
+        Assertions.assertEquals(0, sut.average());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> sut.get(0));
+    }
+}
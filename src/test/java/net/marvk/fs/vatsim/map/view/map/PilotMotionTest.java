@@ -0,0 +1,114 @@
+package net.marvk.fs.vatsim.map.view.map;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class PilotMotionTest {
+    private static final double EPSILON = 1e-6;
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void testExtrapolatesAlongMeridian() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(10, 50), 0, 600, 0, 0);
+
+        sut.extrapolate(30 * SECOND);
+
+        // 600 kts for 30 seconds are 5 nm, one nm is one arc minute of latitude
+        Assertions.assertEquals(10, sut.getLongitude(), EPSILON);
+        Assertions.assertEquals(50 + 5 / 60.0, sut.getLatitude(), 1e-4);
+        Assertions.assertTrue(sut.isMoving());
+    }
+
+    @Test
+    void testFollowsGreatCircle() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(0, 60), 90, 600, 0, 0);
+
+        sut.extrapolate(30 * SECOND);
+
+        // a great circle starting due east curves towards the equator, a degree of longitude at 60 degrees north is 30 nm
+        Assertions.assertEquals(5 / 30.0, sut.getLongitude(), 1e-3);
+        Assertions.assertTrue(sut.getLatitude() < 60);
+    }
+
+    @Test
+    void testWrapsAroundAntimeridian() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(179.99, 0), 90, 600, 0, 0);
+
+        sut.extrapolate(30 * SECOND);
+
+        Assertions.assertEquals(179.99 + 5 / 60.0 - 360, sut.getLongitude(), 1e-4);
+    }
+
+    @Test
+    void testReportAgeIsExtrapolated() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(10, 50), 0, 600, 30 * SECOND, 0);
+
+        sut.extrapolate(0);
+
+        Assertions.assertEquals(50 + 5 / 60.0, sut.getLatitude(), 1e-4);
+    }
+
+    @Test
+    void testBlendsToNewReport() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(10, 50), 0, 600, 0, 0);
+        sut.extrapolate(15 * SECOND);
+        final double shown = sut.getLatitude();
+
+        // the new report is behind the extrapolated position
+        final Point2D reported = new Point2D(10, 50.1);
+        sut.report(reported, 0, 600, 0, 15 * SECOND);
+        sut.extrapolate(15 * SECOND);
+
+        Assertions.assertEquals(shown, sut.getLatitude(), 1e-9);
+
+        sut.extrapolate(20 * SECOND);
+
+        Assertions.assertEquals(50.1 + 5 * 600 / 3600.0 / 60, sut.getLatitude(), 1e-4);
+    }
+
+    @Test
+    void testLargeCorrectionsAreNotBlended() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(10, 50), 0, 600, 0, 0);
+        sut.extrapolate(SECOND);
+
+        sut.report(new Point2D(20, 50), 0, 600, 0, SECOND);
+        sut.extrapolate(SECOND);
+
+        Assertions.assertEquals(20, sut.getLongitude(), EPSILON);
+        Assertions.assertEquals(50, sut.getLatitude(), EPSILON);
+    }
+
+    @Test
+    void testStopsAfterMaxExtrapolation() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(10, 50), 0, 600, 0, 0);
+
+        sut.extrapolate(60 * SECOND);
+        final double latitude = sut.getLatitude();
+        Assertions.assertFalse(sut.isMoving());
+
+        sut.extrapolate(120 * SECOND);
+        Assertions.assertEquals(latitude, sut.getLatitude(), EPSILON);
+    }
+
+    @Test
+    void testSlowPilotsAreNotExtrapolated() {
+        final PilotMotion.Track sut = new PilotMotion.Track();
+        sut.report(new Point2D(10, 50), 0, 2, 0, 0);
+
+        sut.extrapolate(30 * SECOND);
+
+        Assertions.assertEquals(10, sut.getLongitude(), EPSILON);
+        Assertions.assertEquals(50, sut.getLatitude(), EPSILON);
+        Assertions.assertFalse(sut.isMoving());
+    }
+}
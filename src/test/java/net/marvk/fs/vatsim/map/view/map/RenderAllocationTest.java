@@ -0,0 +1,210 @@
+package net.marvk.fs.vatsim.map.view.map;
+
+import com.sun.management.ThreadMXBean;
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import net.marvk.fs.vatsim.map.GeomUtil;
+import net.marvk.fs.vatsim.map.data.*;
+import net.marvk.fs.vatsim.map.view.painter.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guards the per-frame allocation budget of the render path. A steady-state frame paints land polygons with holes,
+ * clipping and wrap copies, compact polygons, polygon outlines and a great circle through {@link PainterExecutor}s onto
+ * a canvas. It then paints a {@link RenderSnapshot} of the test airports and boundaries and of moving pilots through
+ * the production painters, with their labels, and runs the bookkeeping around painting: painter metrics and frame
+ * metrics.
+ * <p>
+ * The canvas is never shown, clearing it at the start of every frame drops the recorded commands like rendering it
+ * would.
+ */
+class RenderAllocationTest {
+    private static final int PILOTS = 2000;
+    private static final int WARM_UP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 2_000;
+    /**
+     * Generous enough to absorb the measurement itself, small enough to catch a single object per pilot, polygon or
+     * painter.
+     */
+    private static final long BYTES_PER_FRAME_BUDGET = 256;
+    private static final long FRAME_NANOS = Duration.ofMillis(100).toNanos();
+
+    @Test
+    void testSteadyStateFrameStaysWithinAllocationBudget() throws IOException {
+        final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        final Frame frame = new Frame();
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            frame.render();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            frame.render();
+        }
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        final long perFrame = allocated / MEASURED_FRAMES;
+        Assertions.assertTrue(
+                perFrame <= BYTES_PER_FRAME_BUDGET,
+                "Allocated %d bytes per frame, budget is %d".formatted(perFrame, BYTES_PER_FRAME_BUDGET)
+        );
+        // keeps the work from being optimized away and makes sure the polygons were actually painted
+        Assertions.assertTrue(frame.visible > 0);
+        Assertions.assertTrue(frame.frameMetric.getFillPolygon().getCount() > 0);
+        Assertions.assertTrue(frame.frameMetric.getStrokePolygon().getCount() > 0);
+        Assertions.assertTrue(frame.frameMetric.getStrokePolyline().getCount() > 0);
+        Assertions.assertTrue(frame.frameMetric.getVerticesOut().getCount() > 0);
+        Assertions.assertTrue(frame.frameMetric.getFillText().getCount() > 0);
+    }
+
+    /**
+     * Approximates an ellipse with {@code n} points, as {@code {xs, ys}}.
+     */
+    private static double[][] ellipse(final double centerX, final double centerY, final double radiusX, final double radiusY, final int n) {
+        final double[] xs = new double[n];
+        final double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            final double angle = 2 * Math.PI * i / n;
+            xs[i] = centerX + radiusX * Math.cos(angle);
+            ys[i] = centerY + radiusY * Math.sin(angle);
+        }
+        return new double[][]{xs, ys};
+    }
+
+    private static Polygon polygon(final double[][]... rings) {
+        return new Polygon(List.of(rings), (e, i) -> e[0][i], (e, i) -> e[1][i], e -> e[0].length);
+    }
+
+    private static final class Frame {
+        private final MapVariables mapVariables = new MapVariables();
+        private final PilotMotion pilotMotion = new PilotMotion();
+        private final GraphicsContext c;
+        private final List<PainterExecutor<?>> painterExecutors = new ArrayList<>();
+        private final PainterMetric frameMetric = new PainterMetric();
+        private final FrameMetrics frameMetrics;
+
+        private long nanoTime = 0;
+        private long visible = 0;
+
+        private Frame() throws IOException {
+            mapVariables.setViewSize(1920, 1080);
+            mapVariables.setScale(4);
+            mapVariables.setWorldCenter(-10, -45);
+
+            c = new Canvas(mapVariables.getViewWidth(), mapVariables.getViewHeight()).getGraphicsContext2D();
+
+            final TestRenderSnapshots data = new TestRenderSnapshots();
+
+            final List<Pilot> pilots = new ArrayList<>();
+            for (int i = 0; i < PILOTS; i++) {
+                // on a grid over the view, so most of them are painted with labels
+                pilots.add(TestRenderSnapshots.pilot("PLT%d".formatted(i), 25 + (i / 80) * 1.5, -30 + (i % 80), i * 37 % 360, 100 + i % 400));
+            }
+
+            for (int i = 0; i < data.getAirports().size(); i += 10) {
+                final Airport airport = data.getAirports().get(i);
+                TestRenderSnapshots.control(airport, ControllerType.TWR);
+                TestRenderSnapshots.control(airport, ControllerType.GND);
+                TestRenderSnapshots.control(airport, ControllerType.APP);
+            }
+
+            for (int i = 0; i < data.getFirbs().size(); i += 4) {
+                TestRenderSnapshots.control(data.getFirbs().get(i));
+            }
+
+            mapVariables.setRenderSnapshot(data.snapshot(pilots));
+
+            // the view is centered on 10E 45N, the world center is negated
+            // larger than the view, so it is clipped, with a lake that is partly visible
+            final Polygon land = polygon(ellipse(10, 45, 120, 60, 2000), ellipse(50, 50, 20, 10, 500));
+            // east of the antimeridian in world coordinates, only its wrap copy is visible
+            final Polygon islands = polygon(ellipse(340, 45, 25, 10, 300));
+            final List<Polygon> polygons = List.of(land, land.compact(), islands, islands.compact());
+
+            painterExecutors.add(PainterExecutor.ofCollection("Land", new WorldPainter(mapVariables, Color.GREEN), () -> polygons));
+            painterExecutors.add(PainterExecutor.ofCollection("Outlines", new OutlinePainter(mapVariables), () -> polygons));
+            painterExecutors.add(PainterExecutor.of("Great Circle", new GreatCirclePainter(mapVariables)));
+            painterExecutors.add(PainterExecutor.ofCollection("Active Firs", new ActiveFirbPainter(mapVariables), data::getFirbs));
+            painterExecutors.add(PainterExecutor.ofCollection("Airports", new AirportPainter(mapVariables), data::getAirports));
+            painterExecutors.add(PainterExecutor.ofCollection("Pilots", new PilotPainter(mapVariables, pilotMotion), mapVariables.getRenderSnapshot()::getPilots));
+
+            final List<String> names = new ArrayList<>();
+            names.add("Total");
+            for (final PainterExecutor<?> painterExecutor : painterExecutors) {
+                names.add(painterExecutor.getName());
+            }
+            frameMetrics = new FrameMetrics(names, 250);
+        }
+
+        private void render() {
+            nanoTime += FRAME_NANOS;
+            pilotMotion.beginFrame(nanoTime, true);
+
+            c.clearRect(0, 0, mapVariables.getViewWidth(), mapVariables.getViewHeight());
+
+            frameMetric.reset();
+            long total = 0;
+            for (int i = 0; i < painterExecutors.size(); i++) {
+                final PainterExecutor<?> painterExecutor = painterExecutors.get(i);
+                painterExecutor.paint(c);
+                frameMetric.add(painterExecutor.getLastPainterMetric());
+                frameMetrics.getMetric(painterExecutor.getName()).append(painterExecutor.getLastDurationNanos());
+                total += painterExecutor.getLastDurationNanos();
+            }
+            frameMetrics.getMetric("Total").append(total);
+
+            final List<FrameMetrics.Metric> metrics = frameMetrics.getMetrics();
+            for (int i = 0; i < metrics.size(); i++) {
+                final FrameMetrics.Metric metric = metrics.get(i);
+                visible += metric.max() > 0 && metric.average() > 0 ? 1 : 0;
+            }
+        }
+    }
+
+    private static final class OutlinePainter extends MapPainter<Polygon> {
+        private OutlinePainter(final MapVariables mapVariables) {
+            super(mapVariables);
+        }
+
+        @Override
+        public void paint(final GraphicsContext c, final Polygon polygon) {
+            c.setStroke(Color.BLACK);
+            c.setLineWidth(1);
+            painterHelper.strokePolygons(c, polygon);
+        }
+    }
+
+    private static final class GreatCirclePainter extends MapPainter<Void> {
+        private final Point2D origin = new Point2D(8.57, 50.03);
+        private final Point2D destination = new Point2D(-73.78, 40.64);
+        private final double[] xs = new double[51];
+        private final double[] ys = new double[51];
+
+        private GreatCirclePainter(final MapVariables mapVariables) {
+            super(mapVariables);
+        }
+
+        @Override
+        public void paint(final GraphicsContext c, final Void unused) {
+            GeomUtil.greatCirclePolyline(origin, destination, xs, ys);
+
+            c.setStroke(Color.RED);
+            c.setLineWidth(1);
+            painterHelper.strokePolyline(c, xs, ys, xs.length);
+        }
+    }
+}
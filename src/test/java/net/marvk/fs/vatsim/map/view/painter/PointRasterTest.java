@@ -0,0 +1,72 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PointRasterTest {
+    private static final int COLOR = PointRaster.argb(Color.RED);
+
+    private final PointRaster sut = new PointRaster();
+
+    @Test
+    void testStrokeSquareIsClippedToTheImage() {
+        sut.begin(10, 10);
+
+        sut.strokeSquare(-2, -2, 5, COLOR);
+        sut.strokeSquare(10, 0, 3, COLOR);
+        sut.strokeSquare(0, -3, 3, COLOR);
+
+        Assertions.assertEquals(1, sut.getNumMarkers());
+        Assertions.assertEquals(COLOR, sut.getPixel(2, 0));
+        Assertions.assertEquals(COLOR, sut.getPixel(2, 2));
+        Assertions.assertEquals(COLOR, sut.getPixel(0, 2));
+        Assertions.assertEquals(0, sut.getPixel(1, 1));
+        Assertions.assertEquals(0, sut.getPixel(3, 0));
+        Assertions.assertEquals(0, sut.getPixel(0, 3));
+    }
+
+    @Test
+    void testBeginClearsTheMarkersOfTheLastFrame() {
+        sut.begin(10, 10);
+        sut.strokeSquare(1, 1, 3, COLOR);
+        sut.strokeSquare(8, 8, 3, COLOR);
+
+        sut.begin(10, 10);
+
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                Assertions.assertEquals(0, sut.getPixel(x, y), "%d, %d".formatted(x, y));
+            }
+        }
+        Assertions.assertEquals(0, sut.getNumMarkers());
+    }
+
+    @Test
+    void testDirtyRegionIsTheUnionOfClearedAndWrittenMarkers() {
+        sut.begin(10, 10);
+        Assertions.assertEquals(new Rectangle2D(0, 0, 10, 10), sut.dirtyRegion(), "a new image is dirty as a whole");
+
+        sut.begin(10, 10);
+        Assertions.assertEquals(Rectangle2D.EMPTY, sut.dirtyRegion());
+
+        sut.strokeSquare(1, 1, 3, COLOR);
+        Assertions.assertEquals(new Rectangle2D(1, 1, 3, 3), sut.dirtyRegion());
+
+        sut.begin(10, 10);
+        sut.strokeSquare(6, 5, 3, COLOR);
+        Assertions.assertEquals(new Rectangle2D(1, 1, 8, 7), sut.dirtyRegion());
+
+        sut.begin(10, 10);
+        sut.strokeSquare(8, -1, 4, COLOR);
+        Assertions.assertEquals(new Rectangle2D(6, 0, 4, 8), sut.dirtyRegion());
+
+        sut.begin(10, 10);
+        sut.begin(10, 10);
+        Assertions.assertEquals(Rectangle2D.EMPTY, sut.dirtyRegion());
+
+        sut.begin(20, 10);
+        Assertions.assertEquals(new Rectangle2D(0, 0, 20, 10), sut.dirtyRegion());
+    }
+}
@@ -0,0 +1,76 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PolygonClipperTest {
+    private final PolygonClipper sut = new PolygonClipper();
+
+    @Test
+    void testContainedRingIsUnchanged() {
+        final int n = sut.clip(new double[]{1, 2, 2, 1}, new double[]{1, 1, 2, 2}, 4, 0, 0, 10, 10);
+
+        Assertions.assertEquals(4, n);
+        Assertions.assertEquals(1, area(n), 1e-9);
+    }
+
+    @Test
+    void testPartiallyContainedRing() {
+        final int n = sut.clip(new double[]{-5, 5, 5, -5}, new double[]{-5, -5, 5, 5}, 4, 0, 0, 10, 10);
+
+        Assertions.assertEquals(25, area(n), 1e-9);
+        assertInside(n, 0, 0, 10, 10);
+    }
+
+    @Test
+    void testEnclosingRingBecomesRectangle() {
+        final int n = sut.clip(new double[]{-50, 50, 50, -50}, new double[]{-50, -50, 50, 50}, 4, 0, 0, 10, 10);
+
+        Assertions.assertEquals(4, n);
+        Assertions.assertEquals(100, area(n), 1e-9);
+    }
+
+    @Test
+    void testDisjointRingIsEmpty() {
+        final int n = sut.clip(new double[]{20, 30, 30, 20}, new double[]{20, 20, 30, 30}, 4, 0, 0, 10, 10);
+
+        Assertions.assertEquals(0, n);
+    }
+
+    @Test
+    void testOutputIsBoundedByVisibleVertices() {
+        final int vertices = 100_000;
+        final double[] xs = new double[vertices];
+        final double[] ys = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            final double angle = 2 * Math.PI * i / vertices;
+            xs[i] = 100 * Math.cos(angle);
+            ys[i] = 100 * Math.sin(angle);
+        }
+
+        // a small window on the edge of a large circle
+        final int n = sut.clip(xs, ys, vertices, 95, -5, 105, 5);
+
+        Assertions.assertTrue(n < vertices / 50, "Clipped to %d vertices".formatted(n));
+        assertInside(n, 95, -5, 105, 5);
+    }
+
+    private double area(final int n) {
+        final double[] xs = sut.getXs();
+        final double[] ys = sut.getYs();
+
+        double result = 0;
+        for (int i = 0; i < n; i++) {
+            final int j = (i + 1) % n;
+            result += xs[i] * ys[j] - xs[j] * ys[i];
+        }
+        return Math.abs(result) / 2;
+    }
+
+    private void assertInside(final int n, final double minX, final double minY, final double maxX, final double maxY) {
+        for (int i = 0; i < n; i++) {
+            Assertions.assertTrue(sut.getXs()[i] >= minX && sut.getXs()[i] <= maxX);
+            Assertions.assertTrue(sut.getYs()[i] >= minY && sut.getYs()[i] <= maxY);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package net.marvk.fs.vatsim.map.view.painter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SeparableBlurTest {
+    private final SeparableBlur sut = new SeparableBlur();
+
+    @Test
+    void testBlurPreservesSumAwayFromPoles() {
+        final float[] values = new float[20 * 10];
+        values[5 * 20 + 10] = 100;
+
+        sut.blur(values, 20, 10, 2);
+
+        Assertions.assertEquals(100, sum(values), 1e-3);
+        Assertions.assertTrue(values[5 * 20 + 10] < 100);
+        Assertions.assertEquals(values[5 * 20 + 9], values[5 * 20 + 11], 1e-6);
+        Assertions.assertEquals(values[4 * 20 + 10], values[6 * 20 + 10], 1e-6);
+    }
+
+    @Test
+    void testRowsWrapAround() {
+        final float[] values = new float[20 * 10];
+        values[5 * 20] = 100;
+
+        sut.blur(values, 20, 10, 2);
+
+        Assertions.assertEquals(values[5 * 20 + 1], values[5 * 20 + 19], 1e-6);
+        Assertions.assertTrue(values[5 * 20 + 19] > 0);
+    }
+
+    @Test
+    void testZeroRadiusIsIdentity() {
+        final float[] values = {1, 2, 3, 4};
+
+        sut.blur(values, 2, 2, 0);
+
+        Assertions.assertArrayEquals(new float[]{1, 2, 3, 4}, values);
+    }
+
+    private static double sum(final float[] values) {
+        double result = 0;
+        for (final float value : values) {
+            result += value;
+        }
+        return result;
+    }
+}